@@ -149,9 +149,11 @@ export const chat = {
       body: JSON.stringify({ question, documentIds, conversationId }),
     }),
 
-  listConversations: () => json('/chat/conversations'),
+  listConversations: (cursor = null) =>
+    json(`/chat/conversations${cursor ? `?cursor=${encodeURIComponent(cursor)}` : ''}`),
 
-  getConversation: (id) => json(`/chat/conversations/${id}`),
+  getConversation: (id, cursor = null) =>
+    json(`/chat/conversations/${id}${cursor ? `?cursor=${encodeURIComponent(cursor)}` : ''}`),
 
   deleteConversation: (id) =>
     json(`/chat/conversations/${id}`, { method: 'DELETE' }),
@@ -48,7 +48,9 @@ export default function ChatMessage({ role, content, sources }) {
                         {i + 1}
                       </span>
                       <span className="truncate">{src.documentName}</span>
-                      <span className="text-gray-400">Chunk {src.chunkIndex}</span>
+                      <span className="text-gray-400">
+                        {src.lastChunkIndex != null ? `Chunks ${src.chunkIndex}–${src.lastChunkIndex}` : `Chunk ${src.chunkIndex}`}
+                      </span>
                       {src.similarityScore && (
                         <span className="ml-auto badge bg-emerald-100 text-emerald-700">
                           {(src.similarityScore * 100).toFixed(0)}% match
@@ -21,7 +21,9 @@ export default function ChatPage() {
 
   // State
   const [conversations, setConversations] = useState([]);
+  const [conversationsCursor, setConversationsCursor] = useState(null);
   const [messages, setMessages] = useState([]);
+  const [olderMessagesCursor, setOlderMessagesCursor] = useState(null);
   const [question, setQuestion] = useState('');
   const [sending, setSending] = useState(false);
   const [docs, setDocs] = useState([]);
@@ -33,14 +35,30 @@ export default function ChatPage() {
   const messagesEndRef = useRef(null);
   const inputRef = useRef(null);
 
-  // Fetch conversations list
+  // Fetch conversations list (first page)
   const fetchConversations = useCallback(async () => {
     try {
       const data = await chatApi.listConversations();
-      setConversations(data);
+      setConversations(data.items);
+      setConversationsCursor(data.nextCursor);
     } catch { /* ignore */ }
   }, []);
 
+  const loadMoreConversations = async () => {
+    try {
+      const data = await chatApi.listConversations(conversationsCursor);
+      setConversations((prev) => [...prev, ...data.items]);
+      setConversationsCursor(data.nextCursor);
+    } catch { /* ignore */ }
+  };
+
+  const toMessages = (data) =>
+    data.messages.map((m) => ({
+      role: m.role,
+      content: m.content,
+      sources: m.sources || null,
+    }));
+
   // Fetch available documents
   useEffect(() => {
     docsApi.list().then((data) => {
@@ -62,26 +80,31 @@ export default function ChatPage() {
   useEffect(() => {
     if (!conversationId) {
       setMessages([]);
+      setOlderMessagesCursor(null);
       return;
     }
     setLoadingConvo(true);
     chatApi
       .getConversation(conversationId)
       .then((data) => {
-        setMessages(
-          data.messages.map((m) => ({
-            role: m.role,
-            content: m.content,
-            sources: m.sources || null,
-          }))
-        );
+        setMessages(toMessages(data));
+        setOlderMessagesCursor(data.nextCursor);
       })
       .catch(() => {
         setMessages([]);
+        setOlderMessagesCursor(null);
         navigate('/chat');
       })
       .finally(() => setLoadingConvo(false));
-  }, [conversationId, navigate]);
+  }, [conversationId, navigate]); // eslint-disable-line react-hooks/exhaustive-deps
+
+  const loadOlderMessages = async () => {
+    try {
+      const data = await chatApi.getConversation(conversationId, olderMessagesCursor);
+      setMessages((prev) => [...toMessages(data), ...prev]);
+      setOlderMessagesCursor(data.nextCursor);
+    } catch { /* ignore */ }
+  };
 
   // Scroll to bottom on new messages
   useEffect(() => {
@@ -201,6 +224,14 @@ export default function ChatPage() {
               </div>
             ))
           )}
+          {conversationsCursor && (
+            <button
+              onClick={loadMoreConversations}
+              className="w-full rounded-lg px-3 py-2 text-xs text-gray-500 hover:bg-gray-100"
+            >
+              Load more
+            </button>
+          )}
         </div>
       </div>
 
@@ -233,6 +264,16 @@ export default function ChatPage() {
             </div>
           ) : (
             <>
+              {olderMessagesCursor && (
+                <div className="flex justify-center">
+                  <button
+                    onClick={loadOlderMessages}
+                    className="rounded-lg px-3 py-1.5 text-xs text-gray-500 hover:bg-gray-100"
+                  >
+                    Load earlier messages
+                  </button>
+                </div>
+              )}
               {messages.map((msg, i) => (
                 <ChatMessage key={i} {...msg} />
               ))}
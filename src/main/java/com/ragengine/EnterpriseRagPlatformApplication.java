@@ -3,12 +3,14 @@ package com.ragengine;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
         org.springframework.ai.autoconfigure.openai.OpenAiAutoConfiguration.class,
         org.springframework.ai.autoconfigure.ollama.OllamaAutoConfiguration.class
 })
 @EnableAsync
+@EnableScheduling
 public class EnterpriseRagPlatformApplication {
 
     public static void main(String[] args) {
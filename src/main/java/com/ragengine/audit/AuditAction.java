@@ -23,6 +23,7 @@ public final class AuditAction {
 
     // Chat
     public static final String CHAT_QUERY = "CHAT_QUERY";
+    public static final String CHAT_BATCH = "CHAT_BATCH";
     public static final String CONVERSATION_DELETE = "CONVERSATION_DELETE";
 
     // API Keys
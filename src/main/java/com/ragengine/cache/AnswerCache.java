@@ -0,0 +1,282 @@
+package com.ragengine.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.domain.entity.Document;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Exact-match cache of chat answers, for clients that send the same question against
+ * the same documents again and again (dashboards, scheduled reports).
+ *
+ * The key hashes the tenant, the normalized question, the sorted document IDs with a
+ * version stamp per document (last update and index generation), the chat model and
+ * the system prompt. Any change to a document therefore changes the key, so a stale
+ * answer can never be served; {@link #invalidateDocument(UUID)} additionally frees the
+ * affected entries right away.
+ *
+ * Entries live on the heap in access order and are evicted least recently used first
+ * once their estimated size exceeds {@code rag.answer-cache.max-size-mb}. If
+ * {@code rag.answer-cache.persist-file} is set, the cache is written there on shutdown
+ * and reloaded on startup.
+ */
+@Component
+@Slf4j
+public class AnswerCache implements InitializingBean {
+
+    private static final int COMPRESSION_LEVEL = 3;
+
+    /** Rough per-entry overhead of the map, key and record objects */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final AnswerCacheConfig config;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    /** key -> entry, in access order (eldest first) */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** document ID -> keys of the entries that were answered from it */
+    private final Map<UUID, Set<String>> keysByDocument = new HashMap<>();
+    private long totalBytes;
+
+    public AnswerCache(AnswerCacheConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("rag.chat.answer.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("rag.chat.answer.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("rag.chat.answer.cache.size", this, cache -> cache.sizeInBytes())
+                .description("Estimated heap taken by cached answers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache key of a question, with the documents it was asked against.
+     */
+    public record Key(String hash, Set<UUID> documentIds) {}
+
+    /**
+     * A cached answer with the citations it was given.
+     */
+    public record Entry(String answer, List<ChatResponse.Source> sources, Set<UUID> documentIds) {}
+
+    private record Stored(String key, Entry entry) {}
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Computes the cache key of a question asked against the given documents.
+     *
+     * @param documents the documents in scope, as loaded for validation
+     */
+    public Key key(UUID tenantId, String question, List<Document> documents, String model, String systemPrompt) {
+        StringBuilder key = new StringBuilder()
+                .append(tenantId).append('\n')
+                .append(normalize(question)).append('\n')
+                .append(model).append('\n')
+                .append(sha256(systemPrompt)).append('\n');
+        documents.stream()
+                .sorted(Comparator.comparing(Document::getId))
+                .forEach(doc -> key.append(doc.getId())
+                        .append('@').append(doc.getUpdatedAt())
+                        .append('/').append(doc.getIndexGeneration())
+                        .append('\n'));
+        Set<UUID> documentIds = new HashSet<>();
+        documents.forEach(doc -> documentIds.add(doc.getId()));
+        return new Key(sha256(key.toString()), Set.copyOf(documentIds));
+    }
+
+    /**
+     * Looks up a cached answer.
+     */
+    public Optional<Entry> get(Key key) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key.hash());
+        }
+        (entry != null ? hits : misses).increment();
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Stores an answer, evicting least recently used entries if the cache is full.
+     */
+    public void put(Key key, String answer, List<ChatResponse.Source> sources) {
+        if (!config.isEnabled() || answer == null || answer.isBlank()) {
+            return;
+        }
+        store(key.hash(), new Entry(answer, List.copyOf(sources), key.documentIds()));
+        evictIfNeeded();
+    }
+
+    /**
+     * Drops every answer given against the document. Called whenever the document changes.
+     */
+    public void invalidateDocument(UUID documentId) {
+        int removed = 0;
+        synchronized (this) {
+            Set<String> keys = keysByDocument.remove(documentId);
+            if (keys != null) {
+                for (String key : keys) {
+                    removed += remove(key) ? 1 : 0;
+                }
+            }
+        }
+        if (removed > 0) {
+            log.debug("Invalidated {} cached answers for document {}", removed, documentId);
+        }
+    }
+
+    synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    private synchronized void store(String key, Entry entry) {
+        remove(key);
+        entries.put(key, entry);
+        totalBytes += weigh(entry);
+        entry.documentIds().forEach(id -> keysByDocument.computeIfAbsent(id, k -> new HashSet<>()).add(key));
+    }
+
+    private synchronized boolean remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        totalBytes -= weigh(entry);
+        for (UUID id : entry.documentIds()) {
+            Set<String> keys = keysByDocument.get(id);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByDocument.remove(id);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void evictIfNeeded() {
+        long maxBytes = config.getMaxSizeMb() * 1024 * 1024;
+        int evicted = 0;
+        synchronized (this) {
+            while (totalBytes > maxBytes && !entries.isEmpty()) {
+                remove(entries.keySet().iterator().next());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} cached answers", evicted);
+        }
+    }
+
+    /**
+     * Estimated heap size of an entry: two bytes per character plus fixed overhead.
+     */
+    private static long weigh(Entry entry) {
+        long chars = entry.answer().length();
+        for (ChatResponse.Source source : entry.sources()) {
+            chars += (source.documentName() != null ? source.documentName().length() : 0)
+                    + (source.chunkContent() != null ? source.chunkContent().length() : 0);
+        }
+        return 2 * chars + ENTRY_OVERHEAD * (1L + entry.sources().size());
+    }
+
+    /**
+     * Unicode-normalizes, lower-cases and collapses whitespace, so trivially different
+     * spellings of the same question share an entry.
+     */
+    static String normalize(String question) {
+        return Normalizer.normalize(question, Normalizer.Form.NFKC)
+                .strip()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha256(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(
+                    (text != null ? text : "").getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Reloads the cache written on the last shutdown, oldest access first.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!config.isEnabled() || config.getPersistFile().isBlank()) {
+            return;
+        }
+        Path file = Paths.get(config.getPersistFile());
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            byte[] compressed = Files.readAllBytes(file);
+            byte[] json = Zstd.decompress(compressed, (int) Zstd.getFrameContentSize(compressed));
+            List<Stored> stored = objectMapper.readValue(json, new TypeReference<>() {});
+            stored.forEach(s -> store(s.key(), s.entry()));
+            evictIfNeeded();
+            log.info("Answer cache loaded from {}: {} entries, {} KB", file, stored.size(), sizeInBytes() / 1024);
+        } catch (IOException | RuntimeException e) {
+            // The cache is an optimization — start empty rather than fail
+            log.warn("Could not load answer cache from {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the cache to {@code rag.answer-cache.persist-file}, if set.
+     */
+    @PreDestroy
+    void persist() {
+        if (!config.isEnabled() || config.getPersistFile().isBlank()) {
+            return;
+        }
+        Path file = Paths.get(config.getPersistFile()).toAbsolutePath();
+        List<Stored> stored;
+        synchronized (this) {
+            stored = entries.entrySet().stream()
+                    .map(e -> new Stored(e.getKey(), e.getValue()))
+                    .toList();
+        }
+        try {
+            byte[] compressed = Zstd.compress(objectMapper.writeValueAsBytes(stored), COMPRESSION_LEVEL);
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(tmp, compressed);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Answer cache written to {}: {} entries", file, stored.size());
+        } catch (IOException e) {
+            log.warn("Could not write answer cache to {}: {}", file, e.getMessage());
+        }
+    }
+}
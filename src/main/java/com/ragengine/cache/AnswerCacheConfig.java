@@ -0,0 +1,36 @@
+package com.ragengine.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the exact-match chat answer cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.answer-cache")
+@Getter
+@Setter
+public class AnswerCacheConfig {
+
+    /**
+     * Whether answers to identical first questions are served from the cache.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether identical first questions arriving while one is being answered share its generation.
+     */
+    private boolean coalesce = true;
+
+    /**
+     * Maximum estimated heap taken by cached answers; least recently used entries are evicted beyond it.
+     */
+    private long maxSizeMb = 64;
+
+    /**
+     * File the cache is written to on shutdown and reloaded from on startup; empty keeps it in memory only.
+     */
+    private String persistFile = "";
+}
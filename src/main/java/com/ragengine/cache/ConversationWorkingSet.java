@@ -0,0 +1,221 @@
+package com.ragengine.cache;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import com.ragengine.vectorstore.QueryEmbeddingSearch.EmbeddedChunk;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Chunks retrieved earlier in each conversation, with their embeddings, so follow-up
+ * questions ("and what about section 4?") can often be answered from them without
+ * another vector search.
+ *
+ * A follow-up's query embedding is scored against the conversation's remembered chunks
+ * of the documents in scope. If the best of them reaches the threshold of the embedding
+ * model the query was embedded with ({@code rag.chat.working-set.min-scores}), the top-k of them are used as the retrieval result; otherwise the caller searches the
+ * index and remembers what it found. Each conversation keeps its
+ * {@code max-chunks-per-conversation} most recently retrieved chunks.
+ *
+ * Working sets live on the heap in access order and are evicted least recently used
+ * first once their estimated size exceeds {@code rag.chat.working-set.max-size-mb}.
+ * {@link #invalidateDocument(UUID)} drops the chunks of a document that changed.
+ */
+@Component
+@Slf4j
+public class ConversationWorkingSet {
+
+    /** Rough per-chunk overhead of the map, document and metadata objects */
+    private static final int CHUNK_OVERHEAD = 512;
+
+    private final WorkingSetConfig config;
+    private final QueryEmbeddingSearch querySearch;
+    private final Counter hits;
+    private final Counter misses;
+
+    /** conversation ID -> working set, in access order (eldest first) */
+    private final LinkedHashMap<UUID, WorkingSet> sets = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ConversationWorkingSet(WorkingSetConfig config, QueryEmbeddingSearch querySearch,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.querySearch = querySearch;
+        this.hits = Counter.builder("rag.chat.working-set").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("rag.chat.working-set").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("rag.chat.working-set.size", this, workingSet -> workingSet.sizeInBytes())
+                .description("Estimated heap taken by conversation working sets")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remembered chunks of one conversation, oldest retrieval first.
+     */
+    private static final class WorkingSet {
+        private final UUID tenantId;
+        private final LinkedHashMap<String, EmbeddedChunk> chunks = new LinkedHashMap<>();
+
+        private WorkingSet(UUID tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Ranks the conversation's remembered chunks of the given documents by similarity
+     * to the query.
+     *
+     * @return the top-k chunks, scored against this query, if the best reaches the
+     *         minimum score; empty if the index should be searched instead
+     */
+    public Optional<List<Document>> search(UUID conversationId, UUID tenantId, float[] queryEmbedding,
+                                           Collection<UUID> documentIds, int topK) {
+        List<EmbeddedChunk> candidates;
+        synchronized (this) {
+            WorkingSet set = sets.get(conversationId);
+            candidates = set != null && set.tenantId.equals(tenantId)
+                    ? List.copyOf(set.chunks.values())
+                    : List.of();
+        }
+
+        Set<String> scope = new HashSet<>();
+        documentIds.forEach(id -> scope.add(id.toString()));
+        List<Map.Entry<EmbeddedChunk, Double>> scored = new ArrayList<>();
+        for (EmbeddedChunk chunk : candidates) {
+            // A reindex may have changed the embedding size since the chunk was remembered
+            if (scope.contains(String.valueOf(chunk.document().getMetadata().get("documentId")))
+                    && chunk.embedding().length == queryEmbedding.length) {
+                scored.add(Map.entry(chunk, cosineSimilarity(queryEmbedding, chunk.embedding())));
+            }
+        }
+        scored.sort(Map.Entry.<EmbeddedChunk, Double>comparingByValue().reversed());
+
+        if (scored.isEmpty() || scored.getFirst().getValue() < minScore(tenantId)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(scored.stream()
+                .limit(topK)
+                .map(entry -> rescore(entry.getKey().document(), entry.getValue()))
+                .toList());
+    }
+
+    private double minScore(UUID tenantId) {
+        return config.getMinScores().getOrDefault(querySearch.queryEmbeddingModel(tenantId),
+                config.getDefaultMinScore());
+    }
+
+    /**
+     * Adds chunks retrieved from the index for a conversation, evicting its oldest
+     * chunks and then least recently used conversations as needed.
+     */
+    public void remember(UUID conversationId, UUID tenantId, List<EmbeddedChunk> chunks) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        synchronized (this) {
+            WorkingSet set = sets.computeIfAbsent(conversationId, id -> new WorkingSet(tenantId));
+            for (EmbeddedChunk chunk : chunks) {
+                if (chunk.embedding() == null) {
+                    continue;
+                }
+                // Re-inserting moves a chunk retrieved again to the newest position
+                removeChunk(set, chunk.document().getId());
+                set.chunks.put(chunk.document().getId(), chunk);
+                totalBytes += weigh(chunk);
+            }
+            while (set.chunks.size() > config.getMaxChunksPerConversation()) {
+                removeChunk(set, set.chunks.keySet().iterator().next());
+            }
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Drops a conversation's working set. Called when the conversation is deleted.
+     */
+    public synchronized void forget(UUID conversationId) {
+        WorkingSet set = sets.remove(conversationId);
+        if (set != null) {
+            set.chunks.values().forEach(chunk -> totalBytes -= weigh(chunk));
+        }
+    }
+
+    /**
+     * Drops every remembered chunk of the document. Called whenever the document changes.
+     */
+    public synchronized void invalidateDocument(UUID documentId) {
+        String id = documentId.toString();
+        for (WorkingSet set : sets.values()) {
+            set.chunks.values().removeIf(chunk -> {
+                boolean stale = id.equals(String.valueOf(chunk.document().getMetadata().get("documentId")));
+                if (stale) {
+                    totalBytes -= weigh(chunk);
+                }
+                return stale;
+            });
+        }
+    }
+
+    synchronized long sizeInBytes() {
+        return totalBytes;
+    }
+
+    private void removeChunk(WorkingSet set, String chunkId) {
+        EmbeddedChunk removed = set.chunks.remove(chunkId);
+        if (removed != null) {
+            totalBytes -= weigh(removed);
+        }
+    }
+
+    private void evictIfNeeded() {
+        long maxBytes = config.getMaxSizeMb() * 1024 * 1024;
+        int evicted = 0;
+        synchronized (this) {
+            while (totalBytes > maxBytes && !sets.isEmpty()) {
+                forget(sets.keySet().iterator().next());
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} conversation working sets", evicted);
+        }
+    }
+
+    /**
+     * A copy of the chunk with its similarity to the current query.
+     */
+    private static Document rescore(Document document, double score) {
+        Map<String, Object> metadata = new HashMap<>(document.getMetadata());
+        metadata.put("distance", 1 - score);
+        return document.mutate().metadata(metadata).score(score).build();
+    }
+
+    static double cosineSimilarity(float[] a, float[] b) {
+        double dot = 0, normA = 0, normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    /**
+     * Estimated heap size of a chunk: four bytes per dimension, two per character, plus fixed overhead.
+     */
+    private static long weigh(EmbeddedChunk chunk) {
+        String text = chunk.document().getText();
+        return 4L * chunk.embedding().length + 2L * (text != null ? text.length() : 0) + CHUNK_OVERHEAD;
+    }
+}
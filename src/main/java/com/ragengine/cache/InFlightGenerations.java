@@ -0,0 +1,82 @@
+package com.ragengine.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight registry of chat generations, keyed by {@link AnswerCache.Key}.
+ *
+ * When a question is shared with a team, many identical requests arrive within
+ * seconds — all before the first answer reaches the {@link AnswerCache}. The first
+ * one starts the generation; the others attach to it instead of calling the model
+ * again, so provider load scales with unique questions rather than request count.
+ *
+ * The shared generation replays every fragment to late joiners, so streaming
+ * subscribers still receive the whole answer. It is cancelled only once every
+ * subscriber has cancelled, and leaves the registry when it terminates.
+ */
+@Component
+@Slf4j
+public class InFlightGenerations {
+
+    private final AnswerCacheConfig config;
+    private final Counter coalesced;
+
+    private final ConcurrentMap<String, Flux<ChatResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public InFlightGenerations(AnswerCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.coalesced = Counter.builder("rag.chat.coalesced")
+                .description("Chat requests that joined an identical in-flight generation")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isCoalesce();
+    }
+
+    /**
+     * Returns the in-flight generation for the key, or starts {@code generation} as
+     * the shared one if there is none.
+     *
+     * @param generation creates the model call; invoked at most once per shared generation
+     */
+    public Flux<ChatResponse> join(AnswerCache.Key key, Supplier<Flux<ChatResponse>> generation) {
+        if (!config.isCoalesce()) {
+            return generation.get();
+        }
+        AtomicReference<Flux<ChatResponse>> created = new AtomicReference<>();
+        Flux<ChatResponse> shared = inFlight.computeIfAbsent(key.hash(), hash -> {
+            created.set(share(hash, generation));
+            return created.get();
+        });
+        if (created.get() == null) {
+            coalesced.increment();
+            log.info("Joined an in-flight generation for an identical question");
+        }
+        return shared;
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Flux<ChatResponse> share(String hash, Supplier<Flux<ChatResponse>> generation) {
+        AtomicReference<Flux<ChatResponse>> self = new AtomicReference<>();
+        Flux<ChatResponse> shared = Flux.defer(generation)
+                .doFinally(signal -> inFlight.remove(hash, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+        return shared;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ragengine.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the per-conversation retrieval working set.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.chat.working-set")
+@Getter
+@Setter
+public class WorkingSetConfig {
+
+    /**
+     * Whether follow-up questions are first matched against the chunks retrieved earlier in the conversation.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Similarity the best remembered chunk must reach for the vector index to be skipped,
+     * per embedding model. Scores are not comparable across models: a close match scores
+     * around 0.5-0.6 with {@code text-embedding-3-*} but above 0.85 with
+     * {@code text-embedding-ada-002}.
+     */
+    private Map<String, Double> minScores = new LinkedHashMap<>(Map.of(
+            "text-embedding-3-small", 0.50,
+            "text-embedding-3-large", 0.50,
+            "text-embedding-ada-002", 0.85,
+            "nomic-embed-text", 0.65));
+
+    /**
+     * Threshold for embedding models without an entry in {@link #minScores}.
+     */
+    private double defaultMinScore = 0.75;
+
+    /**
+     * Most recently retrieved chunks kept per conversation.
+     */
+    private int maxChunksPerConversation = 25;
+
+    /**
+     * Maximum estimated heap taken by all working sets; least recently used conversations are evicted beyond it.
+     */
+    private long maxSizeMb = 64;
+}
@@ -0,0 +1,53 @@
+package com.ragengine.compression;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for compressing chunk text with per-tenant
+ * Zstandard dictionaries.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.chunk-compression")
+@Getter
+@Setter
+public class ChunkCompressionConfig {
+
+    /**
+     * Whether new and existing chunks are compressed. Already compressed chunks
+     * remain readable when this is switched off.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Zstd compression level (1-22).
+     */
+    private int level = 6;
+
+    /**
+     * Target dictionary size in bytes.
+     */
+    private int dictionarySize = 64 * 1024;
+
+    /**
+     * Maximum number of chunks sampled when training a tenant dictionary.
+     */
+    private int trainingSampleSize = 2000;
+
+    /**
+     * A tenant needs at least this many chunks before a dictionary is trained.
+     */
+    private int minTrainingChunks = 200;
+
+    /**
+     * Number of chunks recompressed per transaction by the background job.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Upper bound on batches per tenant in one run of the background job.
+     */
+    private int maxBatchesPerRun = 20;
+}
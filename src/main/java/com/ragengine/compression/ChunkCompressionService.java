@@ -0,0 +1,148 @@
+package com.ragengine.compression;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.ragengine.domain.entity.DocumentChunk;
+import com.ragengine.repository.DocumentChunkRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages per-tenant compression dictionaries and compresses chunk text with them.
+ *
+ * Lifecycle:
+ * 1. Once a tenant has enough chunks, a dictionary is trained on a random sample
+ * 2. Newly ingested chunks are compressed after they have been embedded
+ * 3. {@link ChunkRecompressionJob} compresses older rows, and rows compressed with
+ *    a superseded dictionary, in small batches
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChunkCompressionService {
+
+    private final CompressionDictionaryRepository dictionaryRepository;
+    private final DocumentChunkRepository chunkRepository;
+    private final ChunkContentCodec codec;
+    private final ChunkCompressionConfig config;
+
+    /**
+     * Trains a new dictionary for a tenant from a random sample of its chunks.
+     *
+     * @return the new dictionary, or empty if the tenant has too few chunks or training failed
+     */
+    @Transactional
+    public Optional<CompressionDictionary> trainDictionary(UUID tenantId) {
+        List<DocumentChunk> sample = chunkRepository.sampleByTenantId(tenantId, config.getTrainingSampleSize());
+        if (sample.size() < config.getMinTrainingChunks()) {
+            log.debug("Tenant {} has {} chunks, need {} to train a dictionary",
+                    tenantId, sample.size(), config.getMinTrainingChunks());
+            return Optional.empty();
+        }
+
+        List<byte[]> samples = sample.stream()
+                .map(chunk -> codec.decode(chunk).getBytes(StandardCharsets.UTF_8))
+                .toList();
+        int sampleBytes = samples.stream().mapToInt(b -> b.length).sum();
+
+        byte[] dictionary;
+        try {
+            ZstdDictTrainer trainer = new ZstdDictTrainer(sampleBytes, config.getDictionarySize());
+            samples.forEach(trainer::addSample);
+            dictionary = trainer.trainSamples();
+        } catch (ZstdException e) {
+            log.warn("Dictionary training failed for tenant {}: {}", tenantId, e.getMessage());
+            return Optional.empty();
+        }
+
+        double ratio = codec.measureRatio(dictionary, samples);
+        CompressionDictionary saved = dictionaryRepository.save(CompressionDictionary.builder()
+                .tenantId(tenantId)
+                .dictionary(dictionary)
+                .sampleCount(samples.size())
+                .sampleRatio(ratio)
+                .build());
+
+        log.info("Trained compression dictionary {} for tenant {}: {} bytes from {} chunks, sample ratio {}",
+                saved.getId(), tenantId, dictionary.length, samples.size(), String.format("%.2f", ratio));
+        return Optional.of(saved);
+    }
+
+    /**
+     * Returns the tenant's current dictionary, or empty if none has been trained.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CompressionDictionary> currentDictionary(UUID tenantId) {
+        return dictionaryRepository.findFirstByTenantIdOrderByCreatedAtDesc(tenantId);
+    }
+
+    /**
+     * Compresses freshly ingested chunks if compression is enabled and the tenant
+     * already has a dictionary. Chunks must be embedded first — afterwards their
+     * plain text is gone from the entity.
+     */
+    @Transactional
+    public void compressNewChunks(UUID tenantId, List<DocumentChunk> chunks) {
+        if (!config.isEnabled() || chunks.isEmpty()) {
+            return;
+        }
+        currentDictionary(tenantId).ifPresent(dictionary -> {
+            long saved = chunks.stream().mapToLong(chunk -> codec.encode(chunk, dictionary)).sum();
+            chunkRepository.saveAll(chunks);
+            log.debug("Compressed {} new chunks for tenant {}, saved {} bytes", chunks.size(), tenantId, saved);
+        });
+    }
+
+    /**
+     * Compresses one batch of the tenant's chunks that are plain or use an older dictionary.
+     *
+     * @return the number of chunks compressed; 0 when the tenant is fully compressed
+     */
+    @Transactional
+    public int recompressBatch(UUID tenantId, CompressionDictionary dictionary) {
+        List<DocumentChunk> batch = chunkRepository.findNotCompressedWith(
+                tenantId, dictionary.getId(), PageRequest.of(0, config.getBatchSize()));
+        batch.forEach(chunk -> codec.encode(chunk, dictionary));
+        return batch.size();
+    }
+
+    /**
+     * Compression report for a tenant: dictionary, coverage, ratio and decode latency.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStats(UUID tenantId) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isEnabled());
+        stats.put("totalChunks", chunkRepository.countByDocumentTenantId(tenantId));
+        stats.put("compressedChunks", chunkRepository.countByDocumentTenantIdAndCompressedContentIsNotNull(tenantId));
+
+        currentDictionary(tenantId).ifPresent(dictionary -> {
+            Map<String, Object> dict = new LinkedHashMap<>();
+            dict.put("id", dictionary.getId());
+            dict.put("sizeBytes", dictionary.getDictionary().length);
+            dict.put("sampleCount", dictionary.getSampleCount());
+            dict.put("sampleRatio", dictionary.getSampleRatio());
+            dict.put("createdAt", dictionary.getCreatedAt());
+            stats.put("dictionary", dict);
+        });
+
+        Timer decode = codec.decompressionTimer();
+        stats.put("meanCompressionRatio", codec.meanCompressionRatio());
+        stats.put("decodeCount", decode.count());
+        stats.put("decodeMeanMicros", decode.mean(TimeUnit.MICROSECONDS));
+        stats.put("decodeMaxMicros", decode.max(TimeUnit.MICROSECONDS));
+        return stats;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ragengine.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.ragengine.domain.entity.DocumentChunk;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes and decodes chunk text with tenant-trained Zstandard dictionaries.
+ *
+ * Chunk text is only ever decompressed through {@link #decode(DocumentChunk)},
+ * which is called for the chunks selected for a prompt or citation — never for
+ * whole documents. Prepared (digested) dictionaries are cached per dictionary ID.
+ *
+ * Metrics:
+ * - {@code rag.chunks.compression.ratio} — original / compressed bytes per chunk
+ * - {@code rag.chunks.decompression} — decode latency
+ */
+@Component
+@Slf4j
+public class ChunkContentCodec {
+
+    private final CompressionDictionaryRepository dictionaryRepository;
+    private final ChunkCompressionConfig config;
+
+    private final DistributionSummary compressionRatio;
+    private final Timer decompressionTimer;
+
+    /** dictionaryId -> prepared compression dictionary */
+    private final Map<UUID, ZstdDictCompress> compressors = new ConcurrentHashMap<>();
+
+    /** dictionaryId -> prepared decompression dictionary */
+    private final Map<UUID, ZstdDictDecompress> decompressors = new ConcurrentHashMap<>();
+
+    public ChunkContentCodec(CompressionDictionaryRepository dictionaryRepository,
+                             ChunkCompressionConfig config,
+                             MeterRegistry meterRegistry) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.config = config;
+        this.compressionRatio = DistributionSummary.builder("rag.chunks.compression.ratio")
+                .description("Original / compressed size of chunk text")
+                .register(meterRegistry);
+        this.decompressionTimer = Timer.builder("rag.chunks.decompression")
+                .description("Time to decompress one chunk")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the plain text of a chunk, decompressing it if necessary.
+     */
+    public String decode(DocumentChunk chunk) {
+        if (chunk.getCompressedContent() == null) {
+            return chunk.getContent();
+        }
+        return decompressionTimer.record(() -> {
+            byte[] frame = chunk.getCompressedContent();
+            ZstdDictDecompress dict = decompressors.computeIfAbsent(chunk.getDictionaryId(), this::loadDecompressor);
+            byte[] plain = Zstd.decompress(frame, dict, (int) Zstd.getFrameContentSize(frame));
+            return new String(plain, StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Compresses a chunk in place with the given dictionary, clearing its plain text.
+     *
+     * @return the number of bytes saved
+     */
+    public int encode(DocumentChunk chunk, CompressionDictionary dictionary) {
+        byte[] plain = decode(chunk).getBytes(StandardCharsets.UTF_8);
+        ZstdDictCompress dict = compressors.computeIfAbsent(dictionary.getId(),
+                id -> new ZstdDictCompress(dictionary.getDictionary(), config.getLevel()));
+        byte[] frame = Zstd.compress(plain, dict);
+
+        chunk.setCompressedContent(frame);
+        chunk.setDictionaryId(dictionary.getId());
+        chunk.setContent(null);
+
+        if (frame.length > 0) {
+            compressionRatio.record((double) plain.length / frame.length);
+        }
+        return plain.length - frame.length;
+    }
+
+    /**
+     * Ratio achieved by a dictionary on a set of samples, without touching any entity.
+     */
+    public double measureRatio(byte[] dictionary, Iterable<byte[]> samples) {
+        try (ZstdDictCompress dict = new ZstdDictCompress(dictionary, config.getLevel())) {
+            long original = 0;
+            long compressed = 0;
+            for (byte[] sample : samples) {
+                original += sample.length;
+                compressed += Zstd.compress(sample, dict).length;
+            }
+            return compressed == 0 ? 1.0 : (double) original / compressed;
+        }
+    }
+
+    public double meanCompressionRatio() {
+        return compressionRatio.mean();
+    }
+
+    public Timer decompressionTimer() {
+        return decompressionTimer;
+    }
+
+    private ZstdDictDecompress loadDecompressor(UUID dictionaryId) {
+        CompressionDictionary dictionary = dictionaryRepository.findById(dictionaryId)
+                .orElseThrow(() -> new IllegalStateException("Compression dictionary not found: " + dictionaryId));
+        log.debug("Loaded compression dictionary {} ({} bytes)", dictionaryId, dictionary.getDictionary().length);
+        return new ZstdDictDecompress(dictionary.getDictionary());
+    }
+}
@@ -0,0 +1,59 @@
+package com.ragengine.compression;
+
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Background job that trains missing tenant dictionaries and compresses existing
+ * chunk rows in bounded batches, so it never holds a long transaction.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChunkRecompressionJob {
+
+    private final ChunkCompressionService compressionService;
+    private final ChunkCompressionConfig config;
+    private final TenantRepository tenantRepository;
+
+    @Scheduled(initialDelayString = "${rag.chunk-compression.initial-delay:PT1M}",
+            fixedDelayString = "${rag.chunk-compression.recompress-interval:PT10M}")
+    public void recompress() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        for (Tenant tenant : tenantRepository.findAll()) {
+            try {
+                recompressTenant(tenant);
+            } catch (Exception e) {
+                log.error("Chunk recompression failed for tenant {}: {}", tenant.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void recompressTenant(Tenant tenant) {
+        Optional<CompressionDictionary> dictionary = compressionService.currentDictionary(tenant.getId())
+                .or(() -> compressionService.trainDictionary(tenant.getId()));
+        if (dictionary.isEmpty()) {
+            return;
+        }
+
+        int total = 0;
+        for (int i = 0; i < config.getMaxBatchesPerRun(); i++) {
+            int compressed = compressionService.recompressBatch(tenant.getId(), dictionary.get());
+            total += compressed;
+            if (compressed < config.getBatchSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Recompressed {} chunks for tenant '{}'", total, tenant.getName());
+        }
+    }
+}
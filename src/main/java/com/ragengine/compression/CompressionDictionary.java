@@ -0,0 +1,49 @@
+package com.ragengine.compression;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A Zstandard dictionary trained on a sample of one tenant's chunks.
+ * Chunks reference the dictionary they were compressed with, so older
+ * dictionaries stay readable after a tenant is retrained.
+ */
+@Entity
+@Table(name = "chunk_compression_dictionaries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompressionDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(nullable = false)
+    private byte[] dictionary;
+
+    /**
+     * Number of chunks the dictionary was trained on.
+     */
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    /**
+     * Original / compressed size ratio measured on the training sample.
+     */
+    @Column(name = "sample_ratio")
+    private Double sampleRatio;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,13 @@
+package com.ragengine.compression;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CompressionDictionaryRepository extends JpaRepository<CompressionDictionary, UUID> {
+
+    Optional<CompressionDictionary> findFirstByTenantIdOrderByCreatedAtDesc(UUID tenantId);
+}
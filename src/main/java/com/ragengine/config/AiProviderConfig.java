@@ -1,5 +1,8 @@
 package com.ragengine.config;
 
+import com.ragengine.routing.RoutingChatModel;
+import com.ragengine.routing.RoutingConfig;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.model.ChatModel;
@@ -24,6 +27,9 @@ import org.springframework.context.annotation.Primary;
 
 import io.micrometer.observation.ObservationRegistry;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * AI provider configuration — supports switching between OpenAI (cloud) and Ollama (local).
  *
@@ -31,6 +37,8 @@ import io.micrometer.observation.ObservationRegistry;
  * <ul>
  *   <li>{@code openai} (default) — uses OpenAI API for chat and embeddings</li>
  *   <li>{@code ollama} — uses locally running Ollama for fully private, zero-external-API inference</li>
+ *   <li>{@code routed} — routes chat between both by observed latency and error rate
+ *       ({@link RoutingChatModel}); embeddings come from {@code rag.routing.embedding-provider}</li>
  * </ul>
  *
  * <p>Spring profiles provide convenient switching:</p>
@@ -65,13 +73,9 @@ public class AiProviderConfig {
         @ConditionalOnMissingBean(ChatModel.class)
         public ChatModel chatModel(OpenAiApi openAiApi,
                                    @Value("${spring.ai.openai.chat.options.model:gpt-4o-mini}") String model,
-                                   @Value("${spring.ai.openai.chat.options.temperature:0.3}") double temperature) {
-            log.info("Initializing OpenAI ChatModel: model={}, temperature={}", model, temperature);
-            return new OpenAiChatModel(openAiApi,
-                    OpenAiChatOptions.builder()
-                            .model(model)
-                            .temperature(temperature)
-                            .build());
+                                   @Value("${spring.ai.openai.chat.options.temperature:0.3}") double temperature,
+                                   @Value("${spring.ai.openai.chat.options.stream-usage:false}") boolean streamUsage) {
+            return openAiChatModel(openAiApi, model, temperature, streamUsage);
         }
 
         @Bean
@@ -79,11 +83,7 @@ public class AiProviderConfig {
         @ConditionalOnMissingBean(EmbeddingModel.class)
         public EmbeddingModel embeddingModel(OpenAiApi openAiApi,
                                               @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String model) {
-            log.info("Initializing OpenAI EmbeddingModel: model={}", model);
-            return new OpenAiEmbeddingModel(openAiApi, MetadataMode.EMBED,
-                    OpenAiEmbeddingOptions.builder()
-                            .model(model)
-                            .build());
+            return openAiEmbeddingModel(openAiApi, model);
         }
 
         @Bean
@@ -118,17 +118,7 @@ public class AiProviderConfig {
                                    @Value("${spring.ai.ollama.chat.options.model:llama3.2:3b}") String model,
                                    @Value("${spring.ai.ollama.chat.options.temperature:0.3}") double temperature,
                                    ObservationRegistry observationRegistry) {
-            log.info("Initializing Ollama ChatModel: model={}, temperature={}", model, temperature);
-            OllamaOptions chatOptions = OllamaOptions.builder()
-                    .model(model)
-                    .temperature(temperature)
-                    .build();
-            return OllamaChatModel.builder()
-                    .ollamaApi(ollamaApi)
-                    .defaultOptions(chatOptions)
-                    .observationRegistry(observationRegistry)
-                    .modelManagementOptions(ModelManagementOptions.defaults())
-                    .build();
+            return ollamaChatModel(ollamaApi, model, temperature, observationRegistry);
         }
 
         @Bean
@@ -137,12 +127,7 @@ public class AiProviderConfig {
         public EmbeddingModel embeddingModel(OllamaApi ollamaApi,
                                               @Value("${spring.ai.ollama.embedding.options.model:nomic-embed-text}") String model,
                                               ObservationRegistry observationRegistry) {
-            log.info("Initializing Ollama EmbeddingModel: model={}", model);
-            OllamaOptions embeddingOptions = OllamaOptions.builder()
-                    .model(model)
-                    .build();
-            return new OllamaEmbeddingModel(ollamaApi, embeddingOptions,
-                    observationRegistry, ModelManagementOptions.defaults());
+            return ollamaEmbeddingModel(ollamaApi, model, observationRegistry);
         }
 
         @Bean
@@ -152,4 +137,126 @@ public class AiProviderConfig {
             return ChatClient.builder(chatModel);
         }
     }
+
+    // ================================================================
+    // Routed provider (OpenAI and Ollama, latency-aware)
+    // ================================================================
+
+    @Configuration
+    @ConditionalOnProperty(name = "rag.ai.provider", havingValue = "routed")
+    static class RoutedProviderConfig {
+
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean(OpenAiApi.class)
+        public OpenAiApi openAiApi(
+                @Value("${spring.ai.openai.api-key}") String apiKey) {
+            log.info("Configuring OpenAI backend for routing");
+            return new OpenAiApi(apiKey);
+        }
+
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean(OllamaApi.class)
+        public OllamaApi ollamaApi(
+                @Value("${spring.ai.ollama.base-url:http://localhost:11434}") String baseUrl) {
+            log.info("Configuring Ollama backend for routing at: {}", baseUrl);
+            return new OllamaApi(baseUrl);
+        }
+
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean(ChatModel.class)
+        public ChatModel chatModel(OpenAiApi openAiApi,
+                                   OllamaApi ollamaApi,
+                                   @Value("${spring.ai.openai.chat.options.model:gpt-4o-mini}") String openAiModel,
+                                   @Value("${spring.ai.openai.chat.options.temperature:0.3}") double openAiTemperature,
+                                   @Value("${spring.ai.openai.chat.options.stream-usage:false}") boolean streamUsage,
+                                   @Value("${spring.ai.ollama.chat.options.model:llama3.2:3b}") String ollamaModel,
+                                   @Value("${spring.ai.ollama.chat.options.temperature:0.3}") double ollamaTemperature,
+                                   ObservationRegistry observationRegistry,
+                                   RoutingConfig routingConfig,
+                                   MeterRegistry meterRegistry) {
+            List<RoutingChatModel.Backend> backends = routingConfig.getBackends().stream()
+                    .map(name -> new RoutingChatModel.Backend(name, switch (name) {
+                        case "openai" -> openAiChatModel(openAiApi, openAiModel, openAiTemperature, streamUsage);
+                        case "ollama" -> ollamaChatModel(ollamaApi, ollamaModel, ollamaTemperature,
+                                observationRegistry);
+                        default -> throw new IllegalStateException("Unknown chat backend: " + name);
+                    }, routingConfig.getModels().getOrDefault(name, Map.of())))
+                    .toList();
+            return new RoutingChatModel(backends, routingConfig, meterRegistry);
+        }
+
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean(EmbeddingModel.class)
+        public EmbeddingModel embeddingModel(OpenAiApi openAiApi,
+                                              OllamaApi ollamaApi,
+                                              @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String openAiModel,
+                                              @Value("${spring.ai.ollama.embedding.options.model:nomic-embed-text}") String ollamaModel,
+                                              ObservationRegistry observationRegistry,
+                                              RoutingConfig routingConfig) {
+            return switch (routingConfig.getEmbeddingProvider()) {
+                case "openai" -> openAiEmbeddingModel(openAiApi, openAiModel);
+                case "ollama" -> ollamaEmbeddingModel(ollamaApi, ollamaModel, observationRegistry);
+                default -> throw new IllegalStateException(
+                        "Unknown embedding provider: " + routingConfig.getEmbeddingProvider());
+            };
+        }
+
+        @Bean
+        @Primary
+        @ConditionalOnMissingBean(ChatClient.Builder.class)
+        public ChatClient.Builder chatClientBuilder(ChatModel chatModel) {
+            return ChatClient.builder(chatModel);
+        }
+    }
+
+    // ================================================================
+    // Model factories shared by the provider configurations
+    // ================================================================
+
+    static ChatModel openAiChatModel(OpenAiApi openAiApi, String model, double temperature, boolean streamUsage) {
+        log.info("Initializing OpenAI ChatModel: model={}, temperature={}", model, temperature);
+        return new OpenAiChatModel(openAiApi,
+                OpenAiChatOptions.builder()
+                        .model(model)
+                        .temperature(temperature)
+                        .streamUsage(streamUsage)
+                        .build());
+    }
+
+    static EmbeddingModel openAiEmbeddingModel(OpenAiApi openAiApi, String model) {
+        log.info("Initializing OpenAI EmbeddingModel: model={}", model);
+        return new OpenAiEmbeddingModel(openAiApi, MetadataMode.EMBED,
+                OpenAiEmbeddingOptions.builder()
+                        .model(model)
+                        .build());
+    }
+
+    static ChatModel ollamaChatModel(OllamaApi ollamaApi, String model, double temperature,
+                                     ObservationRegistry observationRegistry) {
+        log.info("Initializing Ollama ChatModel: model={}, temperature={}", model, temperature);
+        OllamaOptions chatOptions = OllamaOptions.builder()
+                .model(model)
+                .temperature(temperature)
+                .build();
+        return OllamaChatModel.builder()
+                .ollamaApi(ollamaApi)
+                .defaultOptions(chatOptions)
+                .observationRegistry(observationRegistry)
+                .modelManagementOptions(ModelManagementOptions.defaults())
+                .build();
+    }
+
+    static EmbeddingModel ollamaEmbeddingModel(OllamaApi ollamaApi, String model,
+                                               ObservationRegistry observationRegistry) {
+        log.info("Initializing Ollama EmbeddingModel: model={}", model);
+        OllamaOptions embeddingOptions = OllamaOptions.builder()
+                .model(model)
+                .build();
+        return new OllamaEmbeddingModel(ollamaApi, embeddingOptions,
+                observationRegistry, ModelManagementOptions.defaults());
+    }
 }
@@ -1,18 +1,28 @@
 package com.ragengine.controller;
 
+import com.ragengine.domain.dto.BatchChatRequest;
+import com.ragengine.domain.dto.ChatJobResponse;
 import com.ragengine.domain.dto.ChatRequest;
 import com.ragengine.domain.dto.ChatResponse;
 import com.ragengine.domain.dto.ConversationResponse;
+import com.ragengine.domain.dto.ConversationSummary;
+import com.ragengine.domain.dto.CursorPage;
+import com.ragengine.jobs.ChatJobService;
+import com.ragengine.service.BatchChatService;
+import com.ragengine.service.ChatStreamingService;
 import com.ragengine.service.RagChatService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
 import java.util.UUID;
 
 /**
@@ -26,6 +36,9 @@ import java.util.UUID;
 public class ChatController {
 
     private final RagChatService ragChatService;
+    private final ChatStreamingService chatStreamingService;
+    private final BatchChatService batchChatService;
+    private final ChatJobService chatJobService;
 
     @PostMapping
     @Operation(summary = "Ask a question",
@@ -37,18 +50,65 @@ public class ChatController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Ask a question (streaming)",
+            description = "Same as POST /api/v1/chat, but streams the answer as server-sent events: " +
+                    "'sources' first, then 'token' events, then 'done' once the answer is saved. " +
+                    "Closing the connection cancels generation.")
+    public SseEmitter stream(@Valid @RequestBody ChatRequest request) {
+        return chatStreamingService.stream(request);
+    }
+
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Ask many questions (NDJSON)",
+            description = "Answers up to rag.chat.batch.max-questions standalone questions against the same " +
+                    "documents. Streams one JSON object per line as each answer finishes, with the question's " +
+                    "index and a status of OK, RATE_LIMITED or FAILED. Batch answers are not saved as conversations.")
+    public ResponseEntity<StreamingResponseBody> batch(@Valid @RequestBody BatchChatRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(batchChatService.answer(request));
+    }
+
+    @PostMapping("/jobs")
+    @Operation(summary = "Ask a question (asynchronous)",
+            description = "Same as POST /api/v1/chat, but returns 202 with a job ID as soon as the question " +
+                    "is queued. Poll GET /api/v1/chat/jobs/{id} until the status is SUCCEEDED or FAILED; " +
+                    "the result is kept for rag.chat.jobs.result-ttl. Returns 429 when the job queue is full.")
+    public ResponseEntity<ChatJobResponse> submitJob(@Valid @RequestBody ChatRequest request) {
+        ChatJobResponse job = chatJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/chat/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Get chat job by ID",
+            description = "Returns the status of a chat job and, once it has finished, its answer or error.")
+    public ResponseEntity<ChatJobResponse> getJob(@PathVariable UUID id) {
+        return ResponseEntity.ok(chatJobService.getJob(id));
+    }
+
     @GetMapping("/conversations")
-    @Operation(summary = "List all conversations",
-            description = "Returns all conversations ordered by most recently updated.")
-    public ResponseEntity<List<ConversationResponse>> getAllConversations() {
-        return ResponseEntity.ok(ragChatService.getAllConversations());
+    @Operation(summary = "List conversations",
+            description = "Returns one page of conversations, most recently updated first, with their " +
+                    "message count and a preview of the newest message. Pass the returned nextCursor " +
+                    "as cursor to get the next page; it is null on the last page.")
+    public ResponseEntity<CursorPage<ConversationSummary>> listConversations(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ragChatService.listConversations(cursor, limit));
     }
 
     @GetMapping("/conversations/{id}")
     @Operation(summary = "Get conversation by ID",
-            description = "Returns a conversation with its full message history.")
-    public ResponseEntity<ConversationResponse> getConversation(@PathVariable UUID id) {
-        return ResponseEntity.ok(ragChatService.getConversation(id));
+            description = "Returns a conversation with its newest messages, oldest first. " +
+                    "Pass the returned nextCursor as cursor to get the page of older messages.")
+    public ResponseEntity<ConversationResponse> getConversation(
+            @PathVariable UUID id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ragChatService.getConversation(id, cursor, limit));
     }
 
     @DeleteMapping("/conversations/{id}")
@@ -0,0 +1,47 @@
+package com.ragengine.controller;
+
+import com.ragengine.compression.ChunkCompressionService;
+import com.ragengine.security.SecurityContext;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admin endpoints for chunk content compression.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/compression")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administrative endpoints")
+public class ChunkCompressionController {
+
+    private final ChunkCompressionService compressionService;
+    private final SecurityContext securityContext;
+
+    @GetMapping
+    @Operation(summary = "Compression report",
+            description = "Returns the tenant's dictionary, compressed chunk coverage, " +
+                    "compression ratio and decode latency.")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(compressionService.getStats(securityContext.getCurrentTenantId()));
+    }
+
+    @PostMapping("/dictionary")
+    @Operation(summary = "Retrain dictionary",
+            description = "Trains a new dictionary from a sample of the tenant's chunks. " +
+                    "The background job then recompresses existing chunks with it.")
+    public ResponseEntity<Map<String, Object>> trainDictionary() {
+        UUID tenantId = securityContext.getCurrentTenantId();
+        compressionService.trainDictionary(tenantId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Not enough chunks to train a compression dictionary"));
+        return ResponseEntity.ok(compressionService.getStats(tenantId));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ragengine.controller;
+
+import com.ragengine.security.SecurityContext;
+import com.ragengine.vectorstore.EmbeddingDimensionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admin endpoints for the tenant's stored embedding dimensionality.
+ * Requires {@code rag.vector-store.mode=compact}.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/embedding-dimensions")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administrative endpoints")
+public class EmbeddingDimensionController {
+
+    private final Optional<EmbeddingDimensionService> dimensionService;
+    private final SecurityContext securityContext;
+
+    @GetMapping
+    @Operation(summary = "Embedding dimensions",
+            description = "Returns the tenant's stored embedding dimensionality and the available choices.")
+    public ResponseEntity<Map<String, Object>> getSettings() {
+        return ResponseEntity.ok(requireService().getSettings(securityContext.getCurrentTenantId()));
+    }
+
+    @PutMapping
+    @Operation(summary = "Change embedding dimensions",
+            description = "Starts migrating the tenant's embeddings to the given dimensionality in the " +
+                    "background and returns the migration. Shrinking truncates stored vectors; growing " +
+                    "re-embeds the tenant's chunks. Poll GET /migration for progress.")
+    public ResponseEntity<Map<String, Object>> changeDimensions(@RequestParam int dimensions) {
+        return ResponseEntity.accepted()
+                .body(requireService().changeDimensions(securityContext.getCurrentTenantId(), dimensions));
+    }
+
+    @GetMapping("/migration")
+    @Operation(summary = "Dimension migration progress",
+            description = "Returns the status and progress of the tenant's most recent change of embedding " +
+                    "dimensions.")
+    public ResponseEntity<Map<String, Object>> getMigration() {
+        return requireService().getMigration(securityContext.getCurrentTenantId())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/report")
+    @Operation(summary = "Recall/latency report",
+            description = "Estimates recall@k, scan cost and index size for each allowed dimensionality " +
+                    "from a sample of the tenant's embeddings, with live search latency per dimensionality.")
+    public ResponseEntity<Map<String, Object>> getReport(
+            @RequestParam(defaultValue = "200") int sample,
+            @RequestParam(defaultValue = "10") int k) {
+        if (sample < 1 || k < 1 || k > 100) {
+            throw new IllegalArgumentException("sample must be positive and k between 1 and 100");
+        }
+        return ResponseEntity.ok(requireService().getReport(securityContext.getCurrentTenantId(), sample, k));
+    }
+
+    private EmbeddingDimensionService requireService() {
+        return dimensionService.orElseThrow(() -> new IllegalStateException(
+                "Per-tenant embedding dimensions require rag.vector-store.mode=compact"));
+    }
+}
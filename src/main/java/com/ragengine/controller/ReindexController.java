@@ -0,0 +1,96 @@
+package com.ragengine.controller;
+
+import com.ragengine.reindex.IndexGeneration;
+import com.ragengine.reindex.IndexGenerationService;
+import com.ragengine.reindex.ReindexProgress;
+import com.ragengine.reindex.ReindexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Admin endpoints for rebuilding the embedding index after an embedding model or
+ * chunking configuration change. Requires {@code rag.vector-store.mode=compact}.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reindex")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administrative endpoints")
+public class ReindexController {
+
+    private final Optional<ReindexService> reindexService;
+    private final Optional<IndexGenerationService> generationService;
+
+    @GetMapping
+    @Operation(summary = "Reindex status",
+            description = "Returns the latest reindex job's progress and ETA, and all index generations.")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        IndexGenerationService generations = requireGenerations();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("activeGeneration", generations.active().getId());
+        status.put("buildingGeneration", generations.building().map(IndexGeneration::getId).orElse(null));
+        status.put("job", requireReindex().currentProgress().orElse(null));
+        status.put("generations", generations.listGenerations().stream().map(this::toMap).toList());
+        return ResponseEntity.ok(status);
+    }
+
+    @PostMapping
+    @Operation(summary = "Start reindex",
+            description = "Builds a new index generation with the configured embedding model and chunking, " +
+                    "then switches chat to it. Existing chunks are reused when chunking is unchanged " +
+                    "unless rechunk=true.")
+    public ResponseEntity<ReindexProgress> start(@RequestParam(defaultValue = "false") boolean rechunk) {
+        return ResponseEntity.accepted().body(requireReindex().start(rechunk));
+    }
+
+    @PostMapping("/pause")
+    @Operation(summary = "Pause reindex", description = "Stops after the documents in flight.")
+    public ResponseEntity<ReindexProgress> pause() {
+        return ResponseEntity.ok(requireReindex().pause());
+    }
+
+    @PostMapping("/resume")
+    @Operation(summary = "Resume reindex", description = "Continues a paused or failed job, retrying failed documents.")
+    public ResponseEntity<ReindexProgress> resume() {
+        return ResponseEntity.ok(requireReindex().resume());
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel reindex", description = "Discards the generation being built. Chat is unaffected.")
+    public ResponseEntity<ReindexProgress> cancel() {
+        return ResponseEntity.ok(requireReindex().cancel());
+    }
+
+    private ReindexService requireReindex() {
+        return reindexService.orElseThrow(() -> new IllegalStateException(
+                "Reindexing requires rag.vector-store.mode=compact"));
+    }
+
+    private IndexGenerationService requireGenerations() {
+        return generationService.orElseThrow(() -> new IllegalStateException(
+                "Reindexing requires rag.vector-store.mode=compact"));
+    }
+
+    private Map<String, Object> toMap(IndexGeneration generation) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", generation.getId());
+        map.put("status", generation.getStatus());
+        map.put("embeddingProvider", generation.getEmbeddingProvider());
+        map.put("embeddingModel", generation.getEmbeddingModel());
+        map.put("dimensions", generation.getDimensions());
+        map.put("chunking", List.of(generation.getChunkSize(), generation.getChunkOverlap(), generation.getMinChunkSize()));
+        map.put("chunkGeneration", generation.getChunkGeneration());
+        map.put("createdAt", generation.getCreatedAt());
+        map.put("activatedAt", generation.getActivatedAt());
+        return map;
+    }
+}
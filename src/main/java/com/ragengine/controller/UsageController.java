@@ -0,0 +1,56 @@
+package com.ragengine.controller;
+
+import com.ragengine.security.SecurityContext;
+import com.ragengine.usage.UsageMeter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admin endpoint for the tenant's chat model and embedding usage.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/usage")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin", description = "Administrative endpoints")
+public class UsageController {
+
+    /**
+     * Longest period one request may cover.
+     */
+    static final int MAX_DAYS = 400;
+
+    private final UsageMeter usageMeter;
+    private final SecurityContext securityContext;
+
+    @GetMapping
+    @Operation(summary = "Token usage",
+            description = "Returns the tenant's calls, prompt, completion and embedding tokens and average " +
+                    "provider latency per model from 'from' to 'to' (inclusive). Defaults to the last 30 days.")
+    public ResponseEntity<Map<String, Object>> getUsage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate until = to != null ? to : LocalDate.now();
+        LocalDate since = from != null ? from : until.minusDays(29);
+        if (since.isAfter(until) || since.plusDays(MAX_DAYS).isBefore(until)) {
+            throw new IllegalArgumentException(
+                    "from must not be after to, and the period may span at most " + MAX_DAYS + " days");
+        }
+
+        Map<String, Object> usage = new LinkedHashMap<>();
+        usage.put("from", since);
+        usage.put("to", until);
+        usage.put("models", usageMeter.report(securityContext.getCurrentTenantId(),
+                since.atStartOfDay(), until.plusDays(1).atStartOfDay()));
+        return ResponseEntity.ok(usage);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ragengine.domain.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Builder;
+
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+public record BatchChatRequest(
+        @NotEmpty(message = "At least one question is required")
+        List<@NotBlank(message = "Questions cannot be blank") String> questions,
+
+        @NotEmpty(message = "At least one document ID is required")
+        List<UUID> documentIds
+) {}
@@ -0,0 +1,22 @@
+package com.ragengine.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * One line of a batch chat response: the outcome for the question at {@code index}.
+ */
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchChatResult(
+        int index,
+        Status status,
+        String answer,
+        List<ChatResponse.Source> sources,
+        Integer promptTokens,
+        String error
+) {
+    public enum Status { OK, RATE_LIMITED, FAILED }
+}
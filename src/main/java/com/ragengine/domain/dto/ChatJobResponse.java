@@ -0,0 +1,19 @@
+package com.ragengine.domain.dto;
+
+import com.ragengine.jobs.ChatJobStatus;
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+public record ChatJobResponse(
+        UUID id,
+        ChatJobStatus status,
+        UUID conversationId,
+        ChatResponse result,
+        String error,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        LocalDateTime expiresAt
+) {}
@@ -12,6 +12,7 @@ public record ChatResponse(
         UUID conversationId,
         String answer,
         List<Source> sources,
+        Integer promptTokens,
         LocalDateTime timestamp
 ) {
     @Builder
@@ -20,6 +21,7 @@ public record ChatResponse(
             String documentName,
             String chunkContent,
             Integer chunkIndex,
+            Integer lastChunkIndex,
             Integer pageNumber,
             Double similarityScore
     ) {}
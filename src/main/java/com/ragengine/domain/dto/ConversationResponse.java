@@ -7,11 +7,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+/**
+ * A conversation with one page of its messages, oldest first.
+ *
+ * @param nextCursor pass as {@code cursor} to get the page of older messages; {@code null} if there are none
+ */
 @Builder
 public record ConversationResponse(
         UUID id,
         String title,
         List<MessageResponse> messages,
+        String nextCursor,
         List<UUID> documentIds,
         LocalDateTime createdAt,
         LocalDateTime updatedAt
@@ -0,0 +1,20 @@
+package com.ragengine.domain.dto;
+
+import lombok.Builder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A conversation as listed in the sidebar, without its messages.
+ *
+ * @param lastMessagePreview start of the newest message, or {@code null} if there is none yet
+ */
+@Builder
+public record ConversationSummary(
+        UUID id,
+        String title,
+        LocalDateTime updatedAt,
+        long messageCount,
+        String lastMessagePreview
+) {}
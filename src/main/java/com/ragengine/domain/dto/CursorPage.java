@@ -0,0 +1,13 @@
+package com.ragengine.domain.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param nextCursor pass as {@code cursor} to get the next page; {@code null} on the last page
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {}
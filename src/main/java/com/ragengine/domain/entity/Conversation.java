@@ -26,6 +26,16 @@ public class Conversation {
     @Column(length = 500)
     private String title;
 
+    /**
+     * Running summary of the oldest {@link #summarizedMessages} messages.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String summary;
+
+    @Column(name = "summarized_messages", nullable = false)
+    @Builder.Default
+    private Integer summarizedMessages = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id")
     private Tenant tenant;
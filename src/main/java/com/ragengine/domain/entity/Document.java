@@ -46,6 +46,13 @@ public class Document {
     @Column(name = "error_message")
     private String errorMessage;
 
+    /**
+     * Highest index generation this document has been fully embedded into.
+     */
+    @Column(name = "index_generation", nullable = false)
+    @Builder.Default
+    private Integer indexGeneration = 1;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tenant_id")
     private Tenant tenant;
@@ -24,9 +24,22 @@ public class DocumentChunk {
     @JoinColumn(name = "document_id", nullable = false)
     private Document document;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    /**
+     * Plain chunk text; null once the chunk has been compressed.
+     * Read through {@code ChunkContentCodec#decode} rather than directly.
+     */
+    @Column(columnDefinition = "TEXT")
     private String content;
 
+    /**
+     * Zstd frame of the chunk text, compressed with the tenant dictionary {@link #dictionaryId}.
+     */
+    @Column(name = "compressed_content")
+    private byte[] compressedContent;
+
+    @Column(name = "dictionary_id")
+    private UUID dictionaryId;
+
     @Column(name = "chunk_index", nullable = false)
     private Integer chunkIndex;
 
@@ -36,6 +49,14 @@ public class DocumentChunk {
     @Column(name = "token_count")
     private Integer tokenCount;
 
+    /**
+     * Chunk generation this chunk was cut for; a reindex with new chunking
+     * settings writes a new set of chunks alongside the old one.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer generation = 1;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -39,6 +39,12 @@ public class Tenant {
     @Builder.Default
     private Boolean active = true;
 
+    /**
+     * Stored embedding dimensionality; null keeps the model's full output.
+     */
+    @Column(name = "embedding_dimensions")
+    private Integer embeddingDimensions;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,10 @@
+package com.ragengine.exception;
+
+import java.util.UUID;
+
+public class ChatJobNotFoundException extends RuntimeException {
+
+    public ChatJobNotFoundException(UUID id) {
+        super("Chat job not found with ID: " + id);
+    }
+}
@@ -50,6 +50,11 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(ChatJobNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleChatJobNotFound(ChatJobNotFoundException ex) {
+        return buildErrorResponse(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
     @ExceptionHandler(DocumentProcessingException.class)
     public ResponseEntity<Map<String, Object>> handleDocumentProcessing(DocumentProcessingException ex) {
         log.error("Document processing error: {}", ex.getMessage());
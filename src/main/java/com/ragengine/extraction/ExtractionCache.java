@@ -0,0 +1,189 @@
+package com.ragengine.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed, size-bounded cache of extraction results on local disk.
+ *
+ * Entries are Zstd-compressed JSON files stored under {@code <directory>/<ab>/<key>.zst},
+ * where the key hashes the file SHA-256 together with the Tika version and parser
+ * configuration — a parser upgrade therefore never serves stale text.
+ *
+ * An in-memory access-ordered index (rebuilt from file modification times on startup)
+ * drives LRU eviction once the total size exceeds {@code rag.extraction-cache.max-size-mb}.
+ */
+@Component
+@Slf4j
+public class ExtractionCache implements InitializingBean {
+
+    private static final String SUFFIX = ".zst";
+    private static final int COMPRESSION_LEVEL = 3;
+
+    private final ExtractionCacheConfig config;
+    private final ObjectMapper objectMapper;
+    private final Counter hits;
+    private final Counter misses;
+
+    /** key -> entry size in bytes, in access order (eldest first) */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private Path root;
+
+    public ExtractionCache(ExtractionCacheConfig config, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("rag.extraction.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("rag.extraction.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Looks up a cached extraction result.
+     */
+    public Optional<ExtractionResult> get(String key) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        Path path = pathFor(key);
+        synchronized (this) {
+            // get() (not containsKey) so the lookup refreshes the entry's LRU position
+            if (index.get(key) == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        try {
+            byte[] compressed = Files.readAllBytes(path);
+            byte[] json = Zstd.decompress(compressed, (int) Zstd.getFrameContentSize(compressed));
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.increment();
+            return Optional.of(objectMapper.readValue(json, ExtractionResult.class));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable extraction cache entry {}: {}", key, e.getMessage());
+            remove(key);
+            misses.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores an extraction result, evicting least recently used entries if the cache is full.
+     */
+    public void put(String key, ExtractionResult result) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Path path = pathFor(key);
+        try {
+            byte[] compressed = Zstd.compress(objectMapper.writeValueAsBytes(result), COMPRESSION_LEVEL);
+            Files.createDirectories(path.getParent());
+            Path tmp = Files.createTempFile(path.getParent(), key, ".tmp");
+            Files.write(tmp, compressed);
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            synchronized (this) {
+                Long previous = index.put(key, (long) compressed.length);
+                totalBytes += compressed.length - (previous != null ? previous : 0);
+            }
+            evictIfNeeded();
+        } catch (IOException e) {
+            // The cache is an optimization — never fail extraction because of it
+            log.warn("Could not write extraction cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void evictIfNeeded() {
+        long maxBytes = config.getMaxSizeMb() * 1024 * 1024;
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Map.Entry<String, Long> eldest = it.next();
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                it.remove();
+            }
+        }
+        for (String key : evicted) {
+            deleteQuietly(pathFor(key));
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("Evicted {} extraction cache entries", evicted.size());
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (this) {
+            Long size = index.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        deleteQuietly(pathFor(key));
+    }
+
+    private Path pathFor(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete extraction cache entry {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the LRU index from the cache directory, oldest access first.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        root = Paths.get(config.getDirectory());
+        if (!config.isEnabled()) {
+            return;
+        }
+        try {
+            Files.createDirectories(root);
+            record Entry(String key, long size, long lastAccess) {}
+            List<Entry> entries;
+            try (Stream<Path> files = Files.walk(root, 2)) {
+                entries = files
+                        .filter(p -> p.getFileName().toString().endsWith(SUFFIX))
+                        .map(p -> {
+                            try {
+                                String name = p.getFileName().toString();
+                                return new Entry(name.substring(0, name.length() - SUFFIX.length()),
+                                        Files.size(p), Files.getLastModifiedTime(p).toMillis());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        })
+                        .sorted(Comparator.comparingLong(Entry::lastAccess))
+                        .toList();
+            }
+            synchronized (this) {
+                entries.forEach(e -> {
+                    index.put(e.key(), e.size());
+                    totalBytes += e.size();
+                });
+            }
+            log.info("Extraction cache at {}: {} entries, {} KB", root, entries.size(), totalBytes / 1024);
+            evictIfNeeded();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not initialize extraction cache at {}: {}", root, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.ragengine.extraction;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for the on-disk extraction result cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.extraction-cache")
+@Getter
+@Setter
+public class ExtractionCacheConfig {
+
+    /**
+     * Whether extraction results are cached on disk.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Cache directory; entries are content-addressed by their key.
+     */
+    private String directory = "./extraction-cache";
+
+    /**
+     * Maximum total size of cached entries; least recently used entries are evicted beyond it.
+     */
+    private long maxSizeMb = 1024;
+}
@@ -0,0 +1,13 @@
+package com.ragengine.extraction;
+
+import java.util.List;
+
+/**
+ * Output of one Tika parse: the document text plus the character offset at which
+ * each page starts (empty for formats without pages).
+ */
+public record ExtractionResult(
+        String text,
+        List<Integer> pageOffsets,
+        Integer pageCount
+) {}
@@ -0,0 +1,48 @@
+package com.ragengine.extraction;
+
+import org.apache.tika.sax.ContentHandlerDecorator;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the text offset at which each {@code <div class="page">} starts while
+ * passing body events through to the wrapped text handler.
+ * Tika's PDF (and some Office) parsers emit one such element per page.
+ */
+public class PageOffsetContentHandler extends ContentHandlerDecorator {
+
+    private final List<Integer> pageOffsets = new ArrayList<>();
+    private int length;
+
+    public PageOffsetContentHandler(ContentHandler handler) {
+        super(handler);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String name, Attributes atts) throws SAXException {
+        if ("div".equals(localName) && "page".equals(atts.getValue("class"))) {
+            pageOffsets.add(length);
+        }
+        super.startElement(uri, localName, name, atts);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int len) throws SAXException {
+        length += len;
+        super.characters(ch, start, len);
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int len) throws SAXException {
+        length += len;
+        super.ignorableWhitespace(ch, start, len);
+    }
+
+    public List<Integer> getPageOffsets() {
+        return pageOffsets;
+    }
+}
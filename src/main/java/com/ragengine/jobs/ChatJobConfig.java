@@ -0,0 +1,66 @@
+package com.ragengine.jobs;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for asynchronous chat jobs.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.chat.jobs")
+@Getter
+@Setter
+public class ChatJobConfig {
+
+    /**
+     * Number of jobs answered in parallel.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Jobs waiting for a worker before new submissions are rejected with 429.
+     */
+    private int queueCapacity = 100;
+
+    /**
+     * How long a finished job and its answer can be fetched.
+     */
+    private Duration resultTtl = Duration.ofHours(24);
+
+    /**
+     * How long a queued or running job stays with the instance that accepted it
+     * without a heartbeat. After that, any instance fails it.
+     */
+    private Duration lease = Duration.ofMinutes(2);
+
+    /**
+     * How often an instance renews the leases of its jobs and fails jobs whose
+     * lease has lapsed. Must be well below {@link #lease}.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * URL notified with the job when it finishes. Empty disables callbacks.
+     */
+    private String callbackUrl = "";
+
+    /**
+     * Key for the HMAC-SHA256 signature of the callback body, sent in the
+     * {@code X-Signature} header. Empty sends callbacks unsigned.
+     */
+    private String callbackSecret = "";
+
+    /**
+     * Timeout of one callback attempt.
+     */
+    private Duration callbackTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Attempts per callback before it is given up.
+     */
+    private int callbackAttempts = 3;
+}
@@ -0,0 +1,53 @@
+package com.ragengine.jobs;
+
+import com.ragengine.domain.dto.ChatResponse;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ChatJobRepository extends JpaRepository<ChatJob, UUID> {
+
+    Optional<ChatJob> findByIdAndTenantId(UUID id, UUID tenantId);
+
+    List<ChatJob> findByStatusInAndLeaseExpiresAtBefore(Collection<ChatJobStatus> statuses, LocalDateTime now);
+
+    /**
+     * Moves a queued job to {@code status}; returns 0 if it is no longer queued.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChatJob j SET j.status = :status, j.startedAt = :startedAt " +
+            "WHERE j.id = :id AND j.status = :queued")
+    int markStarted(UUID id, ChatJobStatus status, LocalDateTime startedAt, ChatJobStatus queued);
+
+    /**
+     * Stores the outcome of a job that has not finished yet; returns 0 if it already
+     * has, so a job is finished at most once.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChatJob j SET j.status = :status, j.result = :result, j.error = :error, " +
+            "j.conversationId = :conversationId, j.completedAt = :completedAt, j.expiresAt = :expiresAt " +
+            "WHERE j.id = :id AND j.status IN :active")
+    int finish(UUID id, ChatJobStatus status, ChatResponse result, String error, UUID conversationId,
+               LocalDateTime completedAt, LocalDateTime expiresAt, Collection<ChatJobStatus> active);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ChatJob j SET j.leaseExpiresAt = :until WHERE j.ownerId = :ownerId AND j.status IN :active")
+    int renewLeases(String ownerId, LocalDateTime until, Collection<ChatJobStatus> active);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChatJob j WHERE j.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
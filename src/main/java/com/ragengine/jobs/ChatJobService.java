@@ -0,0 +1,318 @@
+package com.ragengine.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ragengine.domain.dto.ChatJobResponse;
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.exception.ChatJobNotFoundException;
+import com.ragengine.exception.RateLimitExceededException;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.RagChatService;
+import com.ragengine.service.RagChatService.PreparedChat;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers chat questions in the background, for clients that cannot hold a
+ * connection open while the model generates.
+ *
+ * Lifecycle of a job:
+ * 1. On submit, the question is prepared on the request thread — rate limit, document
+ *    validation, retrieval and prompt — so those errors are returned directly. A QUEUED
+ *    row is stored and its ID returned at once.
+ * 2. One of {@code rag.chat.jobs.concurrency} workers generates and saves the answer,
+ *    exactly as a synchronous chat request would. At most
+ *    {@code rag.chat.jobs.queue-capacity} jobs wait; beyond that, submissions get 429.
+ * 3. The finished job holds the answer (or error) until {@code rag.chat.jobs.result-ttl}
+ *    has passed. Clients poll it, or receive it at {@code rag.chat.jobs.callback-url}.
+ *
+ * The prepared prompt lives only in the memory of the instance that accepted the job,
+ * which records itself as the job's owner and renews its lease every
+ * {@code rag.chat.jobs.heartbeat-interval}. A job whose lease has lapsed for
+ * {@code rag.chat.jobs.lease} lost its owner to a crash or shutdown; whichever
+ * instance notices first fails it and sends its callback. Jobs of other live instances
+ * are left alone, and a job is finished at most once, even if its owner and another
+ * instance race.
+ *
+ * Metrics: {@code rag.chat.jobs.completed} (by status), {@code rag.chat.jobs.callbacks}
+ * (by outcome), {@code rag.chat.jobs.queued}.
+ */
+@Service
+@Slf4j
+public class ChatJobService {
+
+    static final String INTERRUPTED = "Interrupted by a server restart. Please resubmit.";
+
+    private final ChatJobRepository jobRepository;
+    private final RagChatService ragChatService;
+    private final SecurityContext securityContext;
+    private final ChatJobConfig config;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService callbacks = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+
+    /**
+     * Owner ID of the jobs accepted by this instance.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public ChatJobService(ChatJobRepository jobRepository,
+                          RagChatService ragChatService,
+                          SecurityContext securityContext,
+                          ChatJobConfig config,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.ragChatService = ragChatService;
+        this.securityContext = securityContext;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.workers = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                Thread.ofPlatform().name("chat-job-", 0).factory());
+        this.httpClient = HttpClient.newBuilder().connectTimeout(config.getCallbackTimeout()).build();
+        meterRegistry.gauge("rag.chat.jobs.queued", workers, executor -> executor.getQueue().size());
+    }
+
+    /**
+     * Prepares the question and queues its generation.
+     *
+     * @throws RateLimitExceededException if the queue is full
+     */
+    public ChatJobResponse submit(ChatRequest request) {
+        PreparedChat prepared = ragChatService.prepare(request);
+        ChatJob job = jobRepository.save(ChatJob.builder()
+                .tenantId(prepared.tenantId())
+                .userId(prepared.userId())
+                .status(ChatJobStatus.QUEUED)
+                .question(prepared.question())
+                .conversationId(prepared.conversationId())
+                .ownerId(instanceId)
+                .leaseExpiresAt(LocalDateTime.now().plus(config.getLease()))
+                .build());
+        try {
+            workers.execute(() -> run(job.getId(), prepared));
+        } catch (RejectedExecutionException e) {
+            jobRepository.delete(job);
+            ragChatService.abandon(prepared);
+            throw new RateLimitExceededException("Too many chat jobs are queued. Please try again shortly.");
+        }
+        log.info("Queued chat job {}", job.getId());
+        return toResponse(job);
+    }
+
+    /**
+     * Returns a job of the current tenant.
+     *
+     * @throws ChatJobNotFoundException if it does not exist, belongs to another tenant or has expired
+     */
+    public ChatJobResponse getJob(UUID id) {
+        return jobRepository.findByIdAndTenantId(id, securityContext.getCurrentTenantId())
+                .map(ChatJobService::toResponse)
+                .orElseThrow(() -> new ChatJobNotFoundException(id));
+    }
+
+    /**
+     * Renews the leases of this instance's jobs, then fails jobs whose owner is gone.
+     */
+    @Scheduled(fixedDelayString = "${rag.chat.jobs.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        jobRepository.renewLeases(instanceId, LocalDateTime.now().plus(config.getLease()), ChatJobStatus.ACTIVE);
+        failInterruptedJobs();
+    }
+
+    /**
+     * Fails jobs whose lease has lapsed, as their prepared prompt was lost with the
+     * instance that owned them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        jobRepository.findByStatusInAndLeaseExpiresAtBefore(ChatJobStatus.ACTIVE, LocalDateTime.now()).forEach(job -> {
+            if (finish(job, null, INTERRUPTED)) {
+                log.info("Failed chat job {} of stopped instance {}", job.getId(), job.getOwnerId());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${rag.chat.jobs.cleanup-interval:PT10M}")
+    public void deleteExpiredJobs() {
+        int deleted = jobRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Deleted {} expired chat jobs", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+        callbacks.shutdown();
+        // Let the other instances fail the remaining jobs at once
+        try {
+            jobRepository.renewLeases(instanceId, LocalDateTime.now(), ChatJobStatus.ACTIVE);
+        } catch (RuntimeException e) {
+            log.warn("Could not release chat job leases: {}", e.getMessage());
+        }
+    }
+
+    // ============================
+    // Worker
+    // ============================
+
+    void run(UUID jobId, PreparedChat prepared) {
+        if (jobRepository.markStarted(jobId, ChatJobStatus.RUNNING, LocalDateTime.now(), ChatJobStatus.QUEUED) == 0) {
+            // Failed by another instance while its lease had lapsed, or its tenant was deleted
+            ragChatService.abandon(prepared);
+            return;
+        }
+        ChatResponse response = null;
+        String error = null;
+        try {
+            response = ragChatService.answer(prepared);
+        } catch (RuntimeException e) {
+            log.warn("Chat job {} failed: {}", jobId, e.getMessage());
+            error = Objects.requireNonNullElse(e.getMessage(), "Failed to generate AI response");
+        }
+
+        ChatJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            // Its tenant was deleted meanwhile
+            return;
+        }
+        finish(job, response, error);
+    }
+
+    /**
+     * Stores the outcome of a job and sends its callback, unless the job has already
+     * finished.
+     *
+     * @return whether this call finished the job
+     */
+    private boolean finish(ChatJob job, ChatResponse response, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        ChatJobStatus status = error == null ? ChatJobStatus.SUCCEEDED : ChatJobStatus.FAILED;
+        String storedError = error != null ? truncate(error) : null;
+        UUID conversationId = response != null ? response.conversationId() : job.getConversationId();
+        LocalDateTime expiresAt = now.plus(config.getResultTtl());
+        if (jobRepository.finish(job.getId(), status, response, storedError, conversationId, now, expiresAt,
+                ChatJobStatus.ACTIVE) == 0) {
+            log.debug("Chat job {} had already finished", job.getId());
+            return false;
+        }
+        job.setStatus(status);
+        job.setResult(response);
+        job.setError(storedError);
+        job.setConversationId(conversationId);
+        job.setCompletedAt(now);
+        job.setExpiresAt(expiresAt);
+        meterRegistry.counter("rag.chat.jobs.completed",
+                "status", job.getStatus().name().toLowerCase(Locale.ROOT)).increment();
+
+        if (!config.getCallbackUrl().isBlank()) {
+            ChatJobResponse payload = toResponse(job);
+            try {
+                callbacks.execute(() -> sendCallback(payload));
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the result can still be polled
+            }
+        }
+        return true;
+    }
+
+    // ============================
+    // Callback
+    // ============================
+
+    /**
+     * Posts the finished job to the callback URL, retrying with backoff. A job whose
+     * callback is given up can still be polled until it expires.
+     */
+    private void sendCallback(ChatJobResponse payload) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(payload);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(config.getCallbackUrl()))
+                    .timeout(config.getCallbackTimeout())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+            if (!config.getCallbackSecret().isBlank()) {
+                request.header("X-Signature", "sha256=" + sign(body));
+            }
+
+            for (int attempt = 1; attempt <= config.getCallbackAttempts(); attempt++) {
+                try {
+                    int status = httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                    if (status / 100 == 2) {
+                        callbackOutcome("delivered");
+                        return;
+                    }
+                    log.warn("Callback for chat job {} returned {} (attempt {})", payload.id(), status, attempt);
+                } catch (IOException e) {
+                    log.warn("Callback for chat job {} failed (attempt {}): {}", payload.id(), attempt, e.getMessage());
+                }
+                if (attempt < config.getCallbackAttempts()) {
+                    Thread.sleep(1000L << (attempt - 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Callback for chat job {} could not be sent: {}", payload.id(), e.getMessage());
+        }
+        callbackOutcome("failed");
+    }
+
+    private String sign(byte[] body) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(config.getCallbackSecret().getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+
+    private void callbackOutcome(String outcome) {
+        meterRegistry.counter("rag.chat.jobs.callbacks", "outcome", outcome).increment();
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private static ChatJobResponse toResponse(ChatJob job) {
+        return ChatJobResponse.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .conversationId(job.getConversationId())
+                .result(job.getResult())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+}
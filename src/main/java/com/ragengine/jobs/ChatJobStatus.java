@@ -0,0 +1,16 @@
+package com.ragengine.jobs;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+public enum ChatJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    /**
+     * Statuses of a job that has not finished yet.
+     */
+    public static final Set<ChatJobStatus> ACTIVE = EnumSet.of(QUEUED, RUNNING);
+}
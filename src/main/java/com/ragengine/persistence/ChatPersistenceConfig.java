@@ -0,0 +1,38 @@
+package com.ragengine.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for how chat turns are written to the database.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.chat.persistence")
+@Getter
+@Setter
+public class ChatPersistenceConfig {
+
+    /**
+     * When a chat turn counts as saved; {@code group-commit} and {@code async} batch writes.
+     */
+    private DurabilityMode mode = DurabilityMode.SYNC;
+
+    /**
+     * Most turns written in one batch.
+     */
+    private int maxBatchSize = 100;
+
+    /**
+     * How long a batch waits for more turns after its first one.
+     */
+    private Duration flushInterval = Duration.ofMillis(5);
+
+    /**
+     * Turns that may wait to be written; beyond it, requests wait for room.
+     */
+    private int queueCapacity = 10_000;
+}
@@ -0,0 +1,26 @@
+package com.ragengine.persistence;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * The rows one answered question adds: two messages, the conversation title if it
+ * has none yet, and the audit entry.
+ *
+ * @param title   title for a conversation that has none yet
+ * @param askedAt creation time of the question; the answer is stamped just after it
+ */
+public record ChatTurn(
+        UUID conversationId,
+        UUID tenantId,
+        UUID userId,
+        String userEmail,
+        String question,
+        String answer,
+        List<Map<String, Object>> sources,
+        String title,
+        String auditDetails,
+        LocalDateTime askedAt
+) {}
@@ -0,0 +1,131 @@
+package com.ragengine.persistence;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ragengine.audit.AuditAction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Writes a batch of chat turns in one transaction, with one multi-row statement per
+ * table instead of several single-row inserts per turn. Their audit entries are
+ * written after that transaction and on a best-effort basis, so a failing audit
+ * insert never loses a chat turn.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatTurnWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes the turns. Turns of conversations deleted in the meantime are skipped.
+     *
+     * @return the conversations whose turns were written
+     */
+    public Set<UUID> write(List<ChatTurn> turns) {
+        List<ChatTurn> kept = new ArrayList<>();
+        Set<UUID> written = transactionTemplate.execute(status -> {
+            Set<UUID> conversations = insertMessages(turns);
+            turns.stream().filter(turn -> conversations.contains(turn.conversationId())).forEach(kept::add);
+            if (!kept.isEmpty()) {
+                updateConversations(kept);
+            }
+            return conversations;
+        });
+        if (!kept.isEmpty()) {
+            try {
+                insertAuditLogs(kept);
+            } catch (RuntimeException e) {
+                // Never let audit logging break the main flow
+                log.error("Failed to record audit logs for {} chat turns: {}", kept.size(), e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private Set<UUID> insertMessages(List<ChatTurn> turns) {
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>(turns.size() * 12);
+        for (ChatTurn turn : turns) {
+            values.add("(?::uuid, ?::uuid, ?, ?, ?::jsonb, ?::timestamp)");
+            values.add("(?::uuid, ?::uuid, ?, ?, ?::jsonb, ?::timestamp)");
+            Collections.addAll(args, UUID.randomUUID(), turn.conversationId(), "user", turn.question(),
+                    null, turn.askedAt());
+            // One microsecond later keeps the answer after its question in created_at order
+            Collections.addAll(args, UUID.randomUUID(), turn.conversationId(), "assistant", turn.answer(),
+                    toJson(turn.sources()), turn.askedAt().plus(1, ChronoUnit.MICROS));
+        }
+        String sql = """
+                INSERT INTO chat_messages (id, conversation_id, role, content, sources, created_at)
+                SELECT v.id, v.conversation_id, v.role, v.content, v.sources, v.created_at
+                FROM (VALUES %s) AS v(id, conversation_id, role, content, sources, created_at)
+                WHERE EXISTS (SELECT 1 FROM conversations c WHERE c.id = v.conversation_id)
+                RETURNING conversation_id
+                """.formatted(values);
+        return new HashSet<>(jdbcTemplate.queryForList(sql, UUID.class, args.toArray()));
+    }
+
+    /**
+     * Sets the title of untitled conversations and moves {@code updated_at} to the
+     * latest turn, one row per conversation.
+     */
+    private void updateConversations(List<ChatTurn> turns) {
+        Map<UUID, ChatTurn> firstTurn = new LinkedHashMap<>();
+        Map<UUID, LocalDateTime> lastTurnAt = new HashMap<>();
+        for (ChatTurn turn : turns) {
+            firstTurn.putIfAbsent(turn.conversationId(), turn);
+            lastTurnAt.merge(turn.conversationId(), turn.askedAt(), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>();
+        firstTurn.forEach((conversationId, turn) -> {
+            values.add("(?::uuid, ?, ?::timestamp)");
+            Collections.addAll(args, conversationId, turn.title(), lastTurnAt.get(conversationId));
+        });
+        jdbcTemplate.update("""
+                UPDATE conversations c
+                SET title = COALESCE(NULLIF(c.title, ''), v.title),
+                    updated_at = GREATEST(c.updated_at, v.updated_at)
+                FROM (VALUES %s) AS v(id, title, updated_at)
+                WHERE c.id = v.id
+                """.formatted(values), args.toArray());
+    }
+
+    private void insertAuditLogs(List<ChatTurn> turns) {
+        StringJoiner values = new StringJoiner(", ");
+        List<Object> args = new ArrayList<>();
+        for (ChatTurn turn : turns) {
+            values.add("(?::uuid, ?::uuid, ?::uuid, ?, ?, ?, ?::uuid, ?, true, ?::timestamp)");
+            Collections.addAll(args, UUID.randomUUID(), turn.tenantId(), turn.userId(), turn.userEmail(),
+                    AuditAction.CHAT_QUERY, "CONVERSATION", turn.conversationId(), turn.auditDetails(),
+                    turn.askedAt());
+        }
+        jdbcTemplate.update("""
+                INSERT INTO audit_logs (id, tenant_id, user_id, user_email, action, resource_type,
+                                        resource_id, details, success, created_at)
+                VALUES %s
+                """.formatted(values), args.toArray());
+    }
+
+    private String toJson(List<Map<String, Object>> sources) {
+        if (sources == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(sources);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize message sources", e);
+        }
+    }
+}
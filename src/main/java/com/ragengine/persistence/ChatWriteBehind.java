@@ -0,0 +1,186 @@
+package com.ragengine.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Write-behind buffer for chat turns.
+ *
+ * In {@link DurabilityMode#GROUP_COMMIT} and {@link DurabilityMode#ASYNC} mode, turns
+ * are queued and a single writer thread stores them in batches — whatever arrived
+ * within {@code rag.chat.persistence.flush-interval} of the first one, up to
+ * {@code max-batch-size} — so a busy server commits once per batch instead of once
+ * per turn. Group commit makes each caller wait for its batch; async does not.
+ *
+ * Reads of a conversation call {@link #awaitWritten(UUID)} first, which waits until
+ * every turn queued for it has been written, so a client always sees its own turns.
+ *
+ * Metrics: {@code rag.chat.persistence.batch} (turns per batch),
+ * {@code rag.chat.persistence.flush} (batch write time), {@code rag.chat.persistence.queued}
+ * and {@code rag.chat.persistence.failures} (turns that could not be written).
+ */
+@Component
+@Slf4j
+public class ChatWriteBehind {
+
+    static final String CONVERSATION_DELETED = "Conversation was deleted while the answer was being generated";
+
+    private final ChatPersistenceConfig config;
+    private final ChatTurnWriter writer;
+    private final BlockingQueue<Pending> queue;
+    private final ConcurrentMap<UUID, CompletableFuture<Void>> latestWrite = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Counter failures;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private record Pending(ChatTurn turn, CompletableFuture<Void> written) {}
+
+    public ChatWriteBehind(ChatPersistenceConfig config, ChatTurnWriter writer, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.writer = writer;
+        this.queue = new LinkedBlockingQueue<>(config.getQueueCapacity());
+        this.batchSize = DistributionSummary.builder("rag.chat.persistence.batch")
+                .description("Chat turns written per batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("rag.chat.persistence.flush")
+                .description("Time to write one batch of chat turns")
+                .register(meterRegistry);
+        this.failures = Counter.builder("rag.chat.persistence.failures")
+                .description("Chat turns that could not be written")
+                .register(meterRegistry);
+        Gauge.builder("rag.chat.persistence.queued", queue, BlockingQueue::size)
+                .description("Chat turns waiting to be written")
+                .register(meterRegistry);
+        this.flusher = isEnabled()
+                ? Thread.ofPlatform().name("chat-write-behind").daemon().start(this::run)
+                : null;
+    }
+
+    /**
+     * Whether turns go through this buffer rather than being saved by the caller.
+     */
+    public boolean isEnabled() {
+        return config.getMode() != DurabilityMode.SYNC;
+    }
+
+    /**
+     * Queues a turn. In group-commit mode, returns once it is written.
+     *
+     * @return completes once the turn is written
+     * @throws IllegalStateException in group-commit mode, if the turn could not be written
+     */
+    public CompletableFuture<Void> write(ChatTurn turn) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        latestWrite.put(turn.conversationId(), written);
+        written.whenComplete((ignored, e) -> latestWrite.remove(turn.conversationId(), written));
+        try {
+            queue.put(new Pending(turn, written));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written.completeExceptionally(e);
+            throw new IllegalStateException("Interrupted while queueing the chat turn", e);
+        }
+        if (config.getMode() == DurabilityMode.GROUP_COMMIT) {
+            try {
+                written.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof IllegalStateException ise ? ise
+                        : new IllegalStateException("Could not save the chat turn", e.getCause());
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Waits until every turn queued for the conversation has been written (or has failed).
+     */
+    public void awaitWritten(UUID conversationId) {
+        CompletableFuture<Void> latest = latestWrite.get(conversationId);
+        if (latest != null) {
+            // Turns are written in queue order, so the newest one finishing means all have
+            latest.exceptionally(e -> null).join();
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<Pending> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + config.getFlushInterval().toNanos();
+                while (batch.size() < config.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, config.getMaxBatchSize() - batch.size());
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        long started = System.nanoTime();
+        try {
+            Set<UUID> written = writer.write(batch.stream().map(Pending::turn).toList());
+            batchSize.record(batch.size());
+            flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            for (Pending pending : batch) {
+                if (written.contains(pending.turn().conversationId())) {
+                    pending.written().complete(null);
+                } else {
+                    failures.increment();
+                    pending.written().completeExceptionally(new IllegalStateException(CONVERSATION_DELETED));
+                }
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                // Keep one bad turn from failing the whole batch
+                log.warn("Writing {} chat turns failed, retrying one by one: {}", batch.size(), e.getMessage());
+                batch.forEach(pending -> flush(List.of(pending)));
+                return;
+            }
+            failures.increment();
+            log.error("Could not save chat turn for conversation {}: {}",
+                    batch.getFirst().turn().conversationId(), e.getMessage());
+            batch.getFirst().written().completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        // Not interrupted: the flusher drains the queue, then stops
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("{} chat turns were not written before shutdown", queue.size());
+        }
+    }
+}
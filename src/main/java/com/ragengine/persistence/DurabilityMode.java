@@ -0,0 +1,25 @@
+package com.ragengine.persistence;
+
+/**
+ * When a chat turn counts as saved.
+ */
+public enum DurabilityMode {
+
+    /**
+     * Each turn is written in its own transaction before the answer is returned.
+     */
+    SYNC,
+
+    /**
+     * Turns are queued and written in batches; each request waits until the batch
+     * holding its turn has committed. As durable as {@link #SYNC}, with one commit
+     * per batch instead of per turn.
+     */
+    GROUP_COMMIT,
+
+    /**
+     * Turns are queued and the answer is returned at once. Turns still queued are
+     * lost if the process dies.
+     */
+    ASYNC
+}
@@ -0,0 +1,36 @@
+package com.ragengine.prompt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for extractive compression of retrieved context.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.context-compression")
+@Getter
+@Setter
+public class ContextCompressionConfig {
+
+    /**
+     * Whether retrieved chunks are cut down to their sentences most relevant to the question.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How sentences are scored against the question.
+     */
+    private ContextScorer scorer = ContextScorer.LEXICAL;
+
+    /**
+     * Tokens of context kept across all chunks.
+     */
+    private int maxTokens = 600;
+
+    /**
+     * Sentences scoring below this fraction of the best sentence's score are dropped even if they fit.
+     */
+    private double minRelativeScore = 0.25;
+}
@@ -0,0 +1,238 @@
+package com.ragengine.prompt;
+
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.stereotype.Component;
+
+import java.text.BreakIterator;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Cuts retrieved chunks down to the sentences that matter for the question before
+ * the prompt is assembled.
+ *
+ * Chunks are split into sentences, and every sentence is scored against the question
+ * (see {@link ContextScorer}). Sentences are kept best first until
+ * {@code rag.context-compression.max-tokens} is spent, skipping those scoring below
+ * {@code min-relative-score} of the best one. Each chunk keeps its surviving
+ * sentences in their original order, with {@code ...} marking gaps, and its metadata,
+ * so source labels and citations still point at the right document. Chunks with no
+ * surviving sentence are dropped. If no sentence scores better than any other, the
+ * chunks are returned as they are.
+ *
+ * The kept share of context tokens is recorded in {@code rag.chat.context.compression}.
+ * Sentence embeddings are metered against the tenant like query embeddings.
+ */
+@Component
+@Slf4j
+public class ContextCompressor {
+
+    static final String GAP = " ... ";
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "do", "does", "for", "from", "how", "in",
+            "is", "it", "of", "on", "or", "that", "the", "this", "to", "was", "what", "when", "where",
+            "which", "who", "with");
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+
+    private final ContextCompressionConfig config;
+    private final EmbeddingModel embeddingModel;
+    private final QueryEmbeddingSearch querySearch;
+    private final UsageMeter usageMeter;
+    private final Map<String, TokenCounter> counters = new ConcurrentHashMap<>();
+    private final DistributionSummary keptRatio;
+
+    public ContextCompressor(ContextCompressionConfig config, EmbeddingModel embeddingModel,
+                             QueryEmbeddingSearch querySearch, UsageMeter usageMeter,
+                             MeterRegistry meterRegistry) {
+        this.config = config;
+        this.embeddingModel = embeddingModel;
+        this.querySearch = querySearch;
+        this.usageMeter = usageMeter;
+        this.keptRatio = DistributionSummary.builder("rag.chat.context.compression")
+                .description("Share of retrieved context tokens kept after compression")
+                .register(meterRegistry);
+    }
+
+    private record Sentence(int chunk, int index, String text) {}
+
+    /**
+     * Compresses the chunks for the question, counting tokens for the given model.
+     *
+     * @param tenantId the tenant any sentence embeddings are metered against
+     * @return the compressed chunks in their original rank order
+     */
+    public List<Document> compress(UUID tenantId, String model, String question, List<Document> chunks) {
+        if (!config.isEnabled() || chunks.isEmpty()) {
+            return chunks;
+        }
+        List<Sentence> sentences = split(chunks);
+        double[] scores = score(tenantId, question, sentences);
+        double best = Arrays.stream(scores).max().orElse(0);
+        double worst = Arrays.stream(scores).min().orElse(0);
+        if (best <= worst) {
+            return chunks;
+        }
+
+        // Best sentences first; ties go to higher-ranked chunks and earlier sentences
+        Integer[] order = new Integer[sentences.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -scores[i])
+                .thenComparingInt(i -> sentences.get(i).chunk())
+                .thenComparingInt(i -> sentences.get(i).index()));
+
+        TokenCounter counter = counters.computeIfAbsent(model != null ? model : "", TokenCounter::forModel);
+        double threshold = worst + (best - worst) * config.getMinRelativeScore();
+        BitSet kept = new BitSet(sentences.size());
+        int used = 0;
+        for (int i : order) {
+            if (scores[i] < threshold) {
+                break;
+            }
+            int cost = counter.count(sentences.get(i).text());
+            if (used + cost > config.getMaxTokens() && !kept.isEmpty()) {
+                continue;
+            }
+            kept.set(i);
+            used += cost;
+        }
+
+        List<Document> compressed = rebuild(chunks, sentences, kept);
+        int original = chunks.stream().mapToInt(chunk -> counter.count(chunk.getText())).sum();
+        if (original > 0) {
+            keptRatio.record(Math.min(1.0, (double) used / original));
+        }
+        log.debug("Compressed context from {} to {} tokens ({} of {} chunks kept)",
+                original, used, compressed.size(), chunks.size());
+        return compressed;
+    }
+
+    private static List<Sentence> split(List<Document> chunks) {
+        List<Sentence> sentences = new ArrayList<>();
+        BreakIterator boundaries = BreakIterator.getSentenceInstance(Locale.ROOT);
+        for (int c = 0; c < chunks.size(); c++) {
+            String text = Objects.requireNonNullElse(chunks.get(c).getText(), "");
+            boundaries.setText(text);
+            int index = 0;
+            for (int start = boundaries.first(), end = boundaries.next(); end != BreakIterator.DONE;
+                 start = end, end = boundaries.next()) {
+                String sentence = text.substring(start, end).strip();
+                if (!sentence.isEmpty()) {
+                    sentences.add(new Sentence(c, index++, sentence));
+                }
+            }
+        }
+        return sentences;
+    }
+
+    private double[] score(UUID tenantId, String question, List<Sentence> sentences) {
+        if (config.getScorer() == ContextScorer.EMBEDDING) {
+            try {
+                return embeddingScores(tenantId, question, sentences);
+            } catch (RuntimeException e) {
+                log.warn("Embedding sentences for context compression failed, scoring lexically: {}",
+                        e.getMessage());
+            }
+        }
+        return lexicalScores(question, sentences);
+    }
+
+    /**
+     * BM25, treating every retrieved sentence as a document of the corpus.
+     */
+    private static double[] lexicalScores(String question, List<Sentence> sentences) {
+        Set<String> queryTerms = new HashSet<>(terms(question));
+        List<List<String>> sentenceTerms = sentences.stream().map(s -> terms(s.text())).toList();
+        double averageLength = sentenceTerms.stream().mapToInt(List::size).average().orElse(1);
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (List<String> terms : sentenceTerms) {
+            new HashSet<>(terms).stream()
+                    .filter(queryTerms::contains)
+                    .forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+        }
+
+        int n = sentences.size();
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            List<String> terms = sentenceTerms.get(i);
+            Map<String, Integer> frequency = new HashMap<>();
+            terms.stream().filter(queryTerms::contains).forEach(term -> frequency.merge(term, 1, Integer::sum));
+            double lengthNorm = BM25_K1 * (1 - BM25_B + BM25_B * terms.size() / Math.max(averageLength, 1));
+            for (Map.Entry<String, Integer> entry : frequency.entrySet()) {
+                int df = documentFrequency.get(entry.getKey());
+                double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+                scores[i] += idf * entry.getValue() * (BM25_K1 + 1) / (entry.getValue() + lengthNorm);
+            }
+        }
+        return scores;
+    }
+
+    private double[] embeddingScores(UUID tenantId, String question, List<Sentence> sentences) {
+        List<String> texts = new ArrayList<>(sentences.size() + 1);
+        texts.add(question);
+        sentences.forEach(sentence -> texts.add(sentence.text()));
+        long started = System.nanoTime();
+        List<float[]> embeddings = embeddingModel.embed(texts);
+        usageMeter.recordEmbedding(tenantId, querySearch.queryEmbeddingModel(tenantId), texts,
+                Duration.ofNanos(System.nanoTime() - started));
+        float[] query = embeddings.getFirst();
+        double[] scores = new double[sentences.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = cosine(query, embeddings.get(i + 1));
+        }
+        return scores;
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+    }
+
+    private static List<String> terms(String text) {
+        return WORD.matcher(text.toLowerCase(Locale.ROOT)).results()
+                .map(match -> match.group())
+                .filter(term -> !STOP_WORDS.contains(term))
+                .toList();
+    }
+
+    private static List<Document> rebuild(List<Document> chunks, List<Sentence> sentences, BitSet kept) {
+        List<Document> compressed = new ArrayList<>();
+        int next = 0;
+        for (int c = 0; c < chunks.size(); c++) {
+            StringBuilder text = new StringBuilder();
+            int previous = -1;
+            for (; next < sentences.size() && sentences.get(next).chunk() == c; next++) {
+                if (!kept.get(next)) {
+                    continue;
+                }
+                Sentence sentence = sentences.get(next);
+                if (!text.isEmpty()) {
+                    text.append(sentence.index() == previous + 1 ? " " : GAP);
+                }
+                text.append(sentence.text());
+                previous = sentence.index();
+            }
+            if (!text.isEmpty()) {
+                compressed.add(chunks.get(c).mutate().text(text.toString()).build());
+            }
+        }
+        return compressed;
+    }
+}
@@ -0,0 +1,143 @@
+package com.ragengine.prompt;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Merges retrieved chunks that are neighbours in the same document.
+ *
+ * Chunks overlap by {@code rag.chunking.chunk-overlap} characters, so when the top-k
+ * results hold chunks 3 and 4 of a document, the prompt would carry their shared
+ * text twice. Hits are grouped by document, and every run of consecutive
+ * {@code chunkIndex} values becomes one span: the text of each following chunk is
+ * appended without the prefix it shares with the span so far. A span takes the rank
+ * and score of its best chunk and the metadata of its first one, plus
+ * {@value #LAST_CHUNK_INDEX} for the combined citation.
+ *
+ * Merged-away chunks are counted in {@code rag.chat.context.merged}.
+ */
+@Component
+@Slf4j
+public class ContextConsolidator {
+
+    /**
+     * Metadata key for the last chunk index of a merged span.
+     */
+    public static final String LAST_CHUNK_INDEX = "lastChunkIndex";
+
+    /**
+     * Shorter shared text is treated as coincidence rather than chunk overlap.
+     */
+    static final int MIN_OVERLAP_CHARS = 20;
+
+    private final boolean enabled;
+    private final Counter merged;
+
+    public ContextConsolidator(@Value("${rag.chat.merge-adjacent-chunks:true}") boolean enabled,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.merged = Counter.builder("rag.chat.context.merged")
+                .description("Retrieved chunks merged into a neighbouring chunk of the same document")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Merges adjacent chunks of the same document.
+     *
+     * @param chunks retrieved chunks, best first
+     * @return spans in the rank order of their best chunk
+     */
+    public List<Document> consolidate(List<Document> chunks) {
+        if (!enabled || chunks.size() < 2) {
+            return chunks;
+        }
+        // Chunks by document, then by index; each remembers its retrieval rank
+        Map<Object, TreeMap<Integer, Integer>> byDocument = new LinkedHashMap<>();
+        List<Integer> unindexed = new ArrayList<>();
+        for (int rank = 0; rank < chunks.size(); rank++) {
+            Map<String, Object> metadata = chunks.get(rank).getMetadata();
+            Object documentId = metadata.get("documentId");
+            if (documentId == null || !(metadata.get("chunkIndex") instanceof Integer index)) {
+                unindexed.add(rank);
+                continue;
+            }
+            byDocument.computeIfAbsent(documentId, id -> new TreeMap<>()).putIfAbsent(index, rank);
+        }
+
+        // Best rank of each span -> span
+        SortedMap<Integer, Document> spans = new TreeMap<>();
+        unindexed.forEach(rank -> spans.put(rank, chunks.get(rank)));
+        for (TreeMap<Integer, Integer> ranksByIndex : byDocument.values()) {
+            List<Integer> run = new ArrayList<>();
+            Integer previous = null;
+            for (Map.Entry<Integer, Integer> entry : ranksByIndex.entrySet()) {
+                if (previous != null && entry.getKey() != previous + 1) {
+                    addSpan(spans, chunks, run);
+                    run = new ArrayList<>();
+                }
+                run.add(entry.getValue());
+                previous = entry.getKey();
+            }
+            addSpan(spans, chunks, run);
+        }
+
+        int mergedAway = chunks.size() - spans.size();
+        if (mergedAway > 0) {
+            merged.increment(mergedAway);
+            log.debug("Merged {} retrieved chunks into {} spans", chunks.size(), spans.size());
+        }
+        return List.copyOf(spans.values());
+    }
+
+    /**
+     * Adds a run of consecutive chunks, given by rank in index order, as one span.
+     */
+    private static void addSpan(SortedMap<Integer, Document> spans, List<Document> chunks, List<Integer> run) {
+        if (run.size() == 1) {
+            spans.put(run.getFirst(), chunks.get(run.getFirst()));
+            return;
+        }
+        Document first = chunks.get(run.getFirst());
+        StringBuilder text = new StringBuilder(Objects.requireNonNullElse(first.getText(), ""));
+        Double score = first.getScore();
+        for (int rank : run.subList(1, run.size())) {
+            Document next = chunks.get(rank);
+            appendWithoutOverlap(text, Objects.requireNonNullElse(next.getText(), ""));
+            if (next.getScore() != null && (score == null || next.getScore() > score)) {
+                score = next.getScore();
+            }
+        }
+        Map<String, Object> metadata = new HashMap<>(first.getMetadata());
+        metadata.put(LAST_CHUNK_INDEX, chunks.get(run.getLast()).getMetadata().get("chunkIndex"));
+        Document span = Document.builder()
+                .id(first.getId())
+                .text(text.toString())
+                .metadata(metadata)
+                .score(score)
+                .build();
+        spans.put(Collections.min(run), span);
+    }
+
+    /**
+     * Appends {@code next}, minus the longest prefix of it that {@code text} already ends with.
+     */
+    static void appendWithoutOverlap(StringBuilder text, String next) {
+        String current = text.toString();
+        for (int length = Math.min(current.length(), next.length()); length >= MIN_OVERLAP_CHARS; length--) {
+            if (current.regionMatches(current.length() - length, next, 0, length)) {
+                text.append(next, length, next.length());
+                return;
+            }
+        }
+        if (!current.isEmpty() && !next.isEmpty()) {
+            text.append('\n');
+        }
+        text.append(next);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ragengine.prompt;
+
+/**
+ * How {@link ContextCompressor} scores retrieved sentences against the question.
+ */
+public enum ContextScorer {
+
+    /**
+     * BM25 over the retrieved sentences; free, but blind to paraphrases.
+     */
+    LEXICAL,
+
+    /**
+     * Cosine similarity of sentence and question embeddings, computed in one batched
+     * embedding call per request.
+     */
+    EMBEDDING
+}
@@ -0,0 +1,377 @@
+package com.ragengine.prompt;
+
+import com.ragengine.routing.RoutingChatModel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assembles chat prompts within the token budget of the target model.
+ *
+ * The budget is the model's context window minus the tokens reserved for the answer
+ * (and optionally capped by {@code rag.prompt.max-prompt-tokens}). It is spent by
+ * priority:
+ * 1. System prompt, conversation summary and question — always included
+ * 2. Conversation history, newest first, up to {@code rag.prompt.history-share}
+ * 3. Context chunks in retrieval rank order; the last one that only partly fits is
+ *    trimmed to the remaining tokens
+ * 4. Older history, with whatever the chunks left over
+ *
+ * With {@link PromptLayout#PREFIX_STABLE} the answer instructions move into a system
+ * message ahead of the summary, the final user message holds only context and
+ * question, and history is dropped in blocks of {@code rag.prompt.history-block}
+ * messages counted from the oldest one, so the prefix of consecutive prompts stays
+ * byte-identical for several turns.
+ *
+ * Token counts are exact for OpenAI models (see {@link TokenCounter}); the
+ * {@link Assembled#promptTokens()} of each prompt is also recorded in the
+ * {@code rag.chat.prompt.tokens} summary.
+ */
+@Component
+@Slf4j
+public class PromptAssembler {
+
+    /**
+     * A chunk is only trimmed if at least this many of its tokens still fit.
+     */
+    static final int MIN_TRIMMED_CHUNK_TOKENS = 64;
+
+    static final String CONTEXT_HEADER = "=== RELEVANT DOCUMENT CONTEXT ===\n\n";
+    static final String NO_CONTEXT = "No relevant context found in the uploaded documents.";
+    private static final String SEPARATOR = "\n\n---\n\n";
+    static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+    static final String ANSWER_INSTRUCTIONS = """
+            Answer the user's question based on the document context sent with it.
+            If the context doesn't contain enough information, clearly state that.
+            Always reference which source(s) you're using in your answer.""";
+
+    private final PromptBudgetConfig config;
+    private final ChatModel chatModel;
+    private final Map<String, TokenCounter> counters = new ConcurrentHashMap<>();
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary historyTokens;
+    private final DistributionSummary contextTokens;
+
+    public PromptAssembler(PromptBudgetConfig config, ChatModel chatModel, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.chatModel = chatModel;
+        this.promptTokens = tokenSummary(meterRegistry, "total");
+        this.historyTokens = tokenSummary(meterRegistry, "history");
+        this.contextTokens = tokenSummary(meterRegistry, "context");
+    }
+
+    /**
+     * A prompt fitted to the budget.
+     *
+     * @param messages       instructions (prefix-stable layout), summary, history and the
+     *                       augmented question, without the system prompt
+     * @param chunks         the retrieved chunks that made it into the prompt, possibly trimmed
+     * @param promptTokens   tokens of the whole prompt, system prompt included
+     * @param budget         prompt tokens the model allowed
+     * @param droppedChunks  retrieved chunks left out
+     * @param droppedHistory history messages left out
+     */
+    public record Assembled(
+            List<Message> messages,
+            List<Document> chunks,
+            int promptTokens,
+            int historyTokens,
+            int contextTokens,
+            int budget,
+            int droppedChunks,
+            int droppedHistory
+    ) {}
+
+    /**
+     * Assembles a prompt for the default chat model.
+     */
+    public Assembled assemble(String systemPrompt, String summary, List<Message> history,
+                              List<Document> chunks, String question) {
+        return assemble(defaultModel(), systemPrompt, summary, history, chunks, question);
+    }
+
+    /**
+     * Assembles a prompt for the given chat model.
+     *
+     * @param summary running summary of the turns before {@code history}, or {@code null}
+     */
+    public Assembled assemble(String model, String systemPrompt, String summary, List<Message> history,
+                              List<Document> chunks, String question) {
+        TokenCounter counter = counterFor(model);
+        int budget = budgetFor(model, counter);
+        PromptLayout layout = config.getLayout();
+        List<Message> prefix = new ArrayList<>();
+        if (layout == PromptLayout.PREFIX_STABLE) {
+            prefix.add(new SystemMessage(ANSWER_INSTRUCTIONS));
+        }
+        if (summary != null && !summary.isBlank()) {
+            prefix.add(new SystemMessage(SUMMARY_PREFIX + summary));
+        }
+
+        int fixed = TokenCounter.REPLY_PRIMING
+                + counter.count(systemPrompt) + TokenCounter.MESSAGE_OVERHEAD
+                + prefix.stream().mapToInt(counter::count).sum()
+                + Math.max(counter.count(finalUserMessage(layout, question, CONTEXT_HEADER)),
+                        counter.count(finalUserMessage(layout, question, NO_CONTEXT)))
+                + TokenCounter.MESSAGE_OVERHEAD;
+        if (fixed > budget) {
+            throw new IllegalArgumentException("Question is too long for model " + model + ": needs "
+                    + fixed + " tokens, the prompt budget is " + budget);
+        }
+        int remaining = budget - fixed;
+
+        // History first up to its share, so a large context cannot crowd out the conversation
+        List<Message> newestFirst = history.reversed();
+        int historyCap = (int) (remaining * config.getHistoryShare());
+        int kept = 0;
+        int historyUsed = 0;
+        while (kept < newestFirst.size()) {
+            int next = nextKept(layout, kept, newestFirst.size());
+            int cost = countHistory(counter, newestFirst, kept, next);
+            if (historyUsed + cost > historyCap) {
+                break;
+            }
+            historyUsed += cost;
+            kept = next;
+        }
+        remaining -= historyUsed;
+
+        // Context chunks by rank; the first one that does not fit is trimmed or dropped
+        List<Document> included = new ArrayList<>();
+        int contextUsed = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Document chunk = chunks.get(i);
+            String label = sourceLabel(i + 1, chunk);
+            int cost = counter.count(label) + counter.count(chunk.getText()) + counter.count(SEPARATOR);
+            if (cost <= remaining - contextUsed) {
+                included.add(chunk);
+                contextUsed += cost;
+                continue;
+            }
+            int textBudget = remaining - contextUsed - counter.count(label) - counter.count(SEPARATOR);
+            if (textBudget >= MIN_TRIMMED_CHUNK_TOKENS) {
+                String trimmed = counter.truncate(chunk.getText(), textBudget);
+                included.add(chunk.mutate().text(trimmed).build());
+                contextUsed += counter.count(label) + counter.count(trimmed) + counter.count(SEPARATOR);
+            }
+            break;
+        }
+        remaining -= contextUsed;
+
+        // Older history with what the chunks left over
+        while (kept < newestFirst.size()) {
+            int next = nextKept(layout, kept, newestFirst.size());
+            int cost = countHistory(counter, newestFirst, kept, next);
+            if (cost > remaining) {
+                break;
+            }
+            historyUsed += cost;
+            remaining -= cost;
+            kept = next;
+        }
+
+        // Parts were counted separately; tokens can merge differently across the joins,
+        // so measure what is actually sent and shave the lowest-priority part if needed
+        List<Message> messages = render(layout, prefix, newestFirst.subList(0, kept), included, question);
+        int total = count(counter, systemPrompt, messages);
+        while (total > budget && (!included.isEmpty() || kept > 0)) {
+            if (!included.isEmpty()) {
+                Document last = included.removeLast();
+                int target = counter.count(last.getText()) - (total - budget);
+                if (target >= MIN_TRIMMED_CHUNK_TOKENS) {
+                    included.add(last.mutate().text(counter.truncate(last.getText(), target)).build());
+                }
+            } else {
+                int previous = previousKept(layout, kept, newestFirst.size());
+                historyUsed -= countHistory(counter, newestFirst, previous, kept);
+                kept = previous;
+            }
+            messages = render(layout, prefix, newestFirst.subList(0, kept), included, question);
+            total = count(counter, systemPrompt, messages);
+        }
+        contextUsed = countContext(counter, included);
+
+        Assembled assembled = new Assembled(messages, included, total, historyUsed, contextUsed, budget,
+                chunks.size() - included.size(), history.size() - kept);
+        promptTokens.record(total);
+        historyTokens.record(historyUsed);
+        contextTokens.record(contextUsed);
+        if (assembled.droppedChunks() > 0 || assembled.droppedHistory() > 0) {
+            log.debug("Prompt for {} trimmed to {} of {} tokens: dropped {} chunks, {} history messages",
+                    model, total, budget, assembled.droppedChunks(), assembled.droppedHistory());
+        }
+        return assembled;
+    }
+
+    /**
+     * First history message to load for a conversation: everything after the summarized
+     * messages, limited to the newest {@code maxMessages}. With the prefix-stable layout
+     * the start only advances in whole history blocks.
+     *
+     * @param summarized messages covered by the conversation summary
+     */
+    public int historyStart(int summarized, int size, int maxMessages) {
+        int excess = Math.max(0, size - summarized - maxMessages);
+        if (config.getLayout() == PromptLayout.PREFIX_STABLE) {
+            excess = Math.ceilDiv(excess, historyBlock()) * historyBlock();
+        }
+        return Math.min(size, summarized + excess);
+    }
+
+    /**
+     * Number of newest history messages kept after keeping one more message, or one
+     * more block of them for the prefix-stable layout. Blocks are counted from the
+     * oldest message, so their boundaries do not move as new turns are added.
+     */
+    private int nextKept(PromptLayout layout, int kept, int size) {
+        if (layout != PromptLayout.PREFIX_STABLE) {
+            return kept + 1;
+        }
+        return size - (size - kept - 1) / historyBlock() * historyBlock();
+    }
+
+    private int previousKept(PromptLayout layout, int kept, int size) {
+        if (layout != PromptLayout.PREFIX_STABLE) {
+            return kept - 1;
+        }
+        return Math.max(0, size - Math.ceilDiv(size - kept + 1, historyBlock()) * historyBlock());
+    }
+
+    private int historyBlock() {
+        return Math.max(1, config.getHistoryBlock());
+    }
+
+    private static int countHistory(TokenCounter counter, List<Message> newestFirst, int from, int to) {
+        return newestFirst.subList(from, to).stream().mapToInt(counter::count).sum();
+    }
+
+    private static List<Message> render(PromptLayout layout, List<Message> prefix, List<Message> newestFirstHistory,
+                                        List<Document> chunks, String question) {
+        StringBuilder context = new StringBuilder(CONTEXT_HEADER);
+        for (int i = 0; i < chunks.size(); i++) {
+            context.append(sourceLabel(i + 1, chunks.get(i))).append(chunks.get(i).getText()).append(SEPARATOR);
+        }
+        List<Message> messages = new ArrayList<>(prefix);
+        messages.addAll(newestFirstHistory.reversed());
+        messages.add(new UserMessage(finalUserMessage(layout, question,
+                chunks.isEmpty() ? NO_CONTEXT : context.toString())));
+        return messages;
+    }
+
+    private static int count(TokenCounter counter, String systemPrompt, List<Message> messages) {
+        return TokenCounter.REPLY_PRIMING + counter.count(systemPrompt) + TokenCounter.MESSAGE_OVERHEAD
+                + messages.stream().mapToInt(counter::count).sum();
+    }
+
+    private static int countContext(TokenCounter counter, List<Document> chunks) {
+        int tokens = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            tokens += counter.count(sourceLabel(i + 1, chunks.get(i))) + counter.count(chunks.get(i).getText())
+                    + counter.count(SEPARATOR);
+        }
+        return tokens;
+    }
+
+    /**
+     * Prompt tokens available for the model: its window minus the reserved output,
+     * less a margin when its tokenizer is only approximated. With routing, the request
+     * may be answered by any backend, so the smallest of their windows counts.
+     */
+    int budgetFor(String model, TokenCounter counter) {
+        List<String> targets = chatModel instanceof RoutingChatModel routing
+                ? routing.modelsFor(model)
+                : Collections.singletonList(model);
+        int window = targets.stream()
+                .mapToInt(target -> target != null
+                        ? config.getContextWindows().getOrDefault(target, config.getDefaultContextWindow())
+                        : config.getDefaultContextWindow())
+                .min()
+                .orElse(config.getDefaultContextWindow());
+        int budget = window - config.getReservedOutputTokens();
+        if (config.getMaxPromptTokens() > 0) {
+            budget = Math.min(budget, config.getMaxPromptTokens());
+        }
+        if (!counter.isExact() || !targets.stream().allMatch(target -> counterFor(target).isExact())) {
+            budget = (int) (budget * (1 - config.getApproximationMargin()));
+        }
+        return budget;
+    }
+
+    /**
+     * The model the chat client sends to unless a request overrides it.
+     */
+    public String defaultModel() {
+        ChatOptions options = chatModel.getDefaultOptions();
+        return options != null ? options.getModel() : null;
+    }
+
+    private TokenCounter counterFor(String model) {
+        return counters.computeIfAbsent(model != null ? model : "", TokenCounter::forModel);
+    }
+
+    private static String sourceLabel(int number, Document chunk) {
+        Map<String, Object> metadata = chunk.getMetadata();
+        String docName = (String) metadata.getOrDefault("documentName", "Unknown");
+        Object chunkIdx = metadata.getOrDefault("chunkIndex", "?");
+        Object lastChunkIdx = metadata.get(ContextConsolidator.LAST_CHUNK_INDEX);
+        if (lastChunkIdx != null) {
+            return String.format("[Source %d - %s, Chunks %s-%s]\n", number, docName, chunkIdx, lastChunkIdx);
+        }
+        return String.format("[Source %d - %s, Chunk %s]\n", number, docName, chunkIdx);
+    }
+
+    /**
+     * The message that carries this turn's context and question. The classic layout
+     * wraps them in the answer instructions; the prefix-stable one sends those ahead of
+     * the history instead.
+     */
+    private static String finalUserMessage(PromptLayout layout, String question, String context) {
+        if (layout == PromptLayout.PREFIX_STABLE) {
+            return """
+                    %s
+
+                    === QUESTION ===
+                    %s
+                    """.formatted(context, question);
+        }
+        return augmentedPrompt(question, context);
+    }
+
+    /**
+     * Builds the augmented prompt that includes the retrieved context.
+     */
+    private static String augmentedPrompt(String question, String context) {
+        return """
+                Based on the following context from the uploaded documents, please answer my question.
+                If the context doesn't contain enough information, clearly state that.
+                Always reference which source(s) you're using in your answer.
+
+                %s
+
+                === QUESTION ===
+                %s
+                """.formatted(context, question);
+    }
+
+    private static DistributionSummary tokenSummary(MeterRegistry meterRegistry, String part) {
+        return DistributionSummary.builder("rag.chat.prompt.tokens")
+                .description("Prompt tokens per chat request")
+                .baseUnit("tokens")
+                .tag("part", part)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+}
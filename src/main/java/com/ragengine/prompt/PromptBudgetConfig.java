@@ -0,0 +1,67 @@
+package com.ragengine.prompt;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for the token budget of chat prompts.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.prompt")
+@Getter
+@Setter
+public class PromptBudgetConfig {
+
+    /**
+     * Context window in tokens per chat model name. For Ollama this is the
+     * {@code num_ctx} the server runs the model with, not the model's trained maximum.
+     */
+    private Map<String, Integer> contextWindows = new LinkedHashMap<>(Map.of(
+            "gpt-4o-mini", 128_000,
+            "gpt-4o", 128_000,
+            "gpt-4-turbo", 128_000,
+            "gpt-3.5-turbo", 16_385));
+
+    /**
+     * Context window assumed for models not listed in {@link #contextWindows}.
+     */
+    private int defaultContextWindow = 4096;
+
+    /**
+     * Tokens kept free for the answer.
+     */
+    private int reservedOutputTokens = 1024;
+
+    /**
+     * Upper bound on prompt tokens regardless of the window, to cap cost on large
+     * paid models; 0 disables it.
+     */
+    private int maxPromptTokens = 0;
+
+    /**
+     * Share of the budget left after the system prompt and question that conversation
+     * history may claim before context chunks are placed.
+     */
+    private double historyShare = 0.3;
+
+    /**
+     * Fraction of the budget held back when the model's tokenizer is only approximated.
+     */
+    private double approximationMargin = 0.1;
+
+    /**
+     * Order of the prompt parts; {@code prefix-stable} maximizes the prefix providers can cache.
+     */
+    private PromptLayout layout = PromptLayout.CLASSIC;
+
+    /**
+     * With the prefix-stable layout, history is dropped this many messages at a time,
+     * so the conversation prefix stays unchanged for several turns.
+     */
+    private int historyBlock = 6;
+}
@@ -0,0 +1,64 @@
+package com.ragengine.prompt;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the prompt tokens providers report, and how many of them were served from
+ * their prompt cache, so the effect of {@link PromptLayout#PREFIX_STABLE} is visible:
+ * - {@code rag.chat.provider.prompt.tokens} — prompt tokens as billed by the provider
+ * - {@code rag.chat.provider.cached.tokens} — of those, tokens read from the prompt
+ *   cache (OpenAI reports them; Ollama does not, but the prompt tokens it reports count
+ *   only what it had to evaluate, so KV reuse shows up as a smaller value there)
+ */
+@Component
+public class PromptCacheMetrics {
+
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary cachedTokens;
+
+    public PromptCacheMetrics(MeterRegistry meterRegistry) {
+        this.promptTokens = DistributionSummary.builder("rag.chat.provider.prompt.tokens")
+                .description("Prompt tokens reported by the chat model provider")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+        this.cachedTokens = DistributionSummary.builder("rag.chat.provider.cached.tokens")
+                .description("Prompt tokens the provider served from its prompt cache")
+                .baseUnit("tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the usage of a model response. Streamed fragments without usage are ignored;
+     * providers report it once per call.
+     */
+    public void record(ChatResponse response) {
+        Usage usage = response.getMetadata() != null ? response.getMetadata().getUsage() : null;
+        if (usage == null || usage.getPromptTokens() == null || usage.getPromptTokens() <= 0) {
+            return;
+        }
+        promptTokens.record(usage.getPromptTokens());
+        Integer cached = cachedTokens(usage);
+        if (cached != null) {
+            cachedTokens.record(cached);
+        }
+    }
+
+    /**
+     * Cached prompt tokens, or {@code null} if the provider does not report them.
+     */
+    static Integer cachedTokens(Usage usage) {
+        if (usage.getNativeUsage() instanceof OpenAiApi.Usage openAi) {
+            if (openAi.promptTokensDetails() != null && openAi.promptTokensDetails().cachedTokens() != null) {
+                return openAi.promptTokensDetails().cachedTokens();
+            }
+            // OpenAI-compatible servers such as DeepSeek report cache hits here instead
+            return openAi.promptCacheHitTokens() != null ? openAi.promptCacheHitTokens() : 0;
+        }
+        return null;
+    }
+}
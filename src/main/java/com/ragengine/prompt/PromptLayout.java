@@ -0,0 +1,21 @@
+package com.ragengine.prompt;
+
+/**
+ * How the parts of a chat prompt are ordered.
+ */
+public enum PromptLayout {
+
+    /**
+     * Answer instructions, context and question together in the final user message;
+     * history slides by one turn at a time.
+     */
+    CLASSIC,
+
+    /**
+     * Everything that repeats across calls first: system prompt, answer instructions,
+     * summary and history, with history trimmed in fixed blocks so it changes only every
+     * few turns. Only the context and question differ between calls, which lets provider
+     * prompt caching (OpenAI) and KV-cache reuse (Ollama) skip the shared prefix.
+     */
+    PREFIX_STABLE
+}
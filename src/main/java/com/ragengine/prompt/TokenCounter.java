@@ -0,0 +1,79 @@
+package com.ragengine.prompt;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.Optional;
+
+/**
+ * Counts and trims text in the tokens of a chat model.
+ *
+ * OpenAI models are counted with their own BPE encoding, so counts are exact.
+ * Other models (e.g. Llama via Ollama) use tokenizers jtokkit does not ship;
+ * they are counted with {@code cl100k_base}, which is close but not exact —
+ * see {@link #isExact()}.
+ */
+public final class TokenCounter {
+
+    /**
+     * Per-message framing tokens added by the chat format (role, separators).
+     */
+    public static final int MESSAGE_OVERHEAD = 4;
+
+    /**
+     * Tokens that prime the assistant reply.
+     */
+    public static final int REPLY_PRIMING = 3;
+
+    private static final EncodingRegistry REGISTRY = Encodings.newLazyEncodingRegistry();
+
+    private final Encoding encoding;
+    private final boolean exact;
+
+    private TokenCounter(Encoding encoding, boolean exact) {
+        this.encoding = encoding;
+        this.exact = exact;
+    }
+
+    /**
+     * Returns a counter for the given model name.
+     */
+    public static TokenCounter forModel(String model) {
+        Optional<Encoding> encoding = model != null ? REGISTRY.getEncodingForModel(model) : Optional.empty();
+        return encoding
+                .map(e -> new TokenCounter(e, true))
+                .orElseGet(() -> new TokenCounter(REGISTRY.getEncoding(EncodingType.CL100K_BASE), false));
+    }
+
+    /**
+     * Whether counts use the model's own tokenizer.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public int count(String text) {
+        return text == null || text.isEmpty() ? 0 : encoding.countTokensOrdinary(text);
+    }
+
+    /**
+     * Tokens a message occupies in the prompt, including its framing.
+     */
+    public int count(Message message) {
+        return count(message.getText()) + MESSAGE_OVERHEAD;
+    }
+
+    /**
+     * Cuts text to at most {@code maxTokens} tokens, on a token boundary.
+     */
+    public String truncate(String text, int maxTokens) {
+        if (maxTokens <= 0) {
+            return "";
+        }
+        var result = encoding.encodeOrdinary(text, maxTokens);
+        return result.isTruncated() ? encoding.decode(result.getTokens()) : text;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ragengine.reindex;
+
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.ollama.OllamaEmbeddingModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaOptions;
+import org.springframework.ai.ollama.management.ModelManagementOptions;
+import org.springframework.ai.openai.OpenAiEmbeddingModel;
+import org.springframework.ai.openai.OpenAiEmbeddingOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the embedding model an index generation was built with.
+ *
+ * Queries against a generation must be embedded with that generation's model. The
+ * configured model (see {@code AiProviderConfig}) is used when it matches; otherwise
+ * — e.g. while chat still reads an OpenAI generation after the app was switched to
+ * Ollama for a rebuild — a client for the generation's provider is created on demand
+ * from the same {@code spring.ai.*} connection properties.
+ */
+@Component
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@Slf4j
+public class GenerationEmbeddingModels {
+
+    private final EmbeddingModel configuredModel;
+    private final Environment environment;
+    private final ObservationRegistry observationRegistry;
+
+    /** provider:model -> client for generations not built with the configured model */
+    private final Map<String, EmbeddingModel> models = new ConcurrentHashMap<>();
+
+    public GenerationEmbeddingModels(EmbeddingModel configuredModel,
+                                     Environment environment,
+                                     ObservationRegistry observationRegistry) {
+        this.configuredModel = configuredModel;
+        this.environment = environment;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Provider of the configured embedding model ({@code rag.ai.provider}).
+     */
+    public String configuredProvider() {
+        return environment.getProperty("rag.ai.provider", "openai");
+    }
+
+    /**
+     * Name of the configured embedding model.
+     */
+    public String configuredModelName() {
+        return modelProperty(configuredProvider());
+    }
+
+    public EmbeddingModel forGeneration(IndexGeneration generation) {
+        if (generation.getEmbeddingProvider().equals(configuredProvider())
+                && generation.getEmbeddingModel().equals(configuredModelName())) {
+            return configuredModel;
+        }
+        return models.computeIfAbsent(generation.getEmbeddingProvider() + ":" + generation.getEmbeddingModel(),
+                key -> create(generation.getEmbeddingProvider(), generation.getEmbeddingModel()));
+    }
+
+    private EmbeddingModel create(String provider, String model) {
+        log.info("Creating {} embedding client for index generation model {}", provider, model);
+        return switch (provider) {
+            case "openai" -> new OpenAiEmbeddingModel(
+                    new OpenAiApi(environment.getRequiredProperty("spring.ai.openai.api-key")),
+                    MetadataMode.EMBED,
+                    OpenAiEmbeddingOptions.builder().model(model).build());
+            case "ollama" -> new OllamaEmbeddingModel(
+                    new OllamaApi(environment.getProperty("spring.ai.ollama.base-url", "http://localhost:11434")),
+                    OllamaOptions.builder().model(model).build(),
+                    observationRegistry, ModelManagementOptions.defaults());
+            default -> throw new IllegalStateException("Unknown embedding provider: " + provider);
+        };
+    }
+
+    private String modelProperty(String provider) {
+        return switch (provider) {
+            case "ollama" -> environment.getProperty("spring.ai.ollama.embedding.options.model", "nomic-embed-text");
+            default -> environment.getProperty("spring.ai.openai.embedding.options.model", "text-embedding-3-small");
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package com.ragengine.reindex;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One complete embedding index: its own compact vector table, built with a single
+ * embedding model and chunking configuration.
+ *
+ * Generations that only change the embedding model share the chunk rows of the
+ * generation they were built from ({@code chunkGeneration}); generations with new
+ * chunking settings cut their own chunks.
+ */
+@Entity
+@Table(name = "index_generations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndexGeneration {
+
+    /**
+     * Generation number, assigned in increasing order.
+     */
+    @Id
+    private Integer id;
+
+    @Column(name = "table_name", nullable = false, unique = true)
+    private String tableName;
+
+    @Column(name = "embedding_provider", nullable = false)
+    private String embeddingProvider;
+
+    @Column(name = "embedding_model", nullable = false)
+    private String embeddingModel;
+
+    @Column(nullable = false)
+    private Integer dimensions;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "chunk_overlap", nullable = false)
+    private Integer chunkOverlap;
+
+    @Column(name = "min_chunk_size", nullable = false)
+    private Integer minChunkSize;
+
+    /**
+     * Generation whose chunk rows this index embeds.
+     */
+    @Column(name = "chunk_generation", nullable = false)
+    private Integer chunkGeneration;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IndexGenerationStatus status;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    /**
+     * When the generation stopped being active; its table is dropped a while later.
+     */
+    @Column(name = "retired_at")
+    private LocalDateTime retiredAt;
+
+    /**
+     * Whether this generation cut its own chunks rather than reusing older ones.
+     */
+    public boolean isRechunked() {
+        return chunkGeneration.equals(id);
+    }
+
+    /**
+     * Whether chunks and embeddings of this generation were produced with the given settings.
+     */
+    public boolean matches(IndexGeneration other) {
+        return embeddingProvider.equals(other.embeddingProvider)
+                && embeddingModel.equals(other.embeddingModel)
+                && dimensions.equals(other.dimensions)
+                && sameChunking(other);
+    }
+
+    public boolean sameChunking(IndexGeneration other) {
+        return chunkSize.equals(other.chunkSize)
+                && chunkOverlap.equals(other.chunkOverlap)
+                && minChunkSize.equals(other.minChunkSize);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ragengine.reindex;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IndexGenerationRepository extends JpaRepository<IndexGeneration, Integer> {
+
+    Optional<IndexGeneration> findFirstByStatus(IndexGenerationStatus status);
+
+    List<IndexGeneration> findAllByOrderByIdDesc();
+
+    List<IndexGeneration> findByStatusAndRetiredAtBefore(IndexGenerationStatus status, LocalDateTime before);
+
+    @Query("SELECT COALESCE(MAX(g.id), 0) FROM IndexGeneration g")
+    int findMaxId();
+}
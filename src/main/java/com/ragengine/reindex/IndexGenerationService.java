@@ -0,0 +1,366 @@
+package com.ragengine.reindex;
+
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.vectorstore.VectorStorageConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which index generation chat reads from and which one is being built.
+ *
+ * The ACTIVE and BUILDING generations are cached in memory and swapped together
+ * after the flip transaction commits, so a search always sees exactly one
+ * complete generation. Other instances pick up a flip on their next refresh, so a
+ * retired generation keeps its table until {@code rag.reindex.refresh-interval} plus
+ * {@code rag.reindex.retired-grace-period} have passed; a later pass drops it.
+ */
+@Service
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@Slf4j
+public class IndexGenerationService implements InitializingBean {
+
+    private final IndexGenerationRepository generationRepository;
+    private final DocumentRepository documentRepository;
+    private final DocumentChunkRepository chunkRepository;
+    private final GenerationEmbeddingModels embeddingModels;
+    private final VectorStorageConfig storageConfig;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReindexConfig config;
+    private final int dimensions;
+    private final int chunkSize;
+    private final int chunkOverlap;
+    private final int minChunkSize;
+
+    private volatile Generations current;
+
+    /** Vector tables known to exist, so table creation is attempted once per table */
+    private final Set<String> existingTables = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Snapshot of the generations in use; replaced as a whole.
+     */
+    private record Generations(IndexGeneration active, IndexGeneration building) {}
+
+    /**
+     * Generations a document being ingested now must be written to.
+     *
+     * @param chunkGeneration    generation to label new chunk rows with
+     * @param documentGeneration generation the document counts as indexed into once embedded
+     */
+    public record WriteTarget(int chunkGeneration, int documentGeneration) {}
+
+    public IndexGenerationService(
+            IndexGenerationRepository generationRepository,
+            DocumentRepository documentRepository,
+            DocumentChunkRepository chunkRepository,
+            GenerationEmbeddingModels embeddingModels,
+            VectorStorageConfig storageConfig,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ReindexConfig config,
+            @Value("${spring.ai.vectorstore.pgvector.dimensions:1536}") int dimensions,
+            @Value("${rag.chunking.chunk-size:800}") int chunkSize,
+            @Value("${rag.chunking.chunk-overlap:200}") int chunkOverlap,
+            @Value("${rag.chunking.min-chunk-size:100}") int minChunkSize
+    ) {
+        this.generationRepository = generationRepository;
+        this.documentRepository = documentRepository;
+        this.chunkRepository = chunkRepository;
+        this.embeddingModels = embeddingModels;
+        this.storageConfig = storageConfig;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.dimensions = dimensions;
+        this.chunkSize = chunkSize;
+        this.chunkOverlap = chunkOverlap;
+        this.minChunkSize = minChunkSize;
+    }
+
+    /**
+     * Generation chat queries are answered from.
+     */
+    public IndexGeneration active() {
+        return current.active();
+    }
+
+    public Optional<IndexGeneration> building() {
+        return Optional.ofNullable(current.building());
+    }
+
+    /**
+     * Generations new embeddings must be written to: the active one, plus the
+     * building one so documents ingested during a rebuild are not missed by the flip.
+     */
+    public List<IndexGeneration> writeGenerations() {
+        Generations snapshot = current;
+        List<IndexGeneration> generations = new ArrayList<>(2);
+        generations.add(snapshot.active());
+        if (snapshot.building() != null) {
+            generations.add(snapshot.building());
+        }
+        return generations;
+    }
+
+    /**
+     * Where a document ingested now belongs. During a rebuild new documents are
+     * chunked with the building generation's settings (the configured ones) and
+     * counted as already indexed into it.
+     */
+    public WriteTarget writeTarget() {
+        Generations snapshot = current;
+        IndexGeneration target = snapshot.building() != null ? snapshot.building() : snapshot.active();
+        return new WriteTarget(target.getChunkGeneration(), target.getId());
+    }
+
+    /**
+     * A transient generation describing the configured embedding model and chunking.
+     */
+    public IndexGeneration configuredSignature() {
+        return IndexGeneration.builder()
+                .embeddingProvider(embeddingModels.configuredProvider())
+                .embeddingModel(embeddingModels.configuredModelName())
+                .dimensions(dimensions)
+                .chunkSize(chunkSize)
+                .chunkOverlap(chunkOverlap)
+                .minChunkSize(minChunkSize)
+                .build();
+    }
+
+    /**
+     * Creates a BUILDING generation for the configured model and chunking settings,
+     * including its empty vector table.
+     *
+     * @param forceRechunk cut new chunks even if the chunking settings are unchanged
+     */
+    public synchronized IndexGeneration startBuilding(boolean forceRechunk) {
+        if (current.building() != null) {
+            throw new IllegalStateException("Index generation " + current.building().getId() + " is already being built");
+        }
+        IndexGeneration active = current.active();
+        IndexGeneration generation = configuredSignature();
+        int id = generationRepository.findMaxId() + 1;
+        boolean rechunk = forceRechunk || !active.sameChunking(generation);
+
+        generation.setId(id);
+        generation.setTableName(storageConfig.getTableName() + "_g" + id);
+        generation.setChunkGeneration(rechunk ? id : active.getChunkGeneration());
+        generation.setStatus(IndexGenerationStatus.BUILDING);
+
+        createTable(generation);
+        generation = generationRepository.save(generation);
+        current = new Generations(active, generation);
+
+        log.info("Building index generation {} ({} {}, {} dims, {}) next to active generation {}",
+                id, generation.getEmbeddingProvider(), generation.getEmbeddingModel(), generation.getDimensions(),
+                rechunk ? "re-chunking" : "re-embedding existing chunks", active.getId());
+        return generation;
+    }
+
+    /**
+     * Atomically makes the building generation the active one. The previous one is
+     * retired; its table stays until {@link #dropRetiredGenerations()} drops it.
+     *
+     * @return the previously active, now retired generation
+     */
+    public synchronized IndexGeneration flip() {
+        IndexGeneration previous = current.active();
+        IndexGeneration next = current.building();
+        if (next == null) {
+            throw new IllegalStateException("No index generation is being built");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            previous.setStatus(IndexGenerationStatus.RETIRED);
+            previous.setRetiredAt(LocalDateTime.now());
+            generationRepository.saveAndFlush(previous);
+            next.setStatus(IndexGenerationStatus.ACTIVE);
+            next.setActivatedAt(LocalDateTime.now());
+            generationRepository.saveAndFlush(next);
+        });
+        current = new Generations(next, null);
+
+        log.info("Index generation {} is now active (retired generation {})", next.getId(), previous.getId());
+        return previous;
+    }
+
+    /**
+     * Drops the retired generations no instance can still be reading: every instance
+     * has refreshed past the flip, and queries started before have had the grace
+     * period to finish.
+     */
+    @Scheduled(fixedDelayString = "${rag.reindex.refresh-interval:PT30S}")
+    public void dropRetiredGenerations() {
+        LocalDateTime cutoff = LocalDateTime.now()
+                .minus(config.getRefreshInterval())
+                .minus(config.getRetiredGracePeriod());
+        for (IndexGeneration retired : generationRepository.findByStatusAndRetiredAtBefore(
+                IndexGenerationStatus.RETIRED, cutoff)) {
+            dropRetired(retired);
+        }
+    }
+
+    /**
+     * Drops a retired generation's table and the chunks no generation reads anymore.
+     */
+    private void dropRetired(IndexGeneration retired) {
+        IndexGeneration active = current.active();
+        if (active.isRechunked() && !retired.getChunkGeneration().equals(active.getChunkGeneration())) {
+            int deleted = transactionTemplate.execute(status ->
+                    chunkRepository.deleteSuperseded(active.getId(), active.getChunkGeneration()));
+            log.info("Deleted {} chunks superseded by chunk generation {}", deleted, active.getChunkGeneration());
+        }
+        if (!retired.getTableName().equals(active.getTableName())) {
+            dropTables(retired);
+        }
+        retired.setStatus(IndexGenerationStatus.DROPPED);
+        generationRepository.save(retired);
+        log.info("Dropped retired index generation {}", retired.getId());
+    }
+
+    /**
+     * Discards the building generation: its table, its chunks and the document
+     * markers pointing at it. Documents ingested during the build have no other
+     * chunks, and their embeddings were also written to the active generation, so
+     * their chunks are moved to the active chunk generation instead of deleted.
+     */
+    public synchronized void abandonBuilding() {
+        IndexGeneration active = current.active();
+        IndexGeneration building = current.building();
+        if (building == null) {
+            return;
+        }
+
+        current = new Generations(active, null);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (building.isRechunked()) {
+                int kept = chunkRepository.moveUnsupersededGeneration(
+                        building.getChunkGeneration(), active.getChunkGeneration());
+                if (kept > 0) {
+                    log.info("Kept {} chunks of documents ingested during the build", kept);
+                }
+                chunkRepository.deleteByGeneration(building.getChunkGeneration());
+            }
+            documentRepository.moveIndexGeneration(building.getId(), active.getId());
+            building.setStatus(IndexGenerationStatus.ABANDONED);
+            generationRepository.save(building);
+        });
+        dropTables(building);
+        log.info("Abandoned index generation {}", building.getId());
+    }
+
+    /**
+     * Vector table of a generation for embeddings stored with the given dimensionality.
+     * Full-size embeddings live in the generation's table; truncated ones in
+     * {@code <table>_d<dimensions>}, created on first use.
+     */
+    public String tableFor(IndexGeneration generation, int dimensions) {
+        if (dimensions >= generation.getDimensions()) {
+            return generation.getTableName();
+        }
+        String table = generation.getTableName() + "_d" + dimensions;
+        if (!existingTables.contains(table)) {
+            createTable(table, dimensions);
+        }
+        return table;
+    }
+
+    /**
+     * All existing vector tables of a generation: the full-size one and its
+     * reduced-dimension variants.
+     */
+    public List<String> tablesOf(IndexGeneration generation) {
+        return jdbcTemplate.queryForList("""
+                SELECT tablename FROM pg_tables
+                WHERE schemaname = current_schema() AND (tablename = ? OR tablename LIKE ?)
+                """, String.class, generation.getTableName(), generation.getTableName().replace("_", "\\_") + "\\_d%");
+    }
+
+    public List<IndexGeneration> listGenerations() {
+        return generationRepository.findAllByOrderByIdDesc();
+    }
+
+    /**
+     * Reloads the generations from the database, picking up flips made by other instances.
+     */
+    @Scheduled(fixedDelayString = "${rag.reindex.refresh-interval:PT30S}")
+    public synchronized void refresh() {
+        IndexGeneration active = generationRepository.findFirstByStatus(IndexGenerationStatus.ACTIVE)
+                .orElseThrow(() -> new IllegalStateException("No active index generation"));
+        IndexGeneration building = generationRepository.findFirstByStatus(IndexGenerationStatus.BUILDING)
+                .orElse(null);
+        current = new Generations(active, building);
+    }
+
+    /**
+     * Registers the existing compact table as generation 1 on first start, then
+     * makes sure the tables of the active and building generations exist.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (generationRepository.findFirstByStatus(IndexGenerationStatus.ACTIVE).isEmpty()) {
+            IndexGeneration initial = configuredSignature();
+            initial.setId(1);
+            initial.setTableName(storageConfig.getTableName());
+            initial.setChunkGeneration(1);
+            initial.setStatus(IndexGenerationStatus.ACTIVE);
+            initial.setActivatedAt(LocalDateTime.now());
+            generationRepository.save(initial);
+            log.info("Registered {} as index generation 1", storageConfig.getTableName());
+        }
+        refresh();
+        writeGenerations().forEach(this::createTable);
+    }
+
+    private void createTable(IndexGeneration generation) {
+        createTable(generation.getTableName(), generation.getDimensions());
+    }
+
+    /**
+     * Drops a generation's table and its reduced-dimension variants.
+     */
+    private void dropTables(IndexGeneration generation) {
+        for (String table : tablesOf(generation)) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+            existingTables.remove(table);
+        }
+    }
+
+    private void createTable(String table, int dimensions) {
+        existingTables.add(table);
+        if (!storageConfig.isInitializeSchema()) {
+            log.info("Skipping schema initialization for compact vector table: {}", table);
+            return;
+        }
+
+        log.info("Initializing compact vector table: {} ({} dimensions)", table, dimensions);
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS vector");
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS %s (
+                    id          UUID PRIMARY KEY REFERENCES document_chunks(id) ON DELETE CASCADE,
+                    tenant_id   UUID NOT NULL,
+                    document_id UUID NOT NULL,
+                    embedding   vector(%d) NOT NULL
+                )
+                """.formatted(table, dimensions));
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS %s_hnsw_idx ON %s USING hnsw (embedding vector_cosine_ops)"
+                .formatted(table, table));
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS %s_tenant_document_idx ON %s (tenant_id, document_id)"
+                .formatted(table, table));
+    }
+}
@@ -0,0 +1,9 @@
+package com.ragengine.reindex;
+
+public enum IndexGenerationStatus {
+    BUILDING,
+    ACTIVE,
+    RETIRED,
+    DROPPED,
+    ABANDONED
+}
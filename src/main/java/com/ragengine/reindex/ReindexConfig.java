@@ -0,0 +1,52 @@
+package com.ragengine.reindex;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for bulk re-chunk / re-embed jobs.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.reindex")
+@Getter
+@Setter
+public class ReindexConfig {
+
+    /**
+     * Number of documents processed in parallel.
+     */
+    private int concurrency = 4;
+
+    /**
+     * Embedding token budget per minute shared by all workers, so a rebuild
+     * leaves provider quota for live ingestion and chat.
+     */
+    private long tokensPerMinute = 500_000;
+
+    /**
+     * Document IDs fetched per keyset page.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Whether a job interrupted by a shutdown continues when the application starts.
+     */
+    private boolean resumeOnStartup = true;
+
+    /**
+     * How often every instance reloads the active generation, picking up flips made
+     * by other instances.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * How long queries may still run against a retired generation after every
+     * instance has refreshed past the flip. Its table is dropped after
+     * {@link #refreshInterval} plus this period.
+     */
+    private Duration retiredGracePeriod = Duration.ofMinutes(5);
+}
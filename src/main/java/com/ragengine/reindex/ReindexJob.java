@@ -0,0 +1,71 @@
+package com.ragengine.reindex;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Durable state of a bulk re-chunk / re-embed run into a building index generation.
+ * Progress is persisted per document, so a paused, failed or interrupted job resumes
+ * with the documents that are not yet in the new generation.
+ */
+@Entity
+@Table(name = "reindex_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReindexJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "generation_id", nullable = false)
+    private Integer generationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReindexJobStatus status;
+
+    @Column(name = "total_documents", nullable = false)
+    @Builder.Default
+    private Integer totalDocuments = 0;
+
+    @Column(name = "processed_documents", nullable = false)
+    @Builder.Default
+    private Integer processedDocuments = 0;
+
+    @Column(name = "failed_documents", nullable = false)
+    @Builder.Default
+    private Integer failedDocuments = 0;
+
+    /**
+     * Estimated tokens sent to the embedding model so far.
+     */
+    @Column(name = "embedded_tokens", nullable = false)
+    @Builder.Default
+    private Long embeddedTokens = 0L;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_by")
+    private UUID createdBy;
+
+    @CreationTimestamp
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,38 @@
+package com.ragengine.reindex;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ReindexJobRepository extends JpaRepository<ReindexJob, UUID> {
+
+    Optional<ReindexJob> findFirstByStatusInOrderByStartedAtDesc(Collection<ReindexJobStatus> statuses);
+
+    Optional<ReindexJob> findFirstByOrderByStartedAtDesc();
+
+    List<ReindexJob> findByStatus(ReindexJobStatus status);
+
+    /**
+     * Adds per-document progress without reloading the entity, so concurrent
+     * workers never overwrite each other's counts.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE ReindexJob j SET
+                j.processedDocuments = j.processedDocuments + :processed,
+                j.failedDocuments = j.failedDocuments + :failed,
+                j.embeddedTokens = j.embeddedTokens + :tokens,
+                j.updatedAt = CURRENT_TIMESTAMP
+            WHERE j.id = :id
+            """)
+    void addProgress(UUID id, int processed, int failed, long tokens);
+}
@@ -0,0 +1,9 @@
+package com.ragengine.reindex;
+
+public enum ReindexJobStatus {
+    RUNNING,
+    PAUSED,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
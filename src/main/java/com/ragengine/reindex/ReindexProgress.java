@@ -0,0 +1,50 @@
+package com.ragengine.reindex;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Point-in-time progress of a reindex job with throughput and a linear ETA.
+ *
+ * @param documentsPerMinute completed documents per minute since the job started
+ * @param etaSeconds         estimated seconds until all documents are processed, or null if unknown
+ */
+public record ReindexProgress(
+        UUID jobId,
+        Integer generation,
+        ReindexJobStatus status,
+        int totalDocuments,
+        int processedDocuments,
+        int failedDocuments,
+        long embeddedTokens,
+        double percentComplete,
+        double documentsPerMinute,
+        Long etaSeconds,
+        String lastError,
+        LocalDateTime startedAt,
+        LocalDateTime completedAt
+) {
+
+    public static ReindexProgress of(ReindexJob job, LocalDateTime now) {
+        int done = job.getProcessedDocuments() + job.getFailedDocuments();
+        int total = Math.max(job.getTotalDocuments(), done);
+        double percent = total == 0 ? 100.0 : 100.0 * done / total;
+
+        LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : now;
+        double minutes = Duration.between(job.getStartedAt(), end).toMillis() / 60_000.0;
+        double perMinute = minutes > 0 ? job.getProcessedDocuments() / minutes : 0;
+
+        Long eta = null;
+        if (job.getStatus() == ReindexJobStatus.RUNNING && perMinute > 0) {
+            eta = Math.round((total - done) / perMinute * 60);
+        } else if (job.getStatus() == ReindexJobStatus.COMPLETED) {
+            eta = 0L;
+        }
+
+        return new ReindexProgress(job.getId(), job.getGenerationId(), job.getStatus(),
+                total, job.getProcessedDocuments(), job.getFailedDocuments(), job.getEmbeddedTokens(),
+                Math.round(percent * 10) / 10.0, Math.round(perMinute * 10) / 10.0, eta,
+                job.getLastError(), job.getStartedAt(), job.getCompletedAt());
+    }
+}
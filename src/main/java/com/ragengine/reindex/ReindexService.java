@@ -0,0 +1,466 @@
+package com.ragengine.reindex;
+
+import com.ragengine.compression.ChunkCompressionService;
+import com.ragengine.domain.entity.Document;
+import com.ragengine.domain.entity.DocumentChunk;
+import com.ragengine.domain.entity.DocumentStatus;
+import com.ragengine.exception.DocumentNotFoundException;
+import com.ragengine.exception.DocumentProcessingException;
+import com.ragengine.extraction.ExtractionResult;
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.ChunkingService;
+import com.ragengine.service.DocumentExtractionService;
+import com.ragengine.service.EmbeddingService;
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.CompactPgVectorStore;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk re-chunk / re-embed of every document into a new index generation.
+ *
+ * Lifecycle of a job:
+ * 1. A BUILDING generation is created for the configured embedding model and chunking
+ * 2. Documents not yet in that generation are processed in parallel, within
+ *    {@code rag.reindex.concurrency} workers and a shared embedding token budget.
+ *    Chat keeps reading the active generation; new uploads are written to both.
+ * 3. Once every document is in, the generation is flipped to ACTIVE atomically and
+ *    documents ingested during the flip are caught up. The old generation is dropped
+ *    later, once no instance can still be reading it
+ *
+ * Progress is persisted per document, so a paused, failed or interrupted job resumes
+ * where it stopped. Each document is handled in short transactions; the embedding
+ * call runs outside of them.
+ */
+@Service
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@Slf4j
+public class ReindexService {
+
+    private static final List<ReindexJobStatus> OPEN_STATUSES =
+            List.of(ReindexJobStatus.RUNNING, ReindexJobStatus.PAUSED, ReindexJobStatus.FAILED);
+
+    /** Smallest UUID in PostgreSQL ordering, the start of the keyset scan */
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final ReindexJobRepository jobRepository;
+    private final IndexGenerationService generations;
+    private final CompactPgVectorStore vectorStore;
+    private final DocumentRepository documentRepository;
+    private final DocumentChunkRepository chunkRepository;
+    private final DocumentExtractionService extractionService;
+    private final EmbeddingService embeddingService;
+    private final ChunkCompressionService compressionService;
+    private final SecurityContext securityContext;
+    private final ReindexConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final UsageMeter usageMeter;
+    private final String storagePath;
+
+    /** Runs the coordinator loop of the (single) active job */
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("reindex-coordinator").daemon().factory());
+
+    /** jobId -> requested stop (PAUSED or CANCELLED), honored between documents */
+    private final Map<UUID, ReindexJobStatus> stopRequests = new ConcurrentHashMap<>();
+
+    public ReindexService(
+            ReindexJobRepository jobRepository,
+            IndexGenerationService generations,
+            CompactPgVectorStore vectorStore,
+            DocumentRepository documentRepository,
+            DocumentChunkRepository chunkRepository,
+            DocumentExtractionService extractionService,
+            EmbeddingService embeddingService,
+            ChunkCompressionService compressionService,
+            SecurityContext securityContext,
+            ReindexConfig config,
+            TransactionTemplate transactionTemplate,
+            UsageMeter usageMeter,
+            @Value("${rag.upload.storage-path:./uploads}") String storagePath
+    ) {
+        this.jobRepository = jobRepository;
+        this.generations = generations;
+        this.vectorStore = vectorStore;
+        this.documentRepository = documentRepository;
+        this.chunkRepository = chunkRepository;
+        this.extractionService = extractionService;
+        this.embeddingService = embeddingService;
+        this.compressionService = compressionService;
+        this.securityContext = securityContext;
+        this.config = config;
+        this.transactionTemplate = transactionTemplate;
+        this.usageMeter = usageMeter;
+        this.storagePath = storagePath;
+    }
+
+    // ============================
+    // Admin operations
+    // ============================
+
+    /**
+     * Starts rebuilding the index with the configured embedding model and chunking.
+     *
+     * @param forceRechunk cut new chunks even if the chunking settings are unchanged
+     */
+    public synchronized ReindexProgress start(boolean forceRechunk) {
+        jobRepository.findFirstByStatusInOrderByStartedAtDesc(OPEN_STATUSES).ifPresent(job -> {
+            throw new IllegalStateException(
+                    "Reindex job " + job.getId() + " is " + job.getStatus() + "; resume or cancel it first");
+        });
+
+        IndexGeneration generation = generations.startBuilding(forceRechunk);
+        ReindexJob job = jobRepository.save(ReindexJob.builder()
+                .generationId(generation.getId())
+                .status(ReindexJobStatus.RUNNING)
+                .totalDocuments((int) countRemaining(generation))
+                .createdBy(securityContext.getCurrentUserId())
+                .build());
+
+        log.info("Started reindex job {} into generation {} ({} documents)",
+                job.getId(), generation.getId(), job.getTotalDocuments());
+        launch(job.getId());
+        return ReindexProgress.of(job, LocalDateTime.now());
+    }
+
+    /**
+     * Stops the running job after the documents in flight; resume continues from there.
+     */
+    public ReindexProgress pause() {
+        ReindexJob job = openJob();
+        if (job.getStatus() != ReindexJobStatus.RUNNING) {
+            throw new IllegalStateException("Reindex job " + job.getId() + " is " + job.getStatus());
+        }
+        stopRequests.put(job.getId(), ReindexJobStatus.PAUSED);
+        return ReindexProgress.of(job, LocalDateTime.now());
+    }
+
+    /**
+     * Resumes a paused or failed job; documents that failed before are retried.
+     */
+    public synchronized ReindexProgress resume() {
+        ReindexJob job = openJob();
+        if (job.getStatus() == ReindexJobStatus.RUNNING) {
+            throw new IllegalStateException("Reindex job " + job.getId() + " is already running");
+        }
+        IndexGeneration building = generations.building()
+                .orElseThrow(() -> new IllegalStateException("No index generation is being built"));
+        if (!building.matches(generations.configuredSignature())) {
+            throw new IllegalStateException("Embedding or chunking configuration changed since generation "
+                    + building.getId() + " was started; cancel the job and start a new one");
+        }
+
+        job.setStatus(ReindexJobStatus.RUNNING);
+        job.setFailedDocuments(0);
+        job.setLastError(null);
+        job = jobRepository.save(job);
+        launch(job.getId());
+        return ReindexProgress.of(job, LocalDateTime.now());
+    }
+
+    /**
+     * Cancels the job and discards the building generation. Chat is unaffected.
+     */
+    public synchronized ReindexProgress cancel() {
+        ReindexJob job = openJob();
+        if (job.getStatus() == ReindexJobStatus.RUNNING) {
+            // The coordinator abandons the generation once in-flight documents finish
+            stopRequests.put(job.getId(), ReindexJobStatus.CANCELLED);
+        } else {
+            generations.abandonBuilding();
+            job = finish(job.getId(), ReindexJobStatus.CANCELLED, null);
+        }
+        return ReindexProgress.of(job, LocalDateTime.now());
+    }
+
+    /**
+     * Progress of the most recent job, if any.
+     */
+    public Optional<ReindexProgress> currentProgress() {
+        return jobRepository.findFirstByOrderByStartedAtDesc()
+                .map(job -> ReindexProgress.of(job, LocalDateTime.now()));
+    }
+
+    /**
+     * Continues jobs that were running when the application last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterruptedJobs() {
+        if (!config.isResumeOnStartup()) {
+            return;
+        }
+        jobRepository.findByStatus(ReindexJobStatus.RUNNING).forEach(job -> {
+            log.info("Resuming interrupted reindex job {} into generation {}", job.getId(), job.getGenerationId());
+            launch(job.getId());
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs stay RUNNING in the database and continue on the next start
+        coordinator.shutdownNow();
+    }
+
+    // ============================
+    // Coordinator
+    // ============================
+
+    private void launch(UUID jobId) {
+        coordinator.submit(() -> run(jobId));
+    }
+
+    private void run(UUID jobId) {
+        try {
+            IndexGeneration generation = generations.building()
+                    .orElseThrow(() -> new IllegalStateException("No index generation is being built"));
+            Bucket tokenBudget = Bucket.builder()
+                    .addLimit(Bandwidth.simple(config.getTokensPerMinute(), Duration.ofMinutes(1)))
+                    .build();
+
+            Set<UUID> failed = processPending(jobId, generation, tokenBudget);
+            if (failed == null) {
+                stopped(jobId);
+                return;
+            }
+            if (!failed.isEmpty()) {
+                finish(jobId, ReindexJobStatus.FAILED,
+                        failed.size() + " documents could not be reindexed; resume the job to retry them");
+                return;
+            }
+
+            generations.flip();
+
+            // Documents ingested into the old generation while the flip happened
+            Set<UUID> stragglers = processPending(jobId, generation, tokenBudget);
+
+            String error = stragglers != null && !stragglers.isEmpty()
+                    ? stragglers.size() + " documents ingested during the flip could not be reindexed: " + stragglers
+                    : null;
+            finish(jobId, ReindexJobStatus.COMPLETED, error);
+            log.info("Reindex job {} completed; generation {} is active", jobId, generation.getId());
+        } catch (InterruptedException e) {
+            // Shutdown: the job stays RUNNING and resumes on the next start
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Reindex job {} failed: {}", jobId, e.getMessage(), e);
+            finish(jobId, ReindexJobStatus.FAILED, e.getMessage());
+        } finally {
+            stopRequests.remove(jobId);
+        }
+    }
+
+    /**
+     * Processes every ready document below the generation, in keyset pages, until a
+     * full pass finds nothing new (documents finishing ingestion meanwhile are picked
+     * up by the next pass).
+     *
+     * @return IDs of documents that failed, or null if a stop was requested
+     */
+    private Set<UUID> processPending(UUID jobId, IndexGeneration generation, Bucket tokenBudget)
+            throws InterruptedException {
+        Set<UUID> failed = ConcurrentHashMap.newKeySet();
+        ExecutorService workers = Executors.newFixedThreadPool(config.getConcurrency(),
+                Thread.ofPlatform().name("reindex-worker-", 0).factory());
+        try {
+            int submitted;
+            do {
+                updateTotal(jobId, generation);
+                submitted = 0;
+                UUID after = FIRST_ID;
+                List<UUID> page;
+                while (!(page = documentRepository.findIdsBelowGeneration(DocumentStatus.READY,
+                        generation.getId(), after, PageRequest.of(0, config.getBatchSize()))).isEmpty()) {
+                    List<Future<?>> futures = new ArrayList<>();
+                    for (UUID documentId : page) {
+                        if (!failed.contains(documentId)) {
+                            futures.add(workers.submit(() -> processDocument(jobId, documentId, generation,
+                                    tokenBudget, failed)));
+                        }
+                    }
+                    for (Future<?> future : futures) {
+                        try {
+                            future.get();
+                        } catch (ExecutionException e) {
+                            throw new IllegalStateException(e.getCause());
+                        }
+                    }
+                    if (stopRequests.containsKey(jobId)) {
+                        return null;
+                    }
+                    submitted += futures.size();
+                    after = page.getLast();
+                }
+            } while (submitted > 0);
+            return failed;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void processDocument(UUID jobId, UUID documentId, IndexGeneration generation,
+                                 Bucket tokenBudget, Set<UUID> failed) {
+        if (stopRequests.containsKey(jobId)) {
+            return;
+        }
+        try {
+            long tokens = reindexDocument(documentId, generation, tokenBudget);
+            jobRepository.addProgress(jobId, 1, 0, tokens);
+        } catch (InterruptedException e) {
+            // Shutdown: the document is picked up again when the job resumes
+            Thread.currentThread().interrupt();
+        } catch (DocumentNotFoundException e) {
+            log.debug("Document {} was deleted during reindexing", documentId);
+        } catch (Exception e) {
+            log.warn("Could not reindex document {} into generation {}: {}",
+                    documentId, generation.getId(), e.getMessage());
+            failed.add(documentId);
+            jobRepository.addProgress(jobId, 0, 1, 0);
+        }
+    }
+
+    /**
+     * Indexes one document into the generation. Safe to repeat: chunks and embeddings
+     * from an earlier, interrupted attempt are replaced.
+     *
+     * @return the estimated number of tokens embedded
+     */
+    private long reindexDocument(UUID documentId, IndexGeneration generation, Bucket tokenBudget)
+            throws InterruptedException {
+        Document document = documentRepository.findWithTenantById(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException(documentId));
+
+        List<DocumentChunk> chunks = generation.isRechunked()
+                ? rechunk(document, generation)
+                : transactionTemplate.execute(status -> chunkRepository
+                        .findByDocumentIdAndGenerationOrderByChunkIndex(documentId, generation.getChunkGeneration()));
+
+        long tokens = chunks.stream()
+                .mapToLong(chunk -> chunk.getTokenCount() != null ? chunk.getTokenCount() : 0)
+                .sum();
+        tokenBudget.asBlocking().consume(Math.min(Math.max(tokens, 1), config.getTokensPerMinute()));
+
+        long started = System.nanoTime();
+        vectorStore.addToGeneration(generation, embeddingService.toVectorDocuments(document, chunks));
+        if (document.getTenant() != null) {
+            usageMeter.recordEmbedding(document.getTenant().getId(), generation.getEmbeddingModel(), tokens,
+                    Duration.ofNanos(System.nanoTime() - started));
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (generation.isRechunked() && document.getTenant() != null) {
+                compressionService.compressNewChunks(document.getTenant().getId(), chunks);
+            }
+            Document current = documentRepository.findById(documentId)
+                    .orElseThrow(() -> new DocumentNotFoundException(documentId));
+            current.setIndexGeneration(Math.max(current.getIndexGeneration(), generation.getId()));
+            documentRepository.save(current);
+        });
+        return tokens;
+    }
+
+    /**
+     * Cuts new chunks for the generation from the stored file. Extraction is normally
+     * served from the extraction cache, so only chunking and embedding are repeated.
+     */
+    private List<DocumentChunk> rechunk(Document document, IndexGeneration generation) {
+        Path file = Paths.get(storagePath, document.getFilename());
+        if (!Files.exists(file)) {
+            throw new DocumentProcessingException("Stored file is missing: " + document.getFilename());
+        }
+        ExtractionResult extraction = extractionService.extract(file, document.getContentType());
+
+        ChunkingService chunker = new ChunkingService(
+                generation.getChunkSize(), generation.getChunkOverlap(), generation.getMinChunkSize());
+        List<String> texts = chunker.chunkText(extraction.text());
+
+        return transactionTemplate.execute(status -> {
+            if (document.getTenant() != null) {
+                vectorStore.deleteDocument(generation, document.getTenant().getId(), document.getId());
+            }
+            chunkRepository.deleteByDocumentIdAndGeneration(document.getId(), generation.getChunkGeneration());
+
+            List<DocumentChunk> chunks = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                chunks.add(DocumentChunk.builder()
+                        .document(document)
+                        .content(texts.get(i))
+                        .chunkIndex(i)
+                        .tokenCount(chunker.estimateTokenCount(texts.get(i)))
+                        .generation(generation.getChunkGeneration())
+                        .build());
+            }
+            return chunkRepository.saveAll(chunks);
+        });
+    }
+
+    // ============================
+    // Job state
+    // ============================
+
+    private ReindexJob openJob() {
+        return jobRepository.findFirstByStatusInOrderByStartedAtDesc(OPEN_STATUSES)
+                .orElseThrow(() -> new IllegalStateException("No reindex job in progress"));
+    }
+
+    private long countRemaining(IndexGeneration generation) {
+        return documentRepository.countByStatusAndIndexGenerationLessThan(DocumentStatus.READY, generation.getId());
+    }
+
+    private void updateTotal(UUID jobId, IndexGeneration generation) {
+        transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+            job.setTotalDocuments(job.getProcessedDocuments() + (int) countRemaining(generation));
+            jobRepository.save(job);
+        }));
+    }
+
+    private void stopped(UUID jobId) {
+        if (stopRequests.get(jobId) == ReindexJobStatus.CANCELLED) {
+            generations.abandonBuilding();
+            finish(jobId, ReindexJobStatus.CANCELLED, null);
+            log.info("Reindex job {} cancelled", jobId);
+        } else {
+            finish(jobId, ReindexJobStatus.PAUSED, null);
+            log.info("Reindex job {} paused", jobId);
+        }
+    }
+
+    private ReindexJob finish(UUID jobId, ReindexJobStatus status, String error) {
+        return transactionTemplate.execute(tx -> {
+            ReindexJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setStatus(status);
+            job.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+            if (status == ReindexJobStatus.COMPLETED || status == ReindexJobStatus.CANCELLED) {
+                job.setCompletedAt(LocalDateTime.now());
+            }
+            return jobRepository.save(job);
+        });
+    }
+}
@@ -0,0 +1,115 @@
+package com.ragengine.relevance;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Answers a question without the model when retrieval found nothing relevant, instead
+ * of paying full generation latency for a prompt whose context cannot answer it.
+ *
+ * The best retrieved chunk must reach the threshold of the embedding model the query
+ * was embedded with ({@code rag.relevance-gate.min-scores}), since similarity scores
+ * differ in scale between models. Below it, the answer is a fixed template naming the
+ * nearest documents, so the user can rephrase or pick other documents.
+ *
+ * Metrics: {@code rag.chat.relevance.gate}, tagged {@code result=passed|short-circuited}.
+ */
+@Component
+@Slf4j
+public class RelevanceGate {
+
+    static final String NOTHING_FOUND = "I couldn't find anything about this in the selected documents. "
+            + "Try rephrasing the question or selecting other documents.";
+
+    static final String NOTHING_RELEVANT = "I couldn't find anything in the selected documents that answers "
+            + "this question. The closest matches are in %s. "
+            + "Try rephrasing the question or selecting other documents.";
+
+    private final RelevanceGateConfig config;
+    private final QueryEmbeddingSearch querySearch;
+    private final Counter passed;
+    private final Counter shortCircuited;
+
+    public RelevanceGate(RelevanceGateConfig config, QueryEmbeddingSearch querySearch, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.querySearch = querySearch;
+        this.passed = Counter.builder("rag.chat.relevance.gate").tag("result", "passed").register(meterRegistry);
+        this.shortCircuited = Counter.builder("rag.chat.relevance.gate").tag("result", "short-circuited")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the chunks retrieved for a question.
+     *
+     * @param chunks the chunks retrieved for it
+     * @return the templated answer if no chunk is relevant enough; empty if the model should answer
+     */
+    public Optional<String> check(UUID tenantId, List<Document> chunks) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        double minScore = minScore(tenantId);
+        double bestScore = chunks.stream()
+                .mapToDouble(RelevanceGate::score)
+                .max()
+                .orElse(Double.NEGATIVE_INFINITY);
+        if (!chunks.isEmpty() && bestScore >= minScore) {
+            passed.increment();
+            return Optional.empty();
+        }
+
+        shortCircuited.increment();
+        log.info("Relevance gate answered without the model: best score {} below {}",
+                chunks.isEmpty() ? "n/a" : String.format("%.3f", bestScore), minScore);
+        return Optional.of(chunks.isEmpty() ? NOTHING_FOUND : NOTHING_RELEVANT.formatted(hints(chunks)));
+    }
+
+    private double minScore(UUID tenantId) {
+        return config.getMinScores().getOrDefault(querySearch.queryEmbeddingModel(tenantId),
+                config.getDefaultMinScore());
+    }
+
+    /**
+     * Names the nearest documents in rank order, each with the page of its best chunk.
+     */
+    private String hints(List<Document> chunks) {
+        Map<String, Object> pageByDocument = new LinkedHashMap<>();
+        chunks.stream()
+                .sorted(Comparator.comparingDouble(RelevanceGate::score).reversed())
+                .forEach(chunk -> pageByDocument.putIfAbsent(
+                        String.valueOf(chunk.getMetadata().getOrDefault("documentName", "Unknown")),
+                        chunk.getMetadata().get("pageNumber")));
+        return pageByDocument.entrySet().stream()
+                .limit(config.getMaxHints())
+                .map(entry -> "\"" + entry.getKey() + "\"" + page(entry.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static double score(Document chunk) {
+        return chunk.getScore() != null ? chunk.getScore() : 0;
+    }
+
+    private static String page(Object pageNumber) {
+        if (pageNumber == null) {
+            return "";
+        }
+        try {
+            int page = Integer.parseInt(pageNumber.toString());
+            return page > 0 ? " (page " + page + ")" : "";
+        } catch (NumberFormatException e) {
+            return "";
+        }
+    }
+}
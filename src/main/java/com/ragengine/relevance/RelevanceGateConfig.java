@@ -0,0 +1,48 @@
+package com.ragengine.relevance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties for answering questions without the model when retrieval
+ * finds nothing relevant.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.relevance-gate")
+@Getter
+@Setter
+public class RelevanceGateConfig {
+
+    /**
+     * Whether first questions whose best chunk scores below the model's threshold get a
+     * templated answer instead of a model call.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Similarity the best chunk needs, per embedding model. Scores are not comparable
+     * across models: unrelated text scores around 0.1 with {@code text-embedding-3-*}
+     * but around 0.7 with {@code text-embedding-ada-002}.
+     */
+    private Map<String, Double> minScores = new LinkedHashMap<>(Map.of(
+            "text-embedding-3-small", 0.25,
+            "text-embedding-3-large", 0.25,
+            "text-embedding-ada-002", 0.75,
+            "nomic-embed-text", 0.40));
+
+    /**
+     * Threshold for embedding models without an entry in {@link #minScores}; 0 gates
+     * only requests that retrieved no chunks at all.
+     */
+    private double defaultMinScore = 0.0;
+
+    /**
+     * Most documents named as nearest matches in the templated answer.
+     */
+    private int maxHints = 3;
+}
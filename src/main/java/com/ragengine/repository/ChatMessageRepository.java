@@ -1,11 +1,44 @@
 package com.ragengine.repository;
 
 import com.ragengine.domain.entity.ChatMessage;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, UUID> {
+
+    /**
+     * Role and content of a message — what a prompt needs, without the stored sources.
+     */
+    interface HistoryMessage {
+        String getRole();
+
+        String getContent();
+    }
+
+    long countByConversationId(UUID conversationId);
+
+    /**
+     * The newest messages of a conversation, newest first. Reads only the top of the
+     * {@code (conversation_id, created_at DESC)} index, so the cost does not grow with
+     * the length of the conversation.
+     */
+    List<HistoryMessage> findByConversationIdOrderByCreatedAtDesc(UUID conversationId, Limit limit);
+
+    // Message pages, newest first
+    List<ChatMessage> findByConversationIdOrderByCreatedAtDescIdDesc(UUID conversationId, Limit limit);
+
+    @Query("""
+            SELECT m FROM ChatMessage m
+            WHERE m.conversation.id = :conversationId
+              AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id))
+            ORDER BY m.createdAt DESC, m.id DESC
+            """)
+    List<ChatMessage> findPageBefore(UUID conversationId, LocalDateTime createdAt, UUID id, Limit limit);
 }
@@ -2,8 +2,11 @@ package com.ragengine.repository;
 
 import com.ragengine.domain.entity.Conversation;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,10 +14,63 @@ import java.util.UUID;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, UUID> {
 
+    /**
+     * A conversation for listing: no messages, only their count and the newest one's start.
+     */
+    interface SummaryView {
+        UUID getId();
+
+        String getTitle();
+
+        LocalDateTime getUpdatedAt();
+
+        long getMessageCount();
+
+        String getLastMessage();
+    }
+
+    String SUMMARY_SELECT = """
+            SELECT c.id AS "id", c.title AS "title", c.updated_at AS "updatedAt",
+                   (SELECT count(*) FROM chat_messages m WHERE m.conversation_id = c.id) AS "messageCount",
+                   LEFT(last.content, 200) AS "lastMessage"
+            FROM conversations c
+            LEFT JOIN LATERAL (
+                SELECT m.content FROM chat_messages m
+                WHERE m.conversation_id = c.id
+                ORDER BY m.created_at DESC
+                LIMIT 1
+            ) last ON true
+            WHERE c.tenant_id = :tenantId
+            """;
+
+    String SUMMARY_ORDER = """
+            ORDER BY c.updated_at DESC, c.id DESC
+            LIMIT :limit
+            """;
+
     List<Conversation> findAllByOrderByUpdatedAtDesc();
 
     // Tenant-scoped queries
-    List<Conversation> findByTenantIdOrderByUpdatedAtDesc(UUID tenantId);
-
     Optional<Conversation> findByIdAndTenantId(UUID id, UUID tenantId);
+
+    /**
+     * The tenant's most recently updated conversations, newest first.
+     */
+    @Query(value = SUMMARY_SELECT + SUMMARY_ORDER, nativeQuery = true)
+    List<SummaryView> findSummaries(UUID tenantId, int limit);
+
+    /**
+     * The next page after the conversation last listed, which was updated at {@code updatedAt}.
+     */
+    @Query(value = SUMMARY_SELECT + "AND (c.updated_at, c.id) < (:updatedAt, :id)\n" + SUMMARY_ORDER,
+            nativeQuery = true)
+    List<SummaryView> findSummariesAfter(UUID tenantId, LocalDateTime updatedAt, UUID id, int limit);
+
+    /**
+     * Stores a new running summary unless another summarization got there first.
+     */
+    @Modifying
+    @Query("UPDATE Conversation c SET c.summary = :summary, c.summarizedMessages = :summarizedMessages "
+            + "WHERE c.id = :id AND c.summarizedMessages = :previous")
+    int updateSummary(UUID id, String summary, Integer summarizedMessages, Integer previous);
 }
@@ -1,9 +1,13 @@
 package com.ragengine.repository;
 
 import com.ragengine.domain.entity.DocumentChunk;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,5 +18,74 @@ public interface DocumentChunkRepository extends JpaRepository<DocumentChunk, UU
 
     void deleteByDocumentId(UUID documentId);
 
-    int countByDocumentId(UUID documentId);
+    /**
+     * Chunks of the document's latest chunk generation; older ones are kept only until
+     * the index generation that superseded them is dropped.
+     */
+    @Query("""
+            SELECT count(c) FROM DocumentChunk c
+            WHERE c.document.id = :documentId
+              AND c.generation = (SELECT max(o.generation) FROM DocumentChunk o WHERE o.document.id = :documentId)
+            """)
+    int countLatestByDocumentId(UUID documentId);
+
+    @Query("SELECT c FROM DocumentChunk c JOIN FETCH c.document WHERE c.id IN :ids")
+    List<DocumentChunk> findWithDocumentByIdIn(Collection<UUID> ids);
+
+    long countByDocumentTenantId(UUID tenantId);
+
+    long countByDocumentTenantIdAndCompressedContentIsNotNull(UUID tenantId);
+
+    @Query(value = """
+            SELECT c.* FROM document_chunks c
+            JOIN documents d ON d.id = c.document_id
+            WHERE d.tenant_id = :tenantId
+            ORDER BY random()
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<DocumentChunk> sampleByTenantId(UUID tenantId, int limit);
+
+    @Query("""
+            SELECT c FROM DocumentChunk c
+            WHERE c.document.tenant.id = :tenantId
+              AND (c.dictionaryId IS NULL OR c.dictionaryId <> :dictionaryId)
+            """)
+    List<DocumentChunk> findNotCompressedWith(UUID tenantId, UUID dictionaryId, Pageable pageable);
+
+    // Index generations
+    List<DocumentChunk> findByDocumentIdAndGenerationOrderByChunkIndex(UUID documentId, Integer generation);
+
+    @Modifying
+    @Query("DELETE FROM DocumentChunk c WHERE c.document.id = :documentId AND c.generation = :generation")
+    int deleteByDocumentIdAndGeneration(UUID documentId, Integer generation);
+
+    @Modifying
+    @Query("DELETE FROM DocumentChunk c WHERE c.generation = :generation")
+    int deleteByGeneration(Integer generation);
+
+    /**
+     * Moves chunks of one chunk generation to another for documents without older
+     * chunks, i.e. documents ingested while that generation was being built.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE document_chunks c SET generation = :to
+            WHERE c.generation = :from
+              AND NOT EXISTS (SELECT 1 FROM document_chunks o
+                              WHERE o.document_id = c.document_id AND o.generation < :from)
+            """, nativeQuery = true)
+    int moveUnsupersededGeneration(int from, int to);
+
+    /**
+     * Deletes chunks superseded by a newer chunk generation, for documents that
+     * have already been indexed into that generation.
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM document_chunks c USING documents d
+            WHERE c.document_id = d.id
+              AND d.index_generation >= :documentGeneration
+              AND c.generation < :chunkGeneration
+            """, nativeQuery = true)
+    int deleteSuperseded(int documentGeneration, int chunkGeneration);
 }
@@ -2,7 +2,11 @@ package com.ragengine.repository;
 
 import com.ragengine.domain.entity.Document;
 import com.ragengine.domain.entity.DocumentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -26,4 +30,21 @@ public interface DocumentRepository extends JpaRepository<Document, UUID> {
     Optional<Document> findByIdAndTenantId(UUID id, UUID tenantId);
 
     int countByTenantId(UUID tenantId);
+
+    @EntityGraph(attributePaths = "tenant")
+    Optional<Document> findWithTenantById(UUID id);
+
+    // Reindexing (keyset over document ID, across all tenants)
+    @Query("""
+            SELECT d.id FROM Document d
+            WHERE d.status = :status AND d.indexGeneration < :generation AND d.id > :after
+            ORDER BY d.id
+            """)
+    List<UUID> findIdsBelowGeneration(DocumentStatus status, Integer generation, UUID after, Pageable pageable);
+
+    long countByStatusAndIndexGenerationLessThan(DocumentStatus status, Integer generation);
+
+    @Modifying
+    @Query("UPDATE Document d SET d.indexGeneration = :to WHERE d.indexGeneration = :from")
+    int moveIndexGeneration(Integer from, Integer to);
 }
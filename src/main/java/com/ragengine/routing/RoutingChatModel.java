@@ -0,0 +1,353 @@
+package com.ragengine.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A {@link ChatModel} that spreads calls over several provider backends by observed
+ * latency and error rate.
+ *
+ * Each backend keeps an exponentially weighted moving average of its latency — the
+ * full call for {@link #call(Prompt)}, time to first fragment for {@link #stream(Prompt)}
+ * — and of its error rate. Every request goes to the backend with the lowest
+ * {@code latency * (1 + error-penalty * error-rate)}; backends without samples go
+ * first, and {@code rag.routing.explore-ratio} of requests try the runner-up so its
+ * averages stay current.
+ *
+ * Backends of different providers do not share model names, so the router has no
+ * default model of its own: each backend answers with its own default model unless
+ * the request names a model that {@code rag.routing.models} maps for that backend.
+ * Unmapped model names are not sent to it.
+ *
+ * With {@code rag.routing.hedge}, the runner-up also receives the request if the
+ * chosen backend has not answered within its recent {@code hedge-percentile} latency.
+ * Whichever responds first wins and the other request is cancelled. If the chosen
+ * backend fails before responding, the runner-up is asked right away.
+ */
+@Slf4j
+public class RoutingChatModel implements ChatModel, AutoCloseable {
+
+    /**
+     * Samples a backend needs before its latency percentile is trusted for hedging.
+     */
+    static final int MIN_PERCENTILE_SAMPLES = 20;
+
+    private static final int WINDOW = 128;
+
+    /**
+     * A named provider model to route to.
+     *
+     * @param models this backend's model for each model name a request may ask for
+     */
+    public record Backend(String name, ChatModel model, Map<String, String> models) {
+
+        public Backend(String name, ChatModel model) {
+            this(name, model, Map.of());
+        }
+
+        /**
+         * The model this backend answers a request for the given model with.
+         */
+        String modelFor(String requested) {
+            String mapped = requested != null ? models.get(requested) : null;
+            if (mapped != null) {
+                return mapped;
+            }
+            ChatOptions defaults = model.getDefaultOptions();
+            return defaults != null ? defaults.getModel() : null;
+        }
+    }
+
+    private enum Kind { CALL, STREAM }
+
+    private final List<Route> routes;
+    private final RoutingConfig config;
+    private final Counter hedged;
+    private final Map<String, Counter> outcomes = new HashMap<>();
+
+    // Blocking provider calls run on virtual threads; cancelling the loser interrupts it
+    private final Scheduler scheduler = Schedulers.fromExecutorService(
+            Executors.newVirtualThreadPerTaskExecutor(), "chat-routing");
+
+    public RoutingChatModel(List<Backend> backends, RoutingConfig config, MeterRegistry meterRegistry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one chat backend is required for routing");
+        }
+        this.config = config;
+        this.routes = backends.stream().map(backend -> new Route(backend, config.getEwmaAlpha())).toList();
+        this.hedged = Counter.builder("rag.chat.routing.hedged")
+                .description("Chat requests also sent to a second backend because the first was slow")
+                .register(meterRegistry);
+        for (Route route : routes) {
+            for (String outcome : List.of("success", "error", "cancelled")) {
+                outcomes.put(route.name() + outcome, Counter.builder("rag.chat.routing.requests")
+                        .tag("backend", route.name())
+                        .tag("outcome", outcome)
+                        .register(meterRegistry));
+            }
+            for (Kind kind : Kind.values()) {
+                String kindTag = kind.name().toLowerCase(Locale.ROOT);
+                Gauge.builder("rag.chat.routing.latency", route.stats(kind), LatencyStats::ewmaMillis)
+                        .description("Moving average of backend latency")
+                        .baseUnit("milliseconds")
+                        .tag("backend", route.name())
+                        .tag("kind", kindTag)
+                        .register(meterRegistry);
+                Gauge.builder("rag.chat.routing.error.rate", route.stats(kind), LatencyStats::errorRate)
+                        .description("Moving average of backend error rate")
+                        .tag("backend", route.name())
+                        .tag("kind", kindTag)
+                        .register(meterRegistry);
+            }
+        }
+        log.info("Routing chat requests between {} (hedging {})",
+                routes.stream().map(Route::name).toList(), config.isHedge() ? "on" : "off");
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return route(Kind.CALL, backend -> Mono.fromCallable(() -> backend.model().call(forBackend(prompt, backend)))
+                .subscribeOn(scheduler)
+                .flux())
+                .blockLast();
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return route(Kind.STREAM, backend -> backend.model().stream(forBackend(prompt, backend)));
+    }
+
+    /**
+     * Provider-neutral options without a model. The chat client copies these into
+     * every prompt, so a model or provider-specific setting here would be sent to every
+     * backend; each backend fills in its own defaults instead.
+     */
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return ChatOptions.builder().build();
+    }
+
+    /**
+     * The model each backend would answer a request for the given model with, so
+     * prompts can be budgeted for the smallest of their windows.
+     *
+     * @param requested the model the request names, or {@code null} for the default
+     */
+    public List<String> modelsFor(String requested) {
+        return routes.stream().map(route -> route.backend().modelFor(requested)).toList();
+    }
+
+    /**
+     * The prompt as sent to one backend: a requested model is replaced by the backend's
+     * mapping for it, or dropped so the backend uses its default model.
+     */
+    static Prompt forBackend(Prompt prompt, Backend backend) {
+        ChatOptions options = prompt.getOptions();
+        if (options == null || options.getModel() == null) {
+            return prompt;
+        }
+        ChatOptions adapted = ChatOptions.builder()
+                .model(backend.models().get(options.getModel()))
+                .frequencyPenalty(options.getFrequencyPenalty())
+                .maxTokens(options.getMaxTokens())
+                .presencePenalty(options.getPresencePenalty())
+                .stopSequences(options.getStopSequences())
+                .temperature(options.getTemperature())
+                .topK(options.getTopK())
+                .topP(options.getTopP())
+                .build();
+        return new Prompt(prompt.getInstructions(), adapted);
+    }
+
+    private Flux<ChatResponse> route(Kind kind, Function<Backend, Flux<ChatResponse>> request) {
+        return Flux.defer(() -> {
+            List<Route> ranked = rank(kind);
+            Route primary = ranked.getFirst();
+            if (ranked.size() == 1) {
+                return observe(primary, kind, request);
+            }
+            Route runnerUp = ranked.get(1);
+
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Flux<ChatResponse> first = observe(primary, kind, request)
+                    .doOnError(e -> primaryFailed.tryEmitEmpty());
+            Mono<Long> failover = primaryFailed.asMono().thenReturn(0L);
+            Mono<Long> trigger = config.isHedge()
+                    ? Mono.firstWithSignal(
+                            Mono.delay(hedgeDelay(primary, kind)).doOnNext(t -> {
+                                hedged.increment();
+                                log.debug("Hedging slow {} request to {}", primary.name(), runnerUp.name());
+                            }),
+                            failover)
+                    : failover;
+            Flux<ChatResponse> second = observe(runnerUp, kind, request).delaySubscription(trigger);
+
+            return Flux.firstWithValue(first, second)
+                    // Surface the provider's own error rather than "all sources failed"
+                    .onErrorMap(NoSuchElementException.class, e -> firstCause(e));
+        });
+    }
+
+    /**
+     * Backends by score, best first; occasionally the runner-up is promoted.
+     */
+    private List<Route> rank(Kind kind) {
+        List<Route> ranked = new ArrayList<>(routes);
+        ranked.sort(Comparator.comparingDouble(route -> route.stats(kind).score(config.getErrorPenalty())));
+        if (ranked.size() > 1 && ThreadLocalRandom.current().nextDouble() < config.getExploreRatio()) {
+            Collections.swap(ranked, 0, 1);
+        }
+        return ranked;
+    }
+
+    private Duration hedgeDelay(Route route, Kind kind) {
+        long min = config.getMinHedgeDelay().toMillis();
+        long max = Math.max(min, config.getMaxHedgeDelay().toMillis());
+        long percentile = route.stats(kind).percentile(config.getHedgePercentile()).orElse(min);
+        return Duration.ofMillis(Math.clamp(percentile, min, max));
+    }
+
+    /**
+     * Wraps a backend request to record its latency and outcome. Latency is taken at the
+     * first response; a failure counts as a sample of {@code max-hedge-delay}, so a
+     * backend that fails fast never looks fast, and a cancelled request as a sample of
+     * how long it had been running, a lower bound of its true latency.
+     */
+    private Flux<ChatResponse> observe(Route route, Kind kind, Function<Backend, Flux<ChatResponse>> request) {
+        return Flux.defer(() -> {
+            long started = System.nanoTime();
+            AtomicBoolean responded = new AtomicBoolean();
+            LatencyStats stats = route.stats(kind);
+            return request.apply(route.backend())
+                    .doOnNext(response -> {
+                        if (responded.compareAndSet(false, true)) {
+                            stats.latency(millisSince(started));
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (responded.compareAndSet(false, true)) {
+                            stats.latency(millisSince(started));
+                        }
+                        stats.outcome(false);
+                        outcomes.get(route.name() + "success").increment();
+                    })
+                    .doOnError(e -> {
+                        if (responded.compareAndSet(false, true)) {
+                            stats.latency(config.getMaxHedgeDelay().toMillis());
+                        }
+                        stats.outcome(true);
+                        outcomes.get(route.name() + "error").increment();
+                        log.warn("Chat backend {} failed: {}", route.name(), e.getMessage());
+                    })
+                    .doOnCancel(() -> {
+                        if (responded.compareAndSet(false, true)) {
+                            stats.latency(millisSince(started));
+                        }
+                        outcomes.get(route.name() + "cancelled").increment();
+                    });
+        });
+    }
+
+    private static Throwable firstCause(NoSuchElementException e) {
+        List<Throwable> errors = Exceptions.unwrapMultiple(e.getCause());
+        return errors.isEmpty() ? e : errors.getFirst();
+    }
+
+    private static long millisSince(long started) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+
+    private record Route(Backend backend, LatencyStats callStats, LatencyStats streamStats) {
+
+        Route(Backend backend, double alpha) {
+            this(backend, new LatencyStats(alpha), new LatencyStats(alpha));
+        }
+
+        String name() {
+            return backend.name();
+        }
+
+        LatencyStats stats(Kind kind) {
+            return kind == Kind.CALL ? callStats : streamStats;
+        }
+    }
+
+    /**
+     * Moving averages of one backend's latency and error rate, plus a window of recent
+     * latencies for percentiles.
+     */
+    private static final class LatencyStats {
+
+        private final double alpha;
+        private final long[] window = new long[WINDOW];
+        private int samples;
+        private int next;
+        private double ewmaMillis = -1;
+        private double errorRate;
+
+        LatencyStats(double alpha) {
+            this.alpha = alpha;
+        }
+
+        synchronized void latency(long millis) {
+            ewmaMillis = ewmaMillis < 0 ? millis : alpha * millis + (1 - alpha) * ewmaMillis;
+            window[next] = millis;
+            next = (next + 1) % WINDOW;
+            samples = Math.min(samples + 1, WINDOW);
+        }
+
+        synchronized void outcome(boolean error) {
+            errorRate = alpha * (error ? 1 : 0) + (1 - alpha) * errorRate;
+        }
+
+        /**
+         * Lower is better; backends without samples score 0 so they are tried first.
+         */
+        synchronized double score(double errorPenalty) {
+            return Math.max(ewmaMillis, 0) * (1 + errorPenalty * errorRate);
+        }
+
+        synchronized OptionalLong percentile(double percentile) {
+            if (samples < MIN_PERCENTILE_SAMPLES) {
+                return OptionalLong.empty();
+            }
+            long[] sorted = Arrays.copyOf(window, samples);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * samples) - 1;
+            return OptionalLong.of(sorted[Math.clamp(index, 0, samples - 1)]);
+        }
+
+        synchronized double ewmaMillis() {
+            return Math.max(ewmaMillis, 0);
+        }
+
+        synchronized double errorRate() {
+            return errorRate;
+        }
+    }
+}
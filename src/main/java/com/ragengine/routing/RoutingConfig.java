@@ -0,0 +1,78 @@
+package com.ragengine.routing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for latency-aware chat routing ({@code rag.ai.provider=routed}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.routing")
+@Getter
+@Setter
+public class RoutingConfig {
+
+    /**
+     * Chat backends to route between ({@code openai}, {@code ollama}). Prompts are
+     * budgeted for the smallest context window among them.
+     */
+    private List<String> backends = new ArrayList<>(List.of("openai", "ollama"));
+
+    /**
+     * Per backend, its model for each model name a request may ask for, such as the
+     * {@code rag.tiering} models. A backend answers requests for unmapped names with
+     * its default model.
+     */
+    private Map<String, Map<String, String>> models = new LinkedHashMap<>();
+
+    /**
+     * Provider of the embedding model; embeddings are never routed, as all vectors
+     * must come from the same model.
+     */
+    private String embeddingProvider = "openai";
+
+    /**
+     * Weight of the newest sample in the latency and error-rate moving averages.
+     */
+    private double ewmaAlpha = 0.2;
+
+    /**
+     * How strongly errors count against a backend: its latency is multiplied by
+     * {@code 1 + error-penalty * error-rate}.
+     */
+    private double errorPenalty = 10;
+
+    /**
+     * Share of calls sent to the runner-up, so the averages of a backend that is not
+     * currently preferred keep being refreshed.
+     */
+    private double exploreRatio = 0.05;
+
+    /**
+     * Whether a second request goes to the runner-up when the first is slow.
+     */
+    private boolean hedge = true;
+
+    /**
+     * Latency percentile of the chosen backend after which the hedged request is sent.
+     */
+    private double hedgePercentile = 0.95;
+
+    /**
+     * Lower bound on the hedge delay, also used until a backend has enough samples.
+     */
+    private Duration minHedgeDelay = Duration.ofMillis(500);
+
+    /**
+     * Upper bound on the hedge delay.
+     */
+    private Duration maxHedgeDelay = Duration.ofSeconds(10);
+}
@@ -0,0 +1,283 @@
+package com.ragengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ragengine.audit.AuditAction;
+import com.ragengine.audit.AuditService;
+import com.ragengine.cache.AnswerCache;
+import com.ragengine.domain.dto.BatchChatRequest;
+import com.ragengine.domain.dto.BatchChatResult;
+import com.ragengine.domain.entity.Document;
+import com.ragengine.ratelimit.RateLimitService;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.RagChatService.PreparedChat;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Answers many standalone questions against one document set, for reporting and
+ * evaluation jobs.
+ *
+ * The work a single chat request repeats per question is done once per batch: the
+ * documents are validated once, and all questions are embedded in a single embedding
+ * call (see {@link QueryEmbeddingSearch}). Each question then runs on its own virtual
+ * thread — at most {@code rag.chat.batch.search-concurrency} vector searches and
+ * {@code rag.chat.batch.concurrency} model calls at a time — through the same tiering,
+ * compression and prompt budget as a chat request. Every question counts against the
+ * chat rate limit and may be answered from the {@link AnswerCache}.
+ *
+ * Results are written as NDJSON, one {@link BatchChatResult} per line, in the order
+ * they finish. Batch questions belong to no conversation and are not stored; the batch
+ * as a whole is audited. If the client disconnects, the remaining questions are cancelled.
+ *
+ * Metrics: {@code rag.chat.batch.results}, tagged by status.
+ */
+@Service
+@Slf4j
+public class BatchChatService {
+
+    private final RagChatService ragChatService;
+    private final QueryEmbeddingSearch querySearch;
+    private final AnswerCache answerCache;
+    private final RateLimitService rateLimitService;
+    private final AuditService auditService;
+    private final SecurityContext securityContext;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int maxQuestions;
+    private final int concurrency;
+    private final int searchConcurrency;
+
+    public BatchChatService(RagChatService ragChatService,
+                            QueryEmbeddingSearch querySearch,
+                            AnswerCache answerCache,
+                            RateLimitService rateLimitService,
+                            AuditService auditService,
+                            SecurityContext securityContext,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${rag.chat.batch.max-questions:500}") int maxQuestions,
+                            @Value("${rag.chat.batch.concurrency:8}") int concurrency,
+                            @Value("${rag.chat.batch.search-concurrency:4}") int searchConcurrency) {
+        this.ragChatService = ragChatService;
+        this.querySearch = querySearch;
+        this.answerCache = answerCache;
+        this.rateLimitService = rateLimitService;
+        this.auditService = auditService;
+        this.securityContext = securityContext;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxQuestions = maxQuestions;
+        this.concurrency = concurrency;
+        this.searchConcurrency = searchConcurrency;
+    }
+
+    /**
+     * Validates the batch synchronously — so invalid documents or an oversized batch
+     * surface as normal HTTP errors — and returns the body that answers it.
+     */
+    public StreamingResponseBody answer(BatchChatRequest request) {
+        if (request.questions().size() > maxQuestions) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxQuestions + " questions");
+        }
+        UUID tenantId = securityContext.getCurrentTenantId();
+        List<Document> documents = ragChatService.validateDocuments(request.documentIds());
+        auditService.logAction(AuditAction.CHAT_BATCH, "DOCUMENT", null,
+                "Questions: " + request.questions().size() + ", documents: " + request.documentIds().size());
+        log.info("Processing chat batch of {} questions", request.questions().size());
+
+        // The body runs on another thread; questions run with the caller's identity
+        ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newVirtualThreadPerTaskExecutor(), SecurityContextHolder.getContext());
+        return out -> run(request, tenantId, documents, executor, out);
+    }
+
+    private void run(BatchChatRequest request, UUID tenantId, List<Document> documents,
+                     ExecutorService executor, OutputStream out) {
+        List<String> questions = request.questions();
+        ResultWriter writer = new ResultWriter(out, executor);
+        Semaphore searches = new Semaphore(searchConcurrency);
+        Semaphore generations = new Semaphore(concurrency);
+
+        try (executor) {
+            // Cached answers need no embedding
+            List<Integer> uncached = new ArrayList<>();
+            AnswerCache.Key[] keys = new AnswerCache.Key[questions.size()];
+            for (int i = 0; i < questions.size(); i++) {
+                keys[i] = ragChatService.cacheKey(tenantId, questions.get(i), documents);
+                Optional<AnswerCache.Entry> cached = keys[i] != null ? answerCache.get(keys[i]) : Optional.empty();
+                if (cached.isEmpty()) {
+                    uncached.add(i);
+                } else if (consumeRateLimit(tenantId, i, writer)) {
+                    writer.write(BatchChatResult.builder()
+                            .index(i)
+                            .status(BatchChatResult.Status.OK)
+                            .answer(cached.get().answer())
+                            .sources(cached.get().sources())
+                            .promptTokens(0)
+                            .build());
+                }
+            }
+            if (uncached.isEmpty()) {
+                return;
+            }
+
+            List<float[]> embeddings;
+            try {
+                embeddings = querySearch.embedQueries(tenantId, uncached.stream().map(questions::get).toList());
+            } catch (RuntimeException e) {
+                log.error("Embedding chat batch failed: {}", e.getMessage());
+                uncached.forEach(i -> writer.write(failed(i, "Could not embed the question")));
+                return;
+            }
+
+            for (int n = 0; n < uncached.size(); n++) {
+                int index = uncached.get(n);
+                float[] embedding = embeddings.get(n);
+                try {
+                    executor.execute(() -> {
+                        if (consumeRateLimit(tenantId, index, writer)) {
+                            writer.write(answerOne(index, questions.get(index), embedding, keys[index], tenantId,
+                                    request.documentIds(), searches, generations));
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // The client disconnected
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches with the precomputed embedding, then prepares and generates the answer.
+     */
+    private BatchChatResult answerOne(int index, String question, float[] embedding, AnswerCache.Key key,
+                                      UUID tenantId, List<UUID> documentIds,
+                                      Semaphore searches, Semaphore generations) {
+        PreparedChat prepared;
+        try {
+            List<org.springframework.ai.document.Document> chunks = withPermit(searches, () ->
+                    querySearch.similaritySearch(ragChatService.searchRequest(question, tenantId, documentIds),
+                            embedding));
+            prepared = ragChatService.prepareStandalone(tenantId, question, chunks, key);
+        } catch (RuntimeException e) {
+            log.warn("Retrieval failed for batch question {}: {}", index, e.getMessage());
+            return failed(index, "Could not search the documents");
+        }
+
+        if (prepared.cachedAnswer() != null) {
+            // Nothing relevant was found; the relevance gate's answer needs no model call
+            return BatchChatResult.builder()
+                    .index(index)
+                    .status(BatchChatResult.Status.OK)
+                    .answer(prepared.cachedAnswer())
+                    .sources(prepared.sources())
+                    .promptTokens(0)
+                    .build();
+        }
+
+        String answer;
+        try {
+            answer = withPermit(generations, () -> ragChatService.generate(prepared));
+        } catch (RuntimeException e) {
+            return failed(index, ragChatService.toGenerationFailure(e).getMessage());
+        }
+        // Dropped by preparation when a model tier answers with a model other than the key's
+        if (prepared.cacheKey() != null) {
+            answerCache.put(prepared.cacheKey(), answer, prepared.sources());
+        }
+        return BatchChatResult.builder()
+                .index(index)
+                .status(BatchChatResult.Status.OK)
+                .answer(answer)
+                .sources(prepared.sources())
+                .promptTokens(prepared.promptTokens())
+                .build();
+    }
+
+    private boolean consumeRateLimit(UUID tenantId, int index, ResultWriter writer) {
+        if (rateLimitService.tryConsumeChatRequest(tenantId)) {
+            return true;
+        }
+        writer.write(BatchChatResult.builder()
+                .index(index)
+                .status(BatchChatResult.Status.RATE_LIMITED)
+                .error("Chat rate limit exceeded. Please try again shortly.")
+                .build());
+        return false;
+    }
+
+    private static BatchChatResult failed(int index, String error) {
+        return BatchChatResult.builder()
+                .index(index)
+                .status(BatchChatResult.Status.FAILED)
+                .error(error)
+                .build();
+    }
+
+    private static <T> T withPermit(Semaphore permits, Supplier<T> task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch cancelled", e);
+        }
+        try {
+            return task.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Writes results as they finish, one JSON object per line. Once the client is gone,
+     * the remaining questions are cancelled and further results dropped.
+     */
+    private final class ResultWriter {
+
+        private final OutputStream out;
+        private final ExecutorService executor;
+        private boolean closed;
+
+        ResultWriter(OutputStream out, ExecutorService executor) {
+            this.out = out;
+            this.executor = executor;
+        }
+
+        synchronized void write(BatchChatResult result) {
+            meterRegistry.counter("rag.chat.batch.results",
+                    "status", result.status().name().toLowerCase(Locale.ROOT)).increment();
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                log.info("Chat batch client disconnected, cancelling remaining questions");
+                closed = true;
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.ragengine.service;
+
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.service.RagChatService.PreparedChat;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams RAG answers to the client as server-sent events.
+ *
+ * Event sequence:
+ * 1. {@code sources} — conversation ID and citations, sent before generation starts
+ * 2. {@code token} — one event per streamed content fragment
+ * 3. {@code done} — after the answer has been persisted; or {@code error}
+ *
+ * If the client disconnects or the stream times out, the subscription to the model
+ * is disposed, which cancels the upstream generation; nothing is persisted, and a
+ * conversation created for the turn is removed again.
+ *
+ * Metrics:
+ * - {@code rag.chat.stream.ttft} — request start to first token
+ * - {@code rag.chat.stream.tokens.per.second} — generation rate after the first token
+ * - {@code rag.chat.stream.cancelled} — streams abandoned by the client
+ */
+@Service
+@Slf4j
+public class ChatStreamingService {
+
+    private final RagChatService ragChatService;
+    private final Duration streamTimeout;
+    private final Timer timeToFirstToken;
+    private final DistributionSummary tokensPerSecond;
+    private final Counter cancelled;
+
+    public ChatStreamingService(RagChatService ragChatService,
+                                MeterRegistry meterRegistry,
+                                @Value("${rag.chat.stream-timeout:PT5M}") Duration streamTimeout) {
+        this.ragChatService = ragChatService;
+        this.streamTimeout = streamTimeout;
+        this.timeToFirstToken = Timer.builder("rag.chat.stream.ttft")
+                .description("Time from chat request to first streamed token")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.tokensPerSecond = DistributionSummary.builder("rag.chat.stream.tokens.per.second")
+                .description("Completion tokens per second after the first token")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("rag.chat.stream.cancelled")
+                .description("Chat streams cancelled by client disconnect or timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prepares the chat synchronously — so validation and rate-limit errors surface as
+     * normal HTTP errors — then streams the answer into the returned emitter.
+     */
+    public SseEmitter stream(ChatRequest request) {
+        long started = System.nanoTime();
+        PreparedChat prepared = ragChatService.prepare(request);
+
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        StreamState state = new StreamState(started);
+        Disposable.Swap subscription = Disposables.swap();
+
+        Runnable cancel = () -> {
+            if (!state.finished.get() && !subscription.isDisposed()) {
+                subscription.dispose();
+                cancelled.increment();
+                ragChatService.abandon(prepared);
+                log.info("Chat stream for conversation {} cancelled by client", prepared.conversationId());
+            }
+        };
+        emitter.onCompletion(cancel);
+        emitter.onTimeout(cancel);
+        emitter.onError(error -> cancel.run());
+
+        Map<String, Object> sources = new LinkedHashMap<>();
+        sources.put("conversationId", prepared.conversationId());
+        sources.put("sources", prepared.sources());
+        if (!send(emitter, "sources", sources)) {
+            // No answer will be generated, so the turn is abandoned here rather than by cancel
+            state.finished.set(true);
+            ragChatService.abandon(prepared);
+            return emitter;
+        }
+
+        subscription.update(ragChatService.streamAnswer(prepared)
+                // Persistence and blocking socket writes stay off the HTTP client's event loop
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(
+                        response -> onResponse(emitter, state, response, cancel),
+                        error -> onError(emitter, state, prepared, error),
+                        () -> onComplete(emitter, state, prepared)));
+        return emitter;
+    }
+
+    private void onResponse(SseEmitter emitter, StreamState state,
+                            org.springframework.ai.chat.model.ChatResponse response, Runnable cancel) {
+        if (response.getMetadata() != null && response.getMetadata().getUsage() != null) {
+            Usage usage = response.getMetadata().getUsage();
+            if (usage.getCompletionTokens() != null && usage.getCompletionTokens() > 0) {
+                state.reportedTokens = usage.getCompletionTokens();
+            }
+        }
+        String text = response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+
+        if (state.firstTokenAt == 0) {
+            state.firstTokenAt = System.nanoTime();
+            timeToFirstToken.record(state.firstTokenAt - state.startedAt, TimeUnit.NANOSECONDS);
+        }
+        state.answer.append(text);
+        state.fragments++;
+
+        if (!send(emitter, "token", Map.of("content", text))) {
+            cancel.run();
+        }
+    }
+
+    private void onError(SseEmitter emitter, StreamState state, PreparedChat prepared, Throwable error) {
+        state.finished.set(true);
+        log.error("Chat stream failed: {}", error.getMessage());
+        ragChatService.abandon(prepared);
+        send(emitter, "error", Map.of("message", error.getMessage() != null
+                ? error.getMessage() : "Failed to generate AI response. Please try again later."));
+        emitter.complete();
+    }
+
+    private void onComplete(SseEmitter emitter, StreamState state, PreparedChat prepared) {
+        state.finished.set(true);
+        long now = System.nanoTime();
+        // Providers that report usage give exact counts; otherwise each fragment is ~one token
+        int tokens = state.reportedTokens > 0 ? state.reportedTokens : state.fragments;
+        double rate = 0;
+        if (state.firstTokenAt > 0 && now > state.firstTokenAt) {
+            rate = tokens / ((now - state.firstTokenAt) / 1_000_000_000.0);
+            tokensPerSecond.record(rate);
+        }
+
+        try {
+            ChatResponse saved = ragChatService.complete(prepared, state.answer.toString());
+
+            Map<String, Object> done = new LinkedHashMap<>();
+            done.put("conversationId", saved.conversationId());
+            done.put("timestamp", saved.timestamp());
+            done.put("promptTokens", saved.promptTokens());
+            done.put("completionTokens", tokens);
+            done.put("timeToFirstTokenMs", state.firstTokenAt > 0
+                    ? (state.firstTokenAt - state.startedAt) / 1_000_000 : null);
+            done.put("tokensPerSecond", Math.round(rate * 10) / 10.0);
+            send(emitter, "done", done);
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.error("Failed to persist streamed answer for conversation {}: {}",
+                    prepared.conversationId(), e.getMessage(), e);
+            send(emitter, "error", Map.of("message", "The answer could not be saved. Please try again."));
+            emitter.complete();
+        }
+    }
+
+    /**
+     * @return false if the client is gone
+     */
+    private boolean send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Could not send '{}' event: {}", event, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Mutable per-stream state; fragments are delivered sequentially.
+     */
+    private static final class StreamState {
+        final long startedAt;
+        final StringBuilder answer = new StringBuilder();
+        final AtomicBoolean finished = new AtomicBoolean();
+        long firstTokenAt;
+        int fragments;
+        int reportedTokens;
+
+        StreamState(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.ragengine.service;
 
+import com.ragengine.extraction.ExtractionCache;
+import com.ragengine.extraction.ExtractionResult;
+import com.ragengine.extraction.PageOffsetContentHandler;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.tika.Tika;
 import org.apache.tika.exception.TikaException;
@@ -7,22 +11,61 @@ import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
 import org.apache.tika.sax.BodyContentHandler;
+import org.apache.tika.sax.ToTextContentHandler;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
 
 /**
  * Service responsible for extracting text content from uploaded documents.
  * Uses Apache Tika to support multiple file formats (PDF, DOCX, TXT, etc.)
+ *
+ * Results (text + page offsets) are cached on disk by file hash, Tika version
+ * and parser config, so reprocessing and reindexing skip the parse.
  */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class DocumentExtractionService {
 
+    /**
+     * Identifies the handler/parser setup below; bump when it changes so cached
+     * results from the old setup are no longer used.
+     */
+    private static final String PARSER_CONFIG = "auto-detect;body-text;page-offsets;v1";
+
     private final Tika tika = new Tika();
+    private final ExtractionCache extractionCache;
+
+    /**
+     * Extracts text and page offsets from an uploaded file, served from the
+     * extraction cache when the same bytes were parsed before.
+     *
+     * @param file the uploaded file
+     * @return extracted text, page offsets and page count
+     */
+    public ExtractionResult extract(MultipartFile file) {
+        return extract(file, file.getContentType(), file.getOriginalFilename());
+    }
+
+    /**
+     * Extracts text and page offsets from a stored file. Used by reprocessing jobs,
+     * which normally hit the cache and skip the Tika parse entirely.
+     */
+    public ExtractionResult extract(Path file, String contentType) {
+        return extract(new FileSystemResource(file), contentType, file.getFileName().toString());
+    }
 
     /**
      * Extracts text content from a multipart file using Apache Tika.
@@ -31,26 +74,51 @@ public class DocumentExtractionService {
      * @return extracted text content
      */
     public String extractText(MultipartFile file) {
-        log.info("Extracting text from file: {}", file.getOriginalFilename());
+        return extract(file).text();
+    }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            // Use BodyContentHandler with -1 to allow unlimited content length
-            BodyContentHandler handler = new BodyContentHandler(-1);
+    private ExtractionResult extract(InputStreamSource source, String contentType, String name) {
+        String cacheKey = cacheKey(sha256(source, name));
+        return extractionCache.get(cacheKey)
+                .map(cached -> {
+                    log.info("Extraction cache hit for '{}' ({} characters)", name, cached.text().length());
+                    return cached;
+                })
+                .orElseGet(() -> {
+                    ExtractionResult result = parse(source, contentType, name);
+                    extractionCache.put(cacheKey, result);
+                    return result;
+                });
+    }
+
+    private ExtractionResult parse(InputStreamSource source, String contentType, String name) {
+        log.info("Extracting text from file: {}", name);
+
+        try (InputStream inputStream = source.getInputStream()) {
+            // Unlimited body text, with page boundaries recorded on the way through
+            StringWriter writer = new StringWriter();
+            PageOffsetContentHandler pageTracker = new PageOffsetContentHandler(new ToTextContentHandler(writer));
             Metadata metadata = new Metadata();
-            metadata.set(Metadata.CONTENT_TYPE, file.getContentType());
+            metadata.set(Metadata.CONTENT_TYPE, contentType);
 
             AutoDetectParser parser = new AutoDetectParser();
             ParseContext context = new ParseContext();
 
-            parser.parse(inputStream, handler, metadata, context);
+            parser.parse(inputStream, new BodyContentHandler(pageTracker), metadata, context);
 
-            String extractedText = handler.toString().trim();
-            log.info("Extracted {} characters from '{}'", extractedText.length(), file.getOriginalFilename());
+            String rawText = writer.toString();
+            String extractedText = rawText.trim();
+            int leading = rawText.length() - rawText.stripLeading().length();
+            List<Integer> pageOffsets = pageTracker.getPageOffsets().stream()
+                    .map(offset -> Math.min(Math.max(0, offset - leading), extractedText.length()))
+                    .toList();
 
-            return extractedText;
+            log.info("Extracted {} characters from '{}'", extractedText.length(), name);
+
+            return new ExtractionResult(extractedText, pageOffsets, pageCount(metadata, pageOffsets));
 
         } catch (IOException | TikaException | SAXException e) {
-            log.error("Failed to extract text from file: {}", file.getOriginalFilename(), e);
+            log.error("Failed to extract text from file: {}", name, e);
             throw new RuntimeException("Failed to extract text from document: " + e.getMessage(), e);
         }
     }
@@ -71,28 +139,42 @@ public class DocumentExtractionService {
     }
 
     /**
-     * Extracts page count from document metadata (primarily for PDFs).
-     *
-     * @param file the uploaded file
-     * @return page count, or null if not applicable
+     * Reads the page count from document metadata (primarily for PDFs),
+     * falling back to the number of page elements seen during parsing.
      */
-    public Integer extractPageCount(MultipartFile file) {
-        try (InputStream inputStream = file.getInputStream()) {
-            Metadata metadata = new Metadata();
-            AutoDetectParser parser = new AutoDetectParser();
-            BodyContentHandler handler = new BodyContentHandler(0);
+    private Integer pageCount(Metadata metadata, List<Integer> pageOffsets) {
+        String pages = metadata.get("xmpTPg:NPages");
+        if (pages == null) {
+            pages = metadata.get("meta:page-count");
+        }
+        try {
+            if (pages != null) {
+                return Integer.parseInt(pages);
+            }
+        } catch (NumberFormatException e) {
+            log.debug("Invalid page count in metadata: {}", pages);
+        }
+        return pageOffsets.isEmpty() ? null : pageOffsets.size();
+    }
 
-            parser.parse(inputStream, handler, metadata, new ParseContext());
+    /**
+     * Cache key: the file hash combined with everything that changes parser output.
+     */
+    private String cacheKey(String fileSha256) {
+        return ApiKeyService.sha256(fileSha256 + "|" + Tika.getString() + "|" + PARSER_CONFIG);
+    }
 
-            String pages = metadata.get("xmpTPg:NPages");
-            if (pages == null) {
-                pages = metadata.get("meta:page-count");
+    private String sha256(InputStreamSource source, String name) {
+        try (InputStream in = source.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
             }
-            return pages != null ? Integer.parseInt(pages) : null;
-
-        } catch (Exception e) {
-            log.debug("Could not extract page count from file: {}", file.getOriginalFilename());
-            return null;
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to read document '" + name + "': " + e.getMessage(), e);
         }
     }
 }
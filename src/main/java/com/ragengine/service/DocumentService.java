@@ -7,11 +7,16 @@ import com.ragengine.domain.entity.DocumentStatus;
 import com.ragengine.domain.entity.Tenant;
 import com.ragengine.domain.entity.User;
 import com.ragengine.exception.DocumentNotFoundException;
+import com.ragengine.extraction.ExtractionResult;
 import com.ragengine.exception.DocumentProcessingException;
 import com.ragengine.exception.RateLimitExceededException;
 import com.ragengine.audit.AuditAction;
 import com.ragengine.audit.AuditService;
+import com.ragengine.cache.AnswerCache;
+import com.ragengine.cache.ConversationWorkingSet;
+import com.ragengine.compression.ChunkCompressionService;
 import com.ragengine.ratelimit.RateLimitService;
+import com.ragengine.reindex.IndexGenerationService;
 import com.ragengine.repository.DocumentChunkRepository;
 import com.ragengine.repository.DocumentRepository;
 import com.ragengine.security.SecurityContext;
@@ -28,6 +33,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -44,9 +50,15 @@ public class DocumentService {
     private final DocumentExtractionService extractionService;
     private final ChunkingService chunkingService;
     private final EmbeddingService embeddingService;
+    private final ChunkCompressionService compressionService;
     private final SecurityContext securityContext;
     private final RateLimitService rateLimitService;
     private final AuditService auditService;
+    private final AnswerCache answerCache;
+    private final ConversationWorkingSet workingSet;
+
+    /** Present with the compact vector store, which supports index generations */
+    private final Optional<IndexGenerationService> indexGenerations;
 
     @Value("${rag.upload.storage-path:./uploads}")
     private String storagePath;
@@ -110,12 +122,17 @@ public class DocumentService {
         Document document = documentRepository.findById(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException(documentId));
 
+        // Generations fixed up front; a reindex started meanwhile picks this document up itself
+        IndexGenerationService.WriteTarget target = indexGenerations
+                .map(IndexGenerationService::writeTarget)
+                .orElse(new IndexGenerationService.WriteTarget(1, 1));
+
         try {
             // Step 1: Extract text
             updateStatus(document, DocumentStatus.PROCESSING);
-            String extractedText = extractionService.extractText(file);
-            Integer pageCount = extractionService.extractPageCount(file);
-            document.setPageCount(pageCount);
+            ExtractionResult extraction = extractionService.extract(file);
+            String extractedText = extraction.text();
+            document.setPageCount(extraction.pageCount());
 
             if (extractedText.isBlank()) {
                 throw new DocumentProcessingException("No text could be extracted from the document");
@@ -127,13 +144,19 @@ public class DocumentService {
             log.info("Document '{}' split into {} chunks", document.getOriginalName(), textChunks.size());
 
             // Save chunks to database
-            List<DocumentChunk> chunks = saveChunks(document, textChunks);
+            List<DocumentChunk> chunks = saveChunks(document, textChunks, target.chunkGeneration());
 
             // Step 3: Generate embeddings and store in vector DB
             updateStatus(document, DocumentStatus.EMBEDDING);
             embeddingService.embedAndStore(document, chunks);
 
+            // Compress chunk text once it is no longer needed in plain form
+            if (document.getTenant() != null) {
+                compressionService.compressNewChunks(document.getTenant().getId(), chunks);
+            }
+
             // Mark as ready
+            document.setIndexGeneration(target.documentGeneration());
             updateStatus(document, DocumentStatus.READY);
             log.info("Document '{}' processing complete. {} chunks embedded.",
                     document.getOriginalName(), chunks.size());
@@ -143,6 +166,8 @@ public class DocumentService {
             document.setStatus(DocumentStatus.FAILED);
             document.setErrorMessage(e.getMessage());
             documentRepository.save(document);
+            answerCache.invalidateDocument(documentId);
+            workingSet.invalidateDocument(documentId);
         }
     }
 
@@ -183,6 +208,8 @@ public class DocumentService {
 
         // Delete from database (cascades to chunks)
         documentRepository.delete(document);
+        answerCache.invalidateDocument(id);
+        workingSet.invalidateDocument(id);
 
         // Delete file from disk
         try {
@@ -232,7 +259,7 @@ public class DocumentService {
         }
     }
 
-    private List<DocumentChunk> saveChunks(Document document, List<String> textChunks) {
+    private List<DocumentChunk> saveChunks(Document document, List<String> textChunks, int generation) {
         List<DocumentChunk> chunks = new java.util.ArrayList<>();
 
         for (int i = 0; i < textChunks.size(); i++) {
@@ -242,6 +269,7 @@ public class DocumentService {
                     .content(text)
                     .chunkIndex(i)
                     .tokenCount(chunkingService.estimateTokenCount(text))
+                    .generation(generation)
                     .build();
             chunks.add(chunk);
         }
@@ -252,11 +280,14 @@ public class DocumentService {
     private void updateStatus(Document document, DocumentStatus status) {
         document.setStatus(status);
         documentRepository.save(document);
+        // Cached answers and remembered chunks are of the previous version
+        answerCache.invalidateDocument(document.getId());
+        workingSet.invalidateDocument(document.getId());
         log.debug("Document '{}' status updated to: {}", document.getOriginalName(), status);
     }
 
     private DocumentResponse mapToResponse(Document document) {
-        int chunkCount = chunkRepository.countByDocumentId(document.getId());
+        int chunkCount = chunkRepository.countLatestByDocumentId(document.getId());
         return DocumentResponse.builder()
                 .id(document.getId())
                 .originalName(document.getOriginalName())
@@ -1,13 +1,17 @@
 package com.ragengine.service;
 
+import com.ragengine.compression.ChunkContentCodec;
 import com.ragengine.domain.entity.Document;
 import com.ragengine.domain.entity.DocumentChunk;
 import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -23,6 +27,9 @@ public class EmbeddingService {
 
     private final VectorStore vectorStore;
     private final DocumentChunkRepository chunkRepository;
+    private final ChunkContentCodec contentCodec;
+    private final QueryEmbeddingSearch querySearch;
+    private final UsageMeter usageMeter;
 
     /**
      * Generates embeddings for all chunks of a document and stores them in the vector store.
@@ -34,10 +41,43 @@ public class EmbeddingService {
         log.info("Generating embeddings for {} chunks of document '{}'",
                 chunks.size(), document.getOriginalName());
 
-        List<org.springframework.ai.document.Document> aiDocuments = chunks.stream()
+        List<org.springframework.ai.document.Document> aiDocuments = toVectorDocuments(document, chunks);
+
+        // Store in vector store (this automatically generates embeddings)
+        long started = System.nanoTime();
+        vectorStore.add(aiDocuments);
+        recordUsage(document, chunks, Duration.ofNanos(System.nanoTime() - started));
+
+        log.info("Successfully stored {} embeddings for document '{}'",
+                aiDocuments.size(), document.getOriginalName());
+    }
+
+    /**
+     * Meters the embedding of a document's chunks against its tenant, in the chunk token
+     * counts computed at chunking time. The vector store embeds and writes in one call,
+     * so the latency includes the write.
+     */
+    private void recordUsage(Document document, List<DocumentChunk> chunks, Duration latency) {
+        if (document.getTenant() == null) {
+            return;
+        }
+        UUID tenantId = document.getTenant().getId();
+        long tokens = chunks.stream()
+                .mapToLong(chunk -> chunk.getTokenCount() != null ? chunk.getTokenCount() : 0)
+                .sum();
+        usageMeter.recordEmbedding(tenantId, querySearch.queryEmbeddingModel(tenantId), tokens, latency);
+    }
+
+    /**
+     * Maps chunk entities to vector store documents carrying the chunk ID as document
+     * ID and the citation / tenant metadata the retrieval pipeline relies on.
+     */
+    public List<org.springframework.ai.document.Document> toVectorDocuments(Document document,
+                                                                           List<DocumentChunk> chunks) {
+        return chunks.stream()
                 .map(chunk -> new org.springframework.ai.document.Document(
                         chunk.getId().toString(),
-                        chunk.getContent(),
+                        contentCodec.decode(chunk),
                         Map.of(
                                 "documentId", document.getId().toString(),
                                 "documentName", document.getOriginalName(),
@@ -47,12 +87,6 @@ public class EmbeddingService {
                         )
                 ))
                 .toList();
-
-        // Store in vector store (this automatically generates embeddings)
-        vectorStore.add(aiDocuments);
-
-        log.info("Successfully stored {} embeddings for document '{}'",
-                aiDocuments.size(), document.getOriginalName());
     }
 
     /**
@@ -3,19 +3,38 @@ package com.ragengine.service;
 import com.ragengine.domain.dto.ChatRequest;
 import com.ragengine.domain.dto.ChatResponse;
 import com.ragengine.domain.dto.ConversationResponse;
+import com.ragengine.domain.dto.ConversationSummary;
+import com.ragengine.domain.dto.CursorPage;
 import com.ragengine.domain.entity.ChatMessage;
 import com.ragengine.domain.entity.Conversation;
 import com.ragengine.domain.entity.Document;
 import com.ragengine.domain.entity.DocumentStatus;
+import com.ragengine.domain.entity.User;
 import com.ragengine.exception.DocumentNotFoundException;
 import com.ragengine.exception.RateLimitExceededException;
 import com.ragengine.audit.AuditAction;
 import com.ragengine.audit.AuditService;
+import com.ragengine.cache.AnswerCache;
+import com.ragengine.cache.ConversationWorkingSet;
+import com.ragengine.cache.InFlightGenerations;
+import com.ragengine.persistence.ChatTurn;
+import com.ragengine.persistence.ChatWriteBehind;
+import com.ragengine.prompt.ContextCompressor;
+import com.ragengine.prompt.ContextConsolidator;
+import com.ragengine.prompt.PromptAssembler;
+import com.ragengine.prompt.PromptCacheMetrics;
 import com.ragengine.ratelimit.RateLimitService;
+import com.ragengine.relevance.RelevanceGate;
 import com.ragengine.repository.ChatMessageRepository;
 import com.ragengine.repository.ConversationRepository;
 import com.ragengine.repository.DocumentRepository;
 import com.ragengine.security.SecurityContext;
+import com.ragengine.summary.ConversationSummarizer;
+import com.ragengine.tiering.ModelTier;
+import com.ragengine.tiering.ModelTierSelector;
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import com.ragengine.vectorstore.QueryEmbeddingSearch.EmbeddedChunk;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
@@ -23,16 +42,29 @@ import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -41,8 +73,9 @@ import java.util.stream.Collectors;
  * 
  * Pipeline:
  * 1. User asks a question with document scope
- * 2. Question is embedded and similar chunks are retrieved from pgvector
- * 3. Retrieved chunks are injected as context into the prompt
+ * 2. Question is embedded and similar chunks are retrieved from pgvector — or, for a
+ *    follow-up close enough to earlier turns, from the conversation's working set
+ * 3. Retrieved chunks, optionally cut to their relevant sentences, are injected as context into the prompt
  * 4. LLM generates an answer grounded in the retrieved context
  * 5. Response includes source citations for transparency
  */
@@ -59,6 +92,26 @@ public class RagChatService {
     private final SecurityContext securityContext;
     private final RateLimitService rateLimitService;
     private final AuditService auditService;
+    private final TransactionTemplate transactionTemplate;
+    private final PromptAssembler promptAssembler;
+    private final ConversationSummarizer conversationSummarizer;
+    private final AnswerCache answerCache;
+    private final InFlightGenerations inFlightGenerations;
+    private final PromptCacheMetrics promptCacheMetrics;
+    private final ModelTierSelector modelTierSelector;
+    private final ContextConsolidator contextConsolidator;
+    private final ContextCompressor contextCompressor;
+    private final ChatWriteBehind chatWriteBehind;
+    private final QueryEmbeddingSearch querySearch;
+    private final ConversationWorkingSet workingSet;
+    private final RelevanceGate relevanceGate;
+    private final UsageMeter usageMeter;
+
+    /**
+     * Upper bounds on the page sizes clients may request.
+     */
+    static final int MAX_CONVERSATION_PAGE = 100;
+    static final int MAX_MESSAGE_PAGE = 200;
 
     @Value("${rag.chat.top-k-results:5}")
     private int topKResults;
@@ -69,14 +122,101 @@ public class RagChatService {
     @Value("${rag.chat.system-prompt}")
     private String systemPrompt;
 
+    /**
+     * Everything needed to generate and persist one chat turn, gathered up front so
+     * generation can run — and complete — outside the request thread and outside any
+     * transaction.
+     *
+     * @param conversationId  conversation of the turn, or {@code null} for a standalone question
+     * @param newConversation whether the conversation was created for this turn
+     * @param messages        history plus the augmented question, ready for the model
+     * @param promptTokens    size of the prompt, system prompt included; 0 for a cached answer
+     * @param cacheKey        answer cache and coalescing key, or {@code null} if the answer
+     *                        depends on history
+     * @param cachedAnswer    answer served from the cache, or templated by the relevance gate,
+     *                        in which case nothing is generated
+     * @param tier            model tier to answer with, or {@code null} for the default model
+     */
+    public record PreparedChat(
+            UUID conversationId,
+            boolean newConversation,
+            String question,
+            List<Message> messages,
+            List<ChatResponse.Source> sources,
+            int promptTokens,
+            UUID tenantId,
+            UUID userId,
+            String userEmail,
+            AnswerCache.Key cacheKey,
+            String cachedAnswer,
+            ModelTier tier
+    ) {}
+
+    /**
+     * What the first, transactional phase reads from the database.
+     */
+    private record ConversationState(UUID conversationId, boolean newConversation,
+                                     String summary, List<Message> history) {}
+
+    /**
+     * State of a question asked outside any conversation, as in a batch.
+     */
+    private static final ConversationState STANDALONE = new ConversationState(null, false, null, List.of());
+
+    /**
+     * Chunks retrieved for a question, and those found by searching the index, to be
+     * remembered in the conversation's working set ({@code null} if none were searched).
+     */
+    private record Retrieval(List<org.springframework.ai.document.Document> chunks, List<EmbeddedChunk> searched) {}
+
     /**
      * Processes a chat request using the RAG pipeline.
      *
+     * Deliberately not transactional: the database is used in two short transactions
+     * (see {@link #prepare} and {@link #complete}), so no pooled connection is held
+     * while the model generates — a slow model cannot starve other endpoints.
+     *
      * @param request the chat request containing the question and document scope
      * @return the AI-generated response with source citations
      */
-    @Transactional
     public ChatResponse chat(ChatRequest request) {
+        return answer(prepare(request));
+    }
+
+    /**
+     * Answers a prepared chat: generates (unless the answer was cached) and saves the
+     * turn. A conversation created for it is removed again if generation fails.
+     */
+    public ChatResponse answer(PreparedChat prepared) {
+        if (prepared.cachedAnswer() != null) {
+            return complete(prepared, prepared.cachedAnswer());
+        }
+
+        String aiResponse;
+        try {
+            aiResponse = generate(prepared);
+        } catch (RuntimeException ex) {
+            abandon(prepared);
+            throw toGenerationFailure(ex);
+        }
+
+        return complete(prepared, aiResponse);
+    }
+
+    /**
+     * Runs everything before generation. After the rate limit, document validation,
+     * retrieval (an embedding call and a vector search) and conversation history are
+     * independent, so they run concurrently on virtual threads: the latency before the
+     * model is called is that of the slowest step rather than the sum. The first
+     * failure — typically a validation error — cancels the remaining steps.
+     *
+     * The first question of a conversation does not depend on any history, so its
+     * answer may come from the {@link AnswerCache}. Validation then runs first, as it
+     * loads the document versions the cache key needs, and a hit skips retrieval and
+     * generation altogether. The same key lets identical questions in flight at the
+     * same time share one generation (see {@link InFlightGenerations}).
+     */
+    public PreparedChat prepare(ChatRequest request) {
         log.info("Processing chat request: '{}'", request.question());
 
         // Check chat rate limit
@@ -86,111 +226,367 @@ public class RagChatService {
                     "Chat rate limit exceeded. Please try again shortly.");
         }
 
-        // Validate that all requested documents are ready
-        validateDocuments(request.documentIds());
+        AnswerCache.Key cacheKey = null;
+        if (request.conversationId() == null && (answerCache.isEnabled() || inFlightGenerations.isEnabled())) {
+            List<Document> documents = validateDocuments(request.documentIds());
+            cacheKey = cacheKey(tenantId, request.question(), documents);
+            Optional<AnswerCache.Entry> cached = answerCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.info("Answer cache hit for question");
+                User user = securityContext.getCurrentUser();
+                return new PreparedChat(createNewConversation().getId(), true, request.question(), List.of(),
+                        cached.get().sources(), 0, tenantId, user.getId(), user.getEmail(),
+                        cacheKey, cached.get().answer(), null);
+            }
+        }
+        boolean validated = cacheKey != null;
+
+        Retrieval retrieval;
+        ConversationState state;
+        try (PreparationScope scope = new PreparationScope()) {
+            if (!validated) {
+                scope.fork(() -> validateDocuments(request.documentIds()));
+            }
+            Supplier<Retrieval> retrieved = scope.fork(() -> retrieveRelevantChunks(
+                    request.question(), tenantId, request.documentIds(), request.conversationId()));
+            Supplier<ConversationState> conversation =
+                    scope.fork(() -> loadConversation(request.conversationId(), tenantId));
+            scope.join();
+
+            retrieval = retrieved.get();
+            state = conversation.get();
+        }
+
+        log.info("Retrieved {} relevant chunks for question", retrieval.chunks().size());
 
-        // Step 1: Retrieve relevant chunks from vector store
-        List<org.springframework.ai.document.Document> relevantDocs = retrieveRelevantChunks(
-                request.question(), request.documentIds());
+        // Only create a conversation once the documents are known to be valid
+        if (state == null) {
+            state = new ConversationState(createNewConversation().getId(), true, null, List.of());
+        }
+        if (retrieval.searched() != null) {
+            workingSet.remember(state.conversationId(), tenantId, retrieval.searched());
+        }
+        return assemble(tenantId, state, request.question(), retrieval.chunks(), cacheKey);
+    }
 
-        log.info("Retrieved {} relevant chunks for question", relevantDocs.size());
+    /**
+     * Prepares a question asked outside any conversation from chunks the caller has
+     * already retrieved. Nothing is persisted for it.
+     */
+    PreparedChat prepareStandalone(UUID tenantId, String question,
+                                   List<org.springframework.ai.document.Document> relevantDocs,
+                                   AnswerCache.Key cacheKey) {
+        return assemble(tenantId, STANDALONE, question, relevantDocs, cacheKey);
+    }
 
-        // Step 2: Get or create conversation
-        Conversation conversation = getOrCreateConversation(request);
+    /**
+     * Turns retrieved chunks and conversation state into the prompt for a model tier.
+     */
+    private PreparedChat assemble(UUID tenantId, ConversationState state, String question,
+                                  List<org.springframework.ai.document.Document> relevantDocs,
+                                  AnswerCache.Key cacheKey) {
+        // Without history to draw on, a question nothing relevant was retrieved for needs no model
+        if (state.history().isEmpty() && state.summary() == null) {
+            Optional<String> gated = relevanceGate.check(tenantId, relevantDocs);
+            if (gated.isPresent()) {
+                User user = securityContext.getCurrentUser();
+                return new PreparedChat(state.conversationId(), state.newConversation(), question, List.of(),
+                        List.of(), 0, tenantId, user.getId(), user.getEmail(), null, gated.get(), null);
+            }
+        }
 
-        // Step 3: Build context from retrieved chunks
-        String context = buildContext(relevantDocs);
+        // Pick a small or large model from the question and how well retrieval matched it
+        ModelTier tier = modelTierSelector.select(tenantId, question, relevantDocs);
+        String tierModel = modelTierSelector.model(tier);
+        String model = tierModel != null ? tierModel : promptAssembler.defaultModel();
+        // Cache keys name the default model, so answers from another one are neither cached nor shared
+        if (cacheKey != null && tierModel != null && !tierModel.equals(promptAssembler.defaultModel())) {
+            cacheKey = null;
+        }
 
-        // Step 4: Build conversation history
-        List<Message> messageHistory = buildMessageHistory(conversation);
+        // Merge neighbouring chunks, then keep only the sentences that bear on the question
+        List<org.springframework.ai.document.Document> context = contextCompressor.compress(
+                tenantId, model, question, contextConsolidator.consolidate(relevantDocs));
 
-        // Step 5: Generate response using LLM
-        String augmentedQuestion = buildAugmentedPrompt(request.question(), context);
+        // Fit history, context and question into the model's token budget
+        PromptAssembler.Assembled prompt = promptAssembler.assemble(
+                model, systemPrompt, state.summary(), state.history(), context, question);
+        log.info("Prompt uses {} of {} tokens ({} history, {} context)", prompt.promptTokens(),
+                prompt.budget(), prompt.historyTokens(), prompt.contextTokens());
 
-        messageHistory.add(new UserMessage(augmentedQuestion));
+        // Cite only the chunks the model actually sees
+        List<ChatResponse.Source> sources = buildSources(prompt.chunks());
 
-        ChatClient chatClient = chatClientBuilder.build();
+        User user = securityContext.getCurrentUser();
+        return new PreparedChat(state.conversationId(), state.newConversation(), question,
+                prompt.messages(), sources, prompt.promptTokens(), tenantId, user.getId(), user.getEmail(),
+                cacheKey, null, tier);
+    }
 
-        String aiResponse;
-        try {
-            aiResponse = chatClient.prompt()
-                    .system(systemPrompt)
-                    .messages(messageHistory)
-                    .call()
-                    .content();
-        } catch (RuntimeException ex) {
-            String msg = ex.getMessage() != null ? ex.getMessage() : "";
-            if (msg.contains("memory") || msg.contains("model")) {
-                log.error("Ollama model error: {}", msg);
-                throw new IllegalStateException(
-                        "AI model could not be loaded — the selected model may require more memory than is available. " +
-                        "Try a smaller model or free system resources.", ex);
-            }
-            log.error("LLM call failed: {}", msg);
-            throw new IllegalStateException(
-                    "Failed to generate AI response. Please try again later.", ex);
+    /**
+     * Streams the answer for a prepared chat. Cancelling the subscription cancels
+     * the upstream generation, unless identical requests have joined it. A cached
+     * answer is emitted as a single fragment.
+     */
+    public Flux<org.springframework.ai.chat.model.ChatResponse> streamAnswer(PreparedChat prepared) {
+        if (prepared.cachedAnswer() != null) {
+            return Flux.just(new org.springframework.ai.chat.model.ChatResponse(
+                    List.of(new Generation(new AssistantMessage(prepared.cachedAnswer())))));
+        }
+        Supplier<Flux<org.springframework.ai.chat.model.ChatResponse>> generation = () -> {
+            long started = System.nanoTime();
+            // Providers report usage once, on the last fragment
+            AtomicReference<org.springframework.ai.chat.model.ChatResponse> metered = new AtomicReference<>();
+            return prompt(prepared)
+                    .stream()
+                    .chatResponse()
+                    .doOnNext(promptCacheMetrics::record)
+                    .doOnNext(response -> {
+                        if (response.getMetadata() != null && response.getMetadata().getUsage() != null
+                                && response.getMetadata().getUsage().getPromptTokens() != null) {
+                            metered.set(response);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        Duration latency = Duration.ofNanos(System.nanoTime() - started);
+                        modelTierSelector.recordLatency(prepared.tier(), latency);
+                        recordUsage(prepared, metered.get(), latency);
+                    });
+        };
+        Flux<org.springframework.ai.chat.model.ChatResponse> answer = prepared.cacheKey() != null
+                ? inFlightGenerations.join(prepared.cacheKey(), generation)
+                : generation.get();
+        return answer.onErrorMap(RuntimeException.class, this::toGenerationFailure);
+    }
+
+    /**
+     * Generates the answer for a prepared chat. Identical first questions in flight at
+     * the same time share one model call; each caller still persists its own turn.
+     */
+    String generate(PreparedChat prepared) {
+        if (prepared.cacheKey() == null) {
+            return textOf(call(prepared));
+        }
+        return inFlightGenerations.join(prepared.cacheKey(), () -> Mono.fromCallable(() -> call(prepared))
+                        // Whoever subscribes first must not end up running the blocking call
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flux())
+                .mapNotNull(RagChatService::textOf)
+                .collect(Collectors.joining())
+                .block();
+    }
+
+    private org.springframework.ai.chat.model.ChatResponse call(PreparedChat prepared) {
+        long started = System.nanoTime();
+        org.springframework.ai.chat.model.ChatResponse response = prompt(prepared)
+                .call()
+                .chatResponse();
+        Duration latency = Duration.ofNanos(System.nanoTime() - started);
+        modelTierSelector.recordLatency(prepared.tier(), latency);
+        if (response != null) {
+            promptCacheMetrics.record(response);
         }
+        recordUsage(prepared, response, latency);
+        return response;
+    }
 
-        // Step 6: Build source citations
-        List<ChatResponse.Source> sources = buildSources(relevantDocs);
+    /**
+     * Meters a model call against the tenant, under the tier's or default model. A
+     * routed model has no default of its own, so the model the provider reports is used.
+     *
+     * @param response the response carrying the provider's usage, or {@code null}
+     */
+    private void recordUsage(PreparedChat prepared, org.springframework.ai.chat.model.ChatResponse response,
+                             Duration latency) {
+        ChatResponseMetadata metadata = response != null ? response.getMetadata() : null;
+        String model = modelTierSelector.model(prepared.tier());
+        if (model == null) {
+            model = promptAssembler.defaultModel();
+        }
+        if (model == null && metadata != null) {
+            model = metadata.getModel();
+        }
+        usageMeter.recordChat(prepared.tenantId(), model, metadata != null ? metadata.getUsage() : null, latency);
+    }
+
+    /**
+     * The model request for a prepared chat, sent to its tier's model if it has one.
+     */
+    private ChatClient.ChatClientRequestSpec prompt(PreparedChat prepared) {
+        ChatClient.ChatClientRequestSpec spec = chatClientBuilder.build().prompt()
+                .system(systemPrompt)
+                .messages(prepared.messages());
+        String model = modelTierSelector.model(prepared.tier());
+        return model != null ? spec.options(ChatOptions.builder().model(model).build()) : spec;
+    }
 
-        // Step 7: Save messages to conversation
-        saveMessage(conversation, "user", request.question(), null);
-        saveMessage(conversation, "assistant", aiResponse, sources);
+    private static String textOf(org.springframework.ai.chat.model.ChatResponse response) {
+        return response != null && response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+    }
 
-        // Update conversation title if it's new
-        if (conversation.getTitle() == null || conversation.getTitle().isBlank()) {
-            conversation.setTitle(truncate(request.question(), 100));
-            conversationRepository.save(conversation);
+    /**
+     * Persists the question and answer of a chat turn and records the audit entry,
+     * in a transaction of its own. Uses the identity captured in {@link PreparedChat},
+     * so it may run on any thread.
+     *
+     * With a batching {@code rag.chat.persistence.mode} the turn goes through the
+     * {@link ChatWriteBehind} buffer instead, which writes it together with other
+     * turns; in group-commit mode this still returns only once it is written.
+     */
+    public ChatResponse complete(PreparedChat prepared, String answer) {
+        String title = truncate(prepared.question(), 100);
+        String auditDetails = "Query: " + truncate(prepared.question(), 200);
+        UUID conversationId = prepared.conversationId();
+        if (chatWriteBehind.isEnabled()) {
+            chatWriteBehind.write(new ChatTurn(conversationId, prepared.tenantId(), prepared.userId(),
+                            prepared.userEmail(), prepared.question(), answer, toSourceMaps(prepared.sources()),
+                            title, auditDetails, LocalDateTime.now()))
+                    // Summarize only once the turn is in the database
+                    .thenRun(() -> conversationSummarizer.summarizeIfNeeded(conversationId));
+        } else {
+            transactionTemplate.executeWithoutResult(status -> {
+                Conversation conversation = conversationRepository.findById(conversationId)
+                        .orElseThrow(() -> new IllegalStateException(
+                                "Conversation was deleted while the answer was being generated"));
+
+                saveMessage(conversation, "user", prepared.question(), null);
+                saveMessage(conversation, "assistant", answer, prepared.sources());
+
+                // Update conversation title if it's new
+                if (conversation.getTitle() == null || conversation.getTitle().isBlank()) {
+                    conversation.setTitle(title);
+                    conversationRepository.save(conversation);
+                }
+            });
+
+            auditService.logAction(AuditAction.CHAT_QUERY, prepared.tenantId(), prepared.userId(),
+                    prepared.userEmail(), "CONVERSATION", conversationId, auditDetails);
+
+            // Fold older turns into the running summary in the background
+            conversationSummarizer.summarizeIfNeeded(conversationId);
         }
 
-        log.info("Chat response generated for conversation: {}", conversation.getId());
+        log.info("Chat response generated for conversation: {}", conversationId);
 
-        auditService.logAction(AuditAction.CHAT_QUERY, "CONVERSATION",
-                conversation.getId(), "Query: " + truncate(request.question(), 200));
+        if (prepared.cacheKey() != null && prepared.cachedAnswer() == null) {
+            answerCache.put(prepared.cacheKey(), answer, prepared.sources());
+        }
 
         return ChatResponse.builder()
-                .conversationId(conversation.getId())
-                .answer(aiResponse)
-                .sources(sources)
+                .conversationId(conversationId)
+                .answer(answer)
+                .sources(prepared.sources())
+                .promptTokens(prepared.promptTokens())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
     /**
-     * Gets all conversations for the current tenant.
+     * Cleans up after a turn that produced no answer: a conversation created for it
+     * is deleted again, so failed or cancelled first questions leave no empty
+     * conversations behind.
+     */
+    public void abandon(PreparedChat prepared) {
+        if (!prepared.newConversation()) {
+            return;
+        }
+        workingSet.forget(prepared.conversationId());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    conversationRepository.findById(prepared.conversationId())
+                            .filter(c -> c.getMessages().isEmpty())
+                            .ifPresent(conversationRepository::delete));
+        } catch (RuntimeException e) {
+            log.warn("Could not remove empty conversation {}: {}", prepared.conversationId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the current tenant's conversations, most recently updated first, one page
+     * at a time. Each page is a single query that returns, per conversation, its message
+     * count and the start of its newest message, but no messages — those come only
+     * from {@link #getConversation}.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first
      */
     @Transactional(readOnly = true)
-    public List<ConversationResponse> getAllConversations() {
+    public CursorPage<ConversationSummary> listConversations(String cursor, int limit) {
         UUID tenantId = securityContext.getCurrentTenantId();
-        return conversationRepository.findByTenantIdOrderByUpdatedAtDesc(tenantId).stream()
-                .map(this::mapConversation)
-                .toList();
+        int pageSize = pageSize(limit, MAX_CONVERSATION_PAGE);
+        PageCursor after = PageCursor.decode(cursor);
+
+        // One extra row tells whether there is a next page
+        List<ConversationRepository.SummaryView> rows = after == null
+                ? conversationRepository.findSummaries(tenantId, pageSize + 1)
+                : conversationRepository.findSummariesAfter(tenantId, after.timestamp(), after.id(), pageSize + 1);
+        List<ConversationRepository.SummaryView> page = rows.subList(0, Math.min(rows.size(), pageSize));
+        String nextCursor = rows.size() > pageSize
+                ? new PageCursor(page.getLast().getUpdatedAt(), page.getLast().getId()).encode()
+                : null;
+
+        return new CursorPage<>(page.stream()
+                .map(row -> ConversationSummary.builder()
+                        .id(row.getId())
+                        .title(row.getTitle())
+                        .updatedAt(row.getUpdatedAt())
+                        .messageCount(row.getMessageCount())
+                        .lastMessagePreview(row.getLastMessage())
+                        .build())
+                .toList(), nextCursor);
     }
 
     /**
-     * Gets a conversation by ID, scoped to the current tenant.
+     * Gets a conversation by ID, scoped to the current tenant, with one page of its
+     * messages: the newest {@code limit} before the cursor, in chronological order.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the newest messages
      */
-    @Transactional(readOnly = true)
-    public ConversationResponse getConversation(UUID id) {
+    public ConversationResponse getConversation(UUID id, String cursor, int limit) {
         UUID tenantId = securityContext.getCurrentTenantId();
-        Conversation conversation = conversationRepository.findByIdAndTenantId(id, tenantId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found: " + id));
-        return mapConversation(conversation);
+        int pageSize = pageSize(limit, MAX_MESSAGE_PAGE);
+        PageCursor before = PageCursor.decode(cursor);
+        // Wait for buffered turns outside the transaction so no connection is held meanwhile
+        chatWriteBehind.awaitWritten(id);
+        return transactionTemplate.execute(status -> {
+            Conversation conversation = conversationRepository.findByIdAndTenantId(id, tenantId)
+                    .orElseThrow(() -> new RuntimeException("Conversation not found: " + id));
+
+            List<ChatMessage> rows = before == null
+                    ? chatMessageRepository.findByConversationIdOrderByCreatedAtDescIdDesc(id, Limit.of(pageSize + 1))
+                    : chatMessageRepository.findPageBefore(id, before.timestamp(), before.id(), Limit.of(pageSize + 1));
+            List<ChatMessage> page = rows.subList(0, Math.min(rows.size(), pageSize));
+            String nextCursor = rows.size() > pageSize
+                    ? new PageCursor(page.getLast().getCreatedAt(), page.getLast().getId()).encode()
+                    : null;
+
+            return mapConversation(conversation, page.reversed(), nextCursor);
+        });
+    }
+
+    private static int pageSize(int limit, int max) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, max);
     }
 
     /**
      * Deletes a conversation, scoped to the current tenant.
      */
-    @Transactional
     public void deleteConversation(UUID id) {
         UUID tenantId = securityContext.getCurrentTenantId();
-        Conversation conversation = conversationRepository.findByIdAndTenantId(id, tenantId)
-                .orElseThrow(() -> new RuntimeException("Conversation not found: " + id));
-        conversationRepository.delete(conversation);
+        chatWriteBehind.awaitWritten(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            Conversation conversation = conversationRepository.findByIdAndTenantId(id, tenantId)
+                    .orElseThrow(() -> new RuntimeException("Conversation not found: " + id));
+            conversationRepository.delete(conversation);
+            workingSet.forget(id);
 
-        auditService.logAction(AuditAction.CONVERSATION_DELETE, "CONVERSATION",
-                id, null);
+            auditService.logAction(AuditAction.CONVERSATION_DELETE, "CONVERSATION",
+                    id, null);
+        });
 
         log.info("Conversation deleted: {}", id);
     }
@@ -201,83 +597,69 @@ public class RagChatService {
 
     /**
      * Retrieves relevant document chunks from the vector store using similarity search,
-     * filtered to only include chunks from the specified documents and the current tenant.
+     * filtered to only include chunks from the specified documents and the tenant.
+     *
+     * A follow-up question is first scored against the chunks retrieved earlier in its
+     * conversation (see {@link ConversationWorkingSet}); the index is searched, with the
+     * same query embedding, only if none of them matches well enough.
      */
-    private List<org.springframework.ai.document.Document> retrieveRelevantChunks(
-            String query, List<UUID> documentIds) {
+    private Retrieval retrieveRelevantChunks(String query, UUID tenantId, List<UUID> documentIds,
+                                             UUID conversationId) {
+        SearchRequest request = searchRequest(query, tenantId, documentIds);
+        if (!workingSet.isEnabled()) {
+            return new Retrieval(vectorStore.similaritySearch(request), null);
+        }
 
-        UUID tenantId = securityContext.getCurrentTenantId();
+        float[] embedding = querySearch.embedQueries(tenantId, List.of(query)).getFirst();
+        if (conversationId != null) {
+            Optional<List<org.springframework.ai.document.Document>> remembered =
+                    workingSet.search(conversationId, tenantId, embedding, documentIds, topKResults);
+            if (remembered.isPresent()) {
+                log.debug("Answering follow-up from the working set of conversation {}", conversationId);
+                return new Retrieval(remembered.get(), null);
+            }
+        }
+        List<EmbeddedChunk> searched = querySearch.similaritySearchWithEmbeddings(request, embedding);
+        return new Retrieval(searched.stream().map(EmbeddedChunk::document).toList(), searched);
+    }
 
+    /**
+     * The similarity search for a question: top-k chunks of the given documents of the tenant.
+     */
+    SearchRequest searchRequest(String query, UUID tenantId, List<UUID> documentIds) {
         // Build filter to restrict search to specified documents within the tenant
         String docFilter = documentIds.stream()
                 .map(id -> "documentId == '" + id.toString() + "'")
                 .collect(Collectors.joining(" || "));
         String filterExpression = "tenantId == '" + tenantId.toString() + "' && (" + docFilter + ")";
 
-        SearchRequest searchRequest = SearchRequest.builder()
+        return SearchRequest.builder()
                 .query(query)
                 .topK(topKResults)
                 .filterExpression(filterExpression)
                 .build();
-
-        return vectorStore.similaritySearch(searchRequest);
     }
 
     /**
-     * Builds the context string from retrieved document chunks.
-     * Each chunk is labeled with its source document and index for citation.
+     * Builds conversation history from stored messages not yet covered by the
+     * conversation's summary. Limits to the most recent messages to stay within
+     * context window, and loads only those, so long conversations cost no more
+     * per request than short ones.
      */
-    private String buildContext(List<org.springframework.ai.document.Document> relevantDocs) {
-        if (relevantDocs.isEmpty()) {
-            return "No relevant context found in the uploaded documents.";
-        }
-
-        StringBuilder context = new StringBuilder();
-        context.append("=== RELEVANT DOCUMENT CONTEXT ===\n\n");
-
-        for (int i = 0; i < relevantDocs.size(); i++) {
-            org.springframework.ai.document.Document doc = relevantDocs.get(i);
-            Map<String, Object> metadata = doc.getMetadata();
-
-            String docName = (String) metadata.getOrDefault("documentName", "Unknown");
-            Object chunkIdx = metadata.getOrDefault("chunkIndex", "?");
-
-            context.append(String.format("[Source %d - %s, Chunk %s]\n", i + 1, docName, chunkIdx));
-            context.append(doc.getText());
-            context.append("\n\n---\n\n");
+    private List<Message> buildMessageHistory(Conversation conversation) {
+        int size = (int) chatMessageRepository.countByConversationId(conversation.getId());
+        int summarized = Math.min(conversation.getSummarizedMessages(), size);
+        int startIdx = promptAssembler.historyStart(summarized, size, maxHistorySize);
+        if (startIdx >= size) {
+            return List.of();
         }
 
-        return context.toString();
-    }
-
-    /**
-     * Builds the augmented prompt that includes the retrieved context.
-     */
-    private String buildAugmentedPrompt(String question, String context) {
-        return """
-                Based on the following context from the uploaded documents, please answer my question.
-                If the context doesn't contain enough information, clearly state that.
-                Always reference which source(s) you're using in your answer.
-                
-                %s
-                
-                === QUESTION ===
-                %s
-                """.formatted(context, question);
-    }
+        // Only the messages the prompt can use, newest first, without their sources
+        List<ChatMessageRepository.HistoryMessage> storedMessages = chatMessageRepository
+                .findByConversationIdOrderByCreatedAtDesc(conversation.getId(), Limit.of(size - startIdx));
 
-    /**
-     * Builds conversation history from stored messages.
-     * Limits to the most recent messages to stay within context window.
-     */
-    private List<Message> buildMessageHistory(Conversation conversation) {
         List<Message> messages = new ArrayList<>();
-
-        List<ChatMessage> storedMessages = conversation.getMessages();
-        int startIdx = Math.max(0, storedMessages.size() - maxHistorySize);
-
-        for (int i = startIdx; i < storedMessages.size(); i++) {
-            ChatMessage msg = storedMessages.get(i);
+        for (ChatMessageRepository.HistoryMessage msg : storedMessages.reversed()) {
             switch (msg.getRole()) {
                 case "user" -> messages.add(new UserMessage(msg.getContent()));
                 case "assistant" -> messages.add(new AssistantMessage(msg.getContent()));
@@ -299,6 +681,7 @@ public class RagChatService {
                             .documentName((String) metadata.getOrDefault("documentName", "Unknown"))
                             .chunkContent(truncate(doc.getText(), 200))
                             .chunkIndex((Integer) metadata.getOrDefault("chunkIndex", 0))
+                            .lastChunkIndex((Integer) metadata.get(ContextConsolidator.LAST_CHUNK_INDEX))
                             .pageNumber(parsePageNumber(metadata.get("pageNumber")))
                             .similarityScore(doc.getScore() != null ? doc.getScore() : null)
                             .build();
@@ -310,7 +693,26 @@ public class RagChatService {
     // Helper Methods
     // ============================
 
-    private void validateDocuments(List<UUID> documentIds) {
+    /**
+     * Maps a model failure to a user-facing error.
+     */
+    IllegalStateException toGenerationFailure(RuntimeException ex) {
+        String msg = ex.getMessage() != null ? ex.getMessage() : "";
+        if (msg.contains("memory") || msg.contains("model")) {
+            log.error("Ollama model error: {}", msg);
+            return new IllegalStateException(
+                    "AI model could not be loaded — the selected model may require more memory than is available. " +
+                    "Try a smaller model or free system resources.", ex);
+        }
+        log.error("LLM call failed: {}", msg);
+        return new IllegalStateException(
+                "Failed to generate AI response. Please try again later.", ex);
+    }
+
+    /**
+     * Checks that all documents exist in the tenant and are ready, and returns them.
+     */
+    List<Document> validateDocuments(List<UUID> documentIds) {
         UUID tenantId = securityContext.getCurrentTenantId();
         List<Document> documents = documentRepository.findByIdInAndTenantId(documentIds, tenantId);
 
@@ -328,15 +730,34 @@ public class RagChatService {
                     .collect(Collectors.joining(", "));
             throw new IllegalStateException("Documents not ready for querying: " + names);
         }
+        return documents;
     }
 
-    private Conversation getOrCreateConversation(ChatRequest request) {
-        UUID tenantId = securityContext.getCurrentTenantId();
-        if (request.conversationId() != null) {
-            return conversationRepository.findByIdAndTenantId(request.conversationId(), tenantId)
-                    .orElseGet(this::createNewConversation);
+    /**
+     * Loads an existing conversation and its history, or returns {@code null} if a new
+     * conversation is needed.
+     */
+    private ConversationState loadConversation(UUID conversationId, UUID tenantId) {
+        if (conversationId == null) {
+            return null;
         }
-        return createNewConversation();
+        chatWriteBehind.awaitWritten(conversationId);
+        return transactionTemplate.execute(status ->
+                conversationRepository.findByIdAndTenantId(conversationId, tenantId)
+                        .map(c -> new ConversationState(c.getId(), false, c.getSummary(), buildMessageHistory(c)))
+                        .orElse(null));
+    }
+
+    /**
+     * Answer cache and coalescing key for a first question, or {@code null} if both
+     * are disabled. It is computed before retrieval and names the default model; a
+     * request that a model tier answers with another model drops it again.
+     */
+    AnswerCache.Key cacheKey(UUID tenantId, String question, List<Document> documents) {
+        if (!answerCache.isEnabled() && !inFlightGenerations.isEnabled()) {
+            return null;
+        }
+        return answerCache.key(tenantId, question, documents, promptAssembler.defaultModel(), systemPrompt);
     }
 
     private Conversation createNewConversation() {
@@ -373,6 +794,9 @@ public class RagChatService {
                     map.put("documentName", src.documentName());
                     map.put("chunkContent", src.chunkContent());
                     map.put("chunkIndex", src.chunkIndex());
+                    if (src.lastChunkIndex() != null) {
+                        map.put("lastChunkIndex", src.lastChunkIndex());
+                    }
                     map.put("pageNumber", src.pageNumber());
                     map.put("similarityScore", src.similarityScore());
                     return map;
@@ -396,8 +820,9 @@ public class RagChatService {
         }
     }
 
-    private ConversationResponse mapConversation(Conversation conversation) {
-        List<ConversationResponse.MessageResponse> messages = conversation.getMessages().stream()
+    private ConversationResponse mapConversation(Conversation conversation, List<ChatMessage> page,
+                                                 String nextCursor) {
+        List<ConversationResponse.MessageResponse> messages = page.stream()
                 .map(msg -> ConversationResponse.MessageResponse.builder()
                         .id(msg.getId())
                         .role(msg.getRole())
@@ -415,9 +840,56 @@ public class RagChatService {
                 .id(conversation.getId())
                 .title(conversation.getTitle())
                 .messages(messages)
+                .nextCursor(nextCursor)
                 .documentIds(docIds)
                 .createdAt(conversation.getCreatedAt())
                 .updatedAt(conversation.getUpdatedAt())
                 .build();
     }
+
+    /**
+     * Fork/join scope for the pre-generation steps, modelled on
+     * {@code StructuredTaskScope.ShutdownOnFailure} (a preview API in Java 21): each
+     * fork runs on its own virtual thread with the caller's security context, and the
+     * first failure cancels the other forks and is rethrown by {@link #join()}.
+     */
+    private static final class PreparationScope implements AutoCloseable {
+
+        private final ExecutorService executor = new DelegatingSecurityContextExecutorService(
+                Executors.newVirtualThreadPerTaskExecutor());
+        private final CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<Object>> forks = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        <T> Supplier<T> fork(Callable<T> task) {
+            Future<Object> future = completion.submit(task::call);
+            forks.add(future);
+            return () -> (T) future.resultNow();
+        }
+
+        void join() {
+            try {
+                for (int i = 0; i < forks.size(); i++) {
+                    Future<Object> done = completion.take();
+                    if (done.state() == Future.State.FAILED) {
+                        forks.forEach(f -> f.cancel(true));
+                        if (done.exceptionNow() instanceof RuntimeException ex) {
+                            throw ex;
+                        }
+                        throw new IllegalStateException("Chat preparation failed", done.exceptionNow());
+                    }
+                }
+            } catch (InterruptedException e) {
+                forks.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while preparing chat", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            forks.forEach(f -> f.cancel(true));
+            executor.close();
+        }
+    }
 }
@@ -0,0 +1,221 @@
+package com.ragengine.summary;
+
+import com.ragengine.prompt.PromptAssembler;
+import com.ragengine.prompt.TokenCounter;
+import com.ragengine.repository.ChatMessageRepository;
+import com.ragengine.repository.ChatMessageRepository.HistoryMessage;
+import com.ragengine.repository.ConversationRepository;
+import com.ragengine.usage.UsageMeter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Folds older conversation turns into a running summary stored on the conversation.
+ *
+ * After each turn, {@link #summarizeIfNeeded(UUID)} checks in the background whether
+ * the history not yet covered by the summary exceeds {@code rag.summary.trigger-tokens}.
+ * If so, everything except the last {@code rag.summary.keep-recent-messages} messages
+ * is merged into the summary by the chat model. The check counts the messages first
+ * and reads only the role and content of those the summary does not cover yet, so
+ * its cost does not grow with the length of the conversation. Prompts then carry the summary plus
+ * only the unsummarized messages, so their size stays bounded however long the
+ * conversation grows.
+ *
+ * Summarization is best effort: if the queue is full or the model fails, the next
+ * turn simply tries again. Its model calls are metered against the conversation's tenant.
+ */
+@Service
+@Slf4j
+public class ConversationSummarizer {
+
+    private static final String INSTRUCTIONS = """
+            You maintain a running summary of a conversation in which a user asks questions \
+            about their documents and an assistant answers them. Merge the new messages into \
+            the existing summary. Keep facts, names, numbers, decisions and open questions the \
+            user may refer back to; drop pleasantries and repetition. Write at most %d words. \
+            Reply with the summary only.""";
+
+    private final ConversationRepository conversationRepository;
+    private final ChatMessageRepository messageRepository;
+    private final ChatClient.Builder chatClientBuilder;
+    private final PromptAssembler promptAssembler;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationSummaryConfig config;
+    private final UsageMeter usageMeter;
+    private final Timer summaryTimer;
+    private final Counter failures;
+
+    /** Conversations with a summarization queued or running */
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+
+    // Small and bounded: summaries are cheap to skip, and must not compete with chat
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 2, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(100), Thread.ofPlatform().name("chat-summary-", 0).daemon().factory(),
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public ConversationSummarizer(ConversationRepository conversationRepository,
+                                  ChatMessageRepository messageRepository,
+                                  ChatClient.Builder chatClientBuilder,
+                                  PromptAssembler promptAssembler,
+                                  TransactionTemplate transactionTemplate,
+                                  ConversationSummaryConfig config,
+                                  UsageMeter usageMeter,
+                                  MeterRegistry meterRegistry) {
+        this.conversationRepository = conversationRepository;
+        this.messageRepository = messageRepository;
+        this.chatClientBuilder = chatClientBuilder;
+        this.promptAssembler = promptAssembler;
+        this.transactionTemplate = transactionTemplate;
+        this.config = config;
+        this.usageMeter = usageMeter;
+        this.summaryTimer = Timer.builder("rag.chat.summary")
+                .description("Time to fold older turns into a conversation summary")
+                .register(meterRegistry);
+        this.failures = Counter.builder("rag.chat.summary.failures")
+                .description("Conversation summarizations that failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A conversation's summary, the number of messages it covers and the messages
+     * after those, oldest first.
+     */
+    record Snapshot(UUID tenantId, String summary, int summarizedMessages, List<HistoryMessage> unsummarized) {}
+
+    /**
+     * Unsummarized messages to fold into the summary, from {@code from} (inclusive) to
+     * {@code to} (exclusive) in the conversation's message order.
+     */
+    record Fold(int from, int to) {}
+
+    /**
+     * Schedules a summary update for the conversation if its history has grown past
+     * the threshold. Returns immediately.
+     */
+    public void summarizeIfNeeded(UUID conversationId) {
+        if (!config.isEnabled() || !pending.add(conversationId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    summarize(conversationId);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                    log.warn("Could not summarize conversation {}: {}", conversationId, e.getMessage());
+                } finally {
+                    pending.remove(conversationId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(conversationId);
+        }
+    }
+
+    void summarize(UUID conversationId) {
+        Snapshot snapshot = transactionTemplate.execute(status -> conversationRepository.findById(conversationId)
+                .map(c -> new Snapshot(c.getTenant().getId(), c.getSummary(), c.getSummarizedMessages(),
+                        unsummarized(conversationId, c.getSummarizedMessages())))
+                .orElse(null));
+        if (snapshot == null) {
+            return;
+        }
+
+        String model = promptAssembler.defaultModel();
+        TokenCounter counter = TokenCounter.forModel(model);
+        Fold fold = planFold(snapshot, counter, config.getTriggerTokens(), config.getKeepRecentMessages());
+        if (fold == null) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        ChatResponse response = chatClientBuilder.build().prompt()
+                .system(INSTRUCTIONS.formatted(config.getMaxSummaryTokens() * 3 / 4))
+                .user(summaryRequest(snapshot, fold))
+                .options(ChatOptions.builder().maxTokens(config.getMaxSummaryTokens()).build())
+                .call()
+                .chatResponse();
+        ChatResponseMetadata metadata = response != null ? response.getMetadata() : null;
+        // A routed model has no default of its own, so the model the provider reports is used
+        String usageModel = model == null && metadata != null ? metadata.getModel() : model;
+        usageMeter.recordChat(snapshot.tenantId(), usageModel, metadata != null ? metadata.getUsage() : null,
+                Duration.ofNanos(System.nanoTime() - started));
+
+        String summary = response != null && response.getResult() != null && response.getResult().getOutput() != null
+                ? response.getResult().getOutput().getText()
+                : null;
+        if (summary == null || summary.isBlank()) {
+            return;
+        }
+
+        Integer updated = transactionTemplate.execute(status -> conversationRepository.updateSummary(
+                conversationId, summary.strip(), fold.to(), snapshot.summarizedMessages()));
+        summaryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (updated != null && updated > 0) {
+            log.info("Summarized messages {}-{} of conversation {}", fold.from(), fold.to() - 1, conversationId);
+        }
+    }
+
+    /**
+     * Messages after the first {@code summarized}, oldest first; none while there are
+     * no more of them than are kept verbatim anyway.
+     */
+    private List<HistoryMessage> unsummarized(UUID conversationId, int summarized) {
+        long count = messageRepository.countByConversationId(conversationId) - summarized;
+        if (count <= config.getKeepRecentMessages()) {
+            return List.of();
+        }
+        return messageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, Limit.of((int) count))
+                .reversed();
+    }
+
+    /**
+     * Decides which messages to fold, or {@code null} if the unsummarized history is
+     * still under the threshold (or consists only of messages kept verbatim).
+     */
+    static Fold planFold(Snapshot snapshot, TokenCounter counter, int triggerTokens, int keepRecent) {
+        List<HistoryMessage> messages = snapshot.unsummarized();
+        int from = snapshot.summarizedMessages();
+        int tokens = messages.stream()
+                .mapToInt(m -> counter.count(m.getContent()) + TokenCounter.MESSAGE_OVERHEAD)
+                .sum();
+        int to = from + messages.size() - keepRecent;
+        if (tokens <= triggerTokens || to <= from) {
+            return null;
+        }
+        return new Fold(from, to);
+    }
+
+    private static String summaryRequest(Snapshot snapshot, Fold fold) {
+        StringBuilder request = new StringBuilder("Existing summary:\n")
+                .append(snapshot.summary() != null ? snapshot.summary() : "(none)")
+                .append("\n\nNew messages:\n");
+        for (HistoryMessage message : snapshot.unsummarized().subList(0, fold.to() - fold.from())) {
+            request.append("user".equals(message.getRole()) ? "User: " : "Assistant: ")
+                    .append(message.getContent())
+                    .append("\n\n");
+        }
+        return request.toString();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ragengine.summary;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for rolling conversation summaries.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.summary")
+@Getter
+@Setter
+public class ConversationSummaryConfig {
+
+    /**
+     * Whether older turns are folded into a running summary.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Tokens of unsummarized history above which older turns are summarized.
+     */
+    private int triggerTokens = 1500;
+
+    /**
+     * Most recent messages always sent verbatim and never summarized.
+     */
+    private int keepRecentMessages = 4;
+
+    /**
+     * Upper bound on the length of the summary, in tokens.
+     */
+    private int maxSummaryTokens = 300;
+}
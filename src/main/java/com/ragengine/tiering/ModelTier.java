@@ -0,0 +1,17 @@
+package com.ragengine.tiering;
+
+/**
+ * Size class of the chat model a request is answered with.
+ */
+public enum ModelTier {
+
+    /**
+     * Small, fast model for lookups the retrieved context answers directly.
+     */
+    SMALL,
+
+    /**
+     * Large, accurate model for everything else.
+     */
+    LARGE
+}
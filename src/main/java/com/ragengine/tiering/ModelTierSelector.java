@@ -0,0 +1,134 @@
+package com.ragengine.tiering;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Picks the model tier for a chat request.
+ *
+ * A tenant's {@link TierPolicy} may fix the tier. Otherwise a cheap classifier runs
+ * on what retrieval has already produced: a request goes to the small model only if
+ * the question is short, carries no reasoning cue ("why", "compare", ...) and the
+ * retrieved chunks point at one clear answer — the best chunk scores at least the
+ * {@code min-top-scores} threshold of the embedding model the query was embedded with,
+ * and few others come close to it. Anything else, including a
+ * question without any good match, goes to the large model.
+ *
+ * Metrics: {@code rag.chat.tier} (tag {@code tier}) counts requests per tier and
+ * {@code rag.chat.tier.latency} times their generation.
+ */
+@Component
+@Slf4j
+public class ModelTierSelector {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}][\\p{L}\\p{N}'-]*");
+
+    private final ModelTieringConfig config;
+    private final QueryEmbeddingSearch querySearch;
+    private final Map<ModelTier, Counter> requests = new EnumMap<>(ModelTier.class);
+    private final Map<ModelTier, Timer> latency = new EnumMap<>(ModelTier.class);
+
+    public ModelTierSelector(ModelTieringConfig config, QueryEmbeddingSearch querySearch,
+                             MeterRegistry meterRegistry) {
+        this.config = config;
+        this.querySearch = querySearch;
+        for (ModelTier tier : ModelTier.values()) {
+            String tag = tier.name().toLowerCase(Locale.ROOT);
+            requests.put(tier, Counter.builder("rag.chat.tier")
+                    .description("Chat requests per model tier")
+                    .tag("tier", tag)
+                    .register(meterRegistry));
+            latency.put(tier, Timer.builder("rag.chat.tier.latency")
+                    .description("Generation time per model tier")
+                    .tag("tier", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Chooses the tier for a question given the chunks retrieved for it.
+     *
+     * @return the tier, or {@code null} if tiering is disabled
+     */
+    public ModelTier select(UUID tenantId, String question, List<Document> retrieved) {
+        if (!config.isEnabled()) {
+            return null;
+        }
+        ModelTier tier = switch (config.getTenantPolicies().getOrDefault(tenantId, config.getDefaultPolicy())) {
+            case SMALL -> ModelTier.SMALL;
+            case LARGE -> ModelTier.LARGE;
+            case AUTO -> classify(question, retrieved, minTopScore(tenantId));
+        };
+        requests.get(tier).increment();
+        log.debug("Answering with the {} model tier", tier);
+        return tier;
+    }
+
+    /**
+     * The model name to request for a tier, or {@code null} for the provider's default.
+     */
+    public String model(ModelTier tier) {
+        if (tier == null) {
+            return null;
+        }
+        String model = tier == ModelTier.SMALL ? config.getSmallModel() : config.getLargeModel();
+        return model == null || model.isBlank() ? null : model;
+    }
+
+    public void recordLatency(ModelTier tier, Duration duration) {
+        if (tier != null) {
+            latency.get(tier).record(duration);
+        }
+    }
+
+    ModelTier classify(String question, List<Document> retrieved, double minTopScore) {
+        List<String> words = WORD.matcher(question.toLowerCase(Locale.ROOT)).results()
+                .map(match -> match.group())
+                .toList();
+        if (words.size() > config.getMaxSimpleWords()) {
+            return ModelTier.LARGE;
+        }
+        Set<String> cues = config.getReasoningCues().stream()
+                .map(cue -> cue.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        if (words.stream().anyMatch(cues::contains)) {
+            return ModelTier.LARGE;
+        }
+
+        List<Double> scores = retrieved.stream()
+                .map(Document::getScore)
+                .filter(Objects::nonNull)
+                .toList();
+        double top = scores.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        if (top < minTopScore) {
+            return ModelTier.LARGE;
+        }
+        long competing = scores.stream().filter(score -> score >= top - config.getScoreSpread()).count();
+        return competing <= config.getMaxCompetingChunks() ? ModelTier.SMALL : ModelTier.LARGE;
+    }
+
+    private double minTopScore(UUID tenantId) {
+        return config.getMinTopScores().getOrDefault(querySearch.queryEmbeddingModel(tenantId),
+                config.getDefaultMinTopScore());
+    }
+}
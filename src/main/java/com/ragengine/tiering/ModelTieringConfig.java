@@ -0,0 +1,84 @@
+package com.ragengine.tiering;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Configuration properties for answering chat requests with a small or a large model.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.tiering")
+@Getter
+@Setter
+public class ModelTieringConfig {
+
+    /**
+     * Whether requests are assigned a model tier; otherwise every request uses the provider's default model.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Model name for the small tier, e.g. {@code gpt-4.1-nano} or {@code llama3.2:1b}; empty uses the default model.
+     */
+    private String smallModel = "";
+
+    /**
+     * Model name for the large tier; empty uses the default model.
+     */
+    private String largeModel = "";
+
+    /**
+     * Policy for tenants without an entry in {@link #tenantPolicies}.
+     */
+    private TierPolicy defaultPolicy = TierPolicy.AUTO;
+
+    /**
+     * Policy per tenant ID, e.g. {@code large} for tenants that pay for accuracy.
+     */
+    private Map<UUID, TierPolicy> tenantPolicies = new LinkedHashMap<>();
+
+    /**
+     * Longest question, in words, still considered a simple lookup.
+     */
+    private int maxSimpleWords = 20;
+
+    /**
+     * Similarity the best retrieved chunk needs for the small tier, per embedding model.
+     * Scores are not comparable across models: a clear match scores around 0.55-0.7 with
+     * {@code text-embedding-3-*} but above 0.85 with {@code text-embedding-ada-002}.
+     */
+    private Map<String, Double> minTopScores = new LinkedHashMap<>(Map.of(
+            "text-embedding-3-small", 0.55,
+            "text-embedding-3-large", 0.55,
+            "text-embedding-ada-002", 0.85,
+            "nomic-embed-text", 0.70));
+
+    /**
+     * Threshold for embedding models without an entry in {@link #minTopScores}.
+     */
+    private double defaultMinTopScore = 0.75;
+
+    /**
+     * Chunks scoring within this distance of the best one compete with it.
+     */
+    private double scoreSpread = 0.05;
+
+    /**
+     * Most competing chunks, the best one included, a small-tier answer may draw on.
+     */
+    private int maxCompetingChunks = 2;
+
+    /**
+     * Words that mark a question as asking for reasoning rather than a lookup.
+     */
+    private List<String> reasoningCues = List.of(
+            "why", "compare", "comparison", "difference", "differences", "explain", "analyze", "analyse",
+            "summarize", "summarise", "evaluate", "implications", "tradeoffs", "trade-offs", "versus", "vs");
+}
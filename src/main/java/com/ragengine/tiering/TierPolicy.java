@@ -0,0 +1,22 @@
+package com.ragengine.tiering;
+
+/**
+ * How a tenant's chat requests are assigned a {@link ModelTier}.
+ */
+public enum TierPolicy {
+
+    /**
+     * Classify each request by the question and the retrieved chunks.
+     */
+    AUTO,
+
+    /**
+     * Always use the small model.
+     */
+    SMALL,
+
+    /**
+     * Always use the large model.
+     */
+    LARGE
+}
@@ -0,0 +1,28 @@
+package com.ragengine.usage;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for per-tenant usage metering.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.usage")
+@Getter
+@Setter
+public class UsageConfig {
+
+    /**
+     * Whether model and embedding calls are metered.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long hourly usage rows are kept.
+     */
+    private Duration retention = Duration.ofDays(400);
+}
@@ -0,0 +1,51 @@
+package com.ragengine.usage;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Usage of one model by one tenant within one hour, as flushed by {@link UsageMeter}.
+ */
+@Entity
+@Table(name = "usage_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsageCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(nullable = false, length = 200)
+    private String model;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDateTime periodStart;
+
+    @Column(nullable = false)
+    private long calls;
+
+    @Column(name = "prompt_tokens", nullable = false)
+    private long promptTokens;
+
+    @Column(name = "completion_tokens", nullable = false)
+    private long completionTokens;
+
+    @Column(name = "embedding_tokens", nullable = false)
+    private long embeddingTokens;
+
+    @Column(name = "latency_ms", nullable = false)
+    private long latencyMs;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
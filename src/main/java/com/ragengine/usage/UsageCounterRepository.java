@@ -0,0 +1,44 @@
+package com.ragengine.usage;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UsageCounterRepository extends JpaRepository<UsageCounter, UUID> {
+
+    List<UsageCounter> findByTenantIdAndPeriodStartGreaterThanEqualAndPeriodStartLessThan(
+            UUID tenantId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Adds usage to the row of the tenant, model and hour, creating it if needed.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO usage_counters (tenant_id, model, period_start, calls, prompt_tokens,
+                                        completion_tokens, embedding_tokens, latency_ms, updated_at)
+            VALUES (:tenantId, :model, :periodStart, :calls, :promptTokens,
+                    :completionTokens, :embeddingTokens, :latencyMs, NOW())
+            ON CONFLICT (tenant_id, model, period_start) DO UPDATE SET
+                calls = usage_counters.calls + EXCLUDED.calls,
+                prompt_tokens = usage_counters.prompt_tokens + EXCLUDED.prompt_tokens,
+                completion_tokens = usage_counters.completion_tokens + EXCLUDED.completion_tokens,
+                embedding_tokens = usage_counters.embedding_tokens + EXCLUDED.embedding_tokens,
+                latency_ms = usage_counters.latency_ms + EXCLUDED.latency_ms,
+                updated_at = NOW()
+            """, nativeQuery = true)
+    void add(UUID tenantId, String model, LocalDateTime periodStart, long calls, long promptTokens,
+             long completionTokens, long embeddingTokens, long latencyMs);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UsageCounter u WHERE u.periodStart < :cutoff")
+    int deleteOlderThan(LocalDateTime cutoff);
+}
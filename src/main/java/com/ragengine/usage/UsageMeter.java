@@ -0,0 +1,246 @@
+package com.ragengine.usage;
+
+import com.ragengine.prompt.TokenCounter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Meters the tokens and latency of every chat and embedding call per tenant and model,
+ * so provider cost and latency can be attributed to the tenants that cause them.
+ *
+ * Calls only increment striped {@link LongAdder}s, so recording stays cheap and
+ * uncontended on the request path. Every {@code rag.usage.flush-interval} the usage
+ * added since the last flush is written to the tenant's {@code usage_counters} row of
+ * the current hour; if the database is unavailable it is kept and written on the next
+ * flush. Chat tokens are those the provider reports; embedding tokens are counted
+ * locally, as the vector store does not expose the provider's usage.
+ *
+ * Metrics, tagged {@code tenant} and {@code model}:
+ * - {@code rag.usage.tokens} — tokens, tagged {@code type=prompt|completion|embedding}
+ * - {@code rag.usage.calls} — model and embedding calls
+ * - {@code rag.usage.latency} — provider latency of those calls
+ */
+@Component
+@Slf4j
+public class UsageMeter {
+
+    private final UsageConfig config;
+    private final UsageCounterRepository repository;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<Key, Tally> tallies = new ConcurrentHashMap<>();
+
+    public UsageMeter(UsageConfig config, UsageCounterRepository repository, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private record Key(UUID tenantId, String model) {}
+
+    /**
+     * Usage of one model by one tenant since startup, and how much of it has been flushed.
+     */
+    private static final class Tally {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+        private final LongAdder embeddingTokens = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+
+        /** Totals as of the last flush; guarded by the meter */
+        private Totals flushed = Totals.ZERO;
+
+        private Totals totals() {
+            return new Totals(calls.sum(), promptTokens.sum(), completionTokens.sum(),
+                    embeddingTokens.sum(), TimeUnit.NANOSECONDS.toMillis(latencyNanos.sum()));
+        }
+    }
+
+    private record Totals(long calls, long promptTokens, long completionTokens,
+                          long embeddingTokens, long latencyMs) {
+        static final Totals ZERO = new Totals(0, 0, 0, 0, 0);
+
+        Totals minus(Totals other) {
+            return new Totals(calls - other.calls, promptTokens - other.promptTokens,
+                    completionTokens - other.completionTokens, embeddingTokens - other.embeddingTokens,
+                    latencyMs - other.latencyMs);
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(calls + other.calls, promptTokens + other.promptTokens,
+                    completionTokens + other.completionTokens, embeddingTokens + other.embeddingTokens,
+                    latencyMs + other.latencyMs);
+        }
+
+        boolean isZero() {
+            return equals(ZERO);
+        }
+    }
+
+    /**
+     * A tenant's usage of one model over a period.
+     */
+    public record ModelUsage(String model, long calls, long promptTokens, long completionTokens,
+                             long embeddingTokens, long averageLatencyMs) {}
+
+    /**
+     * Records a chat model call.
+     *
+     * @param usage the usage the provider reported, or {@code null} if it reported none
+     */
+    public void recordChat(UUID tenantId, String model, Usage usage, Duration latency) {
+        Tally tally = tally(tenantId, model);
+        if (tally == null) {
+            return;
+        }
+        tally.calls.increment();
+        if (usage != null) {
+            tally.promptTokens.add(positive(usage.getPromptTokens()));
+            tally.completionTokens.add(positive(usage.getCompletionTokens()));
+        }
+        tally.latencyNanos.add(latency.toNanos());
+    }
+
+    /**
+     * Records an embedding call.
+     */
+    public void recordEmbedding(UUID tenantId, String model, long tokens, Duration latency) {
+        Tally tally = tally(tenantId, model);
+        if (tally == null) {
+            return;
+        }
+        tally.calls.increment();
+        tally.embeddingTokens.add(Math.max(tokens, 0));
+        tally.latencyNanos.add(latency.toNanos());
+    }
+
+    /**
+     * Records an embedding call for the given texts, counted in the tokens of the model.
+     */
+    public void recordEmbedding(UUID tenantId, String model, List<String> texts, Duration latency) {
+        if (!config.isEnabled() || tenantId == null) {
+            return;
+        }
+        TokenCounter counter = TokenCounter.forModel(model);
+        recordEmbedding(tenantId, model, texts.stream().mapToLong(counter::count).sum(), latency);
+    }
+
+    /**
+     * Writes the usage recorded since the last flush, then drops rows past the retention.
+     */
+    @Scheduled(fixedDelayString = "${rag.usage.flush-interval:PT1M}")
+    public synchronized void flush() {
+        LocalDateTime period = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        int written = 0;
+        for (Map.Entry<Key, Tally> entry : tallies.entrySet()) {
+            Tally tally = entry.getValue();
+            Totals totals = tally.totals();
+            Totals delta = totals.minus(tally.flushed);
+            if (delta.isZero()) {
+                continue;
+            }
+            try {
+                repository.add(entry.getKey().tenantId(), entry.getKey().model(), period, delta.calls(),
+                        delta.promptTokens(), delta.completionTokens(), delta.embeddingTokens(), delta.latencyMs());
+            } catch (RuntimeException e) {
+                log.warn("Could not flush usage counters, retrying on the next flush: {}", e.getMessage());
+                return;
+            }
+            tally.flushed = totals;
+            written++;
+        }
+        if (written > 0) {
+            log.debug("Flushed usage of {} tenant/model pairs", written);
+        }
+
+        try {
+            repository.deleteOlderThan(period.minus(config.getRetention()));
+        } catch (RuntimeException e) {
+            log.warn("Could not delete expired usage counters: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * A tenant's usage per model from {@code from} (inclusive) to {@code to} (exclusive),
+     * including usage not yet flushed if the period reaches the present.
+     */
+    public synchronized List<ModelUsage> report(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Totals> byModel = new TreeMap<>();
+        for (UsageCounter row : repository.findByTenantIdAndPeriodStartGreaterThanEqualAndPeriodStartLessThan(
+                tenantId, from, to)) {
+            byModel.merge(row.getModel(), new Totals(row.getCalls(), row.getPromptTokens(),
+                    row.getCompletionTokens(), row.getEmbeddingTokens(), row.getLatencyMs()), Totals::plus);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(from) && now.isBefore(to)) {
+            tallies.forEach((key, tally) -> {
+                Totals pending = tally.totals().minus(tally.flushed);
+                if (key.tenantId().equals(tenantId) && !pending.isZero()) {
+                    byModel.merge(key.model(), pending, Totals::plus);
+                }
+            });
+        }
+        return byModel.entrySet().stream()
+                .map(entry -> {
+                    Totals totals = entry.getValue();
+                    return new ModelUsage(entry.getKey(), totals.calls(), totals.promptTokens(),
+                            totals.completionTokens(), totals.embeddingTokens(),
+                            totals.calls() > 0 ? totals.latencyMs() / totals.calls() : 0);
+                })
+                .toList();
+    }
+
+    private Tally tally(UUID tenantId, String model) {
+        if (!config.isEnabled() || tenantId == null) {
+            return null;
+        }
+        Key key = new Key(tenantId, model == null || model.isBlank() ? "unknown" : model);
+        Tally tally = tallies.get(key);
+        return tally != null ? tally : tallies.computeIfAbsent(key, this::register);
+    }
+
+    /**
+     * Creates the tally of a new tenant/model pair and binds its meters to it.
+     */
+    private Tally register(Key key) {
+        Tally tally = new Tally();
+        Tags tags = Tags.of("tenant", key.tenantId().toString(), "model", key.model());
+        FunctionCounter.builder("rag.usage.tokens", tally.promptTokens, LongAdder::sum)
+                .tags(tags).tag("type", "prompt").baseUnit("tokens").register(meterRegistry);
+        FunctionCounter.builder("rag.usage.tokens", tally.completionTokens, LongAdder::sum)
+                .tags(tags).tag("type", "completion").baseUnit("tokens").register(meterRegistry);
+        FunctionCounter.builder("rag.usage.tokens", tally.embeddingTokens, LongAdder::sum)
+                .tags(tags).tag("type", "embedding").baseUnit("tokens").register(meterRegistry);
+        FunctionCounter.builder("rag.usage.calls", tally.calls, LongAdder::sum)
+                .tags(tags).description("Chat model and embedding calls").register(meterRegistry);
+        FunctionTimer.builder("rag.usage.latency", tally, t -> t.calls.sum(), t -> t.latencyNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .tags(tags).description("Provider latency of chat model and embedding calls").register(meterRegistry);
+        return tally;
+    }
+
+    private static long positive(Integer tokens) {
+        return tokens != null && tokens > 0 ? tokens : 0;
+    }
+}
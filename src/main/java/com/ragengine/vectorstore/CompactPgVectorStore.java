@@ -0,0 +1,362 @@
+package com.ragengine.vectorstore;
+
+import com.ragengine.compression.ChunkContentCodec;
+import com.ragengine.domain.entity.DocumentChunk;
+import com.ragengine.reindex.GenerationEmbeddingModels;
+import com.ragengine.reindex.IndexGeneration;
+import com.ragengine.reindex.IndexGenerationService;
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.usage.UsageMeter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.BatchingStrategy;
+import org.springframework.ai.embedding.EmbeddingOptions;
+import org.springframework.ai.embedding.EmbeddingOptionsBuilder;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Single-copy pgvector store.
+ *
+ * Each row holds only the chunk ID, its embedding and typed {@code tenant_id} /
+ * {@code document_id} columns — no content copy and no metadata JSON. Search runs
+ * the HNSW scan over this narrow table, then hydrates text and citation metadata
+ * for the top-k hits from {@code document_chunks} in one batched lookup.
+ *
+ * Every index generation has its own table (see {@link IndexGenerationService}).
+ * Searches read the active generation with the model it was built with; writes go
+ * to the active generation and, during a rebuild, to the building one as well.
+ * Tenants that store fewer dimensions (see {@link TenantEmbeddingDimensions}) use a
+ * per-dimensionality table with its own, smaller HNSW index.
+ *
+ * Activated with {@code rag.vector-store.mode=compact}; takes precedence over the
+ * auto-configured Spring AI {@code PgVectorStore}.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@Slf4j
+public class CompactPgVectorStore implements VectorStore, QueryEmbeddingSearch {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchingStrategy batchingStrategy;
+    private final DocumentChunkRepository chunkRepository;
+    private final ChunkContentCodec contentCodec;
+    private final IndexGenerationService generations;
+    private final GenerationEmbeddingModels embeddingModels;
+    private final TenantEmbeddingDimensions tenantDimensions;
+    private final MeterRegistry meterRegistry;
+    private final UsageMeter usageMeter;
+    private final TypedColumnFilterExpressionConverter filterConverter = new TypedColumnFilterExpressionConverter();
+
+    public CompactPgVectorStore(
+            JdbcTemplate jdbcTemplate,
+            BatchingStrategy batchingStrategy,
+            DocumentChunkRepository chunkRepository,
+            ChunkContentCodec contentCodec,
+            IndexGenerationService generations,
+            GenerationEmbeddingModels embeddingModels,
+            TenantEmbeddingDimensions tenantDimensions,
+            MeterRegistry meterRegistry,
+            UsageMeter usageMeter
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchingStrategy = batchingStrategy;
+        this.chunkRepository = chunkRepository;
+        this.contentCodec = contentCodec;
+        this.generations = generations;
+        this.embeddingModels = embeddingModels;
+        this.tenantDimensions = tenantDimensions;
+        this.meterRegistry = meterRegistry;
+        this.usageMeter = usageMeter;
+    }
+
+    @Override
+    public String getName() {
+        return "CompactPgVectorStore";
+    }
+
+    /**
+     * Embeds and stores documents in every generation currently written to. Only
+     * {@code tenantId} and {@code documentId} are read from the metadata; the
+     * document ID must be the ID of a persisted chunk.
+     */
+    @Override
+    public void add(List<Document> documents) {
+        for (IndexGeneration generation : generations.writeGenerations()) {
+            addToGeneration(generation, documents);
+        }
+    }
+
+    /**
+     * Embeds documents with the generation's model, at each tenant's dimensionality,
+     * and upserts them into the matching table.
+     */
+    public void addToGeneration(IndexGeneration generation, List<Document> documents) {
+        Map<String, List<Document>> byTenant = documents.stream()
+                .collect(Collectors.groupingBy(doc -> (String) doc.getMetadata().get("tenantId")));
+
+        byTenant.forEach((tenant, tenantDocuments) -> {
+            UUID tenantId = UUID.fromString(tenant);
+            int dimensions = tenantDimensions.resolve(tenantId, generation);
+            List<float[]> embeddings = embed(generation, dimensions, tenantDocuments);
+
+            List<StoredEmbedding> rows = new ArrayList<>(tenantDocuments.size());
+            for (int i = 0; i < tenantDocuments.size(); i++) {
+                Document doc = tenantDocuments.get(i);
+                rows.add(new StoredEmbedding(UUID.fromString(doc.getId()), tenantId,
+                        UUID.fromString((String) doc.getMetadata().get("documentId")), embeddings.get(i)));
+            }
+            upsert(generations.tableFor(generation, dimensions), rows);
+            log.debug("Stored {} compact embeddings ({} dims) in generation {}",
+                    rows.size(), dimensions, generation.getId());
+        });
+    }
+
+    /**
+     * Embeds documents at the given dimensionality: natively when the provider can
+     * shorten embeddings, otherwise by truncating and re-normalizing the full output.
+     */
+    public List<float[]> embed(IndexGeneration generation, int dimensions, List<Document> documents) {
+        if (documents.isEmpty()) {
+            return List.of();
+        }
+        return embeddingModels.forGeneration(generation)
+                .embed(documents, embeddingOptions(generation, dimensions), batchingStrategy)
+                .stream()
+                .map(embedding -> EmbeddingTruncation.truncate(embedding, dimensions))
+                .toList();
+    }
+
+    /**
+     * Embeds queries with the active generation's model at the tenant's dimensionality.
+     */
+    @Override
+    public List<float[]> embedQueries(UUID tenantId, List<String> queries) {
+        IndexGeneration generation = generations.active();
+        int dimensions = tenantDimensions.resolve(tenantId, generation);
+        long started = System.nanoTime();
+        EmbeddingResponse response = embeddingModels.forGeneration(generation)
+                .call(new EmbeddingRequest(queries, embeddingOptions(generation, dimensions)));
+        usageMeter.recordEmbedding(tenantId, generation.getEmbeddingModel(), queries,
+                Duration.ofNanos(System.nanoTime() - started));
+        return response.getResults().stream()
+                .map(embedding -> EmbeddingTruncation.truncate(embedding.getOutput(), dimensions))
+                .toList();
+    }
+
+    @Override
+    public String queryEmbeddingModel(UUID tenantId) {
+        return generations.active().getEmbeddingModel();
+    }
+
+    private EmbeddingOptions embeddingOptions(IndexGeneration generation, int dimensions) {
+        EmbeddingOptionsBuilder options = EmbeddingOptionsBuilder.builder();
+        if (dimensions < generation.getDimensions() && EmbeddingTruncation.supportsNativeDimensions(
+                generation.getEmbeddingProvider(), generation.getEmbeddingModel())) {
+            options.withDimensions(dimensions);
+        }
+        return options.build();
+    }
+
+    /**
+     * Inserts or replaces embeddings in one vector table.
+     */
+    public void upsert(String table, List<StoredEmbedding> embeddings) {
+        if (embeddings.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = embeddings.stream()
+                .map(e -> new Object[]{e.id(), e.tenantId(), e.documentId(), toVectorLiteral(e.embedding())})
+                .toList();
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO %s (id, tenant_id, document_id, embedding) VALUES (?, ?, ?, ?::vector)
+                ON CONFLICT (id) DO UPDATE SET embedding = EXCLUDED.embedding
+                """.formatted(table), rows);
+    }
+
+    /**
+     * Removes a document's embeddings from one generation.
+     */
+    public void deleteDocument(IndexGeneration generation, UUID tenantId, UUID documentId) {
+        String table = generations.tableFor(generation, tenantDimensions.resolve(tenantId, generation));
+        jdbcTemplate.update("DELETE FROM %s WHERE document_id = ?".formatted(table), documentId);
+    }
+
+    @Override
+    public void delete(List<String> idList) {
+        if (idList.isEmpty()) {
+            return;
+        }
+        List<Object[]> ids = idList.stream()
+                .map(id -> new Object[]{UUID.fromString(id)})
+                .toList();
+        for (IndexGeneration generation : generations.writeGenerations()) {
+            for (String table : generations.tablesOf(generation)) {
+                jdbcTemplate.batchUpdate("DELETE FROM %s WHERE id = ?".formatted(table), ids);
+            }
+        }
+    }
+
+    @Override
+    public void delete(Filter.Expression expression) {
+        String where = filterConverter.convertExpression(expression);
+        for (IndexGeneration generation : generations.writeGenerations()) {
+            for (String table : generations.tablesOf(generation)) {
+                jdbcTemplate.update("DELETE FROM %s WHERE %s".formatted(table, where));
+            }
+        }
+    }
+
+    /**
+     * Searches the active generation. The tenant in the filter selects the
+     * dimensionality, and therefore the table and query embedding size.
+     */
+    @Override
+    public List<Document> similaritySearch(SearchRequest request) {
+        return similaritySearch(request, embedQueries(tenantIdOf(request), List.of(request.getQuery())).getFirst());
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request, float[] embedding) {
+        return hydrate(search(request, embedding, false)).stream().map(EmbeddedChunk::document).toList();
+    }
+
+    @Override
+    public List<EmbeddedChunk> similaritySearchWithEmbeddings(SearchRequest request, float[] embedding) {
+        return hydrate(search(request, embedding, true));
+    }
+
+    private List<Hit> search(SearchRequest request, float[] embedding, boolean withEmbeddings) {
+        IndexGeneration generation = generations.active();
+        int dimensions = tenantDimensions.resolve(tenantIdOf(request), generation);
+        String queryEmbedding = toVectorLiteral(embedding);
+
+        List<Object> args = new ArrayList<>(List.of(queryEmbedding));
+        StringBuilder where = new StringBuilder("TRUE");
+        if (request.hasFilterExpression()) {
+            where.append(" AND (").append(filterConverter.convertExpression(request.getFilterExpression())).append(')');
+        }
+        if (request.getSimilarityThreshold() > SearchRequest.SIMILARITY_THRESHOLD_ACCEPT_ALL) {
+            where.append(" AND embedding <=> ?::vector < ?");
+            args.add(queryEmbedding);
+            args.add(1 - request.getSimilarityThreshold());
+        }
+        args.add(request.getTopK());
+
+        String table = generations.tableFor(generation, dimensions);
+        return searchTimer(dimensions).record(() -> jdbcTemplate.query("""
+                        SELECT id, embedding <=> ?::vector AS distance%s FROM %s
+                        WHERE %s
+                        ORDER BY distance
+                        LIMIT ?
+                        """.formatted(withEmbeddings ? ", embedding" : "", table, where),
+                (rs, rowNum) -> new Hit(rs.getObject("id", UUID.class), rs.getDouble("distance"),
+                        withEmbeddings ? parseVectorLiteral(rs.getString("embedding")) : null),
+                args.toArray()));
+    }
+
+    /**
+     * A row of the vector scan; the embedding only if it was asked for.
+     */
+    private record Hit(UUID id, double distance, float[] embedding) {}
+
+    private static UUID tenantIdOf(SearchRequest request) {
+        return request.hasFilterExpression()
+                ? TypedColumnFilterExpressionConverter.tenantIdOf(request.getFilterExpression()).orElse(null)
+                : null;
+    }
+
+    /**
+     * Latency of the vector scan, tagged by dimensionality for the recall/latency report.
+     */
+    public Timer searchTimer(int dimensions) {
+        return Timer.builder("rag.vector.search")
+                .description("Compact vector table scan latency")
+                .tag("dimensions", String.valueOf(dimensions))
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads text and citation metadata for the given hits from {@code document_chunks}
+     * in a single query, preserving the similarity order. Only these top-k chunks are
+     * decompressed.
+     */
+    private List<EmbeddedChunk> hydrate(List<Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, DocumentChunk> chunks = chunkRepository
+                .findWithDocumentByIdIn(hits.stream().map(Hit::id).toList())
+                .stream()
+                .collect(Collectors.toMap(DocumentChunk::getId, Function.identity()));
+
+        List<EmbeddedChunk> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            DocumentChunk chunk = chunks.get(hit.id());
+            if (chunk == null) {
+                // Chunk deleted between the vector scan and hydration
+                continue;
+            }
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("documentId", chunk.getDocument().getId().toString());
+            metadata.put("documentName", chunk.getDocument().getOriginalName());
+            metadata.put("chunkIndex", chunk.getChunkIndex());
+            metadata.put("pageNumber", chunk.getPageNumber() != null ? chunk.getPageNumber() : -1);
+            metadata.put("distance", hit.distance());
+
+            results.add(new EmbeddedChunk(Document.builder()
+                    .id(chunk.getId().toString())
+                    .text(contentCodec.decode(chunk))
+                    .metadata(metadata)
+                    .score(1 - hit.distance())
+                    .build(), hit.embedding()));
+        }
+        return results;
+    }
+
+    /**
+     * Renders an embedding in pgvector's text input format, e.g. {@code [0.1,0.2]}.
+     */
+    public static String toVectorLiteral(float[] embedding) {
+        StringBuilder sb = new StringBuilder(embedding.length * 10).append('[');
+        for (int i = 0; i < embedding.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(embedding[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Parses pgvector's text output format, e.g. {@code [0.1,0.2]}.
+     */
+    public static float[] parseVectorLiteral(String literal) {
+        String[] parts = literal.substring(1, literal.length() - 1).split(",");
+        float[] embedding = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            embedding[i] = Float.parseFloat(parts[i]);
+        }
+        return embedding;
+    }
+
+    /**
+     * One row of a compact vector table.
+     */
+    public record StoredEmbedding(UUID id, UUID tenantId, UUID documentId, float[] embedding) {}
+}
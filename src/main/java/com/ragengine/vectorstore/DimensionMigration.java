@@ -0,0 +1,89 @@
+package com.ragengine.vectorstore;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable state of a tenant's move to another embedding dimensionality.
+ *
+ * RUNNING copies the vectors; MIGRATED means the tenant's setting has flipped and
+ * the old copies wait until no instance can still be using them; COMPLETED means
+ * they are deleted.
+ */
+@Entity
+@Table(name = "embedding_dimension_migrations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DimensionMigration {
+
+    /**
+     * Move of the tenant's vectors between two tables of one index generation.
+     */
+    public record Step(int generationId, int from, int to, String fromTable, String toTable) {}
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    /**
+     * Requested dimensionality.
+     */
+    @Column(nullable = false)
+    private Integer dimensions;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DimensionMigrationStatus status;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<Step> steps;
+
+    @Column(name = "total_embeddings", nullable = false)
+    @Builder.Default
+    private Long totalEmbeddings = 0L;
+
+    @Column(name = "migrated_embeddings", nullable = false)
+    @Builder.Default
+    private Long migratedEmbeddings = 0L;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * When the tenant's setting flipped to the new dimensionality.
+     */
+    @Column(name = "migrated_at")
+    private LocalDateTime migratedAt;
+
+    /**
+     * When the old copies may be deleted.
+     */
+    @Column(name = "cleanup_after")
+    private LocalDateTime cleanupAfter;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,37 @@
+package com.ragengine.vectorstore;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface DimensionMigrationRepository extends JpaRepository<DimensionMigration, UUID> {
+
+    Optional<DimensionMigration> findFirstByTenantIdOrderByStartedAtDesc(UUID tenantId);
+
+    Optional<DimensionMigration> findFirstByTenantIdAndStatusInOrderByStartedAtDesc(
+            UUID tenantId, Collection<DimensionMigrationStatus> statuses);
+
+    List<DimensionMigration> findByStatusAndCleanupAfterBefore(DimensionMigrationStatus status, LocalDateTime now);
+
+    /**
+     * Adds copied vectors without reloading the entity, and marks the migration as alive.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE DimensionMigration m SET
+                m.migratedEmbeddings = m.migratedEmbeddings + :migrated,
+                m.updatedAt = CURRENT_TIMESTAMP
+            WHERE m.id = :id
+            """)
+    void addProgress(UUID id, long migrated);
+}
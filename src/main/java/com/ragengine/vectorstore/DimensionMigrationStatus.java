@@ -0,0 +1,8 @@
+package com.ragengine.vectorstore;
+
+public enum DimensionMigrationStatus {
+    RUNNING,
+    MIGRATED,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,109 @@
+package com.ragengine.vectorstore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Offline estimate of what Matryoshka truncation costs in retrieval quality.
+ *
+ * A sample of stored embeddings serves both as corpus and as queries. For every
+ * candidate dimensionality the exact top-k neighbours of each query (excluding the
+ * query itself) are compared with the top-k at full size; recall@k is the mean
+ * overlap. Exact scan time per query is reported alongside as a relative cost.
+ */
+public final class DimensionRecallEvaluator {
+
+    /**
+     * @param recallAtK          mean share of the full-size top-k found at this size
+     * @param scanMicrosPerQuery mean exact-scan time per query over the sample
+     */
+    public record Result(int dimensions, double recallAtK, double scanMicrosPerQuery) {}
+
+    private DimensionRecallEvaluator() {
+    }
+
+    /**
+     * @param corpus     embeddings at the reference (largest) dimensionality
+     * @param queryCount number of corpus entries, from the start, used as queries
+     * @param k          neighbours compared per query
+     * @param candidates dimensionalities to evaluate
+     */
+    public static List<Result> evaluate(List<float[]> corpus, int queryCount, int k, List<Integer> candidates) {
+        int queries = Math.min(queryCount, corpus.size());
+        List<float[]> reference = normalize(corpus, Integer.MAX_VALUE);
+        List<Set<Integer>> expected = new ArrayList<>(queries);
+        for (int q = 0; q < queries; q++) {
+            expected.add(topK(reference, q, k));
+        }
+
+        List<Result> results = new ArrayList<>(candidates.size());
+        for (int dimensions : candidates) {
+            List<float[]> truncated = normalize(corpus, dimensions);
+            double recall = 0;
+            long started = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                Set<Integer> found = topK(truncated, q, k);
+                found.retainAll(expected.get(q));
+                recall += expected.get(q).isEmpty() ? 1 : (double) found.size() / expected.get(q).size();
+            }
+            long elapsed = System.nanoTime() - started;
+            results.add(new Result(dimensions,
+                    queries == 0 ? 1 : recall / queries,
+                    queries == 0 ? 0 : elapsed / 1_000.0 / queries));
+        }
+        return results;
+    }
+
+    private static List<float[]> normalize(List<float[]> corpus, int dimensions) {
+        // truncate() leaves full-length vectors as they are, so rescale all of them
+        return corpus.stream()
+                .map(v -> unit(EmbeddingTruncation.truncate(v, dimensions)))
+                .toList();
+    }
+
+    private static float[] unit(float[] v) {
+        double norm = 0;
+        for (float x : v) {
+            norm += (double) x * x;
+        }
+        if (norm == 0) {
+            return v;
+        }
+        float[] u = new float[v.length];
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) {
+            u[i] = v[i] * scale;
+        }
+        return u;
+    }
+
+    /**
+     * Indices of the k vectors most cosine-similar to vectors[query], excluding itself.
+     */
+    private static Set<Integer> topK(List<float[]> vectors, int query, int k) {
+        float[] q = vectors.get(query);
+        PriorityQueue<double[]> heap = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        for (int i = 0; i < vectors.size(); i++) {
+            if (i == query) {
+                continue;
+            }
+            float[] v = vectors.get(i);
+            double dot = 0;
+            for (int j = 0; j < q.length; j++) {
+                dot += (double) q[j] * v[j];
+            }
+            if (heap.size() < k) {
+                heap.add(new double[]{dot, i});
+            } else if (dot > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new double[]{dot, i});
+            }
+        }
+        Set<Integer> indices = new HashSet<>();
+        heap.forEach(entry -> indices.add((int) entry[1]));
+        return indices;
+    }
+}
@@ -0,0 +1,432 @@
+package com.ragengine.vectorstore;
+
+import com.ragengine.compression.ChunkContentCodec;
+import com.ragengine.domain.entity.DocumentChunk;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.reindex.IndexGeneration;
+import com.ragengine.reindex.IndexGenerationService;
+import com.ragengine.reindex.IndexGenerationStatus;
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.TenantRepository;
+import com.ragengine.vectorstore.CompactPgVectorStore.StoredEmbedding;
+import com.ragengine.vectorstore.DimensionMigration.Step;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.document.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Per-tenant embedding dimensionality: changing it and reporting what it costs.
+ *
+ * Shrinking migrates the stored vectors by truncation, without calling the
+ * embedding provider; growing re-embeds the tenant's chunks. Either runs in the
+ * background as a {@link DimensionMigration}. The tenant's setting flips only after
+ * its vectors are in the new table, so search never sees a half-migrated index. The
+ * old copies stay until other instances' cached settings have expired, and are
+ * deleted by a later pass.
+ */
+@Service
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@Slf4j
+@RequiredArgsConstructor
+public class EmbeddingDimensionService {
+
+    private static final int MIGRATION_BATCH_SIZE = 500;
+    private static final int REPORT_CORPUS_SIZE = 2000;
+
+    /**
+     * How long old copies are kept after the setting flips: twice the settings cache
+     * TTL, so writes of instances that resolved the old setting just before their
+     * cache expired have landed.
+     */
+    static final Duration CLEANUP_DELAY = Duration.ofMillis(2 * TenantEmbeddingDimensions.TTL_MILLIS);
+
+    /** A running migration not updated for this long lost its instance */
+    static final Duration STALE_AFTER = Duration.ofMinutes(10);
+
+    private static final Set<DimensionMigrationStatus> IN_PROGRESS =
+            EnumSet.of(DimensionMigrationStatus.RUNNING, DimensionMigrationStatus.MIGRATED);
+
+    private final CompactPgVectorStore vectorStore;
+    private final IndexGenerationService generations;
+    private final TenantEmbeddingDimensions tenantDimensions;
+    private final TenantRepository tenantRepository;
+    private final DocumentChunkRepository chunkRepository;
+    private final ChunkContentCodec contentCodec;
+    private final VectorStorageConfig config;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DimensionMigrationRepository migrationRepository;
+
+    /** Runs this instance's migrations one at a time */
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("dimension-migration").daemon().factory());
+
+    /**
+     * Current setting and the choices available to the tenant.
+     */
+    public Map<String, Object> getSettings(UUID tenantId) {
+        IndexGeneration active = generations.active();
+        int dimensions = tenantDimensions.resolve(tenantId, active);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("dimensions", dimensions);
+        settings.put("modelDimensions", active.getDimensions());
+        settings.put("allowedDimensions", allowedDimensions(active));
+        settings.put("embeddingModel", active.getEmbeddingProvider() + ":" + active.getEmbeddingModel());
+        settings.put("nativeTruncation", EmbeddingTruncation.supportsNativeDimensions(
+                active.getEmbeddingProvider(), active.getEmbeddingModel()));
+        settings.put("storedEmbeddings", countEmbeddings(generations.tableFor(active, dimensions), tenantId));
+        settings.put("migration", getMigration(tenantId).orElse(null));
+        return settings;
+    }
+
+    /**
+     * Starts moving the tenant's embeddings to a new dimensionality in every
+     * generation being read or written. The copy runs in the background; its progress
+     * is reported by {@link #getMigration(UUID)}.
+     *
+     * @throws IllegalStateException if an earlier change of the tenant is still in progress
+     */
+    public synchronized Map<String, Object> changeDimensions(UUID tenantId, int dimensions) {
+        IndexGeneration active = generations.active();
+        if (!allowedDimensions(active).contains(dimensions)) {
+            throw new IllegalArgumentException("Unsupported embedding dimensions: " + dimensions
+                    + ". Allowed: " + allowedDimensions(active));
+        }
+        tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new IllegalArgumentException("Tenant not found: " + tenantId));
+        migrationRepository.findFirstByTenantIdAndStatusInOrderByStartedAtDesc(tenantId, IN_PROGRESS)
+                .ifPresent(this::failIfStale);
+
+        List<Step> steps = new ArrayList<>();
+        long total = 0;
+        for (IndexGeneration generation : generations.writeGenerations()) {
+            int from = tenantDimensions.resolve(tenantId, generation);
+            int to = Math.min(dimensions, generation.getDimensions());
+            if (from != to) {
+                Step step = new Step(generation.getId(), from, to,
+                        generations.tableFor(generation, from), generations.tableFor(generation, to));
+                steps.add(step);
+                total += countEmbeddings(step.fromTable(), tenantId);
+            }
+        }
+
+        DimensionMigration migration = migrationRepository.save(DimensionMigration.builder()
+                .tenantId(tenantId)
+                .dimensions(dimensions)
+                .status(DimensionMigrationStatus.RUNNING)
+                .steps(steps)
+                .totalEmbeddings(total)
+                .build());
+        Map<String, Object> response = toMap(migration);
+        Integer setting = dimensions >= active.getDimensions() ? null : dimensions;
+        migrator.execute(() -> migrate(migration.getId(), tenantId, setting, steps));
+        log.info("Started migrating tenant {} to {}-dimensional embeddings ({} vectors)", tenantId, dimensions, total);
+        return response;
+    }
+
+    /**
+     * Progress of the tenant's most recent dimensionality change, if any.
+     */
+    public Optional<Map<String, Object>> getMigration(UUID tenantId) {
+        return migrationRepository.findFirstByTenantIdOrderByStartedAtDesc(tenantId).map(EmbeddingDimensionService::toMap);
+    }
+
+    /**
+     * Deletes the old copies of migrated tenants once every instance's settings cache
+     * has expired, after copying rows that instances still on the old setting wrote
+     * in the meantime.
+     */
+    @Scheduled(fixedDelayString = "${rag.vector-store.dimension-cleanup-interval:PT1M}")
+    public void deleteStaleCopies() {
+        for (DimensionMigration migration : migrationRepository.findByStatusAndCleanupAfterBefore(
+                DimensionMigrationStatus.MIGRATED, LocalDateTime.now())) {
+            try {
+                deleteStaleCopies(migration);
+            } catch (RuntimeException e) {
+                log.warn("Could not delete old embeddings of tenant {}, retrying later: {}",
+                        migration.getTenantId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // A running migration is left to go stale; the setting has not flipped yet
+        migrator.shutdownNow();
+    }
+
+    /**
+     * Copies the tenant's vectors, flips its setting, then catches up rows ingested
+     * while copying.
+     */
+    void migrate(UUID migrationId, UUID tenantId, Integer setting, List<Step> steps) {
+        try {
+            long started = System.currentTimeMillis();
+            Map<Integer, IndexGeneration> byId = generationsById();
+            for (Step step : steps) {
+                copy(step, byId.get(step.generationId()), tenantId, migrationId);
+            }
+
+            Tenant tenant = tenantRepository.findById(tenantId)
+                    .orElseThrow(() -> new IllegalStateException("Tenant was deleted: " + tenantId));
+            tenant.setEmbeddingDimensions(setting);
+            tenantRepository.save(tenant);
+            tenantDimensions.invalidate(tenantId);
+
+            for (Step step : steps) {
+                copy(step, byId.get(step.generationId()), tenantId, migrationId);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            DimensionMigration migration = migrationRepository.findById(migrationId).orElseThrow();
+            migration.setStatus(steps.isEmpty() ? DimensionMigrationStatus.COMPLETED : DimensionMigrationStatus.MIGRATED);
+            migration.setMigratedAt(now);
+            migration.setCleanupAfter(steps.isEmpty() ? null : now.plus(CLEANUP_DELAY));
+            migration.setCompletedAt(steps.isEmpty() ? now : null);
+            migrationRepository.save(migration);
+            log.info("Tenant {} now stores {}-dimensional embeddings ({} vectors migrated in {} ms)",
+                    tenantId, migration.getDimensions(), migration.getMigratedEmbeddings(),
+                    System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Embedding dimension migration {} of tenant {} failed: {}", migrationId, tenantId, e.getMessage(), e);
+            migrationRepository.findById(migrationId).ifPresent(migration -> {
+                migration.setStatus(DimensionMigrationStatus.FAILED);
+                migration.setLastError(truncate(Objects.requireNonNullElse(e.getMessage(), e.toString())));
+                migration.setCompletedAt(LocalDateTime.now());
+                migrationRepository.save(migration);
+            });
+        }
+    }
+
+    private void deleteStaleCopies(DimensionMigration migration) {
+        UUID tenantId = migration.getTenantId();
+        Map<Integer, IndexGeneration> byId = generationsById();
+        tenantDimensions.invalidate(tenantId);
+        for (Step step : migration.getSteps()) {
+            IndexGeneration generation = byId.get(step.generationId());
+            if (generation == null || generation.getStatus() == IndexGenerationStatus.DROPPED
+                    || generation.getStatus() == IndexGenerationStatus.ABANDONED) {
+                // Its tables are gone
+                continue;
+            }
+            if (tenantDimensions.resolve(tenantId, generation) != step.to()) {
+                // Changed directly in the database since; leave both copies
+                continue;
+            }
+            copy(step, generation, tenantId, migration.getId());
+            jdbcTemplate.update("DELETE FROM %s WHERE tenant_id = ?".formatted(step.fromTable()), tenantId);
+        }
+        migration.setStatus(DimensionMigrationStatus.COMPLETED);
+        migration.setCompletedAt(LocalDateTime.now());
+        migrationRepository.save(migration);
+        log.info("Deleted the old embeddings of tenant {} after migration {}", tenantId, migration.getId());
+    }
+
+    /**
+     * Rejects a change while an earlier one is in progress. A running migration whose
+     * instance stopped updating it is failed instead, so the tenant can start over;
+     * its setting never flipped.
+     */
+    private void failIfStale(DimensionMigration running) {
+        if (running.getStatus() == DimensionMigrationStatus.MIGRATED) {
+            throw new IllegalStateException("The previous change of embedding dimensions is being finalized; "
+                    + "try again after " + running.getCleanupAfter());
+        }
+        if (running.getUpdatedAt() != null && running.getUpdatedAt().isAfter(LocalDateTime.now().minus(STALE_AFTER))) {
+            throw new IllegalStateException("Embedding dimensions are already being migrated (migration "
+                    + running.getId() + ")");
+        }
+        running.setStatus(DimensionMigrationStatus.FAILED);
+        running.setLastError("Interrupted");
+        running.setCompletedAt(LocalDateTime.now());
+        migrationRepository.save(running);
+    }
+
+    /**
+     * Copies the tenant's vectors that are not yet in the target table, in keyset batches.
+     */
+    private long copy(Step step, IndexGeneration generation, UUID tenantId, UUID migrationId) {
+        long copied = 0;
+        UUID after = new UUID(0, 0);
+        while (true) {
+            List<StoredEmbedding> batch = jdbcTemplate.query("""
+                            SELECT f.id, f.document_id, f.embedding::text AS embedding FROM %s f
+                            WHERE f.tenant_id = ? AND f.id > ?
+                              AND NOT EXISTS (SELECT 1 FROM %s t WHERE t.id = f.id)
+                            ORDER BY f.id
+                            LIMIT ?
+                            """.formatted(step.fromTable(), step.toTable()),
+                    (rs, rowNum) -> new StoredEmbedding(
+                            rs.getObject("id", UUID.class),
+                            tenantId,
+                            rs.getObject("document_id", UUID.class),
+                            CompactPgVectorStore.parseVectorLiteral(rs.getString("embedding"))),
+                    tenantId, after, MIGRATION_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return copied;
+            }
+
+            List<StoredEmbedding> converted = step.to() < step.from()
+                    ? batch.stream()
+                            .map(e -> new StoredEmbedding(e.id(), e.tenantId(), e.documentId(),
+                                    EmbeddingTruncation.truncate(e.embedding(), step.to())))
+                            .toList()
+                    : reembed(generation, step.to(), batch);
+            vectorStore.upsert(step.toTable(), converted);
+            migrationRepository.addProgress(migrationId, converted.size());
+
+            copied += converted.size();
+            after = batch.getLast().id();
+        }
+    }
+
+    /**
+     * Growing needs information truncation threw away, so the chunks are embedded again.
+     */
+    private List<StoredEmbedding> reembed(IndexGeneration generation, int dimensions, List<StoredEmbedding> batch) {
+        Map<UUID, DocumentChunk> chunks = chunkRepository.findAllById(batch.stream().map(StoredEmbedding::id).toList())
+                .stream()
+                .collect(Collectors.toMap(DocumentChunk::getId, Function.identity()));
+        List<StoredEmbedding> present = batch.stream().filter(e -> chunks.containsKey(e.id())).toList();
+
+        List<Document> documents = present.stream()
+                .map(e -> new Document(e.id().toString(), contentCodec.decode(chunks.get(e.id())), Map.of()))
+                .toList();
+        List<float[]> embeddings = vectorStore.embed(generation, dimensions, documents);
+
+        List<StoredEmbedding> result = new ArrayList<>(present.size());
+        for (int i = 0; i < present.size(); i++) {
+            StoredEmbedding e = present.get(i);
+            result.add(new StoredEmbedding(e.id(), e.tenantId(), e.documentId(), embeddings.get(i)));
+        }
+        return result;
+    }
+
+    private Map<Integer, IndexGeneration> generationsById() {
+        return generations.listGenerations().stream()
+                .collect(Collectors.toMap(IndexGeneration::getId, Function.identity()));
+    }
+
+    private static Map<String, Object> toMap(DimensionMigration migration) {
+        long total = Math.max(migration.getTotalEmbeddings(), migration.getMigratedEmbeddings());
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", migration.getId());
+        map.put("dimensions", migration.getDimensions());
+        map.put("status", migration.getStatus());
+        map.put("totalEmbeddings", total);
+        map.put("migratedEmbeddings", migration.getMigratedEmbeddings());
+        map.put("percentComplete", total == 0 ? 100.0
+                : Math.round(1000.0 * migration.getMigratedEmbeddings() / total) / 10.0);
+        map.put("lastError", migration.getLastError());
+        map.put("startedAt", migration.getStartedAt());
+        map.put("migratedAt", migration.getMigratedAt());
+        map.put("completedAt", migration.getCompletedAt());
+        return map;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    /**
+     * Recall/latency trade-off report for the tenant.
+     *
+     * Recall@k per dimensionality is estimated offline on a sample of the tenant's
+     * stored vectors (see {@link DimensionRecallEvaluator}); because truncation of a
+     * Matryoshka embedding equals the shortened native output, the estimate also holds
+     * for provider-side truncation. Storage is estimated from the vector size, and live
+     * search latency comes from the {@code rag.vector.search} timer per dimensionality.
+     *
+     * @param sampleSize number of sampled embeddings used as queries
+     * @param k          neighbours compared per query
+     */
+    public Map<String, Object> getReport(UUID tenantId, int sampleSize, int k) {
+        IndexGeneration active = generations.active();
+        int stored = tenantDimensions.resolve(tenantId, active);
+        String table = generations.tableFor(active, stored);
+
+        List<float[]> corpus = jdbcTemplate.query(
+                "SELECT embedding::text AS embedding FROM %s WHERE tenant_id = ? ORDER BY random() LIMIT ?"
+                        .formatted(table),
+                (rs, rowNum) -> CompactPgVectorStore.parseVectorLiteral(rs.getString("embedding")),
+                tenantId, REPORT_CORPUS_SIZE);
+        if (corpus.size() <= k) {
+            throw new IllegalStateException("Need more than " + k + " stored embeddings for a recall report, found "
+                    + corpus.size());
+        }
+        long rows = countEmbeddings(table, tenantId);
+
+        List<Integer> candidates = allowedDimensions(active).stream().filter(d -> d <= stored).toList();
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (DimensionRecallEvaluator.Result result : DimensionRecallEvaluator.evaluate(corpus, sampleSize, k, candidates)) {
+            int dimensions = result.dimensions();
+            long bytesPerVector = 4L * dimensions + 8;
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("dimensions", dimensions);
+            entry.put("recallAtK", Math.round(result.recallAtK() * 1000) / 1000.0);
+            entry.put("exactScanMicrosPerQuery", Math.round(result.scanMicrosPerQuery() * 10) / 10.0);
+            entry.put("bytesPerVector", bytesPerVector);
+            entry.put("estimatedVectorMb", Math.round(rows * bytesPerVector / 1024.0 / 1024.0 * 10) / 10.0);
+            entry.put("sizeReduction", Math.round((double) stored / dimensions * 10) / 10.0);
+            entry.put("liveSearchLatency", liveLatency(dimensions));
+            results.add(entry);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("storedDimensions", stored);
+        report.put("embeddingModel", active.getEmbeddingProvider() + ":" + active.getEmbeddingModel());
+        report.put("storedEmbeddings", rows);
+        report.put("sampleSize", corpus.size());
+        report.put("queries", Math.min(sampleSize, corpus.size()));
+        report.put("k", k);
+        report.put("results", results);
+        return report;
+    }
+
+    private Map<String, Object> liveLatency(int dimensions) {
+        Timer timer = meterRegistry.find("rag.vector.search").tag("dimensions", String.valueOf(dimensions)).timer();
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("searches", timer != null ? timer.count() : 0);
+        if (timer != null && timer.count() > 0) {
+            latency.put("meanMs", Math.round(timer.mean(TimeUnit.MILLISECONDS) * 100) / 100.0);
+            for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+                latency.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        Math.round(percentile.value(TimeUnit.MILLISECONDS) * 100) / 100.0);
+            }
+        }
+        return latency;
+    }
+
+    private List<Integer> allowedDimensions(IndexGeneration generation) {
+        return config.getAllowedDimensions().stream()
+                .map(d -> Math.min(d, generation.getDimensions()))
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private long countEmbeddings(String table, UUID tenantId) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM %s WHERE tenant_id = ?".formatted(table), Long.class, tenantId);
+        return count != null ? count : 0;
+    }
+}
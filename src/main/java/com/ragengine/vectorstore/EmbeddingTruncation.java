@@ -0,0 +1,47 @@
+package com.ragengine.vectorstore;
+
+/**
+ * Matryoshka-style dimension reduction for embeddings.
+ *
+ * Models trained with Matryoshka representation learning (OpenAI
+ * {@code text-embedding-3-*}, {@code nomic-embed-text} v1.5) front-load information,
+ * so the first {@code n} components re-normalized to unit length are a usable
+ * {@code n}-dimensional embedding. For {@code text-embedding-3-*} this is exactly what
+ * the API's {@code dimensions} parameter returns.
+ */
+public final class EmbeddingTruncation {
+
+    private EmbeddingTruncation() {
+    }
+
+    /**
+     * Whether the provider can return shortened embeddings itself, saving the
+     * transfer of the full vector.
+     */
+    public static boolean supportsNativeDimensions(String provider, String model) {
+        return "openai".equals(provider) && model.startsWith("text-embedding-3");
+    }
+
+    /**
+     * Keeps the first {@code dimensions} components and rescales them to unit length.
+     * Returns the input unchanged if it is not longer than {@code dimensions}.
+     */
+    public static float[] truncate(float[] embedding, int dimensions) {
+        if (embedding.length <= dimensions) {
+            return embedding;
+        }
+        float[] truncated = new float[dimensions];
+        double norm = 0;
+        for (int i = 0; i < dimensions; i++) {
+            truncated[i] = embedding[i];
+            norm += (double) embedding[i] * embedding[i];
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < dimensions; i++) {
+                truncated[i] *= scale;
+            }
+        }
+        return truncated;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ragengine.vectorstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pgvector.PGvector;
+import com.ragengine.usage.UsageMeter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.pgvector.PgVectorStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * {@link QueryEmbeddingSearch} over the Spring AI {@code vector_store} table used in
+ * {@code full} mode. Runs the same query as {@link PgVectorStore} — its distance type,
+ * metadata filter and score — with an embedding supplied by the caller.
+ */
+@Component
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "full", matchIfMissing = true)
+public class PgVectorQueryEmbeddingSearch implements QueryEmbeddingSearch {
+
+    private static final TypeReference<Map<String, Object>> METADATA = new TypeReference<>() {};
+
+    private final PgVectorStore vectorStore;
+    private final EmbeddingModel embeddingModel;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final UsageMeter usageMeter;
+    private final String table;
+    private final String embeddingModelName;
+
+    public PgVectorQueryEmbeddingSearch(
+            PgVectorStore vectorStore,
+            EmbeddingModel embeddingModel,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            UsageMeter usageMeter,
+            @Value("${spring.ai.vectorstore.pgvector.schema-name:" + PgVectorStore.DEFAULT_SCHEMA_NAME + "}")
+            String schemaName,
+            @Value("${spring.ai.vectorstore.pgvector.table-name:" + PgVectorStore.DEFAULT_TABLE_NAME + "}")
+            String tableName,
+            @Value("${rag.ai.provider:openai}") String provider,
+            @Value("${rag.routing.embedding-provider:openai}") String routedEmbeddingProvider,
+            @Value("${spring.ai.openai.embedding.options.model:text-embedding-3-small}") String openAiModel,
+            @Value("${spring.ai.ollama.embedding.options.model:nomic-embed-text}") String ollamaModel
+    ) {
+        this.vectorStore = vectorStore;
+        this.embeddingModel = embeddingModel;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.usageMeter = usageMeter;
+        this.table = schemaName + "." + tableName;
+        String embeddingProvider = provider.equals("routed") ? routedEmbeddingProvider : provider;
+        this.embeddingModelName = embeddingProvider.equals("ollama") ? ollamaModel : openAiModel;
+    }
+
+    @Override
+    public List<float[]> embedQueries(UUID tenantId, List<String> queries) {
+        long started = System.nanoTime();
+        List<float[]> embeddings = embeddingModel.embed(queries);
+        usageMeter.recordEmbedding(tenantId, embeddingModelName, queries, Duration.ofNanos(System.nanoTime() - started));
+        return embeddings;
+    }
+
+    @Override
+    public String queryEmbeddingModel(UUID tenantId) {
+        return embeddingModelName;
+    }
+
+    @Override
+    public List<Document> similaritySearch(SearchRequest request, float[] queryEmbedding) {
+        return search(request, queryEmbedding, (rs, rowNum) -> toDocument(rs));
+    }
+
+    @Override
+    public List<EmbeddedChunk> similaritySearchWithEmbeddings(SearchRequest request, float[] queryEmbedding) {
+        return search(request, queryEmbedding, (rs, rowNum) -> new EmbeddedChunk(toDocument(rs),
+                CompactPgVectorStore.parseVectorLiteral(rs.getString("embedding"))));
+    }
+
+    private <T> List<T> search(SearchRequest request, float[] queryEmbedding, RowMapper<T> rowMapper) {
+        String filter = request.hasFilterExpression()
+                ? " AND metadata::jsonb @@ '%s'::jsonpath ".formatted(
+                        vectorStore.filterExpressionConverter.convertExpression(request.getFilterExpression()))
+                : "";
+        PGvector embedding = new PGvector(queryEmbedding);
+        return jdbcTemplate.query(
+                vectorStore.getDistanceType().similaritySearchSqlTemplate.formatted(table, filter),
+                rowMapper,
+                embedding, embedding, 1 - request.getSimilarityThreshold(), request.getTopK());
+    }
+
+    private Document toDocument(ResultSet rs) throws SQLException {
+        Map<String, Object> metadata;
+        try {
+            String json = rs.getString("metadata");
+            metadata = json != null ? objectMapper.readValue(json, METADATA) : new HashMap<>();
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Unreadable chunk metadata", e);
+        }
+        double distance = rs.getFloat("distance");
+        metadata.put("distance", distance);
+        return Document.builder()
+                .id(rs.getString("id"))
+                .text(rs.getString("content"))
+                .metadata(metadata)
+                .score(1 - distance)
+                .build();
+    }
+}
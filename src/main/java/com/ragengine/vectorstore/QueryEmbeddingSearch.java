@@ -0,0 +1,48 @@
+package com.ragengine.vectorstore;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Similarity search with query embeddings computed up front, so that many queries can
+ * share one embedding call. Implemented for both storage layouts: by
+ * {@link CompactPgVectorStore} in compact mode and by {@link PgVectorQueryEmbeddingSearch}
+ * over the Spring AI table in full mode.
+ */
+public interface QueryEmbeddingSearch {
+
+    /**
+     * Embeds queries for searching the tenant's chunks, in a single embedding call.
+     *
+     * @return one embedding per query, in query order
+     */
+    List<float[]> embedQueries(UUID tenantId, List<String> queries);
+
+    /**
+     * Name of the embedding model the tenant's queries are embedded with, which sets
+     * the scale of similarity scores.
+     */
+    String queryEmbeddingModel(UUID tenantId);
+
+    /**
+     * Same as {@link VectorStore#similaritySearch(SearchRequest)}, but searches with the
+     * given embedding instead of embedding the request's query.
+     */
+    List<Document> similaritySearch(SearchRequest request, float[] queryEmbedding);
+
+    /**
+     * Same as {@link #similaritySearch(SearchRequest, float[])}, and also returns the
+     * stored embedding of each chunk, so callers can score later queries against the
+     * chunks without searching again.
+     */
+    List<EmbeddedChunk> similaritySearchWithEmbeddings(SearchRequest request, float[] queryEmbedding);
+
+    /**
+     * A retrieved chunk with its stored embedding.
+     */
+    record EmbeddedChunk(Document document, float[] embedding) {}
+}
@@ -0,0 +1,64 @@
+package com.ragengine.vectorstore;
+
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.reindex.IndexGeneration;
+import com.ragengine.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves how many embedding dimensions a tenant stores in an index generation.
+ *
+ * Settings are cached briefly, because the lookup sits on every search and ingest
+ * path; other instances pick up a change within {@link #TTL_MILLIS}.
+ */
+@Component
+@ConditionalOnProperty(name = "rag.vector-store.mode", havingValue = "compact")
+@RequiredArgsConstructor
+public class TenantEmbeddingDimensions {
+
+    static final long TTL_MILLIS = 30_000;
+
+    private final TenantRepository tenantRepository;
+
+    private record Setting(Integer dimensions, long loadedAt) {}
+
+    /** tenantId -> configured dimensions (null = full) */
+    private final Map<UUID, Setting> settings = new ConcurrentHashMap<>();
+
+    /**
+     * Dimensionality the tenant's embeddings have in the given generation: the
+     * tenant's setting, capped to the generation model's output size.
+     */
+    public int resolve(UUID tenantId, IndexGeneration generation) {
+        if (tenantId == null) {
+            return generation.getDimensions();
+        }
+        Integer configured = configured(tenantId);
+        return configured == null ? generation.getDimensions() : Math.min(configured, generation.getDimensions());
+    }
+
+    /**
+     * The tenant's configured dimensionality, or null for the model's full output.
+     */
+    public Integer configured(UUID tenantId) {
+        long now = System.currentTimeMillis();
+        Setting setting = settings.get(tenantId);
+        if (setting == null || now - setting.loadedAt() > TTL_MILLIS) {
+            setting = new Setting(tenantRepository.findById(tenantId)
+                    .map(Tenant::getEmbeddingDimensions)
+                    .orElse(null), now);
+            settings.put(tenantId, setting);
+        }
+        return setting.dimensions();
+    }
+
+    public void invalidate(UUID tenantId) {
+        settings.remove(tenantId);
+    }
+}
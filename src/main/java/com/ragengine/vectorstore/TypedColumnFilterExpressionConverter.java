@@ -0,0 +1,104 @@
+package com.ragengine.vectorstore;
+
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.ai.vectorstore.filter.converter.AbstractFilterExpressionConverter;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Converts Spring AI filter expressions into a SQL WHERE clause over the typed
+ * {@code tenant_id} / {@code document_id} columns of the compact embedding table.
+ *
+ * Only the metadata keys the RAG pipeline filters on are supported. Every value
+ * is parsed as a UUID before it is rendered, so no caller-supplied text reaches
+ * the SQL string unvalidated.
+ */
+public class TypedColumnFilterExpressionConverter extends AbstractFilterExpressionConverter {
+
+    /** metadata key -> typed column */
+    private static final Map<String, String> COLUMNS = Map.of(
+            "tenantId", "tenant_id",
+            "documentId", "document_id"
+    );
+
+    /**
+     * Finds the tenant an expression is restricted to, i.e. a {@code tenantId == x}
+     * term that every match must satisfy (reached only through AND and groups).
+     */
+    public static Optional<UUID> tenantIdOf(Filter.Operand operand) {
+        if (operand instanceof Filter.Group group) {
+            return tenantIdOf(group.content());
+        }
+        if (!(operand instanceof Filter.Expression expression)) {
+            return Optional.empty();
+        }
+        if (expression.type() == Filter.ExpressionType.AND) {
+            return tenantIdOf(expression.left()).or(() -> tenantIdOf(expression.right()));
+        }
+        if (expression.type() == Filter.ExpressionType.EQ
+                && expression.left() instanceof Filter.Key key
+                && "tenantId".equals(key.key().replace("'", "").replace("\"", ""))
+                && expression.right() instanceof Filter.Value value) {
+            return Optional.of(UUID.fromString(value.value().toString()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    protected void doExpression(Filter.Expression expression, StringBuilder context) {
+        convertOperand(expression.left(), context);
+        context.append(operator(expression.type()));
+        convertOperand(expression.right(), context);
+    }
+
+    @Override
+    protected void doKey(Filter.Key key, StringBuilder context) {
+        String name = hasOuterQuotes(key.key()) ? removeOuterQuotes(key.key()) : key.key();
+        String column = COLUMNS.get(name);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported filter key for compact vector store: " + name);
+        }
+        context.append(column);
+    }
+
+    @Override
+    protected void doSingleValue(Object value, StringBuilder context) {
+        UUID uuid = UUID.fromString(value.toString());
+        context.append('\'').append(uuid).append("'::uuid");
+    }
+
+    @Override
+    protected void doStartValueRange(Filter.Value listValue, StringBuilder context) {
+        context.append('(');
+    }
+
+    @Override
+    protected void doEndValueRange(Filter.Value listValue, StringBuilder context) {
+        context.append(')');
+    }
+
+    @Override
+    protected void doStartGroup(Filter.Group group, StringBuilder context) {
+        context.append('(');
+    }
+
+    @Override
+    protected void doEndGroup(Filter.Group group, StringBuilder context) {
+        context.append(')');
+    }
+
+    private String operator(Filter.ExpressionType type) {
+        return switch (type) {
+            case AND -> " AND ";
+            case OR -> " OR ";
+            case EQ -> " = ";
+            case NE -> " <> ";
+            case IN -> " IN ";
+            case NIN -> " NOT IN ";
+            default -> throw new IllegalArgumentException(
+                    "Unsupported filter operation for compact vector store: " + type);
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package com.ragengine.vectorstore;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Configuration properties for how chunk embeddings are laid out in PostgreSQL.
+ *
+ * In {@code full} mode the Spring AI {@code vector_store} table keeps a copy of the
+ * chunk text and a metadata JSON blob next to every embedding. In {@code compact}
+ * mode the embedding table keeps only the vector and typed tenant/document columns;
+ * text and citation metadata are read back from {@code document_chunks}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rag.vector-store")
+@Getter
+@Setter
+public class VectorStorageConfig {
+
+    /**
+     * Storage layout: {@code full} (Spring AI default) or {@code compact}.
+     */
+    private String mode = "full";
+
+    /**
+     * Table used for compact embeddings. It holds index generation 1; later
+     * generations built by a reindex use {@code <table>_g<generation>}.
+     */
+    private String tableName = "chunk_embeddings";
+
+    /**
+     * Whether the compact embedding table and its indexes are created on startup.
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * Embedding dimensionalities a tenant may choose in compact mode. Values above
+     * the model's output size are capped to it.
+     */
+    private List<Integer> allowedDimensions = List.of(256, 512, 1024, 1536);
+}
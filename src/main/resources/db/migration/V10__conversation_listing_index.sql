@@ -0,0 +1,8 @@
+-- Conversation listing by recency
+-- ===============================
+-- The conversation list is paginated by (updated_at, id), newest first, per
+-- tenant; this index serves each page without sorting the tenant's conversations.
+-- It also covers lookups by tenant_id alone, which makes the V2 index redundant.
+
+CREATE INDEX idx_conversations_tenant_updated ON conversations (tenant_id, updated_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_conversations_tenant_id;
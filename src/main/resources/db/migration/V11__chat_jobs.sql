@@ -0,0 +1,28 @@
+-- Asynchronous chat jobs
+-- ======================
+-- A chat question submitted as a job is answered in the background. The row
+-- tracks its status and, once finished, holds the answer until expires_at.
+-- The prepared prompt lives only in the memory of the instance that accepted
+-- the job (owner_id). That instance renews lease_expires_at while the job is
+-- queued or running; a job whose lease has lapsed lost its owner and is failed.
+
+CREATE TABLE chat_jobs (
+    id              UUID PRIMARY KEY,
+    tenant_id       UUID NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    user_id         UUID NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    question        TEXT NOT NULL,
+    conversation_id UUID,
+    result          JSONB,
+    error           VARCHAR(1000),
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at      TIMESTAMP,
+    completed_at    TIMESTAMP,
+    expires_at      TIMESTAMP,
+    owner_id        VARCHAR(64),
+    lease_expires_at TIMESTAMP
+);
+
+CREATE INDEX idx_chat_jobs_lease ON chat_jobs (lease_expires_at) WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX idx_chat_jobs_owner ON chat_jobs (owner_id) WHERE status IN ('QUEUED', 'RUNNING');
+CREATE INDEX idx_chat_jobs_expires_at ON chat_jobs (expires_at);
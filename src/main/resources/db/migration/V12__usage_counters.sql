@@ -0,0 +1,21 @@
+-- Usage metering
+-- ==============
+-- Prompt, completion and embedding tokens and provider latency per tenant and
+-- model, aggregated in memory and added to the row of the current hour on each
+-- flush.
+
+CREATE TABLE usage_counters (
+    id                UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id         UUID NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    model             VARCHAR(200) NOT NULL,
+    period_start      TIMESTAMP NOT NULL,
+    calls             BIGINT NOT NULL DEFAULT 0,
+    prompt_tokens     BIGINT NOT NULL DEFAULT 0,
+    completion_tokens BIGINT NOT NULL DEFAULT 0,
+    embedding_tokens  BIGINT NOT NULL DEFAULT 0,
+    latency_ms        BIGINT NOT NULL DEFAULT 0,
+    updated_at        TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_usage_counters_period UNIQUE (tenant_id, model, period_start)
+);
+
+CREATE INDEX idx_usage_counters_period_start ON usage_counters (period_start);
@@ -0,0 +1,9 @@
+-- Deferred drop of retired index generations
+-- ==========================================
+-- A retired generation keeps its table until every instance has refreshed past
+-- the flip and in-flight queries have finished, then it is dropped and marked
+-- DROPPED. Generations retired before this migration were dropped at the flip.
+
+ALTER TABLE index_generations ADD COLUMN retired_at TIMESTAMP;
+
+UPDATE index_generations SET status = 'DROPPED' WHERE status = 'RETIRED';
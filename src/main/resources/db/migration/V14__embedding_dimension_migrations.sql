@@ -0,0 +1,26 @@
+-- Background migrations of a tenant's embedding dimensionality
+-- ============================================================
+-- A change of tenants.embedding_dimensions copies the tenant's vectors to the
+-- tables of the new dimensionality in the background (RUNNING), then flips the
+-- setting (MIGRATED). The old copies are deleted once every instance's settings
+-- cache has expired (COMPLETED). steps lists the table moves per generation.
+
+CREATE TABLE embedding_dimension_migrations (
+    id                  UUID PRIMARY KEY,
+    tenant_id           UUID NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    dimensions          INTEGER NOT NULL,
+    status              VARCHAR(20) NOT NULL,
+    steps               JSONB NOT NULL,
+    total_embeddings    BIGINT NOT NULL DEFAULT 0,
+    migrated_embeddings BIGINT NOT NULL DEFAULT 0,
+    last_error          VARCHAR(1000),
+    started_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    migrated_at         TIMESTAMP,
+    cleanup_after       TIMESTAMP,
+    completed_at        TIMESTAMP
+);
+
+CREATE INDEX idx_embedding_dimension_migrations_tenant ON embedding_dimension_migrations (tenant_id, started_at);
+CREATE INDEX idx_embedding_dimension_migrations_cleanup ON embedding_dimension_migrations (cleanup_after)
+    WHERE status = 'MIGRATED';
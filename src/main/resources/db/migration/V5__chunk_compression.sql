@@ -0,0 +1,23 @@
+-- Chunk content compression with per-tenant trained Zstandard dictionaries
+-- ========================================================================
+
+CREATE TABLE chunk_compression_dictionaries (
+    id              UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    tenant_id       UUID NOT NULL REFERENCES tenants(id) ON DELETE CASCADE,
+    dictionary      BYTEA NOT NULL,
+    sample_count    INTEGER NOT NULL,
+    sample_ratio    DOUBLE PRECISION,
+    created_at      TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_compression_dict_tenant ON chunk_compression_dictionaries(tenant_id, created_at DESC);
+
+-- A chunk holds either plain text (content) or a Zstd frame (compressed_content)
+ALTER TABLE document_chunks ALTER COLUMN content DROP NOT NULL;
+ALTER TABLE document_chunks ADD COLUMN compressed_content BYTEA;
+ALTER TABLE document_chunks ADD COLUMN dictionary_id UUID REFERENCES chunk_compression_dictionaries(id);
+ALTER TABLE document_chunks ADD CONSTRAINT chk_chunk_content_present
+    CHECK (content IS NOT NULL OR compressed_content IS NOT NULL);
+
+-- Already compressed: skip TOAST's pglz pass
+ALTER TABLE document_chunks ALTER COLUMN compressed_content SET STORAGE EXTERNAL;
@@ -0,0 +1,47 @@
+-- Index generations and resumable reindex jobs
+-- =============================================
+-- Each generation is a complete embedding index (its own compact vector table)
+-- built with one embedding model and chunking configuration. Chat reads the
+-- ACTIVE generation while a BUILDING one is filled; the flip is a single update.
+
+CREATE TABLE index_generations (
+    id                  INTEGER PRIMARY KEY,
+    table_name          VARCHAR(100) NOT NULL UNIQUE,
+    embedding_provider  VARCHAR(50) NOT NULL,
+    embedding_model     VARCHAR(200) NOT NULL,
+    dimensions          INTEGER NOT NULL,
+    chunk_size          INTEGER NOT NULL,
+    chunk_overlap       INTEGER NOT NULL,
+    min_chunk_size      INTEGER NOT NULL,
+    chunk_generation    INTEGER NOT NULL,
+    status              VARCHAR(20) NOT NULL,
+    created_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    activated_at        TIMESTAMP
+);
+
+-- At most one ACTIVE and one BUILDING generation at any time
+CREATE UNIQUE INDEX idx_index_generations_active ON index_generations(status) WHERE status = 'ACTIVE';
+CREATE UNIQUE INDEX idx_index_generations_building ON index_generations(status) WHERE status = 'BUILDING';
+
+CREATE TABLE reindex_jobs (
+    id                  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    generation_id       INTEGER NOT NULL REFERENCES index_generations(id),
+    status              VARCHAR(20) NOT NULL,
+    total_documents     INTEGER NOT NULL DEFAULT 0,
+    processed_documents INTEGER NOT NULL DEFAULT 0,
+    failed_documents    INTEGER NOT NULL DEFAULT 0,
+    embedded_tokens     BIGINT NOT NULL DEFAULT 0,
+    last_error          VARCHAR(1000),
+    created_by          UUID,
+    started_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    updated_at          TIMESTAMP NOT NULL DEFAULT NOW(),
+    completed_at        TIMESTAMP
+);
+
+CREATE INDEX idx_reindex_jobs_status ON reindex_jobs(status);
+
+-- Generation a document is fully indexed into, and generation a chunk was cut for
+ALTER TABLE documents ADD COLUMN index_generation INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE document_chunks ADD COLUMN generation INTEGER NOT NULL DEFAULT 1;
+
+CREATE INDEX idx_documents_index_generation ON documents(index_generation);
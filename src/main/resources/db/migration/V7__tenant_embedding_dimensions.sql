@@ -0,0 +1,7 @@
+-- Per-tenant embedding dimensionality
+-- ===================================
+-- NULL stores the full output of the index generation's model. Smaller values
+-- (Matryoshka truncation, e.g. 256 or 512) are kept in <table>_d<dimensions>.
+
+ALTER TABLE tenants ADD COLUMN embedding_dimensions INTEGER
+    CHECK (embedding_dimensions IS NULL OR embedding_dimensions > 0);
@@ -0,0 +1,8 @@
+-- Rolling conversation summaries
+-- ==============================
+-- The oldest summarized_messages messages of a conversation (by created_at) are
+-- folded into summary; prompts send the summary plus the messages after it.
+
+ALTER TABLE conversations ADD COLUMN summary TEXT;
+ALTER TABLE conversations ADD COLUMN summarized_messages INTEGER NOT NULL DEFAULT 0
+    CHECK (summarized_messages >= 0);
@@ -0,0 +1,8 @@
+-- Chat history by recency
+-- =======================
+-- Prompts load only the newest messages of a conversation; this index serves
+-- them (and the per-conversation count) without touching older rows. It also
+-- covers lookups by conversation_id alone, which makes the V1 index redundant.
+
+CREATE INDEX idx_messages_conversation_created ON chat_messages (conversation_id, created_at DESC);
+DROP INDEX IF EXISTS idx_messages_conversation_id;
@@ -0,0 +1,136 @@
+package com.ragengine.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.domain.entity.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AnswerCache.
+ * Verifies key normalization and versioning, invalidation, eviction and persistence.
+ */
+class AnswerCacheTest {
+
+    private static final UUID TENANT = UUID.randomUUID();
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @TempDir
+    Path dir;
+
+    private AnswerCacheConfig config;
+    private final Document first = document(UUID.randomUUID(), UPDATED);
+    private final Document second = document(UUID.randomUUID(), UPDATED);
+
+    @BeforeEach
+    void setUp() {
+        config = new AnswerCacheConfig();
+    }
+
+    @Test
+    @DisplayName("Equivalent questions over the same documents should share a key")
+    void equivalentQuestionsShouldShareKey() {
+        AnswerCache cache = newCache();
+
+        assertEquals(cache.key(TENANT, "What is the  revenue?", List.of(first, second), "gpt-4o", "sys"),
+                cache.key(TENANT, " what is the revenue? ", List.of(second, first), "gpt-4o", "sys"));
+    }
+
+    @Test
+    @DisplayName("Any change to document version, model, prompt or tenant should change the key")
+    void anyChangeShouldChangeKey() {
+        AnswerCache cache = newCache();
+        AnswerCache.Key key = cache.key(TENANT, "Q", List.of(first), "gpt-4o", "sys");
+
+        assertNotEquals(key, cache.key(TENANT, "Q", List.of(document(first.getId(), UPDATED.plusSeconds(1))),
+                "gpt-4o", "sys"));
+        assertNotEquals(key, cache.key(TENANT, "Q", List.of(first), "gpt-4o-mini", "sys"));
+        assertNotEquals(key, cache.key(TENANT, "Q", List.of(first), "gpt-4o", "other"));
+        assertNotEquals(key, cache.key(UUID.randomUUID(), "Q", List.of(first), "gpt-4o", "sys"));
+    }
+
+    @Test
+    @DisplayName("Invalidating a document should drop only the answers given against it")
+    void invalidationShouldDropAffectedEntries() {
+        AnswerCache cache = newCache();
+        AnswerCache.Key both = cache.key(TENANT, "Q", List.of(first, second), "m", "s");
+        AnswerCache.Key onlySecond = cache.key(TENANT, "Q", List.of(second), "m", "s");
+        cache.put(both, "A1", List.of(source(first)));
+        cache.put(onlySecond, "A2", List.of());
+
+        cache.invalidateDocument(first.getId());
+
+        assertTrue(cache.get(both).isEmpty());
+        assertEquals("A2", cache.get(onlySecond).orElseThrow().answer());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used answer when over the size bound")
+    void shouldEvictLeastRecentlyUsed() {
+        config.setMaxSizeMb(1);
+        AnswerCache cache = newCache();
+        String big = "x".repeat(200 * 1024);
+        AnswerCache.Key a = cache.key(TENANT, "a", List.of(first), "m", "s");
+        AnswerCache.Key b = cache.key(TENANT, "b", List.of(first), "m", "s");
+        AnswerCache.Key c = cache.key(TENANT, "c", List.of(first), "m", "s");
+
+        cache.put(a, big, List.of());
+        cache.put(b, big, List.of());
+        cache.get(a);
+        cache.put(c, big, List.of());
+
+        assertTrue(cache.get(a).isPresent());
+        assertTrue(cache.get(b).isEmpty());
+        assertTrue(cache.get(c).isPresent());
+        assertTrue(cache.sizeInBytes() <= 1024 * 1024);
+    }
+
+    @Test
+    @DisplayName("Should reload persisted answers after a restart")
+    void shouldSurviveRestart() {
+        config.setPersistFile(dir.resolve("answers.zst").toString());
+        AnswerCache cache = newCache();
+        AnswerCache.Key key = cache.key(TENANT, "Q", List.of(first), "m", "s");
+        cache.put(key, "Answer", List.of(source(first)));
+        cache.persist();
+
+        AnswerCache reloaded = newCache();
+
+        AnswerCache.Entry entry = reloaded.get(key).orElseThrow();
+        assertEquals("Answer", entry.answer());
+        assertEquals(first.getId(), entry.sources().getFirst().documentId());
+        reloaded.invalidateDocument(first.getId());
+        assertTrue(reloaded.get(key).isEmpty());
+    }
+
+    private AnswerCache newCache() {
+        AnswerCache cache = new AnswerCache(config, new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry());
+        cache.afterPropertiesSet();
+        return cache;
+    }
+
+    private static Document document(UUID id, LocalDateTime updatedAt) {
+        return Document.builder().id(id).updatedAt(updatedAt).build();
+    }
+
+    private static ChatResponse.Source source(Document document) {
+        return ChatResponse.Source.builder()
+                .documentId(document.getId())
+                .documentName("report.pdf")
+                .chunkContent("Revenue grew.")
+                .chunkIndex(0)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.ragengine.cache;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import com.ragengine.vectorstore.QueryEmbeddingSearch.EmbeddedChunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConversationWorkingSet — local scoring against the threshold,
+ * document scope, tenant isolation and invalidation.
+ */
+class ConversationWorkingSetTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID conversationId = UUID.randomUUID();
+    private final UUID documentA = UUID.randomUUID();
+    private final UUID documentB = UUID.randomUUID();
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkingSetConfig config;
+    private QueryEmbeddingSearch querySearch;
+    private ConversationWorkingSet workingSet;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        config = new WorkingSetConfig();
+        querySearch = mock(QueryEmbeddingSearch.class);
+        when(querySearch.queryEmbeddingModel(any())).thenReturn("text-embedding-ada-002");
+        workingSet = new ConversationWorkingSet(config, querySearch, meterRegistry);
+        workingSet.remember(conversationId, tenantId, List.of(
+                chunk("a-1", documentA, new float[]{1, 0, 0}),
+                chunk("a-2", documentA, new float[]{0.8f, 0.6f, 0}),
+                chunk("b-1", documentB, new float[]{0, 0, 1})));
+    }
+
+    @Test
+    @DisplayName("A follow-up close to remembered chunks should be answered from them, best first")
+    void closeFollowUpShouldHitWorkingSet() {
+        Optional<List<Document>> chunks = workingSet.search(conversationId, tenantId,
+                new float[]{0.9f, 0.1f, 0}, List.of(documentA, documentB), 2);
+
+        assertTrue(chunks.isPresent());
+        assertEquals(List.of("a-1", "a-2"), chunks.get().stream().map(Document::getId).toList());
+        assertTrue(chunks.get().getFirst().getScore() > 0.99);
+        assertEquals(1 - chunks.get().getFirst().getScore(),
+                (double) chunks.get().getFirst().getMetadata().get("distance"), 1e-9);
+        assertEquals(1, meterRegistry.get("rag.chat.working-set").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("A follow-up below the threshold, out of scope or of another tenant should go to the index")
+    void distantFollowUpShouldMiss() {
+        assertTrue(workingSet.search(conversationId, tenantId,
+                new float[]{0, 1, 0}, List.of(documentA, documentB), 5).isEmpty(), "Best score 0.6 < 0.85");
+        assertTrue(workingSet.search(conversationId, tenantId,
+                new float[]{0, 0, 1}, List.of(documentA), 5).isEmpty(), "Only document A is in scope");
+        assertTrue(workingSet.search(conversationId, UUID.randomUUID(),
+                new float[]{1, 0, 0}, List.of(documentA), 5).isEmpty());
+        assertEquals(3, meterRegistry.get("rag.chat.working-set").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("The threshold should be that of the model the query was embedded with")
+    void thresholdShouldDependOnEmbeddingModel() {
+        float[] query = {0, 1, 0};
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+        assertEquals(List.of("a-2"), workingSet.search(conversationId, tenantId, query,
+                List.of(documentA, documentB), 1).orElseThrow().stream().map(Document::getId).toList(),
+                "Best score 0.6 >= 0.50");
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("some-other-model");
+        assertTrue(workingSet.search(conversationId, tenantId, query, List.of(documentA, documentB), 5).isEmpty(),
+                "Best score 0.6 < default 0.75");
+    }
+
+    @Test
+    @DisplayName("Changed documents, deleted conversations and old chunks should be dropped")
+    void workingSetShouldBeBounded() {
+        workingSet.invalidateDocument(documentA);
+        assertTrue(workingSet.search(conversationId, tenantId,
+                new float[]{1, 0, 0}, List.of(documentA), 5).isEmpty());
+
+        config.setMaxChunksPerConversation(2);
+        workingSet.remember(conversationId, tenantId, List.of(
+                chunk("a-3", documentA, new float[]{1, 0, 0}),
+                chunk("a-4", documentA, new float[]{1, 0, 0})));
+        assertEquals(List.of("a-3", "a-4"), workingSet.search(conversationId, tenantId,
+                new float[]{1, 0, 0.2f}, List.of(documentA, documentB), 5).orElseThrow().stream()
+                .map(Document::getId).sorted().toList(), "b-1 was the oldest and is evicted");
+
+        workingSet.forget(conversationId);
+        assertEquals(0, workingSet.sizeInBytes());
+    }
+
+    private static EmbeddedChunk chunk(String id, UUID documentId, float[] embedding) {
+        return new EmbeddedChunk(Document.builder()
+                .id(id)
+                .text("Chunk " + id)
+                .metadata(Map.of("documentId", documentId.toString(), "chunkIndex", 0))
+                .build(), embedding);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ragengine.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InFlightGenerations — sharing, replay to late joiners and cancellation.
+ */
+class InFlightGenerationsTest {
+
+    private static final AnswerCache.Key KEY = new AnswerCache.Key("q1", Set.of());
+
+    private AnswerCacheConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private InFlightGenerations generations;
+
+    @BeforeEach
+    void setUp() {
+        config = new AnswerCacheConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        generations = new InFlightGenerations(config, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Identical requests should share one generation and all receive the full answer")
+    void identicalRequestsShouldShareGeneration() {
+        AtomicInteger started = new AtomicInteger();
+        Sinks.Many<ChatResponse> model = Sinks.many().unicast().onBackpressureBuffer();
+        Supplier<Flux<ChatResponse>> generation = () -> {
+            started.incrementAndGet();
+            return model.asFlux();
+        };
+
+        List<StringBuilder> answers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            StringBuilder answer = new StringBuilder();
+            answers.add(answer);
+            generations.join(KEY, generation).subscribe(r -> answer.append(text(r)));
+            if (i == 2) {
+                model.tryEmitNext(fragment("Hello "));
+            }
+        }
+        model.tryEmitNext(fragment("world"));
+        model.tryEmitComplete();
+
+        assertEquals(1, started.get());
+        answers.forEach(answer -> assertEquals("Hello world", answer.toString()));
+        assertEquals(4, meterRegistry.get("rag.chat.coalesced").counter().count());
+        assertEquals(0, generations.inFlightCount(), "Finished generations leave the registry");
+    }
+
+    @Test
+    @DisplayName("One subscriber cancelling should not cancel the shared generation")
+    void cancellingOneSubscriberShouldNotCancelOthers() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Sinks.Many<ChatResponse> model = Sinks.many().unicast().onBackpressureBuffer();
+        Supplier<Flux<ChatResponse>> generation = () -> model.asFlux().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = generations.join(KEY, generation).subscribe();
+        StringBuilder second = new StringBuilder();
+        Disposable secondSubscription = generations.join(KEY, generation).subscribe(r -> second.append(text(r)));
+
+        first.dispose();
+        model.tryEmitNext(fragment("Still here"));
+        assertFalse(cancelled.get());
+        assertEquals("Still here", second.toString());
+
+        secondSubscription.dispose();
+        assertTrue(cancelled.get(), "The model call is cancelled once nobody listens");
+        assertEquals(0, generations.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("With coalescing disabled every request should generate on its own")
+    void disabledShouldNotShare() {
+        config.setCoalesce(false);
+        AtomicInteger started = new AtomicInteger();
+        Supplier<Flux<ChatResponse>> generation = () -> {
+            started.incrementAndGet();
+            return Flux.just(fragment("A"));
+        };
+
+        String joined = Flux.merge(generations.join(KEY, generation), generations.join(KEY, generation))
+                .map(InFlightGenerationsTest::text)
+                .collect(Collectors.joining())
+                .block();
+
+        assertEquals("AA", joined);
+        assertEquals(2, started.get());
+    }
+
+    private static ChatResponse fragment(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+}
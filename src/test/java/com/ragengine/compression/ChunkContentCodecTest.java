@@ -0,0 +1,96 @@
+package com.ragengine.compression;
+
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.ragengine.domain.entity.DocumentChunk;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChunkContentCodec.
+ * Round-trips chunk text through a dictionary trained on repetitive samples.
+ */
+class ChunkContentCodecTest {
+
+    private CompressionDictionaryRepository repository;
+    private ChunkContentCodec codec;
+    private CompressionDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CompressionDictionaryRepository.class);
+        codec = new ChunkContentCodec(repository, new ChunkCompressionConfig(), new SimpleMeterRegistry());
+
+        List<byte[]> samples = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            samples.add(sampleText(i).getBytes(StandardCharsets.UTF_8));
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer(samples.stream().mapToInt(b -> b.length).sum(), 16 * 1024);
+        samples.forEach(trainer::addSample);
+
+        dictionary = CompressionDictionary.builder()
+                .id(UUID.randomUUID())
+                .tenantId(UUID.randomUUID())
+                .dictionary(trainer.trainSamples())
+                .sampleCount(samples.size())
+                .build();
+        when(repository.findById(dictionary.getId())).thenReturn(Optional.of(dictionary));
+    }
+
+    @Test
+    @DisplayName("Plain chunks are returned as-is")
+    void shouldReturnPlainContent() {
+        DocumentChunk chunk = DocumentChunk.builder().content("plain text").build();
+        assertEquals("plain text", codec.decode(chunk));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Encoded chunks round-trip and drop their plain text")
+    void shouldRoundTripEncodedContent() {
+        String text = sampleText(9999);
+        DocumentChunk chunk = DocumentChunk.builder().content(text).build();
+
+        int saved = codec.encode(chunk, dictionary);
+
+        assertNull(chunk.getContent());
+        assertEquals(dictionary.getId(), chunk.getDictionaryId());
+        assertTrue(saved > 0, "Dictionary compression should shrink repetitive text");
+        assertEquals(text, codec.decode(chunk));
+        assertEquals(1, codec.decompressionTimer().count());
+    }
+
+    @Test
+    @DisplayName("Re-encoding with a new dictionary preserves the text")
+    void shouldReencodeCompressedChunk() {
+        String text = sampleText(42);
+        DocumentChunk chunk = DocumentChunk.builder().content(text).build();
+        codec.encode(chunk, dictionary);
+
+        CompressionDictionary next = CompressionDictionary.builder()
+                .id(UUID.randomUUID())
+                .dictionary(dictionary.getDictionary())
+                .build();
+        when(repository.findById(next.getId())).thenReturn(Optional.of(next));
+        codec.encode(chunk, next);
+
+        assertEquals(next.getId(), chunk.getDictionaryId());
+        assertEquals(text, codec.decode(chunk));
+    }
+
+    private String sampleText(int i) {
+        return "CONFIDENTIAL - This agreement is governed by the laws of the State of Delaware. "
+                + "Section " + i + ": The parties agree that clause " + (i * 7 % 13)
+                + " applies to all deliverables described herein. All rights reserved.";
+    }
+}
@@ -118,4 +118,31 @@ class AiProviderConfigTest {
                             .isInstanceOf(org.springframework.ai.ollama.OllamaEmbeddingModel.class);
                 });
     }
+
+    @Test
+    @DisplayName("A routing ChatModel over both providers is created when provider=routed")
+    void routingChatModelCreated_whenProviderIsRouted() {
+        contextRunner
+                .withPropertyValues(
+                        "rag.ai.provider=routed",
+                        "spring.ai.openai.api-key=test-key",
+                        "spring.ai.ollama.base-url=http://localhost:11434"
+                )
+                .withBean(io.micrometer.observation.ObservationRegistry.class,
+                        io.micrometer.observation.ObservationRegistry::create)
+                .withBean(io.micrometer.core.instrument.MeterRegistry.class,
+                        io.micrometer.core.instrument.simple.SimpleMeterRegistry::new)
+                .withBean(com.ragengine.routing.RoutingConfig.class)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ChatModel.class);
+                    assertThat(context).hasSingleBean(ChatClient.Builder.class);
+                    assertThat(context.getBean(ChatModel.class))
+                            .isInstanceOf(com.ragengine.routing.RoutingChatModel.class);
+                    com.ragengine.routing.RoutingChatModel router =
+                            (com.ragengine.routing.RoutingChatModel) context.getBean(ChatModel.class);
+                    assertThat(router.getDefaultOptions().getModel()).isNull();
+                    assertThat(router.modelsFor(null)).containsExactly("gpt-4o-mini", "llama3.2:3b");
+                    assertThat(context.getBean(EmbeddingModel.class)).isInstanceOf(OpenAiEmbeddingModel.class);
+                });
+    }
 }
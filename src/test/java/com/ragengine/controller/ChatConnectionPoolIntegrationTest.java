@@ -0,0 +1,176 @@
+package com.ragengine.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ragengine.BaseIntegrationTest;
+import com.ragengine.TestAiConfig;
+import com.ragengine.domain.dto.AuthResponse;
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.RegisterRequest;
+import com.ragengine.domain.entity.Document;
+import com.ragengine.domain.entity.DocumentStatus;
+import com.ragengine.domain.entity.User;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.*;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Load test for connection usage during chat.
+ *
+ * Runs four times as many concurrent chats as the pool has connections against a
+ * model that blocks until every request is generating at once. That can only happen
+ * if no request holds a connection while the model runs; the pool is then sampled
+ * at the peak of generation and must be idle.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import({TestAiConfig.class, ChatConnectionPoolIntegrationTest.SlowModelConfig.class})
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=" + ChatConnectionPoolIntegrationTest.POOL_SIZE,
+        "spring.datasource.hikari.connection-timeout=5000",
+        // No chunks are stored, and every chat must reach the model
+        "rag.relevance-gate.enabled=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ChatConnectionPoolIntegrationTest extends BaseIntegrationTest {
+
+    static final int POOL_SIZE = 4;
+    static final int CONCURRENT_CHATS = POOL_SIZE * 4;
+
+    /** Generation calls currently in progress */
+    static final AtomicInteger generating = new AtomicInteger();
+    /** Released once every chat is generating at the same time */
+    static final CountDownLatch allGenerating = new CountDownLatch(CONCURRENT_CHATS);
+    static final CountDownLatch release = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class SlowModelConfig {
+
+        @Bean
+        @Primary
+        ChatClient.Builder slowChatClientBuilder() {
+            ChatModel slowModel = new ChatModel() {
+                @Override
+                public ChatResponse call(Prompt prompt) {
+                    generating.incrementAndGet();
+                    allGenerating.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        generating.decrementAndGet();
+                    }
+                    return new ChatResponse(List.of(new Generation(new AssistantMessage("Slow answer"))));
+                }
+            };
+            return ChatClient.builder(slowModel);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    private String accessToken;
+    private UUID documentId;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        RegisterRequest reg = new RegisterRequest(
+                "Pool User", "pool@example.com", "Password123!", "Pool Org");
+        MvcResult result = mockMvc.perform(post("/api/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reg)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        accessToken = objectMapper.readValue(
+                result.getResponse().getContentAsString(), AuthResponse.class).accessToken();
+
+        User user = userRepository.findByEmail("pool@example.com").orElseThrow();
+        documentId = documentRepository.save(Document.builder()
+                .filename("pool.txt")
+                .originalName("pool.txt")
+                .contentType("text/plain")
+                .fileSize(1L)
+                .status(DocumentStatus.READY)
+                .tenant(user.getTenant())
+                .uploadedBy(user)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Chats waiting on the model should hold no database connections")
+    void generationShouldNotHoldConnections() throws Exception {
+        String body = objectMapper.writeValueAsString(
+                new ChatRequest("How is the pool used?", List.of(documentId), null));
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CHATS);
+        try {
+            List<Future<Integer>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CHATS; i++) {
+                responses.add(clients.submit(() -> mockMvc.perform(post("/api/v1/chat")
+                                .header("Authorization", "Bearer " + accessToken)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus()));
+            }
+
+            // With connections held through generation, at most POOL_SIZE chats could get here
+            assertTrue(allGenerating.await(20, TimeUnit.SECONDS),
+                    "Only " + generating.get() + " of " + CONCURRENT_CHATS + " chats reached the model");
+
+            int active = ((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections();
+            assertEquals(0, active, "Connections in use while every chat is waiting on the model");
+
+            release.countDown();
+            for (Future<Integer> response : responses) {
+                assertEquals(200, response.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+}
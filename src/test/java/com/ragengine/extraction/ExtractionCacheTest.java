@@ -0,0 +1,100 @@
+package com.ragengine.extraction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExtractionCache.
+ * Verifies round-tripping, persistence across restarts and LRU eviction.
+ */
+class ExtractionCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private ExtractionCacheConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ExtractionCacheConfig();
+        config.setDirectory(cacheDir.toString());
+    }
+
+    @Test
+    @DisplayName("Should return what was stored")
+    void shouldRoundTrip() {
+        ExtractionCache cache = newCache();
+        ExtractionResult result = new ExtractionResult("Page one. Page two.", List.of(0, 10), 2);
+
+        cache.put(key('a'), result);
+
+        assertEquals(Optional.of(result), cache.get(key('a')));
+        assertTrue(cache.get(key('b')).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reload entries from disk after a restart")
+    void shouldSurviveRestart() {
+        newCache().put(key('a'), new ExtractionResult("text", List.of(), null));
+
+        assertEquals("text", newCache().get(key('a')).orElseThrow().text());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when over the size bound")
+    void shouldEvictLeastRecentlyUsed() {
+        config.setMaxSizeMb(1);
+        ExtractionCache cache = newCache();
+        String big = randomText(450 * 1024);
+
+        cache.put(key('a'), new ExtractionResult(big + "a", List.of(), null));
+        cache.put(key('b'), new ExtractionResult(big + "b", List.of(), null));
+        cache.get(key('a'));  // touch a, so b becomes the eldest
+        cache.put(key('c'), new ExtractionResult(big + "c", List.of(), null));
+
+        assertTrue(cache.get(key('a')).isPresent());
+        assertTrue(cache.get(key('b')).isEmpty());
+        assertTrue(cache.get(key('c')).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when disabled")
+    void shouldBypassWhenDisabled() {
+        config.setEnabled(false);
+        ExtractionCache cache = newCache();
+
+        cache.put(key('a'), new ExtractionResult("text", List.of(), null));
+
+        assertTrue(cache.get(key('a')).isEmpty());
+    }
+
+    private ExtractionCache newCache() {
+        ExtractionCache cache = new ExtractionCache(config, new ObjectMapper(), new SimpleMeterRegistry());
+        cache.afterPropertiesSet();
+        return cache;
+    }
+
+    private String key(char c) {
+        return String.valueOf(c).repeat(64);
+    }
+
+    /** Incompressible text, so entry sizes on disk stay close to the input size. */
+    private String randomText(int length) {
+        java.util.Random random = new java.util.Random(42);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('!' + random.nextInt(90)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,301 @@
+package com.ragengine.jobs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ragengine.domain.dto.ChatJobResponse;
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.exception.RateLimitExceededException;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.RagChatService;
+import com.ragengine.service.RagChatService.PreparedChat;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatJobService — background answering, the bounded queue,
+ * lease-based recovery of interrupted jobs and signed callbacks. The repository
+ * mock applies the conditional updates to an in-memory table.
+ */
+class ChatJobServiceTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final Map<UUID, ChatJob> rows = new ConcurrentHashMap<>();
+
+    private ChatJobRepository jobRepository;
+    private RagChatService ragChatService;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatJobConfig config;
+    private ChatJobService service;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ChatJobRepository.class);
+        ragChatService = mock(RagChatService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        config = new ChatJobConfig();
+
+        when(jobRepository.save(any())).thenAnswer(inv -> {
+            ChatJob job = inv.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(UUID.randomUUID());
+                job.setCreatedAt(LocalDateTime.now());
+            }
+            rows.put(job.getId(), copy(job));
+            return job;
+        });
+        when(jobRepository.findById(any())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<UUID>getArgument(0))));
+        when(jobRepository.markStarted(any(), any(), any(), any())).thenAnswer(inv -> update(inv.getArgument(0),
+                job -> job.getStatus() == inv.getArgument(3), job -> {
+                    job.setStatus(inv.getArgument(1));
+                    job.setStartedAt(inv.getArgument(2));
+                }));
+        when(jobRepository.finish(any(), any(), any(), any(), any(), any(), any(), any())).thenAnswer(inv ->
+                update(inv.getArgument(0), job -> inv.<Collection<?>>getArgument(7).contains(job.getStatus()), job -> {
+                    job.setStatus(inv.getArgument(1));
+                    job.setResult(inv.getArgument(2));
+                    job.setError(inv.getArgument(3));
+                    job.setConversationId(inv.getArgument(4));
+                    job.setCompletedAt(inv.getArgument(5));
+                    job.setExpiresAt(inv.getArgument(6));
+                }));
+        when(jobRepository.findByStatusInAndLeaseExpiresAtBefore(any(), any())).thenAnswer(inv -> rows.values().stream()
+                .filter(job -> inv.<Collection<?>>getArgument(0).contains(job.getStatus()))
+                .filter(job -> job.getLeaseExpiresAt().isBefore(inv.getArgument(1)))
+                .map(ChatJobServiceTest::copy)
+                .toList());
+        when(jobRepository.renewLeases(any(), any(), any())).thenAnswer(inv -> (int) rows.values().stream()
+                .filter(job -> job.getOwnerId().equals(inv.getArgument(0)))
+                .filter(job -> inv.<Collection<?>>getArgument(2).contains(job.getStatus()))
+                .peek(job -> job.setLeaseExpiresAt(inv.getArgument(1)))
+                .count());
+        when(ragChatService.prepare(any())).thenAnswer(inv -> new PreparedChat(null, true,
+                inv.<ChatRequest>getArgument(0).question(), List.of(), List.of(), 42,
+                tenantId, UUID.randomUUID(), "user@acme.test", null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("A submitted job should be queued at once and hold the answer when it finishes")
+    void jobShouldBeAnsweredInTheBackground() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        UUID conversationId = UUID.randomUUID();
+        when(ragChatService.answer(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ChatResponse.builder().conversationId(conversationId).answer("Retrieval-augmented generation.")
+                    .sources(List.of()).promptTokens(42).build();
+        });
+        service = service();
+
+        ChatJobResponse submitted = service.submit(request("What is RAG?"));
+        assertEquals(ChatJobStatus.QUEUED, submitted.status());
+        assertNull(submitted.result());
+
+        release.countDown();
+        ChatJob job = awaitFinished(submitted.id());
+        assertEquals(ChatJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals("Retrieval-augmented generation.", job.getResult().answer());
+        assertEquals(conversationId, job.getConversationId());
+        assertTrue(job.getExpiresAt().isAfter(job.getCompletedAt().plusHours(23)));
+        verify(jobRepository).markStarted(eq(submitted.id()), eq(ChatJobStatus.RUNNING), any(), eq(ChatJobStatus.QUEUED));
+        assertEquals(1, meterRegistry.get("rag.chat.jobs.completed").tag("status", "succeeded").counter().count());
+    }
+
+    @Test
+    @DisplayName("A submission beyond the queue capacity should be rejected and undone")
+    void fullQueueShouldRejectSubmission() throws Exception {
+        config.setConcurrency(1);
+        config.setQueueCapacity(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ragChatService.answer(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ChatResponse.builder().answer("Answer").build();
+        });
+        service = service();
+
+        service.submit(request("Running?"));
+        service.submit(request("Queued?"));
+        assertThrows(RateLimitExceededException.class, () -> service.submit(request("Rejected?")));
+
+        verify(jobRepository).delete(argThat(job -> job.getQuestion().equals("Rejected?")));
+        verify(ragChatService).abandon(argThat(prepared -> prepared.question().equals("Rejected?")));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("A failed generation and a job whose owner stopped should end as FAILED")
+    void failuresShouldBeStored() throws Exception {
+        when(ragChatService.answer(any())).thenThrow(
+                new IllegalStateException("Failed to generate AI response. Please try again later."));
+        service = service();
+
+        ChatJob failed = awaitFinished(service.submit(request("Broken?")).id());
+        assertEquals(ChatJobStatus.FAILED, failed.getStatus());
+        assertEquals("Failed to generate AI response. Please try again later.", failed.getError());
+
+        ChatJob interrupted = row(ChatJobStatus.RUNNING, "stopped-instance", LocalDateTime.now().minusSeconds(5));
+        service.failInterruptedJobs();
+        assertEquals(ChatJobStatus.FAILED, interrupted.getStatus());
+        assertEquals(ChatJobService.INTERRUPTED, interrupted.getError());
+        assertNotNull(interrupted.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Jobs of other live instances should be left alone, and own leases renewed")
+    void liveInstancesShouldKeepTheirJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(ragChatService.answer(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ChatResponse.builder().answer("Answer").build();
+        });
+        service = service();
+        ChatJob other = row(ChatJobStatus.RUNNING, "other-instance", LocalDateTime.now().plusMinutes(1));
+        UUID own = service.submit(request("What is RAG?")).id();
+        rows.get(own).setLeaseExpiresAt(LocalDateTime.now().plusSeconds(1));
+
+        service.heartbeat();
+
+        assertEquals(ChatJobStatus.RUNNING, other.getStatus());
+        assertTrue(rows.get(own).getLeaseExpiresAt().isAfter(LocalDateTime.now().plusSeconds(90)));
+        assertNull(rows.get(own).getCompletedAt());
+        release.countDown();
+        assertEquals(ChatJobStatus.SUCCEEDED, awaitFinished(own).getStatus());
+    }
+
+    @Test
+    @DisplayName("A job failed by another instance should not be finished again by its owner")
+    void jobShouldBeFinishedAtMostOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ragChatService.answer(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return ChatResponse.builder().answer("Late answer").build();
+        });
+        service = service();
+        UUID id = service.submit(request("What is RAG?")).id();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The owner missed its heartbeats long enough for another instance to take over
+        rows.get(id).setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        service().failInterruptedJobs();
+        release.countDown();
+
+        ChatJob job = awaitFinished(id);
+        verify(jobRepository, timeout(5000).times(2)).finish(eq(id), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(ChatJobStatus.FAILED, job.getStatus());
+        assertEquals(ChatJobService.INTERRUPTED, job.getError());
+        assertNull(job.getResult());
+        assertEquals(1, meterRegistry.get("rag.chat.jobs.completed").tag("status", "failed").counter().count());
+        assertTrue(meterRegistry.find("rag.chat.jobs.completed").tag("status", "succeeded").counters().isEmpty());
+    }
+
+    @Test
+    @DisplayName("A finished job should be posted to the callback URL with an HMAC signature")
+    void finishedJobShouldBeSignedAndPosted() throws Exception {
+        BlockingQueue<byte[]> bodies = new ArrayBlockingQueue<>(1);
+        BlockingQueue<String> signatures = new ArrayBlockingQueue<>(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/callback", exchange -> {
+            signatures.add(exchange.getRequestHeaders().getFirst("X-Signature"));
+            bodies.add(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            config.setCallbackUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/callback");
+            config.setCallbackSecret("s3cret");
+            when(ragChatService.answer(any())).thenReturn(ChatResponse.builder().answer("Answer").build());
+            service = service();
+
+            UUID id = service.submit(request("What is RAG?")).id();
+
+            byte[] body = bodies.poll(5, TimeUnit.SECONDS);
+            assertNotNull(body, "The callback was not received");
+            assertEquals(id, objectMapper.readValue(body, ChatJobResponse.class).id());
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec("s3cret".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            assertEquals("sha256=" + HexFormat.of().formatHex(mac.doFinal(body)), signatures.poll());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private ChatJobService service() {
+        return new ChatJobService(jobRepository, ragChatService, new SecurityContext(), config,
+                objectMapper, meterRegistry);
+    }
+
+    private static ChatRequest request(String question) {
+        return new ChatRequest(question, List.of(UUID.randomUUID()), null);
+    }
+
+    private ChatJob row(ChatJobStatus status, String ownerId, LocalDateTime leaseExpiresAt) {
+        ChatJob job = ChatJob.builder().id(UUID.randomUUID()).tenantId(tenantId).userId(UUID.randomUUID())
+                .status(status).question("Lost?").createdAt(LocalDateTime.now())
+                .ownerId(ownerId).leaseExpiresAt(leaseExpiresAt).build();
+        rows.put(job.getId(), job);
+        return job;
+    }
+
+    private int update(UUID id, Predicate<ChatJob> condition, Consumer<ChatJob> change) {
+        synchronized (rows) {
+            ChatJob job = rows.get(id);
+            if (job == null || !condition.test(job)) {
+                return 0;
+            }
+            change.accept(job);
+            return 1;
+        }
+    }
+
+    private static ChatJob copy(ChatJob job) {
+        return ChatJob.builder().id(job.getId()).tenantId(job.getTenantId()).userId(job.getUserId())
+                .status(job.getStatus()).question(job.getQuestion()).conversationId(job.getConversationId())
+                .createdAt(job.getCreatedAt()).ownerId(job.getOwnerId()).leaseExpiresAt(job.getLeaseExpiresAt()).build();
+    }
+
+    private ChatJob awaitFinished(UUID id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ChatJob job = rows.get(id);
+            if (job.getCompletedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Chat job " + id + " did not finish");
+        return null;
+    }
+}
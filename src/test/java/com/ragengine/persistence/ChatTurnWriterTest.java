@@ -0,0 +1,99 @@
+package com.ragengine.persistence;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatTurnWriter — the multi-row statements, message ordering,
+ * skipped conversations and best-effort audit entries.
+ */
+class ChatTurnWriterTest {
+
+    private final UUID kept = UUID.randomUUID();
+    private final UUID deleted = UUID.randomUUID();
+    private final LocalDateTime askedAt = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ChatTurnWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO chat_messages"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(List.of(kept, kept));
+        writer = new ChatTurnWriter(jdbcTemplate, transactionTemplate, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("A batch should be written with one statement per table, answers one microsecond after questions")
+    void batchShouldBeWrittenWithMultiRowStatements() {
+        Set<UUID> written = writer.write(List.of(turn(kept), turn(deleted)));
+
+        assertEquals(Set.of(kept), written);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(sql.capture(), eq(UUID.class), args.capture());
+        assertEquals(4, sql.getValue().split("\\?::jsonb", -1).length - 1, "Two rows per turn in one statement");
+        Object[] values = args.getValue();
+        assertEquals(24, values.length);
+        assertEquals("user", values[2]);
+        assertNull(values[4]);
+        assertEquals(askedAt, values[5]);
+        assertEquals("assistant", values[8]);
+        assertEquals("[{\"documentName\":\"contract.pdf\"}]", values[10]);
+        assertEquals(askedAt.plusNanos(1000), values[11]);
+
+        ArgumentCaptor<Object[]> updated = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("UPDATE conversations"), updated.capture());
+        assertArrayEquals(new Object[]{kept, "What is RAG?", askedAt}, updated.getValue());
+        ArgumentCaptor<Object[]> audited = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_logs"), audited.capture());
+        assertEquals(9, audited.getValue().length, "Only the turn of the remaining conversation is audited");
+    }
+
+    @Test
+    @DisplayName("A failed audit insert should not fail the written turns")
+    void auditFailureShouldNotLoseTurns() {
+        when(jdbcTemplate.update(startsWith("INSERT INTO audit_logs"), any(Object[].class)))
+                .thenThrow(new IllegalStateException("audit_logs is locked"));
+
+        assertEquals(Set.of(kept), writer.write(List.of(turn(kept))));
+        verify(jdbcTemplate).update(startsWith("UPDATE conversations"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Turns of deleted conversations only should write no further rows")
+    void deletedConversationsShouldBeSkipped() {
+        when(jdbcTemplate.queryForList(startsWith("INSERT INTO chat_messages"), eq(UUID.class), any(Object[].class)))
+                .thenReturn(List.of());
+
+        assertEquals(Set.of(), writer.write(List.of(turn(deleted))));
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    private ChatTurn turn(UUID conversationId) {
+        return new ChatTurn(conversationId, UUID.randomUUID(), UUID.randomUUID(), "user@example.com",
+                "What is RAG?", "Retrieval-augmented generation.", List.of(Map.of("documentName", "contract.pdf")),
+                "What is RAG?", "{\"documents\":1}", askedAt);
+    }
+}
@@ -0,0 +1,152 @@
+package com.ragengine.persistence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatWriteBehind — batching, durability modes and failure handling.
+ */
+class ChatWriteBehindTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatTurnWriter writer = mock(ChatTurnWriter.class);
+    private ChatWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent group-commit writes should be stored in one batch")
+    void groupCommitShouldBatchConcurrentTurns() throws Exception {
+        writeBehind = writeBehind(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(200));
+        List<List<ChatTurn>> batches = new ArrayList<>();
+        when(writer.write(anyList())).thenAnswer(inv -> {
+            List<ChatTurn> turns = inv.getArgument(0);
+            batches.add(turns);
+            return conversationIds(turns);
+        });
+
+        int callers = 5;
+        CyclicBarrier start = new CyclicBarrier(callers);
+        List<CompletableFuture<Void>> calls = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            calls.add(CompletableFuture.runAsync(() -> {
+                await(start);
+                writeBehind.write(turn(UUID.randomUUID()));
+            }));
+        }
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, batches.size(), "Every caller returns only after the one shared batch is written");
+        assertEquals(callers, batches.getFirst().size());
+        assertEquals(callers, meterRegistry.get("rag.chat.persistence.batch").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("A turn for a deleted conversation should fail in group-commit mode")
+    void groupCommitShouldFailForDeletedConversation() {
+        writeBehind = writeBehind(DurabilityMode.GROUP_COMMIT, Duration.ofMillis(5));
+        when(writer.write(anyList())).thenReturn(Set.of());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> writeBehind.write(turn(UUID.randomUUID())));
+
+        assertEquals(ChatWriteBehind.CONVERSATION_DELETED, e.getMessage());
+        assertEquals(1, meterRegistry.get("rag.chat.persistence.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Async writes should return at once, and reads should wait for them")
+    void asyncShouldReturnAtOnceAndReadsShouldWait() throws Exception {
+        writeBehind = writeBehind(DurabilityMode.ASYNC, Duration.ofMillis(5));
+        CountDownLatch release = new CountDownLatch(1);
+        when(writer.write(anyList())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return conversationIds(inv.getArgument(0));
+        });
+        UUID conversationId = UUID.randomUUID();
+
+        CompletableFuture<Void> written = writeBehind.write(turn(conversationId));
+        assertFalse(written.isDone(), "The caller does not wait for the database");
+
+        CompletableFuture<Void> read = CompletableFuture.runAsync(() -> writeBehind.awaitWritten(conversationId));
+        Thread.sleep(50);
+        assertFalse(read.isDone(), "A read waits for the conversation's queued turns");
+
+        release.countDown();
+        read.get(5, TimeUnit.SECONDS);
+        assertTrue(written.isDone());
+        writeBehind.awaitWritten(UUID.randomUUID());
+    }
+
+    @Test
+    @DisplayName("A failed batch should be retried one turn at a time")
+    void failedBatchShouldBeRetriedPerTurn() throws Exception {
+        writeBehind = writeBehind(DurabilityMode.ASYNC, Duration.ofMillis(200));
+        UUID broken = UUID.randomUUID();
+        when(writer.write(anyList())).thenAnswer(inv -> {
+            List<ChatTurn> turns = inv.getArgument(0);
+            if (turns.stream().anyMatch(turn -> turn.conversationId().equals(broken))) {
+                throw new IllegalStateException("Constraint violated");
+            }
+            return conversationIds(turns);
+        });
+
+        CompletableFuture<Void> first = writeBehind.write(turn(UUID.randomUUID()));
+        CompletableFuture<Void> bad = writeBehind.write(turn(broken));
+        CompletableFuture<Void> last = writeBehind.write(turn(UUID.randomUUID()));
+
+        first.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        assertTrue(bad.isCompletedExceptionally());
+        verify(writer, times(4)).write(anyList());
+        assertEquals(1, meterRegistry.get("rag.chat.persistence.failures").counter().count());
+    }
+
+    private ChatWriteBehind writeBehind(DurabilityMode mode, Duration flushInterval) {
+        ChatPersistenceConfig config = new ChatPersistenceConfig();
+        config.setMode(mode);
+        config.setFlushInterval(flushInterval);
+        return new ChatWriteBehind(config, writer, meterRegistry);
+    }
+
+    private static ChatTurn turn(UUID conversationId) {
+        return new ChatTurn(conversationId, UUID.randomUUID(), UUID.randomUUID(), "user@acme.test",
+                "What is RAG?", "Retrieval-augmented generation.", List.of(), "What is RAG?",
+                "Query: What is RAG?", LocalDateTime.now());
+    }
+
+    private static Set<UUID> conversationIds(List<ChatTurn> turns) {
+        return turns.stream().map(ChatTurn::conversationId).collect(Collectors.toSet());
+    }
+
+    private static void await(CyclicBarrier barrier) {
+        try {
+            barrier.await(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ragengine.prompt;
+
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ContextCompressor — sentence selection, the token budget, citations
+ * and metering of sentence embeddings.
+ */
+class ContextCompressorTest {
+
+    private static final String MODEL = "gpt-4o-mini";
+
+    private final UUID tenantId = UUID.randomUUID();
+
+    private ContextCompressionConfig config;
+    private EmbeddingModel embeddingModel;
+    private UsageMeter usageMeter;
+    private SimpleMeterRegistry meterRegistry;
+    private ContextCompressor compressor;
+
+    @BeforeEach
+    void setUp() {
+        config = new ContextCompressionConfig();
+        config.setEnabled(true);
+        embeddingModel = mock(EmbeddingModel.class);
+        usageMeter = mock(UsageMeter.class);
+        QueryEmbeddingSearch querySearch = mock(QueryEmbeddingSearch.class);
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+        meterRegistry = new SimpleMeterRegistry();
+        compressor = new ContextCompressor(config, embeddingModel, querySearch, usageMeter, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Only sentences matching the question should be kept, with chunk metadata intact")
+    void shouldKeepMatchingSentences() {
+        Document contract = chunk("contract.pdf", "The agreement starts on 1 March. "
+                + "Either party may terminate with a notice period of 30 days. "
+                + "Invoices are payable within 14 days. "
+                + "The notice period doubles after two years of service.");
+        Document handbook = chunk("handbook.pdf", "The office opens at 8 am. Parking is free for staff.");
+
+        List<Document> compressed = compressor.compress(tenantId, MODEL, "What is the notice period for termination?",
+                List.of(contract, handbook));
+
+        assertEquals(1, compressed.size(), "A chunk without relevant sentences is dropped");
+        assertEquals("Either party may terminate with a notice period of 30 days."
+                        + ContextCompressor.GAP + "The notice period doubles after two years of service.",
+                compressed.getFirst().getText());
+        assertEquals("contract.pdf", compressed.getFirst().getMetadata().get("documentName"));
+        assertEquals(0.92, compressed.getFirst().getScore());
+        assertEquals(1, meterRegistry.get("rag.chat.context.compression").summary().count());
+    }
+
+    @Test
+    @DisplayName("Kept sentences should stay within the token budget, best first")
+    void shouldRespectTokenBudget() {
+        config.setMaxTokens(20);
+        config.setMinRelativeScore(0);
+        Document chunk = chunk("guide.pdf", "Backups run nightly at two. "
+                + "Backups are kept for thirty days and then deleted. "
+                + "Restores of backups take about an hour. "
+                + "Backups are encrypted at rest with AES.");
+
+        List<Document> compressed = compressor.compress(tenantId, MODEL, "How long are backups kept?", List.of(chunk));
+
+        String text = compressed.getFirst().getText();
+        assertTrue(text.contains("kept for thirty days"), text);
+        assertTrue(TokenCounter.forModel(MODEL).count(text) <= 20 + 3, "Only the gap markers exceed the budget");
+        assertTrue(text.length() < chunk.getText().length());
+    }
+
+    @Test
+    @DisplayName("The embedding scorer should make one metered batched call and fall back to lexical on failure")
+    void embeddingScorerShouldBatchAndFallBack() {
+        config.setScorer(ContextScorer.EMBEDDING);
+        Document chunk = chunk("faq.pdf", "Refunds are issued within a week. Shipping is free over 50 euros.");
+        when(embeddingModel.embed(anyList())).thenReturn(List.of(
+                new float[]{1, 0}, new float[]{0.9f, 0.1f}, new float[]{0, 1}));
+
+        List<Document> compressed = compressor.compress(tenantId, MODEL, "How fast do I get my money back?",
+                List.of(chunk));
+
+        assertEquals("Refunds are issued within a week.", compressed.getFirst().getText());
+        List<String> texts = List.of("How fast do I get my money back?",
+                "Refunds are issued within a week.", "Shipping is free over 50 euros.");
+        verify(embeddingModel).embed(texts);
+        verify(usageMeter).recordEmbedding(eq(tenantId), eq("text-embedding-3-small"), eq(texts), any());
+
+        when(embeddingModel.embed(anyList())).thenThrow(new IllegalStateException("Embedding service down"));
+        compressed = compressor.compress(tenantId, MODEL, "Is shipping free?", List.of(chunk));
+        assertEquals("Shipping is free over 50 euros.", compressed.getFirst().getText());
+    }
+
+    private static Document chunk(String documentName, String text) {
+        return Document.builder()
+                .text(text)
+                .metadata(Map.of("documentName", documentName, "chunkIndex", 0))
+                .score(0.92)
+                .build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.ragengine.prompt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ContextConsolidator — span building, overlap removal and rank order.
+ */
+class ContextConsolidatorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ContextConsolidator consolidator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        consolidator = new ContextConsolidator(true, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Adjacent chunks of one document should merge into a span without repeating their overlap")
+    void adjacentChunksShouldMerge() {
+        Document second = chunk("doc-a", 4, "The notice period is 30 days for both parties. It starts on receipt.", 0.91);
+        Document first = chunk("doc-a", 3, "Either party may end the contract. The notice period is 30 days for both parties.", 0.84);
+        Document other = chunk("doc-b", 1, "Holidays are agreed with the manager.", 0.80);
+
+        List<Document> spans = consolidator.consolidate(List.of(second, other, first));
+
+        assertEquals(2, spans.size());
+        Document span = spans.getFirst();
+        assertEquals("Either party may end the contract. The notice period is 30 days for both parties. "
+                + "It starts on receipt.", span.getText());
+        assertEquals(3, span.getMetadata().get("chunkIndex"));
+        assertEquals(4, span.getMetadata().get(ContextConsolidator.LAST_CHUNK_INDEX));
+        assertEquals(0.91, span.getScore(), "A span takes the score of its best chunk");
+        assertSame(other, spans.get(1), "A span sits at the rank of its best chunk");
+        assertEquals(1, meterRegistry.get("rag.chat.context.merged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Gaps in chunk indexes and different documents should stay separate")
+    void gapsShouldStaySeparate() {
+        Document a3 = chunk("doc-a", 3, "Chunk three.", 0.9);
+        Document a5 = chunk("doc-a", 5, "Chunk five.", 0.8);
+        Document b4 = chunk("doc-b", 4, "Another document.", 0.7);
+
+        assertEquals(List.of(a3, a5, b4), consolidator.consolidate(List.of(a3, a5, b4)));
+        assertEquals(0, meterRegistry.get("rag.chat.context.merged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Chunks without a shared boundary should be joined on a new line")
+    void chunksWithoutOverlapShouldJoinOnNewLine() {
+        StringBuilder text = new StringBuilder("First chunk ends here.");
+
+        ContextConsolidator.appendWithoutOverlap(text, "Second chunk starts here.");
+
+        assertEquals("First chunk ends here.\nSecond chunk starts here.", text.toString());
+    }
+
+    private static Document chunk(String documentId, int chunkIndex, String text, double score) {
+        return Document.builder()
+                .text(text)
+                .metadata(Map.of("documentId", documentId, "documentName", documentId + ".pdf",
+                        "chunkIndex", chunkIndex))
+                .score(score)
+                .build();
+    }
+}
@@ -0,0 +1,237 @@
+package com.ragengine.prompt;
+
+import com.ragengine.routing.RoutingChatModel;
+import com.ragengine.routing.RoutingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.document.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PromptAssembler.
+ * Uses gpt-4o-mini so token counts are exact, with a small window to force trimming.
+ */
+class PromptAssemblerTest {
+
+    private static final String MODEL = "gpt-4o-mini";
+    private static final String SYSTEM = "You are a helpful assistant.";
+
+    private PromptBudgetConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private PromptAssembler assembler;
+    private TokenCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        config = new PromptBudgetConfig();
+        config.setContextWindows(Map.of(MODEL, 2048));
+        config.setReservedOutputTokens(512);
+        meterRegistry = new SimpleMeterRegistry();
+        assembler = new PromptAssembler(config, mock(ChatModel.class), meterRegistry);
+        counter = TokenCounter.forModel(MODEL);
+    }
+
+    @Test
+    @DisplayName("Small prompts should be passed through untouched")
+    void smallPromptShouldFitEntirely() {
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, null,
+                List.of(new UserMessage("Hi"), new AssistantMessage("Hello!")),
+                chunks(2, 50), "What is in the report?");
+
+        assertEquals(0, prompt.droppedChunks());
+        assertEquals(0, prompt.droppedHistory());
+        assertEquals(3, prompt.messages().size());
+        assertTrue(prompt.messages().getLast().getText().contains("[Source 2 - report.pdf, Chunk 1]"));
+    }
+
+    @Test
+    @DisplayName("Prompt should never exceed the window minus reserved output")
+    void promptShouldStayWithinBudget() {
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, null,
+                history(20, 120), chunks(10, 300), "Summarize the findings.");
+
+        assertEquals(2048 - 512, prompt.budget());
+        assertTrue(prompt.promptTokens() <= prompt.budget(),
+                prompt.promptTokens() + " tokens exceed budget " + prompt.budget());
+        assertTrue(prompt.droppedChunks() > 0);
+        assertTrue(prompt.droppedHistory() > 0);
+    }
+
+    @Test
+    @DisplayName("Reported prompt tokens should equal an exact count of the messages sent")
+    void reportedTokensShouldBeExact() {
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, null,
+                history(4, 40), chunks(3, 100), "Which risks are listed?");
+
+        int expected = TokenCounter.REPLY_PRIMING + counter.count(SYSTEM) + TokenCounter.MESSAGE_OVERHEAD
+                + prompt.messages().stream().mapToInt(counter::count).sum();
+        assertEquals(expected, prompt.promptTokens());
+        assertEquals(1, meterRegistry.get("rag.chat.prompt.tokens").tag("part", "total").summary().count());
+    }
+
+    @Test
+    @DisplayName("Chunks should be kept in rank order, trimming the last one that partly fits")
+    void chunksShouldBeKeptByRankAndTrimmed() {
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, null,
+                List.of(), chunks(6, 400), "Summarize the findings.");
+
+        List<Document> kept = prompt.chunks();
+        assertFalse(kept.isEmpty());
+        for (int i = 0; i < kept.size(); i++) {
+            assertEquals(i, kept.get(i).getMetadata().get("chunkIndex"), "Chunks must keep retrieval order");
+        }
+        assertTrue(counter.count(kept.getLast().getText()) < 400, "Last chunk should be trimmed");
+    }
+
+    @Test
+    @DisplayName("Newest history should be kept when older messages must be dropped")
+    void newestHistoryShouldBeKept() {
+        List<Message> history = history(30, 80);
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, null, history, List.of(), "And then?");
+
+        List<Message> sentHistory = prompt.messages().subList(0, prompt.messages().size() - 1);
+        assertFalse(sentHistory.isEmpty());
+        assertEquals(history.getLast().getText(), sentHistory.getLast().getText());
+        assertTrue(prompt.messages().getLast().getText().contains(PromptAssembler.NO_CONTEXT));
+    }
+
+    @Test
+    @DisplayName("The conversation summary should lead the messages and survive history trimming")
+    void summaryShouldAlwaysBeIncluded() {
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, "The user is comparing Q3 and Q4.",
+                history(30, 80), chunks(5, 300), "And then?");
+
+        Message first = prompt.messages().getFirst();
+        assertInstanceOf(SystemMessage.class, first);
+        assertTrue(first.getText().endsWith("The user is comparing Q3 and Q4."));
+        assertTrue(prompt.droppedHistory() > 0);
+        assertTrue(prompt.promptTokens() <= prompt.budget());
+    }
+
+    @Test
+    @DisplayName("Prefix-stable layout should send instructions first and only context and question last")
+    void prefixStableLayoutShouldOrderStaticPartsFirst() {
+        config.setLayout(PromptLayout.PREFIX_STABLE);
+
+        PromptAssembler.Assembled prompt = assembler.assemble(MODEL, SYSTEM, "Earlier turns.",
+                history(2, 20), chunks(2, 50), "What is in the report?");
+
+        List<Message> messages = prompt.messages();
+        assertEquals(PromptAssembler.ANSWER_INSTRUCTIONS, messages.get(0).getText());
+        assertTrue(messages.get(1).getText().startsWith(PromptAssembler.SUMMARY_PREFIX));
+        String last = messages.getLast().getText();
+        assertTrue(last.startsWith(PromptAssembler.CONTEXT_HEADER));
+        assertTrue(last.strip().endsWith("What is in the report?"));
+        assertFalse(last.contains("Based on the following context"));
+    }
+
+    @Test
+    @DisplayName("Prefix-stable layout should keep the same conversation prefix across turns")
+    void prefixStableLayoutShouldKeepPrefixAcrossTurns() {
+        config.setLayout(PromptLayout.PREFIX_STABLE);
+
+        List<String> oldestKept = IntStream.of(30, 32, 34)
+                .mapToObj(turns -> assembler.assemble(MODEL, SYSTEM, null, history(turns, 80), List.of(), "Next?"))
+                .map(prompt -> prompt.messages().get(1).getText())
+                .toList();
+
+        assertEquals(1, oldestKept.stream().distinct().count(), "History should be dropped in whole blocks");
+
+        config.setLayout(PromptLayout.CLASSIC);
+        List<String> classic = IntStream.of(30, 32, 34)
+                .mapToObj(turns -> assembler.assemble(MODEL, SYSTEM, null, history(turns, 80), List.of(), "Next?"))
+                .map(prompt -> prompt.messages().getFirst().getText())
+                .toList();
+        assertEquals(3, classic.stream().distinct().count(), "Classic layout slides one message at a time");
+    }
+
+    @Test
+    @DisplayName("History start should only advance in whole blocks with the prefix-stable layout")
+    void historyStartShouldAdvanceInBlocks() {
+        assertEquals(12, assembler.historyStart(2, 20, 8));
+
+        config.setLayout(PromptLayout.PREFIX_STABLE);
+        config.setHistoryBlock(6);
+        assertEquals(14, assembler.historyStart(2, 20, 8));
+        assertEquals(14, assembler.historyStart(2, 22, 8));
+        assertEquals(20, assembler.historyStart(2, 24, 8));
+        assertEquals(2, assembler.historyStart(2, 8, 8));
+    }
+
+    @Test
+    @DisplayName("Unknown models should use the default window with an approximation margin")
+    void unknownModelShouldUseDefaultWindowWithMargin() {
+        PromptAssembler.Assembled prompt = assembler.assemble("llama3.2:3b", SYSTEM, null, List.of(), List.of(), "Hi");
+
+        assertEquals((int) ((4096 - 512) * 0.9), prompt.budget());
+    }
+
+    @Test
+    @DisplayName("A routed prompt should be budgeted for the smallest backend window")
+    void routedPromptShouldFitSmallestBackend() {
+        ChatModel openAi = mock(ChatModel.class);
+        when(openAi.getDefaultOptions()).thenReturn(ChatOptions.builder().model(MODEL).build());
+        ChatModel ollama = mock(ChatModel.class);
+        when(ollama.getDefaultOptions()).thenReturn(ChatOptions.builder().model("llama3.2:3b").build());
+        config.setContextWindows(Map.of(MODEL, 128_000, "llama3.2:3b", 8192));
+        try (RoutingChatModel router = new RoutingChatModel(List.of(
+                new RoutingChatModel.Backend("openai", openAi),
+                new RoutingChatModel.Backend("ollama", ollama)), new RoutingConfig(), meterRegistry)) {
+            PromptAssembler routed = new PromptAssembler(config, router, meterRegistry);
+
+            assertNull(routed.defaultModel(), "The router has no default model of its own");
+            assertEquals((int) ((8192 - 512) * 0.9), routed.assemble(routed.defaultModel(), SYSTEM, null,
+                    List.of(), List.of(), "Hi").budget(), "Llama's window, approximated tokenizer");
+        }
+    }
+
+    @Test
+    @DisplayName("A question larger than the whole budget should be rejected")
+    void oversizedQuestionShouldBeRejected() {
+        String question = "word ".repeat(3000);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> assembler.assemble(MODEL, SYSTEM, null, List.of(), List.of(), question));
+    }
+
+    private List<Document> chunks(int count, int tokens) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Document.builder()
+                        .text(text("chunk" + i, tokens))
+                        .metadata(Map.of("documentName", "report.pdf", "chunkIndex", i))
+                        .build())
+                .toList();
+    }
+
+    private List<Message> history(int count, int tokens) {
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String text = text("turn" + i, tokens);
+            messages.add(i % 2 == 0 ? new UserMessage(text) : new AssistantMessage(text));
+        }
+        return messages;
+    }
+
+    /**
+     * Text of exactly {@code tokens} tokens.
+     */
+    private String text(String seed, int tokens) {
+        return counter.truncate((seed + " lorem ipsum dolor sit amet ").repeat(tokens), tokens);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ragengine.prompt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.openai.api.OpenAiApi;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PromptCacheMetrics.
+ */
+class PromptCacheMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PromptCacheMetrics metrics = new PromptCacheMetrics(meterRegistry);
+
+    @Test
+    @DisplayName("OpenAI cached prompt tokens should be recorded")
+    void shouldRecordOpenAiCachedTokens() {
+        OpenAiApi.Usage openAi = new OpenAiApi.Usage(50, 2000, 2050,
+                new OpenAiApi.Usage.PromptTokensDetails(0, 1536), null, null, null);
+
+        metrics.record(response(new DefaultUsage(2000, 50, 2050, openAi)));
+
+        assertEquals(2000, meterRegistry.get("rag.chat.provider.prompt.tokens").summary().totalAmount());
+        assertEquals(1536, meterRegistry.get("rag.chat.provider.cached.tokens").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Responses without usage and providers without cache details should not record cached tokens")
+    void shouldIgnoreMissingUsage() {
+        metrics.record(new ChatResponse(List.of(new Generation(new AssistantMessage("token")))));
+        metrics.record(response(new DefaultUsage(300, 20)));
+
+        assertEquals(1, meterRegistry.get("rag.chat.provider.prompt.tokens").summary().count());
+        assertEquals(0, meterRegistry.get("rag.chat.provider.cached.tokens").summary().count());
+    }
+
+    private static ChatResponse response(DefaultUsage usage) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("answer"))),
+                ChatResponseMetadata.builder().usage(usage).build());
+    }
+}
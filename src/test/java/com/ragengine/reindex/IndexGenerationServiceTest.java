@@ -0,0 +1,161 @@
+package com.ragengine.reindex;
+
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.vectorstore.VectorStorageConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IndexGenerationService — dual writes while a generation is built,
+ * the flip, the deferred drop of the retired generation and abandoning a build. The repository mock
+ * keeps the generations in memory.
+ */
+class IndexGenerationServiceTest {
+
+    private final Map<Integer, IndexGeneration> rows = new TreeMap<>();
+
+    private IndexGenerationRepository generationRepository;
+    private DocumentRepository documentRepository;
+    private DocumentChunkRepository chunkRepository;
+    private GenerationEmbeddingModels embeddingModels;
+    private JdbcTemplate jdbcTemplate;
+    private ReindexConfig config;
+    private IndexGenerationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        generationRepository = mock(IndexGenerationRepository.class);
+        documentRepository = mock(DocumentRepository.class);
+        chunkRepository = mock(DocumentChunkRepository.class);
+        embeddingModels = mock(GenerationEmbeddingModels.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        config = new ReindexConfig();
+
+        when(generationRepository.save(any())).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(generationRepository.saveAndFlush(any())).thenAnswer(inv -> store(inv.getArgument(0)));
+        when(generationRepository.findMaxId()).thenAnswer(inv -> rows.isEmpty() ? 0 : ((TreeMap<Integer, ?>) rows).lastKey());
+        when(generationRepository.findFirstByStatus(any())).thenAnswer(inv -> rows.values().stream()
+                .filter(generation -> generation.getStatus() == inv.getArgument(0))
+                .findFirst());
+        when(generationRepository.findByStatusAndRetiredAtBefore(any(), any())).thenAnswer(inv -> rows.values().stream()
+                .filter(generation -> generation.getStatus() == inv.getArgument(0))
+                .filter(generation -> generation.getRetiredAt().isBefore(inv.getArgument(1)))
+                .toList());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any())).thenAnswer(inv ->
+                List.of(inv.<String>getArgument(2)));
+        when(embeddingModels.configuredProvider()).thenReturn("openai");
+        when(embeddingModels.configuredModelName()).thenReturn("text-embedding-3-small");
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new IndexGenerationService(generationRepository, documentRepository, chunkRepository,
+                embeddingModels, new VectorStorageConfig(), jdbcTemplate, transactionTemplate, config,
+                1536, 800, 200, 100);
+        service.afterPropertiesSet();
+    }
+
+    @Test
+    @DisplayName("While a generation is built, writes should go to both generations and chat should read the active one")
+    void buildingGenerationShouldReceiveDualWrites() {
+        when(embeddingModels.configuredModelName()).thenReturn("text-embedding-3-large");
+
+        IndexGeneration building = service.startBuilding(false);
+
+        assertEquals(2, building.getId());
+        assertEquals("chunk_embeddings_g2", building.getTableName());
+        assertEquals(1, building.getChunkGeneration(), "Unchanged chunking should re-embed the existing chunks");
+        assertEquals(1, service.active().getId());
+        assertEquals(List.of(1, 2), service.writeGenerations().stream().map(IndexGeneration::getId).toList());
+        assertEquals(new IndexGenerationService.WriteTarget(1, 2), service.writeTarget());
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS chunk_embeddings_g2 "));
+        assertThrows(IllegalStateException.class, () -> service.startBuilding(false));
+    }
+
+    @Test
+    @DisplayName("A flip should switch reads and writes at once and keep the retired table for the grace period")
+    void flipShouldRetireWithoutDropping() {
+        when(embeddingModels.configuredModelName()).thenReturn("text-embedding-3-large");
+        service.startBuilding(false);
+
+        IndexGeneration retired = service.flip();
+
+        assertEquals(1, retired.getId());
+        assertEquals(IndexGenerationStatus.RETIRED, rows.get(1).getStatus());
+        assertNotNull(rows.get(1).getRetiredAt());
+        assertEquals(IndexGenerationStatus.ACTIVE, rows.get(2).getStatus());
+        assertEquals(2, service.active().getId());
+        assertEquals(Optional.empty(), service.building());
+        assertEquals(List.of(2), service.writeGenerations().stream().map(IndexGeneration::getId).toList());
+
+        service.dropRetiredGenerations();
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+        assertEquals(IndexGenerationStatus.RETIRED, rows.get(1).getStatus());
+    }
+
+    @Test
+    @DisplayName("A retired generation should be dropped once the refresh interval and grace period have passed")
+    void retiredGenerationShouldBeDroppedLater() {
+        service.startBuilding(true);
+        service.flip();
+        rows.get(1).setRetiredAt(LocalDateTime.now()
+                .minus(config.getRefreshInterval())
+                .minus(config.getRetiredGracePeriod())
+                .minusSeconds(1));
+
+        service.dropRetiredGenerations();
+
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS chunk_embeddings");
+        verify(chunkRepository).deleteSuperseded(2, 2);
+        assertEquals(IndexGenerationStatus.DROPPED, rows.get(1).getStatus());
+
+        service.dropRetiredGenerations();
+        verify(jdbcTemplate, times(1)).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    @DisplayName("Abandoning a rechunking build should keep the chunks of documents uploaded during it")
+    void abandonShouldKeepChunksOfUploadsDuringBuild() {
+        service.startBuilding(true);
+        IndexGenerationService.WriteTarget upload = service.writeTarget();
+        assertEquals(new IndexGenerationService.WriteTarget(2, 2), upload);
+
+        service.abandonBuilding();
+
+        InOrder order = inOrder(chunkRepository);
+        order.verify(chunkRepository).moveUnsupersededGeneration(2, 1);
+        order.verify(chunkRepository).deleteByGeneration(2);
+        verify(documentRepository).moveIndexGeneration(2, 1);
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS chunk_embeddings_g2");
+        assertEquals(IndexGenerationStatus.ABANDONED, rows.get(2).getStatus());
+        assertEquals(new IndexGenerationService.WriteTarget(1, 1), service.writeTarget());
+    }
+
+    private IndexGeneration store(IndexGeneration generation) {
+        rows.put(generation.getId(), generation);
+        return generation;
+    }
+}
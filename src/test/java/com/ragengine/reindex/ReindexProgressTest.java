@@ -0,0 +1,82 @@
+package com.ragengine.reindex;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReindexProgress and IndexGeneration signatures.
+ * Verifies progress, throughput and ETA reporting and the rechunk decision inputs.
+ */
+class ReindexProgressTest {
+
+    private final LocalDateTime start = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Test
+    @DisplayName("Should compute throughput and linear ETA for a running job")
+    void shouldComputeEta() {
+        ReindexJob job = job(ReindexJobStatus.RUNNING, 100, 20, 0);
+
+        ReindexProgress progress = ReindexProgress.of(job, start.plusMinutes(10));
+
+        assertEquals(20.0, progress.percentComplete());
+        assertEquals(2.0, progress.documentsPerMinute());
+        assertEquals(40 * 60L, progress.etaSeconds());
+    }
+
+    @Test
+    @DisplayName("Should count failed documents as done but not in throughput")
+    void shouldCountFailures() {
+        ReindexJob job = job(ReindexJobStatus.RUNNING, 10, 4, 1);
+
+        ReindexProgress progress = ReindexProgress.of(job, start.plusMinutes(2));
+
+        assertEquals(50.0, progress.percentComplete());
+        assertEquals(2.0, progress.documentsPerMinute());
+        assertEquals(150L, progress.etaSeconds());
+    }
+
+    @Test
+    @DisplayName("Should report no ETA for paused jobs and zero for completed ones")
+    void shouldReportEtaByStatus() {
+        assertNull(ReindexProgress.of(job(ReindexJobStatus.PAUSED, 10, 5, 0), start.plusMinutes(1)).etaSeconds());
+        assertNull(ReindexProgress.of(job(ReindexJobStatus.RUNNING, 10, 0, 0), start.plusMinutes(1)).etaSeconds());
+        assertEquals(0L, ReindexProgress.of(job(ReindexJobStatus.COMPLETED, 10, 10, 0), start.plusMinutes(1)).etaSeconds());
+    }
+
+    @Test
+    @DisplayName("Should distinguish model changes from chunking changes")
+    void shouldCompareSignatures() {
+        IndexGeneration active = generation("openai", "text-embedding-3-small", 1536, 800);
+
+        assertTrue(active.matches(generation("openai", "text-embedding-3-small", 1536, 800)));
+        assertFalse(active.matches(generation("ollama", "nomic-embed-text", 768, 800)));
+        assertTrue(active.sameChunking(generation("ollama", "nomic-embed-text", 768, 800)));
+        assertFalse(active.sameChunking(generation("openai", "text-embedding-3-small", 1536, 1000)));
+    }
+
+    private ReindexJob job(ReindexJobStatus status, int total, int processed, int failed) {
+        return ReindexJob.builder()
+                .generationId(2)
+                .status(status)
+                .totalDocuments(total)
+                .processedDocuments(processed)
+                .failedDocuments(failed)
+                .startedAt(start)
+                .build();
+    }
+
+    private IndexGeneration generation(String provider, String model, int dimensions, int chunkSize) {
+        return IndexGeneration.builder()
+                .embeddingProvider(provider)
+                .embeddingModel(model)
+                .dimensions(dimensions)
+                .chunkSize(chunkSize)
+                .chunkOverlap(200)
+                .minChunkSize(100)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.ragengine.reindex;
+
+import com.ragengine.compression.ChunkCompressionService;
+import com.ragengine.domain.entity.Document;
+import com.ragengine.domain.entity.DocumentChunk;
+import com.ragengine.domain.entity.DocumentStatus;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.DocumentExtractionService;
+import com.ragengine.service.EmbeddingService;
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.CompactPgVectorStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReindexService — resuming a paused job into the building
+ * generation and flipping it once every document is in.
+ */
+class ReindexServiceTest {
+
+    private final UUID documentId = UUID.randomUUID();
+
+    private ReindexJobRepository jobRepository;
+    private IndexGenerationService generations;
+    private CompactPgVectorStore vectorStore;
+    private DocumentRepository documentRepository;
+    private DocumentChunkRepository chunkRepository;
+    private ReindexService service;
+
+    private IndexGeneration building;
+    private ReindexJob job;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        jobRepository = mock(ReindexJobRepository.class);
+        generations = mock(IndexGenerationService.class);
+        vectorStore = mock(CompactPgVectorStore.class);
+        documentRepository = mock(DocumentRepository.class);
+        chunkRepository = mock(DocumentChunkRepository.class);
+
+        building = IndexGeneration.builder().id(2).tableName("chunk_embeddings_g2")
+                .embeddingProvider("openai").embeddingModel("text-embedding-3-large").dimensions(1536)
+                .chunkSize(800).chunkOverlap(200).minChunkSize(100).chunkGeneration(1)
+                .status(IndexGenerationStatus.BUILDING).build();
+        job = ReindexJob.builder().id(UUID.randomUUID()).generationId(2).status(ReindexJobStatus.PAUSED)
+                .totalDocuments(1).processedDocuments(0).failedDocuments(0).embeddedTokens(0L)
+                .startedAt(LocalDateTime.now().minusMinutes(5)).build();
+        document = Document.builder().id(documentId).status(DocumentStatus.READY)
+                .tenant(Tenant.builder().id(UUID.randomUUID()).build()).build();
+
+        when(generations.building()).thenReturn(Optional.of(building));
+        when(generations.configuredSignature()).thenReturn(IndexGeneration.builder()
+                .embeddingProvider("openai").embeddingModel("text-embedding-3-large").dimensions(1536)
+                .chunkSize(800).chunkOverlap(200).minChunkSize(100).build());
+        when(jobRepository.findFirstByStatusInOrderByStartedAtDesc(any())).thenReturn(Optional.of(job));
+        when(jobRepository.findById(job.getId())).thenReturn(Optional.of(job));
+        when(jobRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(documentRepository.findIdsBelowGeneration(eq(DocumentStatus.READY), eq(2), any(), any()))
+                .thenReturn(List.of(documentId))
+                .thenReturn(List.of());
+        when(documentRepository.findWithTenantById(documentId)).thenReturn(Optional.of(document));
+        when(documentRepository.findById(documentId)).thenReturn(Optional.of(document));
+        when(chunkRepository.findByDocumentIdAndGenerationOrderByChunkIndex(documentId, 1)).thenReturn(List.of(
+                DocumentChunk.builder().id(UUID.randomUUID()).document(document).content("RAG").chunkIndex(0)
+                        .tokenCount(120).generation(1).build()));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(inv -> {
+            inv.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new ReindexService(jobRepository, generations, vectorStore, documentRepository, chunkRepository,
+                mock(DocumentExtractionService.class), mock(EmbeddingService.class),
+                mock(ChunkCompressionService.class), new SecurityContext(), new ReindexConfig(),
+                transactionTemplate, mock(UsageMeter.class), "./uploads");
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("A resumed job should index the remaining documents into the building generation and flip it")
+    void resumedJobShouldFinishAndFlip() throws Exception {
+        ReindexProgress progress = service.resume();
+        assertEquals(ReindexJobStatus.RUNNING, progress.status());
+
+        awaitStatus(ReindexJobStatus.COMPLETED);
+        verify(generations).flip();
+        verify(vectorStore).addToGeneration(eq(building), any());
+        verify(jobRepository).addProgress(job.getId(), 1, 0, 120);
+        assertEquals(2, document.getIndexGeneration());
+        assertNull(job.getLastError());
+    }
+
+    @Test
+    @DisplayName("A job should not be resumed after the embedding configuration changed")
+    void changedConfigurationShouldPreventResume() {
+        when(generations.configuredSignature()).thenReturn(IndexGeneration.builder()
+                .embeddingProvider("ollama").embeddingModel("nomic-embed-text").dimensions(768)
+                .chunkSize(800).chunkOverlap(200).minChunkSize(100).build());
+
+        assertThrows(IllegalStateException.class, () -> service.resume());
+        assertEquals(ReindexJobStatus.PAUSED, job.getStatus());
+        verify(generations, never()).flip();
+    }
+
+    private void awaitStatus(ReindexJobStatus status) throws InterruptedException {
+        for (int i = 0; i < 500 && job.getStatus() != status; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(status, job.getStatus());
+    }
+}
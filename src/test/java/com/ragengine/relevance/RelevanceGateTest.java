@@ -0,0 +1,88 @@
+package com.ragengine.relevance;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RelevanceGate — per-model thresholds, nearest-document hints and
+ * the short-circuit count.
+ */
+class RelevanceGateTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+
+    private QueryEmbeddingSearch querySearch;
+    private SimpleMeterRegistry meterRegistry;
+    private RelevanceGate gate;
+
+    @BeforeEach
+    void setUp() {
+        querySearch = mock(QueryEmbeddingSearch.class);
+        meterRegistry = new SimpleMeterRegistry();
+        gate = new RelevanceGate(new RelevanceGateConfig(), querySearch, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("The threshold should depend on the embedding model the query was embedded with")
+    void thresholdShouldDependOnEmbeddingModel() {
+        List<Document> chunks = List.of(chunk("contract.pdf", 3, 0.5));
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+        assertTrue(gate.check(tenantId, chunks).isEmpty(), "0.5 is a good match for text-embedding-3-small");
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-ada-002");
+        assertTrue(gate.check(tenantId, chunks).isPresent(), "0.5 is noise for text-embedding-ada-002");
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("unknown-model");
+        assertTrue(gate.check(tenantId, chunks).isEmpty(), "Unknown models only gate empty retrievals");
+    }
+
+    @Test
+    @DisplayName("A low-relevance answer should name the nearest documents, best first and once each")
+    void answerShouldHintNearestDocuments() {
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+
+        Optional<String> answer = gate.check(tenantId, List.of(
+                chunk("handbook.pdf", -1, 0.12),
+                chunk("contract.pdf", 3, 0.18),
+                chunk("contract.pdf", 7, 0.15),
+                chunk("policy.docx", 2, 0.10),
+                chunk("faq.txt", -1, 0.05)));
+
+        assertEquals(RelevanceGate.NOTHING_RELEVANT.formatted(
+                "\"contract.pdf\" (page 3), \"handbook.pdf\", \"policy.docx\" (page 2)"), answer.orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Passed and short-circuited requests should be counted")
+    void outcomesShouldBeCounted() {
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+
+        assertEquals(Optional.of(RelevanceGate.NOTHING_FOUND), gate.check(tenantId, List.of()));
+        gate.check(tenantId, List.of(chunk("contract.pdf", 3, 0.6)));
+
+        assertEquals(1, meterRegistry.get("rag.chat.relevance.gate").tag("result", "short-circuited")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("rag.chat.relevance.gate").tag("result", "passed").counter().count());
+    }
+
+    private static Document chunk(String documentName, int pageNumber, double score) {
+        return Document.builder()
+                .text("Chunk of " + documentName)
+                .metadata(Map.of("documentName", documentName, "pageNumber", pageNumber))
+                .score(score)
+                .build();
+    }
+}
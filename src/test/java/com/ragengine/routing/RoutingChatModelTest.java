@@ -0,0 +1,224 @@
+package com.ragengine.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RoutingChatModel, using local stub models with fixed latencies.
+ */
+class RoutingChatModelTest {
+
+    private final Prompt prompt = new Prompt("What is RAG?");
+
+    private RoutingConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private RoutingChatModel router;
+
+    @BeforeEach
+    void setUp() {
+        config = new RoutingConfig();
+        config.setExploreRatio(0);
+        config.setHedge(false);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Calls should settle on the faster backend")
+    void shouldPreferFasterBackend() {
+        StubModel slow = new StubModel("slow", 80);
+        StubModel fast = new StubModel("fast", 5);
+        router = router(slow, fast);
+
+        for (int i = 0; i < 10; i++) {
+            router.call(prompt);
+        }
+
+        assertEquals(1, slow.calls.get(), "The slow backend is only tried once");
+        assertEquals(9, fast.calls.get());
+    }
+
+    @Test
+    @DisplayName("A failing backend should fail over to the next one and then be avoided")
+    void shouldFailOverAndAvoidErrors() {
+        StubModel broken = new StubModel("broken", 0);
+        broken.failing = true;
+        StubModel healthy = new StubModel("healthy", 20);
+        router = router(broken, healthy);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("healthy", text(router.call(prompt)));
+        }
+
+        assertEquals(1, broken.calls.get());
+        assertEquals(1, meterRegistry.get("rag.chat.routing.requests")
+                .tag("backend", "broken").tag("outcome", "error").counter().count());
+
+        healthy.failing = true;
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.call(prompt));
+        assertTrue(e.getMessage().endsWith("is down"), "The provider's own error is surfaced");
+    }
+
+    @Test
+    @DisplayName("A slow call should be hedged to the runner-up and the loser cancelled")
+    void shouldHedgeSlowCalls() throws InterruptedException {
+        config.setHedge(true);
+        config.setMinHedgeDelay(Duration.ofMillis(50));
+        StubModel stuck = new StubModel("stuck", 10_000);
+        StubModel quick = new StubModel("quick", 10);
+        router = router(stuck, quick);
+
+        long started = System.nanoTime();
+        ChatResponse response = router.call(prompt);
+
+        assertEquals("quick", text(response));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 2_000);
+        assertTrue(stuck.interrupted.await(5, TimeUnit.SECONDS), "The losing call should be interrupted");
+        assertEquals(1, meterRegistry.get("rag.chat.routing.hedged").counter().count());
+    }
+
+    @Test
+    @DisplayName("Streams should be hedged on time to first token")
+    void shouldHedgeStreams() {
+        config.setHedge(true);
+        config.setMinHedgeDelay(Duration.ofMillis(50));
+        StubModel stuck = new StubModel("stuck", 10_000);
+        StubModel quick = new StubModel("quick", 10);
+        router = router(stuck, quick);
+
+        String answer = router.stream(prompt)
+                .map(RoutingChatModelTest::text)
+                .collect(Collectors.joining())
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("quick quick", answer);
+    }
+
+    @Test
+    @DisplayName("Each backend should get its own model, not another provider's")
+    void backendsShouldGetTheirOwnModels() {
+        StubModel openAi = new StubModel("openai", 0, "gpt-4o-mini");
+        openAi.failing = true;
+        StubModel ollama = new StubModel("ollama", 0, "llama3.2:3b");
+        router = new RoutingChatModel(List.of(
+                new RoutingChatModel.Backend("openai", openAi, Map.of("gpt-4o", "gpt-4o")),
+                new RoutingChatModel.Backend("ollama", ollama, Map.of("gpt-4o", "llama3.1:8b"))),
+                config, meterRegistry);
+        ChatClient client = ChatClient.builder(router).build();
+
+        // The chat client copies the router's default options into the prompt
+        assertEquals("ollama", client.prompt("What is RAG?").call().content());
+        assertEquals(List.of("gpt-4o-mini-default", "llama3.2:3b-default"),
+                List.of(openAi.models.getFirst(), ollama.models.getFirst()));
+
+        // A tier model is mapped per backend; an unmapped one is dropped
+        client.prompt("What is RAG?").options(ChatOptions.builder().model("gpt-4o").build()).call().content();
+        assertEquals("llama3.1:8b", ollama.models.getLast());
+        client.prompt("What is RAG?").options(ChatOptions.builder().model("o1").build()).call().content();
+        assertEquals("llama3.2:3b-default", ollama.models.getLast());
+
+        assertEquals(List.of("gpt-4o", "llama3.1:8b"), router.modelsFor("gpt-4o"));
+    }
+
+    private RoutingChatModel router(StubModel... models) {
+        return new RoutingChatModel(List.of(models).stream()
+                .map(model -> new RoutingChatModel.Backend(model.name, model))
+                .toList(), config, meterRegistry);
+    }
+
+    private static String text(ChatResponse response) {
+        return response.getResult().getOutput().getText();
+    }
+
+    /**
+     * Answers with its own name after a fixed delay. Records the model each request
+     * asks for, {@code <default>-default} when it names none.
+     */
+    private static final class StubModel implements ChatModel {
+
+        final String name;
+        final long latencyMillis;
+        final String defaultModel;
+        final AtomicInteger calls = new AtomicInteger();
+        final List<String> models = new CopyOnWriteArrayList<>();
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        volatile boolean failing;
+
+        StubModel(String name, long latencyMillis) {
+            this(name, latencyMillis, name);
+        }
+
+        StubModel(String name, long latencyMillis, String defaultModel) {
+            this.name = name;
+            this.latencyMillis = latencyMillis;
+            this.defaultModel = defaultModel;
+        }
+
+        @Override
+        public ChatOptions getDefaultOptions() {
+            return ChatOptions.builder().model(defaultModel).build();
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            calls.incrementAndGet();
+            models.add(requestedModel(prompt));
+            if (failing) {
+                throw new IllegalStateException(name + " is down");
+            }
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IllegalStateException("Interrupted", e);
+            }
+            return response(name);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            calls.incrementAndGet();
+            models.add(requestedModel(prompt));
+            return Flux.just(response(name), response(" " + name))
+                    .delaySubscription(Duration.ofMillis(latencyMillis));
+        }
+
+        private String requestedModel(Prompt prompt) {
+            return prompt.getOptions() != null && prompt.getOptions().getModel() != null
+                    ? prompt.getOptions().getModel()
+                    : defaultModel + "-default";
+        }
+
+        private static ChatResponse response(String text) {
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.ragengine.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ragengine.audit.AuditService;
+import com.ragengine.cache.AnswerCache;
+import com.ragengine.domain.dto.BatchChatRequest;
+import com.ragengine.domain.dto.BatchChatResult;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.domain.entity.User;
+import com.ragengine.ratelimit.RateLimitService;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.service.RagChatService.PreparedChat;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchChatService — the shared embedding call, bounded generation
+ * and per-question results.
+ */
+class BatchChatServiceTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final List<UUID> documentIds = List.of(UUID.randomUUID());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RagChatService ragChatService;
+    private QueryEmbeddingSearch querySearch;
+    private RateLimitService rateLimitService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ragChatService = mock(RagChatService.class);
+        querySearch = mock(QueryEmbeddingSearch.class);
+        rateLimitService = mock(RateLimitService.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(rateLimitService.tryConsumeChatRequest(tenantId)).thenReturn(true);
+        when(querySearch.embedQueries(eq(tenantId), anyList())).thenAnswer(inv ->
+                inv.<List<String>>getArgument(1).stream().map(q -> new float[]{q.length()}).toList());
+        when(ragChatService.searchRequest(anyString(), eq(tenantId), eq(documentIds))).thenAnswer(inv ->
+                SearchRequest.builder().query(inv.getArgument(0)).build());
+        when(querySearch.similaritySearch(any(), any())).thenReturn(List.of(
+                Document.builder().text("chunk").build()));
+        when(ragChatService.prepareStandalone(eq(tenantId), anyString(), anyList(), isNull())).thenAnswer(inv ->
+                new PreparedChat(null, false, inv.getArgument(1), List.of(), List.of(), 42,
+                        tenantId, UUID.randomUUID(), "user@acme.test", null, null, null));
+        when(ragChatService.generate(any())).thenAnswer(inv -> "Answer to " + inv.<PreparedChat>getArgument(0).question());
+
+        Tenant tenant = Tenant.builder().id(tenantId).name("Acme").slug("acme").build();
+        User user = User.builder().id(UUID.randomUUID()).tenant(tenant).email("user@acme.test").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("All questions should be embedded in one call and answered on their own NDJSON line")
+    void questionsShouldShareOneEmbeddingCall() throws IOException {
+        List<BatchChatResult> results = run(service(8), List.of("What is RAG?", "Who wrote it?", "When?"));
+
+        assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            BatchChatResult result = results.get(i);
+            assertEquals(i, result.index());
+            assertEquals(BatchChatResult.Status.OK, result.status());
+            assertEquals(42, result.promptTokens());
+        }
+        assertEquals("Answer to Who wrote it?", results.get(1).answer());
+        verify(ragChatService).validateDocuments(documentIds);
+        verify(querySearch).embedQueries(tenantId, List.of("What is RAG?", "Who wrote it?", "When?"));
+        verify(querySearch, times(3)).similaritySearch(any(), any());
+    }
+
+    @Test
+    @DisplayName("Model calls should not exceed the batch concurrency")
+    void generationShouldBeBounded() throws IOException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(inv -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return "Answer";
+        }).when(ragChatService).generate(any());
+        List<String> questions = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            questions.add("Question " + i);
+        }
+
+        List<BatchChatResult> results = run(service(2), questions);
+
+        assertEquals(12, results.size());
+        assertTrue(maxRunning.get() <= 2, "At most 2 model calls at once, saw " + maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("A failed or rate-limited question should be reported without failing the batch")
+    void failuresShouldBeReportedPerQuestion() throws IOException {
+        doThrow(new RuntimeException("Connection reset"))
+                .when(ragChatService).generate(argThat(prepared -> prepared.question().equals("Broken?")));
+        when(ragChatService.toGenerationFailure(any())).thenReturn(
+                new IllegalStateException("Failed to generate AI response. Please try again later."));
+
+        List<BatchChatResult> results = run(service(1), List.of("What is RAG?", "Broken?"));
+
+        assertEquals(BatchChatResult.Status.OK, results.get(0).status());
+        assertEquals(BatchChatResult.Status.FAILED, results.get(1).status());
+        assertEquals("Failed to generate AI response. Please try again later.", results.get(1).error());
+        assertEquals(1, meterRegistry.get("rag.chat.batch.results").tag("status", "failed").counter().count());
+
+        when(rateLimitService.tryConsumeChatRequest(tenantId)).thenReturn(false);
+        results = run(service(1), List.of("What is RAG?", "Who wrote it?"));
+
+        assertTrue(results.stream().allMatch(r -> r.status() == BatchChatResult.Status.RATE_LIMITED));
+        verify(ragChatService, times(2)).generate(any());
+    }
+
+    @Test
+    @DisplayName("A batch over the question limit should be rejected before any work")
+    void oversizedBatchShouldBeRejected() {
+        BatchChatService service = new BatchChatService(ragChatService, querySearch, mock(AnswerCache.class),
+                rateLimitService, mock(AuditService.class), new SecurityContext(), objectMapper, meterRegistry,
+                2, 8, 4);
+
+        assertThrows(IllegalArgumentException.class, () -> service.answer(
+                new BatchChatRequest(List.of("One?", "Two?", "Three?"), documentIds)));
+        verifyNoInteractions(querySearch);
+        verify(ragChatService, never()).validateDocuments(any());
+    }
+
+    private BatchChatService service(int concurrency) {
+        return new BatchChatService(ragChatService, querySearch, mock(AnswerCache.class), rateLimitService,
+                mock(AuditService.class), new SecurityContext(), objectMapper, meterRegistry,
+                500, concurrency, 4);
+    }
+
+    /**
+     * Runs a batch to completion and returns its results by question index.
+     */
+    private List<BatchChatResult> run(BatchChatService service, List<String> questions) throws IOException {
+        StreamingResponseBody body = service.answer(new BatchChatRequest(questions, documentIds));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+
+        List<BatchChatResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BatchChatResult.class));
+        }
+        results.sort(Comparator.comparingInt(BatchChatResult::index));
+        return results;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ragengine.service;
+
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.ChatResponse;
+import com.ragengine.service.RagChatService.PreparedChat;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ChatStreamingService.
+ * The model stream is a fixed Flux; persistence is verified on the mocked RagChatService.
+ */
+class ChatStreamingServiceTest {
+
+    private RagChatService ragChatService;
+    private SimpleMeterRegistry meterRegistry;
+    private ChatStreamingService streamingService;
+    private PreparedChat prepared;
+    private ChatRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ragChatService = mock(RagChatService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        streamingService = new ChatStreamingService(ragChatService, meterRegistry, Duration.ofMinutes(1));
+
+        UUID conversationId = UUID.randomUUID();
+        prepared = new PreparedChat(conversationId, true, "What is RAG?", List.of(), List.of(), 120,
+                UUID.randomUUID(), UUID.randomUUID(), "user@example.com", null, null, null);
+        request = new ChatRequest("What is RAG?", List.of(UUID.randomUUID()), null);
+        when(ragChatService.prepare(request)).thenReturn(prepared);
+        when(ragChatService.complete(eq(prepared), any())).thenAnswer(inv -> ChatResponse.builder()
+                .conversationId(conversationId)
+                .answer(inv.getArgument(1))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    @DisplayName("Completed stream should persist the concatenated answer and record metrics")
+    void completedStreamShouldPersistAnswer() {
+        when(ragChatService.streamAnswer(prepared)).thenReturn(Flux.just(fragment("Retrieval-"),
+                fragment("augmented "), fragment("generation.")));
+
+        streamingService.stream(request);
+
+        verify(ragChatService, timeout(2000)).complete(prepared, "Retrieval-augmented generation.");
+        assertEquals(1, meterRegistry.get("rag.chat.stream.ttft").timer().count());
+        assertEquals(0, meterRegistry.get("rag.chat.stream.cancelled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Failed generation should abandon the turn without persisting it")
+    void failedStreamShouldNotPersist() {
+        when(ragChatService.streamAnswer(prepared)).thenReturn(Flux.concat(
+                Flux.just(fragment("Partial")),
+                Flux.error(new IllegalStateException("Failed to generate AI response. Please try again later."))));
+
+        streamingService.stream(request);
+
+        verify(ragChatService, timeout(2000)).abandon(prepared);
+        verify(ragChatService, never()).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("Preparation errors should propagate before the stream starts")
+    void preparationErrorsShouldPropagate() {
+        when(ragChatService.prepare(request)).thenThrow(new IllegalStateException("Documents not ready"));
+
+        assertThrows(IllegalStateException.class, () -> streamingService.stream(request));
+        verify(ragChatService, never()).streamAnswer(any());
+    }
+
+    private static org.springframework.ai.chat.model.ChatResponse fragment(String text) {
+        return new org.springframework.ai.chat.model.ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
@@ -0,0 +1,356 @@
+package com.ragengine.service;
+
+import com.ragengine.audit.AuditService;
+import com.ragengine.cache.AnswerCache;
+import com.ragengine.cache.ConversationWorkingSet;
+import com.ragengine.cache.InFlightGenerations;
+import com.ragengine.cache.WorkingSetConfig;
+import com.ragengine.domain.dto.ChatRequest;
+import com.ragengine.domain.dto.ConversationSummary;
+import com.ragengine.domain.dto.CursorPage;
+import com.ragengine.domain.entity.Conversation;
+import com.ragengine.domain.entity.Document;
+import com.ragengine.domain.entity.DocumentStatus;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.domain.entity.User;
+import com.ragengine.exception.DocumentNotFoundException;
+import com.ragengine.persistence.ChatPersistenceConfig;
+import com.ragengine.persistence.ChatTurnWriter;
+import com.ragengine.persistence.ChatWriteBehind;
+import com.ragengine.prompt.ContextCompressionConfig;
+import com.ragengine.prompt.ContextCompressor;
+import com.ragengine.prompt.ContextConsolidator;
+import com.ragengine.prompt.PromptAssembler;
+import com.ragengine.prompt.PromptBudgetConfig;
+import com.ragengine.prompt.PromptCacheMetrics;
+import com.ragengine.ratelimit.RateLimitService;
+import com.ragengine.relevance.RelevanceGate;
+import com.ragengine.relevance.RelevanceGateConfig;
+import com.ragengine.repository.ChatMessageRepository;
+import com.ragengine.repository.ConversationRepository;
+import com.ragengine.repository.DocumentRepository;
+import com.ragengine.security.SecurityContext;
+import com.ragengine.summary.ConversationSummarizer;
+import com.ragengine.tiering.ModelTier;
+import com.ragengine.tiering.ModelTierSelector;
+import com.ragengine.tiering.ModelTieringConfig;
+import com.ragengine.tiering.TierPolicy;
+import com.ragengine.usage.UsageMeter;
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RagChatService — concurrent pre-generation steps,
+ * fail-fast on validation errors, security context propagation, history loading
+ * and conversation listing.
+ */
+class RagChatServiceTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID documentId = UUID.randomUUID();
+
+    private VectorStore vectorStore;
+    private ConversationRepository conversationRepository;
+    private ChatMessageRepository chatMessageRepository;
+    private DocumentRepository documentRepository;
+    private AnswerCache answerCache;
+    private RelevanceGateConfig relevanceGateConfig;
+    private ModelTieringConfig tieringConfig;
+    private RagChatService service;
+
+    @BeforeEach
+    void setUp() {
+        vectorStore = mock(VectorStore.class);
+        conversationRepository = mock(ConversationRepository.class);
+        documentRepository = mock(DocumentRepository.class);
+        answerCache = mock(AnswerCache.class);
+        chatMessageRepository = mock(ChatMessageRepository.class);
+        RateLimitService rateLimitService = mock(RateLimitService.class);
+        when(rateLimitService.tryConsumeChatRequest(any())).thenReturn(true);
+        when(conversationRepository.save(any())).thenAnswer(inv -> {
+            Conversation conversation = inv.getArgument(0);
+            conversation.setId(UUID.randomUUID());
+            return conversation;
+        });
+
+        // Retrieval goes to the vector store on every turn
+        WorkingSetConfig workingSetConfig = new WorkingSetConfig();
+        workingSetConfig.setEnabled(false);
+        // Retrieval finds nothing in most tests, which should still reach the model
+        relevanceGateConfig = new RelevanceGateConfig();
+        relevanceGateConfig.setEnabled(false);
+        tieringConfig = new ModelTieringConfig();
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        service = new RagChatService(vectorStore, mock(ChatClient.Builder.class), conversationRepository,
+                chatMessageRepository, documentRepository, new SecurityContext(), rateLimitService,
+                mock(AuditService.class), transactionTemplate,
+                new PromptAssembler(new PromptBudgetConfig(), mock(ChatModel.class), new SimpleMeterRegistry()),
+                mock(ConversationSummarizer.class), answerCache,
+                mock(InFlightGenerations.class), mock(PromptCacheMetrics.class),
+                new ModelTierSelector(tieringConfig, mock(QueryEmbeddingSearch.class),
+                        new SimpleMeterRegistry()),
+                new ContextConsolidator(true, new SimpleMeterRegistry()),
+                new ContextCompressor(new ContextCompressionConfig(), mock(EmbeddingModel.class),
+                        mock(QueryEmbeddingSearch.class), mock(UsageMeter.class), new SimpleMeterRegistry()),
+                new ChatWriteBehind(new ChatPersistenceConfig(), mock(ChatTurnWriter.class),
+                        new SimpleMeterRegistry()),
+                mock(QueryEmbeddingSearch.class),
+                new ConversationWorkingSet(workingSetConfig, mock(QueryEmbeddingSearch.class), new SimpleMeterRegistry()),
+                new RelevanceGate(relevanceGateConfig, mock(QueryEmbeddingSearch.class), new SimpleMeterRegistry()),
+                mock(UsageMeter.class));
+
+        Tenant tenant = Tenant.builder().id(tenantId).name("Acme").slug("acme").build();
+        User user = User.builder().id(UUID.randomUUID()).tenant(tenant).email("user@acme.test").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Validation, retrieval and history should run concurrently with the caller's tenant")
+    void stepsShouldRunConcurrently() {
+        UUID conversationId = UUID.randomUUID();
+        // Each step waits until all three are running at once
+        CyclicBarrier barrier = new CyclicBarrier(3);
+
+        when(documentRepository.findByIdInAndTenantId(List.of(documentId), tenantId)).thenAnswer(inv -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return List.of(Document.builder().id(documentId).status(DocumentStatus.READY).build());
+        });
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(conversationRepository.findByIdAndTenantId(conversationId, tenantId)).thenAnswer(inv -> {
+            barrier.await(5, TimeUnit.SECONDS);
+            return Optional.of(Conversation.builder().id(conversationId).build());
+        });
+
+        RagChatService.PreparedChat prepared = service.prepare(
+                new ChatRequest("What changed?", List.of(documentId), conversationId));
+
+        assertEquals(conversationId, prepared.conversationId());
+        assertFalse(prepared.newConversation());
+        assertEquals(tenantId, prepared.tenantId());
+        assertEquals(1, prepared.messages().size(), "History is empty, so only the question is sent");
+    }
+
+    @Test
+    @DisplayName("A validation error should cancel retrieval and create no conversation")
+    void validationErrorShouldFailFast() throws InterruptedException {
+        CountDownLatch retrievalStarted = new CountDownLatch(1);
+        CountDownLatch retrievalCancelled = new CountDownLatch(1);
+        when(documentRepository.findByIdInAndTenantId(any(), any())).thenAnswer(inv -> {
+            retrievalStarted.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenAnswer(inv -> {
+            retrievalStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                retrievalCancelled.countDown();
+            }
+            return List.of();
+        });
+
+        long started = System.nanoTime();
+        assertThrows(DocumentNotFoundException.class,
+                () -> service.prepare(new ChatRequest("What changed?", List.of(documentId), null)));
+
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started) < 10,
+                "Should not wait for the slow retrieval");
+        assertTrue(retrievalCancelled.await(5, TimeUnit.SECONDS), "Retrieval should be interrupted");
+        verify(conversationRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("A cached answer to a first question should skip retrieval")
+    void cachedAnswerShouldSkipRetrieval() {
+        List<Document> documents = List.of(Document.builder().id(documentId).status(DocumentStatus.READY).build());
+        AnswerCache.Key key = new AnswerCache.Key("k", Set.of(documentId));
+        when(documentRepository.findByIdInAndTenantId(List.of(documentId), tenantId)).thenReturn(documents);
+        when(answerCache.isEnabled()).thenReturn(true);
+        when(answerCache.key(eq(tenantId), eq("What changed?"), eq(documents), any(), any())).thenReturn(key);
+        when(answerCache.get(key)).thenReturn(Optional.of(
+                new AnswerCache.Entry("Nothing.", List.of(), Set.of(documentId))));
+
+        RagChatService.PreparedChat prepared = service.prepare(
+                new ChatRequest("What changed?", List.of(documentId), null));
+
+        assertEquals("Nothing.", prepared.cachedAnswer());
+        assertTrue(prepared.newConversation());
+        verifyNoInteractions(vectorStore);
+    }
+
+    @Test
+    @DisplayName("An answer from a tier model other than the default should be neither cached nor coalesced")
+    void tierModelAnswerShouldNotBeCached() {
+        tieringConfig.setEnabled(true);
+        tieringConfig.setDefaultPolicy(TierPolicy.SMALL);
+        tieringConfig.setSmallModel("gpt-4.1-nano");
+        List<Document> documents = List.of(Document.builder().id(documentId).status(DocumentStatus.READY).build());
+        AnswerCache.Key key = new AnswerCache.Key("k", Set.of(documentId));
+        when(documentRepository.findByIdInAndTenantId(List.of(documentId), tenantId)).thenReturn(documents);
+        when(answerCache.isEnabled()).thenReturn(true);
+        when(answerCache.key(eq(tenantId), eq("What changed?"), eq(documents), any(), any())).thenReturn(key);
+        when(answerCache.get(key)).thenReturn(Optional.empty());
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+
+        RagChatService.PreparedChat prepared = service.prepare(
+                new ChatRequest("What changed?", List.of(documentId), null));
+
+        assertEquals(ModelTier.SMALL, prepared.tier());
+        assertNull(prepared.cacheKey());
+    }
+
+    @Test
+    @DisplayName("A first question with nothing relevant retrieved should get a templated answer")
+    void irrelevantFirstQuestionShouldSkipModel() {
+        relevanceGateConfig.setEnabled(true);
+        when(documentRepository.findByIdInAndTenantId(List.of(documentId), tenantId))
+                .thenReturn(List.of(Document.builder().id(documentId).status(DocumentStatus.READY).build()));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+
+        RagChatService.PreparedChat prepared = service.prepare(
+                new ChatRequest("What is the weather?", List.of(documentId), null));
+
+        assertNotNull(prepared.cachedAnswer(), "Answered by the relevance gate");
+        assertTrue(prepared.messages().isEmpty());
+        assertEquals(0, prepared.promptTokens());
+        assertNull(prepared.cacheKey());
+        assertTrue(prepared.newConversation());
+    }
+
+    @Test
+    @DisplayName("History should load only the newest unsummarized messages, oldest first")
+    void historyShouldLoadOnlyNewestMessages() {
+        ReflectionTestUtils.setField(service, "maxHistorySize", 10);
+        UUID conversationId = UUID.randomUUID();
+        when(documentRepository.findByIdInAndTenantId(List.of(documentId), tenantId))
+                .thenReturn(List.of(Document.builder().id(documentId).status(DocumentStatus.READY).build()));
+        when(vectorStore.similaritySearch(any(SearchRequest.class))).thenReturn(List.of());
+        when(conversationRepository.findByIdAndTenantId(conversationId, tenantId)).thenReturn(
+                Optional.of(Conversation.builder().id(conversationId).summarizedMessages(492).build()));
+        when(chatMessageRepository.countByConversationId(conversationId)).thenReturn(500L);
+        when(chatMessageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, Limit.of(8)))
+                .thenReturn(List.of(history("assistant", "A2"), history("user", "Q2"),
+                        history("assistant", "A1"), history("user", "Q1"),
+                        history("assistant", "A0"), history("user", "Q0"),
+                        history("assistant", "Z"), history("user", "Y")));
+
+        RagChatService.PreparedChat prepared = service.prepare(
+                new ChatRequest("What changed?", List.of(documentId), conversationId));
+
+        assertEquals(9, prepared.messages().size());
+        assertEquals("Y", prepared.messages().getFirst().getText());
+        assertEquals("A2", prepared.messages().get(7).getText());
+        verify(chatMessageRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Conversations should be listed one keyset page at a time")
+    void conversationsShouldBeListedByKeyset() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ConversationRepository.SummaryView> rows = List.of(
+                summary(UUID.randomUUID(), now), summary(UUID.randomUUID(), now.minusMinutes(1)),
+                summary(UUID.randomUUID(), now.minusMinutes(2)));
+        when(conversationRepository.findSummaries(tenantId, 3)).thenReturn(rows);
+
+        CursorPage<ConversationSummary> first = service.listConversations(null, 2);
+
+        assertEquals(2, first.items().size());
+        assertEquals(4, first.items().getFirst().messageCount());
+        assertNotNull(first.nextCursor(), "A third row means there is another page");
+
+        ConversationRepository.SummaryView last = rows.get(1);
+        when(conversationRepository.findSummariesAfter(tenantId, last.getUpdatedAt(), last.getId(), 3))
+                .thenReturn(List.of(rows.get(2)));
+        CursorPage<ConversationSummary> second = service.listConversations(first.nextCursor(), 2);
+
+        assertEquals(List.of(rows.get(2).getId()), second.items().stream().map(ConversationSummary::id).toList());
+        assertNull(second.nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> service.listConversations("not-a-cursor", 2));
+        assertThrows(IllegalArgumentException.class, () -> service.listConversations(null, 0));
+    }
+
+    private static ConversationRepository.SummaryView summary(UUID id, LocalDateTime updatedAt) {
+        return new ConversationRepository.SummaryView() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTitle() {
+                return "Conversation";
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return updatedAt;
+            }
+
+            @Override
+            public long getMessageCount() {
+                return 4;
+            }
+
+            @Override
+            public String getLastMessage() {
+                return "Last answer";
+            }
+        };
+    }
+
+    private static ChatMessageRepository.HistoryMessage history(String role, String content) {
+        return new ChatMessageRepository.HistoryMessage() {
+            @Override
+            public String getRole() {
+                return role;
+            }
+
+            @Override
+            public String getContent() {
+                return content;
+            }
+        };
+    }
+}
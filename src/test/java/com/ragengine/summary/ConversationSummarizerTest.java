@@ -0,0 +1,134 @@
+package com.ragengine.summary;
+
+import com.ragengine.domain.entity.Conversation;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.prompt.PromptAssembler;
+import com.ragengine.prompt.TokenCounter;
+import com.ragengine.repository.ChatMessageRepository;
+import com.ragengine.repository.ChatMessageRepository.HistoryMessage;
+import com.ragengine.repository.ConversationRepository;
+import com.ragengine.usage.UsageMeter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ConversationSummarizer — when and which turns are folded, and which
+ * messages the check reads.
+ */
+class ConversationSummarizerTest {
+
+    private final TokenCounter counter = TokenCounter.forModel("gpt-4o-mini");
+
+    @Test
+    @DisplayName("Short histories should not be summarized")
+    void shortHistoryShouldNotFold() {
+        ConversationSummarizer.Snapshot snapshot = new ConversationSummarizer.Snapshot(null, null, 0, messages(6, 20));
+
+        assertNull(ConversationSummarizer.planFold(snapshot, counter, 1500, 4));
+    }
+
+    @Test
+    @DisplayName("Long histories should fold everything except the most recent messages")
+    void longHistoryShouldFoldAllButRecent() {
+        ConversationSummarizer.Snapshot snapshot =
+                new ConversationSummarizer.Snapshot(null, null, 0, messages(12, 200));
+
+        ConversationSummarizer.Fold fold = ConversationSummarizer.planFold(snapshot, counter, 1500, 4);
+
+        assertNotNull(fold);
+        assertEquals(0, fold.from());
+        assertEquals(8, fold.to());
+    }
+
+    @Test
+    @DisplayName("Only messages after the existing summary should count towards the threshold")
+    void alreadySummarizedMessagesShouldNotCount() {
+        List<HistoryMessage> messages = messages(20, 200);
+
+        assertNull(ConversationSummarizer.planFold(new ConversationSummarizer.Snapshot(
+                null, "Earlier summary", 14, messages.subList(14, 20)), counter, 1500, 4));
+
+        ConversationSummarizer.Fold fold = ConversationSummarizer.planFold(new ConversationSummarizer.Snapshot(
+                null, "Earlier summary", 8, messages.subList(8, 20)), counter, 1500, 4);
+        assertNotNull(fold);
+        assertEquals(8, fold.from());
+        assertEquals(16, fold.to());
+    }
+
+    @Test
+    @DisplayName("Nothing should be folded when only the kept recent messages exceed the threshold")
+    void recentMessagesShouldNeverFold() {
+        ConversationSummarizer.Snapshot snapshot =
+                new ConversationSummarizer.Snapshot(null, null, 0, messages(4, 1000));
+
+        assertNull(ConversationSummarizer.planFold(snapshot, counter, 1500, 4));
+    }
+
+    @Test
+    @DisplayName("The check should read only unsummarized messages, and none while they are all kept verbatim")
+    void checkShouldReadOnlyUnsummarizedMessages() {
+        UUID conversationId = UUID.randomUUID();
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        ChatMessageRepository messageRepository = mock(ChatMessageRepository.class);
+        ChatClient.Builder chatClientBuilder = mock(ChatClient.Builder.class);
+        PromptAssembler promptAssembler = mock(PromptAssembler.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(promptAssembler.defaultModel()).thenReturn("gpt-4o-mini");
+        when(conversationRepository.findById(conversationId)).thenReturn(Optional.of(Conversation.builder()
+                .id(conversationId).tenant(Tenant.builder().id(UUID.randomUUID()).build())
+                .summary("Earlier summary").summarizedMessages(8).build()));
+        when(messageRepository.findByConversationIdOrderByCreatedAtDesc(conversationId, Limit.of(12)))
+                .thenReturn(messages(12, 20));
+        ConversationSummarizer summarizer = new ConversationSummarizer(conversationRepository, messageRepository,
+                chatClientBuilder, promptAssembler, transactionTemplate, new ConversationSummaryConfig(),
+                mock(UsageMeter.class), new SimpleMeterRegistry());
+
+        try {
+            when(messageRepository.countByConversationId(conversationId)).thenReturn(12L);
+            summarizer.summarize(conversationId);
+            verify(messageRepository, never()).findByConversationIdOrderByCreatedAtDesc(any(), any());
+
+            when(messageRepository.countByConversationId(conversationId)).thenReturn(20L);
+            summarizer.summarize(conversationId);
+            verify(messageRepository).findByConversationIdOrderByCreatedAtDesc(conversationId, Limit.of(12));
+            verify(conversationRepository, never()).updateSummary(any(), any(), any(), any());
+            verifyNoInteractions(chatClientBuilder);
+        } finally {
+            summarizer.shutdown();
+        }
+    }
+
+    private List<HistoryMessage> messages(int count, int words) {
+        List<HistoryMessage> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String role = i % 2 == 0 ? "user" : "assistant";
+            messages.add(new HistoryMessage() {
+                @Override
+                public String getRole() {
+                    return role;
+                }
+
+                @Override
+                public String getContent() {
+                    return "word ".repeat(words);
+                }
+            });
+        }
+        return messages;
+    }
+}
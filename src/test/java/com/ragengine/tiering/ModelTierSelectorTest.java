@@ -0,0 +1,98 @@
+package com.ragengine.tiering;
+
+import com.ragengine.vectorstore.QueryEmbeddingSearch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ModelTierSelector — the classifier heuristics, the per-model score
+ * threshold and tenant policies.
+ */
+class ModelTierSelectorTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+
+    private ModelTieringConfig config;
+    private QueryEmbeddingSearch querySearch;
+    private SimpleMeterRegistry meterRegistry;
+    private ModelTierSelector selector;
+
+    @BeforeEach
+    void setUp() {
+        config = new ModelTieringConfig();
+        config.setEnabled(true);
+        config.setSmallModel("gpt-4.1-nano");
+        querySearch = mock(QueryEmbeddingSearch.class);
+        meterRegistry = new SimpleMeterRegistry();
+        selector = new ModelTierSelector(config, querySearch, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("A short lookup with one clear match should use the small model")
+    void shortLookupWithClearMatchShouldBeSmall() {
+        ModelTier tier = selector.select(tenantId, "What is the notice period?", chunks(0.91, 0.78, 0.74));
+
+        assertEquals(ModelTier.SMALL, tier);
+        assertEquals("gpt-4.1-nano", selector.model(tier));
+        assertEquals(1, meterRegistry.get("rag.chat.tier").tag("tier", "small").counter().count());
+    }
+
+    @Test
+    @DisplayName("Reasoning cues, long questions and weak or spread matches should use the large model")
+    void hardQuestionsShouldBeLarge() {
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "Why was the notice period changed?", chunks(0.91)));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "What does the agreement say about the notice period that applies when the contractor "
+                        + "terminates early during the first year of the engagement?", chunks(0.91)));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "What is the notice period?", chunks(0.62, 0.60)));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "What is the notice period?", chunks(0.88, 0.87, 0.86, 0.85)));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId, "What is the notice period?", List.of()));
+        assertNull(selector.model(ModelTier.LARGE), "An empty model name keeps the provider default");
+    }
+
+    @Test
+    @DisplayName("The score threshold should depend on the embedding model the query was embedded with")
+    void thresholdShouldDependOnEmbeddingModel() {
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-3-small");
+        assertEquals(ModelTier.SMALL, selector.select(tenantId,
+                "What is the notice period?", chunks(0.63, 0.51, 0.47, 0.44)));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "What is the notice period?", chunks(0.41, 0.38, 0.37)));
+
+        when(querySearch.queryEmbeddingModel(tenantId)).thenReturn("text-embedding-ada-002");
+        assertEquals(ModelTier.LARGE, selector.select(tenantId,
+                "What is the notice period?", chunks(0.79, 0.72, 0.70)),
+                "A weak ada-002 match clears a text-embedding-3 threshold but not its own");
+    }
+
+    @Test
+    @DisplayName("A tenant policy should override the classifier, and disabling tiering should skip it")
+    void tenantPolicyShouldOverrideClassifier() {
+        config.setTenantPolicies(Map.of(tenantId, TierPolicy.LARGE));
+        assertEquals(ModelTier.LARGE, selector.select(tenantId, "What is the notice period?", chunks(0.95)));
+        assertEquals(ModelTier.SMALL, selector.select(UUID.randomUUID(), "What is the notice period?", chunks(0.95)));
+
+        config.setEnabled(false);
+        assertNull(selector.select(tenantId, "What is the notice period?", chunks(0.95)));
+    }
+
+    private static List<Document> chunks(double... scores) {
+        return Arrays.stream(scores)
+                .mapToObj(score -> Document.builder().text("chunk").score(score).build())
+                .toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ragengine.usage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UsageMeter — per tenant/model aggregation, incremental flushes,
+ * retry after a failed flush and the metrics.
+ */
+class UsageMeterTest {
+
+    private final UUID tenantA = UUID.randomUUID();
+    private final UUID tenantB = UUID.randomUUID();
+
+    private UsageCounterRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private UsageMeter meter;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UsageCounterRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        meter = new UsageMeter(new UsageConfig(), repository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Usage should be aggregated per tenant and model and exposed as metrics")
+    void usageShouldBeAggregatedPerTenantAndModel() {
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(1200, 150), Duration.ofMillis(800));
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(800, 50), Duration.ofMillis(400));
+        meter.recordChat(tenantA, "gpt-4o-mini", null, Duration.ofMillis(600));
+        meter.recordEmbedding(tenantA, "text-embedding-3-small", List.of("What is RAG?"), Duration.ofMillis(30));
+        meter.recordChat(tenantB, "gpt-4o-mini", new DefaultUsage(100, 10), Duration.ofMillis(200));
+
+        assertEquals(2000, meterRegistry.get("rag.usage.tokens").tag("tenant", tenantA.toString())
+                .tag("model", "gpt-4o-mini").tag("type", "prompt").functionCounter().count());
+        assertEquals(200, meterRegistry.get("rag.usage.tokens").tag("tenant", tenantA.toString())
+                .tag("model", "gpt-4o-mini").tag("type", "completion").functionCounter().count());
+        assertEquals(5, meterRegistry.get("rag.usage.tokens").tag("tenant", tenantA.toString())
+                .tag("model", "text-embedding-3-small").tag("type", "embedding").functionCounter().count());
+        assertEquals(3, meterRegistry.get("rag.usage.latency").tag("tenant", tenantA.toString())
+                .tag("model", "gpt-4o-mini").functionTimer().count());
+
+        when(repository.findByTenantIdAndPeriodStartGreaterThanEqualAndPeriodStartLessThan(any(), any(), any()))
+                .thenReturn(List.of());
+        List<UsageMeter.ModelUsage> report = meter.report(tenantA,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1));
+        assertEquals(List.of(
+                new UsageMeter.ModelUsage("gpt-4o-mini", 3, 2000, 200, 0, 600),
+                new UsageMeter.ModelUsage("text-embedding-3-small", 1, 0, 0, 5, 30)), report);
+    }
+
+    @Test
+    @DisplayName("A flush should write only the usage added since the previous one")
+    void flushShouldWriteDeltas() {
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(1000, 100), Duration.ofMillis(500));
+        meter.flush();
+        meter.flush();
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(300, 30), Duration.ofMillis(250));
+        meter.flush();
+
+        verify(repository).add(eq(tenantA), eq("gpt-4o-mini"), any(), eq(1L), eq(1000L), eq(100L), eq(0L), eq(500L));
+        verify(repository).add(eq(tenantA), eq("gpt-4o-mini"), any(), eq(1L), eq(300L), eq(30L), eq(0L), eq(250L));
+        verify(repository, times(2)).add(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Usage of a failed flush should be written by the next one")
+    void failedFlushShouldBeRetried() {
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(1000, 100), Duration.ofMillis(500));
+        doThrow(new IllegalStateException("Connection refused"))
+                .when(repository).add(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        meter.flush();
+
+        doNothing().when(repository).add(any(), any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        meter.recordChat(tenantA, "gpt-4o-mini", new DefaultUsage(300, 30), Duration.ofMillis(250));
+        meter.flush();
+
+        verify(repository).add(eq(tenantA), eq("gpt-4o-mini"), any(), eq(2L), eq(1300L), eq(130L), eq(0L), eq(750L));
+    }
+}
@@ -0,0 +1,164 @@
+package com.ragengine.vectorstore;
+
+import com.ragengine.compression.ChunkContentCodec;
+import com.ragengine.domain.entity.Tenant;
+import com.ragengine.reindex.IndexGeneration;
+import com.ragengine.reindex.IndexGenerationService;
+import com.ragengine.reindex.IndexGenerationStatus;
+import com.ragengine.repository.DocumentChunkRepository;
+import com.ragengine.repository.TenantRepository;
+import com.ragengine.vectorstore.CompactPgVectorStore.StoredEmbedding;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for EmbeddingDimensionService — the background migration, its progress,
+ * and the deferred deletion of the old copies. The migration repository mock keeps
+ * the rows in memory.
+ */
+class EmbeddingDimensionServiceTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final Map<UUID, DimensionMigration> rows = new ConcurrentHashMap<>();
+
+    private CompactPgVectorStore vectorStore;
+    private JdbcTemplate jdbcTemplate;
+    private DimensionMigrationRepository migrationRepository;
+    private Tenant tenant;
+    private EmbeddingDimensionService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        vectorStore = mock(CompactPgVectorStore.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        migrationRepository = mock(DimensionMigrationRepository.class);
+        IndexGenerationService generations = mock(IndexGenerationService.class);
+        TenantRepository tenantRepository = mock(TenantRepository.class);
+
+        IndexGeneration active = IndexGeneration.builder().id(1).tableName("chunk_embeddings")
+                .embeddingProvider("openai").embeddingModel("text-embedding-3-small").dimensions(1536)
+                .status(IndexGenerationStatus.ACTIVE).build();
+        when(generations.active()).thenReturn(active);
+        when(generations.writeGenerations()).thenReturn(List.of(active));
+        when(generations.listGenerations()).thenReturn(List.of(active));
+        when(generations.tableFor(eq(active), anyInt())).thenAnswer(inv -> inv.<Integer>getArgument(1) >= 1536
+                ? "chunk_embeddings" : "chunk_embeddings_d" + inv.getArgument(1));
+
+        tenant = Tenant.builder().id(tenantId).build();
+        when(tenantRepository.findById(tenantId)).thenReturn(Optional.of(tenant));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*)"), eq(Long.class), any())).thenReturn(2L);
+        when(jdbcTemplate.query(startsWith("SELECT f.id"), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(List.of(embedding(), embedding()))
+                .thenReturn(List.of());
+
+        when(migrationRepository.save(any())).thenAnswer(inv -> {
+            DimensionMigration migration = inv.getArgument(0);
+            if (migration.getId() == null) {
+                migration.setId(UUID.randomUUID());
+                migration.setStartedAt(LocalDateTime.now());
+            }
+            rows.put(migration.getId(), migration);
+            return migration;
+        });
+        when(migrationRepository.findById(any())).thenAnswer(inv ->
+                Optional.ofNullable(rows.get(inv.<UUID>getArgument(0))));
+        when(migrationRepository.findFirstByTenantIdOrderByStartedAtDesc(tenantId)).thenAnswer(inv ->
+                rows.values().stream().findFirst());
+        when(migrationRepository.findFirstByTenantIdAndStatusInOrderByStartedAtDesc(any(), any())).thenAnswer(inv ->
+                rows.values().stream()
+                        .filter(migration -> inv.<Collection<?>>getArgument(1).contains(migration.getStatus()))
+                        .findFirst());
+        when(migrationRepository.findByStatusAndCleanupAfterBefore(any(), any())).thenAnswer(inv ->
+                rows.values().stream()
+                        .filter(migration -> migration.getStatus() == inv.getArgument(0))
+                        .filter(migration -> migration.getCleanupAfter().isBefore(inv.getArgument(1)))
+                        .toList());
+        doAnswer(inv -> {
+            DimensionMigration migration = rows.get(inv.<UUID>getArgument(0));
+            migration.setMigratedEmbeddings(migration.getMigratedEmbeddings() + inv.<Long>getArgument(1));
+            return null;
+        }).when(migrationRepository).addProgress(any(), anyLong());
+
+        service = new EmbeddingDimensionService(vectorStore, generations,
+                new TenantEmbeddingDimensions(tenantRepository), tenantRepository, mock(DocumentChunkRepository.class), mock(ChunkContentCodec.class),
+                new VectorStorageConfig(), jdbcTemplate, new SimpleMeterRegistry(), migrationRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("A change should migrate in the background and keep the old copies until cached settings expire")
+    void changeShouldMigrateInTheBackground() throws Exception {
+        Map<String, Object> started = service.changeDimensions(tenantId, 256);
+        assertEquals(DimensionMigrationStatus.RUNNING, started.get("status"));
+        assertEquals(2L, started.get("totalEmbeddings"));
+
+        DimensionMigration migration = awaitStatus(DimensionMigrationStatus.MIGRATED);
+        assertEquals(256, tenant.getEmbeddingDimensions());
+        assertEquals(2L, migration.getMigratedEmbeddings());
+        assertEquals(100.0, service.getMigration(tenantId).orElseThrow().get("percentComplete"));
+        verify(vectorStore).upsert(eq("chunk_embeddings_d256"),
+                argThat(stored -> stored.size() == 2 && stored.getFirst().embedding().length == 256));
+        assertThrows(IllegalStateException.class, () -> service.changeDimensions(tenantId, 512));
+
+        service.deleteStaleCopies();
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(UUID.class));
+
+        migration.setCleanupAfter(LocalDateTime.now().minusSeconds(1));
+        service.deleteStaleCopies();
+        verify(jdbcTemplate).update("DELETE FROM chunk_embeddings WHERE tenant_id = ?", tenantId);
+        assertEquals(DimensionMigrationStatus.COMPLETED, migration.getStatus());
+    }
+
+    @Test
+    @DisplayName("A failed copy should leave the tenant's setting unchanged")
+    void failedMigrationShouldNotFlip() throws Exception {
+        doThrow(new IllegalStateException("Connection refused")).when(vectorStore).upsert(any(), any());
+
+        service.changeDimensions(tenantId, 256);
+
+        DimensionMigration migration = awaitStatus(DimensionMigrationStatus.FAILED);
+        assertEquals("Connection refused", migration.getLastError());
+        assertNull(tenant.getEmbeddingDimensions());
+    }
+
+    private DimensionMigration awaitStatus(DimensionMigrationStatus status) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            Optional<DimensionMigration> migration = rows.values().stream()
+                    .filter(m -> m.getStatus() == status).findFirst();
+            if (migration.isPresent()) {
+                return migration.get();
+            }
+            Thread.sleep(10);
+        }
+        fail("No migration reached " + status);
+        return null;
+    }
+
+    private StoredEmbedding embedding() {
+        float[] vector = new float[1536];
+        vector[0] = 1;
+        return new StoredEmbedding(UUID.randomUUID(), tenantId, UUID.randomUUID(), vector);
+    }
+}
@@ -0,0 +1,65 @@
+package com.ragengine.vectorstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for EmbeddingTruncation and DimensionRecallEvaluator.
+ * Verifies Matryoshka truncation and the offline recall estimate behind the report.
+ */
+class EmbeddingTruncationTest {
+
+    @Test
+    @DisplayName("Should keep the leading components and renormalize to unit length")
+    void shouldTruncateAndRenormalize() {
+        float[] truncated = EmbeddingTruncation.truncate(new float[]{3, 4, 12, 0}, 2);
+
+        assertEquals(2, truncated.length);
+        assertEquals(0.6f, truncated[0], 1e-6);
+        assertEquals(0.8f, truncated[1], 1e-6);
+    }
+
+    @Test
+    @DisplayName("Should leave embeddings that are not longer than the target untouched")
+    void shouldNotGrowEmbeddings() {
+        float[] embedding = {0.1f, 0.2f};
+        assertSame(embedding, EmbeddingTruncation.truncate(embedding, 4));
+    }
+
+    @Test
+    @DisplayName("Should use native dimensions only for text-embedding-3 models")
+    void shouldDetectNativeSupport() {
+        assertTrue(EmbeddingTruncation.supportsNativeDimensions("openai", "text-embedding-3-small"));
+        assertFalse(EmbeddingTruncation.supportsNativeDimensions("openai", "text-embedding-ada-002"));
+        assertFalse(EmbeddingTruncation.supportsNativeDimensions("ollama", "nomic-embed-text"));
+    }
+
+    @Test
+    @DisplayName("Should report full recall at full size and lower recall when information is cut")
+    void shouldEstimateRecall() {
+        Random random = new Random(42);
+        List<float[]> corpus = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            float[] v = new float[64];
+            for (int j = 0; j < v.length; j++) {
+                // Matryoshka-like: leading components carry most of the variance
+                v[j] = (float) (random.nextGaussian() / (1 + j / 8.0));
+            }
+            corpus.add(v);
+        }
+
+        List<DimensionRecallEvaluator.Result> results = DimensionRecallEvaluator.evaluate(
+                corpus, 50, 10, List.of(8, 32, 64));
+
+        assertEquals(3, results.size());
+        assertEquals(1.0, results.get(2).recallAtK(), 1e-9);
+        assertTrue(results.get(0).recallAtK() < results.get(1).recallAtK());
+        assertTrue(results.get(1).recallAtK() < 1.0);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ragengine.vectorstore;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.vectorstore.filter.FilterExpressionTextParser;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TypedColumnFilterExpressionConverter.
+ * Verifies that RAG filter expressions map onto the typed compact-store columns.
+ */
+class TypedColumnFilterExpressionConverterTest {
+
+    private final TypedColumnFilterExpressionConverter converter = new TypedColumnFilterExpressionConverter();
+    private final FilterExpressionTextParser parser = new FilterExpressionTextParser();
+
+    @Test
+    @DisplayName("Should convert tenant and document filter to typed columns")
+    void shouldConvertTenantAndDocumentFilter() {
+        UUID tenant = UUID.randomUUID();
+        UUID doc1 = UUID.randomUUID();
+        UUID doc2 = UUID.randomUUID();
+
+        String sql = converter.convertExpression(parser.parse(
+                "tenantId == '" + tenant + "' && (documentId == '" + doc1 + "' || documentId == '" + doc2 + "')"));
+
+        assertEquals("tenant_id = '" + tenant + "'::uuid AND (document_id = '" + doc1
+                + "'::uuid OR document_id = '" + doc2 + "'::uuid)", sql);
+    }
+
+    @Test
+    @DisplayName("Should convert IN lists")
+    void shouldConvertInList() {
+        UUID doc1 = UUID.randomUUID();
+        UUID doc2 = UUID.randomUUID();
+
+        String sql = converter.convertExpression(parser.parse(
+                "documentId IN ['" + doc1 + "', '" + doc2 + "']"));
+
+        assertEquals("document_id IN ('" + doc1 + "'::uuid,'" + doc2 + "'::uuid)", sql);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown metadata keys")
+    void shouldRejectUnknownKeys() {
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convertExpression(parser.parse("documentName == 'x'")));
+    }
+
+    @Test
+    @DisplayName("Should reject values that are not UUIDs")
+    void shouldRejectNonUuidValues() {
+        assertThrows(IllegalArgumentException.class,
+                () -> converter.convertExpression(parser.parse("tenantId == 'x'' OR 1=1 --'")));
+    }
+
+    @Test
+    @DisplayName("Should find the tenant a filter is restricted to")
+    void shouldFindTenant() {
+        UUID tenant = UUID.randomUUID();
+        UUID doc = UUID.randomUUID();
+
+        assertEquals(tenant, TypedColumnFilterExpressionConverter.tenantIdOf(parser.parse(
+                "tenantId == '" + tenant + "' && (documentId == '" + doc + "')")).orElseThrow());
+        assertTrue(TypedColumnFilterExpressionConverter.tenantIdOf(parser.parse(
+                "tenantId == '" + tenant + "' || documentId == '" + doc + "'")).isEmpty());
+    }
+}